@@ -0,0 +1,479 @@
+package dev.twme.textdisplayshape.mesh;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Loads Wavefront OBJ and binary STL meshes through a memory-mapped
+ * {@link FileChannel}.
+ *
+ * <p>The {@code stream} methods parse straight from the mapped file into a
+ * {@link TriangleConsumer}: no per-line strings or per-vertex objects are
+ * created, and the file is mapped in windows of at most {@value #WINDOW_SIZE}
+ * bytes so files larger than 2 GB work too. Binary STL streams in constant heap;
+ * OBJ only keeps the vertex positions, because faces may reference any earlier
+ * vertex. Combined with {@link TRSBatcher}, triangles go straight into the
+ * batch TRS solver ({@link #streamTRS(Path, int, TRSBatcher.Listener)}).</p>
+ *
+ * <p>The {@code load} methods build a {@link TriangleMesh} instead. OBJ meshes
+ * keep their shared vertices; STL has no vertex sharing, so every STL triangle
+ * gets its own three vertices.</p>
+ *
+ * <p>Supported OBJ subset: {@code v} and {@code f} statements, with polygonal
+ * faces fan-triangulated and {@code v/vt/vn} and negative (relative) indices
+ * accepted. Other statements are skipped.</p>
+ */
+public final class MeshLoader {
+
+    /**
+     * Maximum number of bytes mapped at once (64 MiB).
+     */
+    public static final int WINDOW_SIZE = 64 << 20;
+
+    private static final int STL_HEADER_SIZE = 84;
+    private static final int STL_RECORD_SIZE = 50;
+
+    private MeshLoader() {
+    }
+
+    /**
+     * Streams the triangles of an OBJ or binary STL file, chosen by the file
+     * extension ({@code .obj} or {@code .stl}).
+     *
+     * @param path     the mesh file
+     * @param consumer receives every triangle in file order
+     * @return the number of triangles streamed
+     * @throws IOException if the file cannot be read, is malformed or has an unknown extension
+     */
+    public static long stream(Path path, TriangleConsumer consumer) throws IOException {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".obj")) {
+            return streamObj(path, consumer);
+        }
+        if (name.endsWith(".stl")) {
+            return streamStl(path, consumer);
+        }
+        throw new IOException("Unsupported mesh format (expected .obj or .stl): " + path);
+    }
+
+    /**
+     * Streams a mesh file into the batch TRS solver.
+     *
+     * @param path           the mesh file ({@code .obj} or {@code .stl})
+     * @param batchTriangles the number of triangles solved per batch
+     * @param listener       receives every solved batch; the buffer is reused between calls
+     * @return the number of triangles solved
+     * @throws IOException if the file cannot be read, is malformed or has an unknown extension
+     * @see TRSBatcher
+     */
+    public static long streamTRS(Path path, int batchTriangles, TRSBatcher.Listener listener) throws IOException {
+        TRSBatcher batcher = new TRSBatcher(batchTriangles, listener);
+        stream(path, batcher);
+        batcher.flush();
+        return batcher.solvedTriangles();
+    }
+
+    /**
+     * Loads an OBJ or binary STL file, chosen by the file extension.
+     *
+     * @param path the mesh file
+     * @return the mesh
+     * @throws IOException if the file cannot be read, is malformed or has an unknown extension
+     */
+    public static TriangleMesh load(Path path) throws IOException {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".obj")) {
+            return loadObj(path);
+        }
+        if (name.endsWith(".stl")) {
+            return loadStl(path);
+        }
+        throw new IOException("Unsupported mesh format (expected .obj or .stl): " + path);
+    }
+
+    /**
+     * Streams the triangles of a binary STL file.
+     *
+     * @param path     the STL file
+     * @param consumer receives every triangle in file order
+     * @return the number of triangles streamed
+     * @throws IOException if the file cannot be read or is not a binary STL file
+     */
+    public static long streamStl(Path path, TriangleConsumer consumer) throws IOException {
+        return streamStl(path, consumer, WINDOW_SIZE);
+    }
+
+    /**
+     * Streams the triangles of a binary STL file, mapping at most
+     * {@code windowSize} bytes (rounded down to whole records) at once.
+     */
+    static long streamStl(Path path, TriangleConsumer consumer, int windowSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long count = readStlCount(channel, path);
+            long recordsPerWindow = Math.max(1, windowSize / STL_RECORD_SIZE);
+            for (long first = 0; first < count; first += recordsPerWindow) {
+                int records = (int) Math.min(recordsPerWindow, count - first);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY,
+                        STL_HEADER_SIZE + first * STL_RECORD_SIZE, (long) records * STL_RECORD_SIZE);
+                window.order(ByteOrder.LITTLE_ENDIAN);
+                for (int r = 0; r < records; r++) {
+                    // Skip the 12-byte facet normal; the winding defines the facing
+                    int o = r * STL_RECORD_SIZE + 12;
+                    consumer.accept(
+                            window.getFloat(o), window.getFloat(o + 4), window.getFloat(o + 8),
+                            window.getFloat(o + 12), window.getFloat(o + 16), window.getFloat(o + 20),
+                            window.getFloat(o + 24), window.getFloat(o + 28), window.getFloat(o + 32));
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Loads a binary STL file.
+     *
+     * @param path the STL file
+     * @return the mesh, with three unshared vertices per triangle
+     * @throws IOException if the file cannot be read or is not a binary STL file
+     */
+    public static TriangleMesh loadStl(Path path) throws IOException {
+        long count;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            count = readStlCount(channel, path);
+        }
+        if (count * 9 > Integer.MAX_VALUE - 8) {
+            throw new IOException("STL file has too many triangles to load at once (" + count + "), stream it instead: " + path);
+        }
+        float[] vertices = new float[(int) count * 9];
+        int[] indices = new int[(int) count * 3];
+        int[] offset = {0};
+        streamStl(path, (x1, y1, z1, x2, y2, z2, x3, y3, z3) -> {
+            int o = offset[0];
+            vertices[o] = x1; vertices[o + 1] = y1; vertices[o + 2] = z1;
+            vertices[o + 3] = x2; vertices[o + 4] = y2; vertices[o + 5] = z2;
+            vertices[o + 6] = x3; vertices[o + 7] = y3; vertices[o + 8] = z3;
+            offset[0] = o + 9;
+        });
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        return new TriangleMesh(vertices, indices);
+    }
+
+    private static long readStlCount(FileChannel channel, Path path) throws IOException {
+        long size = channel.size();
+        if (size < STL_HEADER_SIZE) {
+            throw new IOException("Not a binary STL file (too short): " + path);
+        }
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, STL_HEADER_SIZE);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        long count = Integer.toUnsignedLong(header.getInt(80));
+        long expected = STL_HEADER_SIZE + count * STL_RECORD_SIZE;
+        if (expected != size) {
+            throw new IOException("Not a binary STL file (" + count + " triangles need " + expected
+                    + " bytes, file has " + size + "); ASCII STL is not supported: " + path);
+        }
+        return count;
+    }
+
+    /**
+     * Streams the triangles of an OBJ file.
+     *
+     * @param path     the OBJ file
+     * @param consumer receives every triangle in file order
+     * @return the number of triangles streamed
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static long streamObj(Path path, TriangleConsumer consumer) throws IOException {
+        return streamObj(path, consumer, WINDOW_SIZE);
+    }
+
+    /**
+     * Streams the triangles of an OBJ file, mapping at most {@code windowSize}
+     * bytes at once.
+     */
+    static long streamObj(Path path, TriangleConsumer consumer, int windowSize) throws IOException {
+        ObjParser parser = new ObjParser(path, consumer, null, windowSize);
+        parser.parse();
+        return parser.triangles;
+    }
+
+    /**
+     * Loads an OBJ file, keeping its shared vertices.
+     *
+     * @param path the OBJ file
+     * @return the mesh
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static TriangleMesh loadObj(Path path) throws IOException {
+        return loadObj(path, WINDOW_SIZE);
+    }
+
+    /**
+     * Loads an OBJ file, mapping at most {@code windowSize} bytes at once.
+     */
+    static TriangleMesh loadObj(Path path, int windowSize) throws IOException {
+        IntArray indices = new IntArray();
+        ObjParser parser = new ObjParser(path, null, indices, windowSize);
+        parser.parse();
+        return new TriangleMesh(Arrays.copyOf(parser.positions, parser.vertexCount * 3), indices.toArray());
+    }
+
+    /**
+     * Growable int array used for collected indices.
+     */
+    private static final class IntArray {
+        int[] data = new int[1024];
+        int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            data[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+
+    /**
+     * Byte-level OBJ parser over mapped windows. Faces are either streamed as
+     * coordinates to a consumer or collected as indices.
+     */
+    private static final class ObjParser {
+        private static final double[] POWERS_OF_TEN = {
+                1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+                1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+        private final Path path;
+        private final TriangleConsumer consumer;
+        private final IntArray indices;
+        private final int windowSize;
+
+        float[] positions = new float[3 * 1024];
+        int vertexCount;
+        long triangles;
+        private int[] face = new int[16];
+
+        private MappedByteBuffer buffer;
+        private int p;
+        private int limit;
+        private long windowStart;
+
+        ObjParser(Path path, TriangleConsumer consumer, IntArray indices, int windowSize) {
+            this.path = path;
+            this.consumer = consumer;
+            this.indices = indices;
+            this.windowSize = windowSize;
+        }
+
+        void parse() throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                long position = 0;
+                while (position < size) {
+                    int length = (int) Math.min(windowSize, size - position);
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                    windowStart = position;
+                    // Only parse complete lines; the last partial line starts the next window
+                    int end = length;
+                    if (position + length < size) {
+                        end = length - 1;
+                        while (end >= 0 && buffer.get(end) != '\n') end--;
+                        if (end < 0) {
+                            throw error("Line longer than " + windowSize + " bytes");
+                        }
+                        end++;
+                    }
+                    p = 0;
+                    limit = end;
+                    while (p < limit) {
+                        parseLine();
+                    }
+                    position += end;
+                }
+            }
+        }
+
+        private void parseLine() throws IOException {
+            skipSpaces();
+            if (p < limit) {
+                byte c = buffer.get(p);
+                if (c == 'v' && isSpace(p + 1)) {
+                    p++;
+                    addVertex(parseFloat(), parseFloat(), parseFloat());
+                } else if (c == 'f' && isSpace(p + 1)) {
+                    p++;
+                    parseFace();
+                }
+            }
+            // Skip the rest of the line (comments, other statements, optional w)
+            while (p < limit && buffer.get(p) != '\n') p++;
+            p++;
+        }
+
+        private void addVertex(float x, float y, float z) {
+            if ((vertexCount + 1) * 3 > positions.length) {
+                positions = Arrays.copyOf(positions, positions.length * 2);
+            }
+            int o = vertexCount * 3;
+            positions[o] = x;
+            positions[o + 1] = y;
+            positions[o + 2] = z;
+            vertexCount++;
+        }
+
+        private void parseFace() throws IOException {
+            int n = 0;
+            while (true) {
+                skipSpaces();
+                if (p >= limit || buffer.get(p) == '\n' || buffer.get(p) == '#') break;
+                int index = parseInt();
+                // Skip "/vt/vn"
+                while (p < limit && buffer.get(p) != '\n' && !isSpace(p)) p++;
+                int resolved = index > 0 ? index - 1 : vertexCount + index;
+                if (index == 0 || resolved < 0 || resolved >= vertexCount) {
+                    throw error("Face references undefined vertex " + index);
+                }
+                if (n == face.length) {
+                    face = Arrays.copyOf(face, n * 2);
+                }
+                face[n++] = resolved;
+            }
+            if (n < 3) {
+                throw error("Face has fewer than 3 vertices");
+            }
+            for (int i = 2; i < n; i++) {
+                emit(face[0], face[i - 1], face[i]);
+            }
+        }
+
+        private void emit(int a, int b, int c) {
+            triangles++;
+            if (indices != null) {
+                indices.add(a);
+                indices.add(b);
+                indices.add(c);
+                return;
+            }
+            float[] v = positions;
+            consumer.accept(v[a * 3], v[a * 3 + 1], v[a * 3 + 2],
+                    v[b * 3], v[b * 3 + 1], v[b * 3 + 2],
+                    v[c * 3], v[c * 3 + 1], v[c * 3 + 2]);
+        }
+
+        private boolean isSpace(int at) {
+            if (at >= limit) return false;
+            byte c = buffer.get(at);
+            return c == ' ' || c == '\t' || c == '\r';
+        }
+
+        private void skipSpaces() {
+            while (isSpace(p)) p++;
+        }
+
+        private int parseInt() throws IOException {
+            boolean negative = false;
+            if (p < limit && buffer.get(p) == '-') {
+                negative = true;
+                p++;
+            }
+            int start = p;
+            long value = 0;
+            while (p < limit) {
+                int d = buffer.get(p) - '0';
+                if (d < 0 || d > 9) break;
+                value = value * 10 + d;
+                if (value > Integer.MAX_VALUE) throw error("Index out of range");
+                p++;
+            }
+            if (p == start) throw error("Expected a vertex index");
+            return (int) (negative ? -value : value);
+        }
+
+        private float parseFloat() throws IOException {
+            skipSpaces();
+            boolean negative = false;
+            if (p < limit && (buffer.get(p) == '-' || buffer.get(p) == '+')) {
+                negative = buffer.get(p) == '-';
+                p++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int exponent = 0;
+            boolean any = false;
+            while (p < limit) {
+                int d = buffer.get(p) - '0';
+                if (d < 0 || d > 9) break;
+                any = true;
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + d;
+                    if (mantissa != 0) digits++;
+                } else {
+                    exponent++;
+                }
+                p++;
+            }
+            if (p < limit && buffer.get(p) == '.') {
+                p++;
+                while (p < limit) {
+                    int d = buffer.get(p) - '0';
+                    if (d < 0 || d > 9) break;
+                    any = true;
+                    if (digits < 18) {
+                        mantissa = mantissa * 10 + d;
+                        exponent--;
+                        if (mantissa != 0) digits++;
+                    }
+                    p++;
+                }
+            }
+            if (!any) throw error("Expected a number");
+            if (p < limit && (buffer.get(p) == 'e' || buffer.get(p) == 'E')) {
+                p++;
+                exponent += parseExponent();
+            }
+            double value = mantissa;
+            if (exponent != 0 && mantissa != 0) {
+                int magnitude = Math.abs(exponent);
+                double scale = magnitude < POWERS_OF_TEN.length ? POWERS_OF_TEN[magnitude] : Math.pow(10, magnitude);
+                value = exponent > 0 ? value * scale : value / scale;
+            }
+            return (float) (negative ? -value : value);
+        }
+
+        /**
+         * Parses the signed decimal exponent after the 'e' of a number.
+         */
+        private int parseExponent() throws IOException {
+            boolean negative = false;
+            if (p < limit && (buffer.get(p) == '-' || buffer.get(p) == '+')) {
+                negative = buffer.get(p) == '-';
+                p++;
+            }
+            int start = p;
+            int value = 0;
+            while (p < limit) {
+                int d = buffer.get(p) - '0';
+                if (d < 0 || d > 9) break;
+                // Saturate; any exponent this large already makes a float 0 or infinite
+                if (value < 100_000) value = value * 10 + d;
+                p++;
+            }
+            if (p == start) throw error("Expected exponent digits");
+            return negative ? -value : value;
+        }
+
+        private IOException error(String message) {
+            return new IOException(message + " at byte " + (windowStart + p) + " of " + path);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package dev.twme.textdisplayshape.mesh;
+
+import dev.twme.textdisplayshape.util.TextDisplayUtil;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Mesh optimization stages that reduce the number of TextDisplay entities
+ * needed to render a {@link TriangleMesh}.
+ */
+public final class MeshOptimizer {
+
+    /**
+     * Default tolerance, in mesh units, for {@link #mergeParallelograms(TriangleMesh)}.
+     */
+    public static final float DEFAULT_PARALLELOGRAM_TOLERANCE = 1e-4f;
+
+    private MeshOptimizer() {
+    }
+
+    /**
+     * Merges triangle pairs that form a parallelogram using
+     * {@link #DEFAULT_PARALLELOGRAM_TOLERANCE}.
+     *
+     * @param mesh the mesh to optimize
+     * @return the parallelograms and remaining triangles
+     * @see #mergeParallelograms(TriangleMesh, float)
+     */
+    public static OptimizedMesh mergeParallelograms(TriangleMesh mesh) {
+        return mergeParallelograms(mesh, DEFAULT_PARALLELOGRAM_TOLERANCE);
+    }
+
+    /**
+     * Merges pairs of triangles that share an edge and together form a
+     * parallelogram, so each pair renders as one entity instead of
+     * {@code 2 * TRIANGLE_PIECE_COUNT}.
+     * <p>
+     * Two triangles {@code (u, v, a)} and {@code (v, u, b)} that share the edge
+     * {@code u-v} in opposite directions (so they face the same way) form a
+     * parallelogram exactly when its diagonals bisect each other, i.e. the
+     * midpoints of {@code u-v} and {@code a-b} coincide. That also implies the
+     * four vertices are coplanar. Pairs are matched greedily in triangle order,
+     * first across shared edges that are the longest edge of both triangles
+     * (the diagonal of a triangulated quad), then across any shared edge. Every
+     * triangle is used at most once.
+     *
+     * @param mesh      the mesh to optimize
+     * @param tolerance maximum distance, in mesh units, between the two diagonal midpoints
+     * @return the parallelograms and remaining triangles
+     */
+    public static OptimizedMesh mergeParallelograms(TriangleMesh mesh, float tolerance) {
+        float[] v = mesh.vertices;
+        int[] indices = mesh.indices;
+        int triangleCount = mesh.triangleCount();
+
+        // Directed edge (from, to) -> triangle owning it
+        Map<Long, Integer> edges = new HashMap<>(triangleCount * 4);
+        for (int t = 0; t < triangleCount; t++) {
+            for (int k = 0; k < 3; k++) {
+                edges.putIfAbsent(edgeKey(indices[t * 3 + k], indices[t * 3 + (k + 1) % 3]), t);
+            }
+        }
+
+        // Compare doubled midpoints: |u + v - a - b| <= 2 * tolerance
+        float limit = 4f * tolerance * tolerance;
+        boolean[] merged = new boolean[triangleCount];
+        int[] parallelograms = new int[(triangleCount / 2) * 3];
+        int parallelogramCount = 0;
+
+        // First pass pairs only across the longest edge of both triangles, which is the
+        // diagonal of a triangulated quad; the second pass takes any remaining pair.
+        for (int pass = 0; pass < 2; pass++) {
+            boolean diagonalsOnly = pass == 0;
+            for (int t = 0; t < triangleCount; t++) {
+                if (merged[t]) continue;
+                for (int k = 0; k < 3; k++) {
+                    int u = indices[t * 3 + k];
+                    int w = indices[t * 3 + (k + 1) % 3];
+                    int a = indices[t * 3 + (k + 2) % 3];
+                    if (u == w) continue;
+                    Integer other = edges.get(edgeKey(w, u));
+                    if (other == null || other == t || merged[other]) continue;
+                    int b = thirdVertex(indices, other, u, w);
+                    if (b < 0) continue;
+                    if (diagonalsOnly && !(isLongestEdge(v, u, w, a) && isLongestEdge(v, u, w, b))) continue;
+
+                    float dx = v[u * 3] + v[w * 3] - v[a * 3] - v[b * 3];
+                    float dy = v[u * 3 + 1] + v[w * 3 + 1] - v[a * 3 + 1] - v[b * 3 + 1];
+                    float dz = v[u * 3 + 2] + v[w * 3 + 2] - v[a * 3 + 2] - v[b * 3 + 2];
+                    if (dx * dx + dy * dy + dz * dz > limit) continue;
+
+                    // Corner a with neighbors u and w keeps the winding of (u, w, a)
+                    merged[t] = true;
+                    merged[other] = true;
+                    parallelograms[parallelogramCount * 3] = a;
+                    parallelograms[parallelogramCount * 3 + 1] = u;
+                    parallelograms[parallelogramCount * 3 + 2] = w;
+                    parallelogramCount++;
+                    break;
+                }
+            }
+        }
+
+        int[] triangles = new int[(triangleCount - parallelogramCount * 2) * 3];
+        int triangleOffset = 0;
+        for (int t = 0; t < triangleCount; t++) {
+            if (merged[t]) continue;
+            System.arraycopy(indices, t * 3, triangles, triangleOffset, 3);
+            triangleOffset += 3;
+        }
+
+        int[] parallelogramIndices = parallelogramCount * 3 == parallelograms.length
+                ? parallelograms : Arrays.copyOf(parallelograms, parallelogramCount * 3);
+        return new OptimizedMesh(v, parallelogramIndices, triangles);
+    }
+
+    /**
+     * Merges vertices that lie within {@code tolerance} of each other and drops
+     * triangles that become degenerate. Formats without shared vertices, such as
+     * STL, need this before {@link #mergeParallelograms(TriangleMesh, float)} or
+     * {@link #simplify(TriangleMesh, int, float)} can see which triangles are
+     * connected.
+     *
+     * @param mesh      the mesh to weld
+     * @param tolerance maximum distance, in mesh units, between merged vertices;
+     *                  0 merges exact duplicates only
+     * @return a new mesh; the first vertex of each merged group keeps its position
+     */
+    public static TriangleMesh weldVertices(TriangleMesh mesh, float tolerance) {
+        float[] v = mesh.vertices;
+        int vertexCount = mesh.vertexCount();
+        float[] welded = new float[v.length];
+        int[] remap = new int[vertexCount];
+        // Spatial hash: cell -> last welded vertex in it, chained through next
+        Map<Long, Integer> cells = new HashMap<>(vertexCount * 2);
+        int[] next = new int[vertexCount];
+        int reach = tolerance > 0f ? 1 : 0;
+        float limit = tolerance * tolerance;
+        int count = 0;
+        for (int i = 0; i < vertexCount; i++) {
+            float x = v[i * 3], y = v[i * 3 + 1], z = v[i * 3 + 2];
+            long cx = cell(x, tolerance), cy = cell(y, tolerance), cz = cell(z, tolerance);
+            int found = -1;
+            search:
+            for (int dx = -reach; dx <= reach; dx++) {
+                for (int dy = -reach; dy <= reach; dy++) {
+                    for (int dz = -reach; dz <= reach; dz++) {
+                        Integer head = cells.get(cellKey(cx + dx, cy + dy, cz + dz));
+                        for (int w = head == null ? -1 : head; w >= 0; w = next[w]) {
+                            float ex = welded[w * 3] - x, ey = welded[w * 3 + 1] - y, ez = welded[w * 3 + 2] - z;
+                            if (ex * ex + ey * ey + ez * ez <= limit) {
+                                found = w;
+                                break search;
+                            }
+                        }
+                    }
+                }
+            }
+            if (found < 0) {
+                found = count++;
+                welded[found * 3] = x;
+                welded[found * 3 + 1] = y;
+                welded[found * 3 + 2] = z;
+                Integer head = cells.put(cellKey(cx, cy, cz), found);
+                next[found] = head == null ? -1 : head;
+            }
+            remap[i] = found;
+        }
+
+        int[] indices = mesh.indices;
+        int[] weldedIndices = new int[indices.length];
+        int offset = 0;
+        for (int t = 0; t < indices.length; t += 3) {
+            int a = remap[indices[t]], b = remap[indices[t + 1]], c = remap[indices[t + 2]];
+            if (a == b || b == c || c == a) continue;
+            weldedIndices[offset++] = a;
+            weldedIndices[offset++] = b;
+            weldedIndices[offset++] = c;
+        }
+        return new TriangleMesh(Arrays.copyOf(welded, count * 3), Arrays.copyOf(weldedIndices, offset));
+    }
+
+    /**
+     * Simplifies a mesh down to {@code targetTriangles} triangles, however much
+     * error that introduces.
+     *
+     * @param mesh            the mesh to simplify (with shared vertices, see
+     *                        {@link #weldVertices(TriangleMesh, float)})
+     * @param targetTriangles the maximum number of triangles to keep
+     * @return the simplified mesh
+     * @see #simplify(TriangleMesh, int, float)
+     */
+    public static TriangleMesh simplify(TriangleMesh mesh, int targetTriangles) {
+        return simplify(mesh, targetTriangles, Float.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Simplifies a mesh with quadric error edge collapses, cheapest first, until
+     * it has at most {@code targetTriangles} triangles or the next collapse would
+     * move the surface by more than {@code maxError}.
+     * <p>
+     * The error of a collapse is the root of the summed squared distances from
+     * the new vertex to the planes of the original triangles around it. Open
+     * borders are weighted heavily so flat shapes keep their outline, and
+     * collapses that would flip a triangle are skipped, so the target may not be
+     * reached exactly. Use {@link #maxTrianglesForEntities(int, boolean)} to turn
+     * an entity budget into a triangle target.
+     *
+     * @param mesh            the mesh to simplify (with shared vertices, see
+     *                        {@link #weldVertices(TriangleMesh, float)})
+     * @param targetTriangles the maximum number of triangles to keep
+     * @param maxError        the largest error, in mesh units, a collapse may introduce
+     * @return the simplified mesh, with unused vertices removed
+     */
+    public static TriangleMesh simplify(TriangleMesh mesh, int targetTriangles, float maxError) {
+        return QuadricSimplifier.simplify(mesh, targetTriangles, maxError);
+    }
+
+    /**
+     * Gets the number of triangles that can be rendered with at most
+     * {@code entities} TextDisplay entities.
+     *
+     * @param entities    the entity budget
+     * @param doubleSided whether every triangle is rendered from both sides
+     * @return the triangle count
+     */
+    public static int maxTrianglesForEntities(int entities, boolean doubleSided) {
+        return entities / (TextDisplayUtil.TRIANGLE_PIECE_COUNT * (doubleSided ? 2 : 1));
+    }
+
+    private static long cell(float coordinate, float size) {
+        if (size > 0f) {
+            return (long) Math.floor(coordinate / size);
+        }
+        // Exact matching; +0 and -0 share a cell
+        return Float.floatToIntBits(coordinate + 0f);
+    }
+
+    private static long cellKey(long x, long y, long z) {
+        // Colliding cells only add candidates, which are checked by distance
+        return x * 73856093L ^ y * 19349663L ^ z * 83492791L;
+    }
+
+    /**
+     * Checks whether {@code u-w} is at least as long as the other two edges of the
+     * triangle {@code (u, w, a)}.
+     */
+    private static boolean isLongestEdge(float[] v, int u, int w, int a) {
+        float shared = distanceSquared(v, u, w);
+        return shared >= distanceSquared(v, w, a) && shared >= distanceSquared(v, a, u);
+    }
+
+    private static float distanceSquared(float[] v, int i, int j) {
+        float dx = v[i * 3] - v[j * 3];
+        float dy = v[i * 3 + 1] - v[j * 3 + 1];
+        float dz = v[i * 3 + 2] - v[j * 3 + 2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static long edgeKey(int from, int to) {
+        return ((long) from << 32) | (to & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Finds the vertex of triangle {@code t} that is neither {@code u} nor {@code w}.
+     *
+     * @return the vertex index, or -1 if the triangle is degenerate
+     */
+    private static int thirdVertex(int[] indices, int t, int u, int w) {
+        for (int k = 0; k < 3; k++) {
+            int index = indices[t * 3 + k];
+            if (index != u && index != w) return index;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,105 @@
+package dev.twme.textdisplayshape.mesh;
+
+import dev.twme.textdisplayshape.util.TRSBuffer;
+import dev.twme.textdisplayshape.util.TextDisplayUtil;
+
+/**
+ * A mesh split into parallelograms and the remaining triangles, as produced by
+ * {@link MeshOptimizer#mergeParallelograms(TriangleMesh, float)}.
+ *
+ * <p>Parallelogram {@code p} is given by the vertex indices
+ * {@code parallelogramIndices[3p..3p+2]} in the argument order of
+ * {@link TextDisplayUtil#computeParallelogramTRS(float[], int[], TRSBuffer)}:
+ * a corner followed by its two neighbors. Each parallelogram renders as one
+ * TextDisplay entity, while each remaining triangle needs
+ * {@link TextDisplayUtil#TRIANGLE_PIECE_COUNT} entities.</p>
+ */
+public class OptimizedMesh {
+    public final float[] vertices;
+    public final int[] parallelogramIndices;
+    public final int[] triangleIndices;
+
+    /**
+     * Creates an optimized mesh over the given arrays without copying them.
+     *
+     * @param vertices             vertex positions, three floats per vertex
+     * @param parallelogramIndices vertex indices, three per parallelogram
+     * @param triangleIndices      vertex indices, three per triangle
+     */
+    public OptimizedMesh(float[] vertices, int[] parallelogramIndices, int[] triangleIndices) {
+        this.vertices = vertices;
+        this.parallelogramIndices = parallelogramIndices;
+        this.triangleIndices = triangleIndices;
+    }
+
+    /**
+     * Gets the number of parallelograms.
+     *
+     * @return the parallelogram count
+     */
+    public int parallelogramCount() {
+        return parallelogramIndices.length / 3;
+    }
+
+    /**
+     * Gets the number of remaining triangles.
+     *
+     * @return the triangle count
+     */
+    public int triangleCount() {
+        return triangleIndices.length / 3;
+    }
+
+    /**
+     * Gets the number of TextDisplay pieces needed to render this mesh.
+     *
+     * @return the piece count
+     */
+    public int pieceCount() {
+        return parallelogramCount() + triangleCount() * TextDisplayUtil.TRIANGLE_PIECE_COUNT;
+    }
+
+    /**
+     * Gets the same mesh seen from the other side. The vertex array is shared;
+     * only the winding of every parallelogram and triangle is flipped.
+     *
+     * @return the reversed mesh
+     */
+    public OptimizedMesh reversed() {
+        return new OptimizedMesh(vertices, reverseWinding(parallelogramIndices), reverseWinding(triangleIndices));
+    }
+
+    private static int[] reverseWinding(int[] indices) {
+        int[] reversed = indices.clone();
+        for (int i = 0; i + 2 < reversed.length; i += 3) {
+            reversed[i + 1] = indices[i + 2];
+            reversed[i + 2] = indices[i + 1];
+        }
+        return reversed;
+    }
+
+    /**
+     * Computes the TRS of every piece: the parallelograms first, then the pieces
+     * of the remaining triangles.
+     *
+     * @param dest the buffer to fill, with a capacity of at least {@link #pieceCount()}
+     * @return the number of pieces written
+     * @throws IndexOutOfBoundsException if {@code dest} is too small
+     */
+    public int computeTRS(TRSBuffer dest) {
+        int written = TextDisplayUtil.computeParallelogramTRS(vertices, parallelogramIndices, dest);
+        return written + TextDisplayUtil.computeTriangleTRS(vertices, triangleIndices, 0, triangleCount(), dest, written);
+    }
+
+    /**
+     * Computes the TRS of every piece into a new buffer.
+     *
+     * @return a buffer holding {@link #pieceCount()} pieces
+     * @see #computeTRS(TRSBuffer)
+     */
+    public TRSBuffer computeTRS() {
+        TRSBuffer buffer = new TRSBuffer(pieceCount());
+        computeTRS(buffer);
+        return buffer;
+    }
+}
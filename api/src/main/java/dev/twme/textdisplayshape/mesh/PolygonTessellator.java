@@ -0,0 +1,397 @@
+package dev.twme.textdisplayshape.mesh;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.joml.Vector3fc;
+
+/**
+ * Tessellates a filled planar polygon into as few TextDisplay pieces as
+ * possible.
+ *
+ * <p>The outline is projected onto its plane and cut into trapezoids by a sweep
+ * perpendicular to its longest edge, so axis-aligned (rectilinear) outlines
+ * decompose into rectangles only. Runs of collinear points are merged into one
+ * edge first. Trapezoids of consecutive slabs that are bounded by the same two
+ * edges are joined. Each trapezoid then becomes one parallelogram when its
+ * parallel sides have the same length, or a parallelogram plus one leftover
+ * triangle otherwise.</p>
+ *
+ * <p>Every piece keeps the winding of the outline, so the outline order selects
+ * the visible side the same way the vertex order of a triangle does. Reverse
+ * the outline for the back face. Self-intersecting outlines are filled with the
+ * even-odd rule; the sweep also stops at every point where two edges cross. The
+ * plane and visible side come from the signed area of the outline, so an
+ * outline whose loops cancel out (such as a symmetric figure eight) has no area
+ * and produces no pieces.</p>
+ */
+public final class PolygonTessellator {
+
+    /**
+     * Default tolerance, in world units, for {@link #tessellate(List)}.
+     */
+    public static final float DEFAULT_TOLERANCE = 1e-4f;
+
+    private PolygonTessellator() {
+    }
+
+    /**
+     * Tessellates a polygon using {@link #DEFAULT_TOLERANCE}.
+     *
+     * @param outline the polygon vertices in order (at least 3)
+     * @return the parallelograms and leftover triangles
+     * @see #tessellate(List, float)
+     */
+    public static OptimizedMesh tessellate(List<? extends Vector3fc> outline) {
+        return tessellate(outline, DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * Tessellates a polygon into parallelograms and leftover triangles.
+     *
+     * @param outline   the polygon vertices in order (at least 3); points off the
+     *                  polygon plane are projected onto it
+     * @param tolerance distance, in world units, below which sweep positions are
+     *                  merged and trapezoid sides are treated as equal
+     * @return the parallelograms and leftover triangles; empty if the outline has
+     *         fewer than 3 points or no area
+     */
+    public static OptimizedMesh tessellate(List<? extends Vector3fc> outline, float tolerance) {
+        int n = outline.size();
+        if (n < 3) {
+            return empty();
+        }
+
+        // Plane normal by Newell's method; its length is twice the polygon area
+        double nx = 0, ny = 0, nz = 0;
+        for (int i = 0; i < n; i++) {
+            Vector3fc a = outline.get(i);
+            Vector3fc b = outline.get((i + 1) % n);
+            nx += (double) (a.y() - b.y()) * (a.z() + b.z());
+            ny += (double) (a.z() - b.z()) * (a.x() + b.x());
+            nz += (double) (a.x() - b.x()) * (a.y() + b.y());
+        }
+        double normalLength = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        if (normalLength <= tolerance * tolerance) {
+            return empty();
+        }
+        nx /= normalLength;
+        ny /= normalLength;
+        nz /= normalLength;
+
+        // Sweep axes: u along the longest edge (in the plane), v = n x u
+        int longest = 0;
+        double longestLength = -1;
+        for (int i = 0; i < n; i++) {
+            Vector3fc a = outline.get(i);
+            Vector3fc b = outline.get((i + 1) % n);
+            double dx = b.x() - a.x(), dy = b.y() - a.y(), dz = b.z() - a.z();
+            double d = dx * nx + dy * ny + dz * nz;
+            dx -= d * nx;
+            dy -= d * ny;
+            dz -= d * nz;
+            double length = dx * dx + dy * dy + dz * dz;
+            if (length > longestLength) {
+                longestLength = length;
+                longest = i;
+            }
+        }
+        Vector3fc edgeStart = outline.get(longest);
+        Vector3fc edgeEnd = outline.get((longest + 1) % n);
+        double ux = edgeEnd.x() - edgeStart.x(), uy = edgeEnd.y() - edgeStart.y(), uz = edgeEnd.z() - edgeStart.z();
+        double ud = ux * nx + uy * ny + uz * nz;
+        ux -= ud * nx;
+        uy -= ud * ny;
+        uz -= ud * nz;
+        double uLength = Math.sqrt(ux * ux + uy * uy + uz * uz);
+        ux /= uLength;
+        uy /= uLength;
+        uz /= uLength;
+        double vx = ny * uz - nz * uy;
+        double vy = nz * ux - nx * uz;
+        double vz = nx * uy - ny * ux;
+
+        // Project into plane coordinates (x along u, y along v) relative to the first point
+        Vector3fc base = outline.get(0);
+        double[] projectedX = new double[n];
+        double[] projectedY = new double[n];
+        for (int i = 0; i < n; i++) {
+            Vector3fc p = outline.get(i);
+            double dx = p.x() - base.x(), dy = p.y() - base.y(), dz = p.z() - base.z();
+            projectedX[i] = dx * ux + dy * uy + dz * uz;
+            projectedY[i] = dx * vx + dy * vy + dz * vz;
+        }
+
+        // A collinear point splits an edge in two, which would keep the trapezoids
+        // on either side of it from being joined
+        int[] kept = removeCollinear(projectedX, projectedY, tolerance);
+        n = kept.length;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = projectedX[kept[i]];
+            ys[i] = projectedY[kept[i]];
+        }
+
+        // Sweep positions: the distinct vertex and edge crossing heights, merged within
+        // the tolerance. Crossing edges swap order, so no slab may contain a crossing.
+        double[] sorted = sweepHeights(xs, ys);
+        Arrays.sort(sorted);
+        double[] levels = new double[sorted.length];
+        int levelCount = 0;
+        for (double y : sorted) {
+            if (levelCount == 0 || y - levels[levelCount - 1] > tolerance) {
+                levels[levelCount++] = y;
+            }
+        }
+
+        Builder out = new Builder(base, ux, uy, uz, vx, vy, vz);
+        // Open trapezoids keyed by their (left edge, right edge) pair
+        Map<Long, double[]> open = new HashMap<>();
+        List<Integer> crossing = new ArrayList<>();
+        for (int level = 0; level + 1 < levelCount; level++) {
+            double y0 = levels[level];
+            double y1 = levels[level + 1];
+            double mid = (y0 + y1) * 0.5;
+
+            crossing.clear();
+            for (int e = 0; e < n; e++) {
+                double ya = ys[e], yb = ys[(e + 1) % n];
+                if (Math.min(ya, yb) < mid && Math.max(ya, yb) > mid) {
+                    crossing.add(e);
+                }
+            }
+            crossing.sort((a, b) -> Double.compare(edgeX(xs, ys, a, mid), edgeX(xs, ys, b, mid)));
+
+            Map<Long, double[]> next = new HashMap<>();
+            for (int i = 0; i + 1 < crossing.size(); i += 2) {
+                int left = crossing.get(i);
+                int right = crossing.get(i + 1);
+                long key = ((long) left << 32) | right;
+                double[] trapezoid = open.remove(key);
+                if (trapezoid == null) {
+                    trapezoid = new double[]{left, right, y0, y1};
+                } else {
+                    trapezoid[3] = y1;
+                }
+                next.put(key, trapezoid);
+            }
+            for (double[] closed : open.values()) {
+                emit(out, xs, ys, closed, tolerance);
+            }
+            open = next;
+        }
+        for (double[] closed : open.values()) {
+            emit(out, xs, ys, closed, tolerance);
+        }
+        return out.build();
+    }
+
+    /**
+     * Drops repeated points and points that lie on the line through their
+     * neighbors, until none is left or only a triangle remains.
+     *
+     * @return the indices of the remaining points, in outline order
+     */
+    private static int[] removeCollinear(double[] xs, double[] ys, float tolerance) {
+        int n = xs.length;
+        int[] prev = new int[n];
+        int[] next = new int[n];
+        for (int i = 0; i < n; i++) {
+            prev[i] = (i + n - 1) % n;
+            next[i] = (i + 1) % n;
+        }
+        boolean[] removed = new boolean[n];
+        int remaining = n;
+        boolean changed = true;
+        while (changed && remaining > 3) {
+            changed = false;
+            for (int i = 0; i < n && remaining > 3; i++) {
+                if (removed[i] || !isCollinear(xs, ys, prev[i], i, next[i], tolerance)) {
+                    continue;
+                }
+                next[prev[i]] = next[i];
+                prev[next[i]] = prev[i];
+                removed[i] = true;
+                remaining--;
+                changed = true;
+            }
+        }
+
+        int[] kept = new int[remaining];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            if (!removed[i]) {
+                kept[k++] = i;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Checks whether point {@code i} lies within {@code tolerance} of the line
+     * through points {@code a} and {@code b} (or of {@code a} if they coincide).
+     */
+    private static boolean isCollinear(double[] xs, double[] ys, int a, int i, int b, float tolerance) {
+        double dx = xs[b] - xs[a], dy = ys[b] - ys[a];
+        double px = xs[i] - xs[a], py = ys[i] - ys[a];
+        double length = Math.sqrt(dx * dx + dy * dy);
+        if (length <= tolerance) {
+            return Math.sqrt(px * px + py * py) <= tolerance;
+        }
+        return Math.abs(px * dy - py * dx) / length <= tolerance;
+    }
+
+    /**
+     * Gets the heights of the points followed by the heights at which two
+     * non-adjacent edges cross.
+     */
+    private static double[] sweepHeights(double[] xs, double[] ys) {
+        int n = xs.length;
+        double[] heights = Arrays.copyOf(ys, n + 16);
+        int count = n;
+        for (int e = 0; e < n; e++) {
+            // Adjacent edges only meet at their shared point
+            for (int f = e + 2; f < n; f++) {
+                if (e == 0 && f == n - 1) {
+                    continue;
+                }
+                double y = crossingHeight(xs, ys, e, f);
+                if (Double.isNaN(y)) {
+                    continue;
+                }
+                if (count == heights.length) {
+                    heights = Arrays.copyOf(heights, count * 2);
+                }
+                heights[count++] = y;
+            }
+        }
+        return Arrays.copyOf(heights, count);
+    }
+
+    /**
+     * Gets the height at which edges {@code e} and {@code f} cross in their
+     * interiors, or NaN if they do not (parallel edges never count).
+     */
+    private static double crossingHeight(double[] xs, double[] ys, int e, int f) {
+        int n = xs.length;
+        double ax = xs[e], ay = ys[e];
+        double bx = xs[(e + 1) % n] - ax, by = ys[(e + 1) % n] - ay;
+        double cx = xs[f] - ax, cy = ys[f] - ay;
+        double dx = xs[(f + 1) % n] - xs[f], dy = ys[(f + 1) % n] - ys[f];
+        double denominator = bx * dy - by * dx;
+        if (denominator == 0.0) {
+            return Double.NaN;
+        }
+        double t = (cx * dy - cy * dx) / denominator;
+        double s = (cx * by - cy * bx) / denominator;
+        if (t <= 0.0 || t >= 1.0 || s <= 0.0 || s >= 1.0) {
+            return Double.NaN;
+        }
+        return ay + t * by;
+    }
+
+    private static OptimizedMesh empty() {
+        return new OptimizedMesh(new float[0], new int[0], new int[0]);
+    }
+
+    /**
+     * Gets the x coordinate of edge {@code e} (from vertex e to e + 1) at height {@code y}.
+     */
+    private static double edgeX(double[] xs, double[] ys, int e, double y) {
+        int n = xs.length;
+        double xa = xs[e], ya = ys[e];
+        double xb = xs[(e + 1) % n], yb = ys[(e + 1) % n];
+        double t = (y - ya) / (yb - ya);
+        return xa + (xb - xa) * Math.max(0.0, Math.min(1.0, t));
+    }
+
+    /**
+     * Turns one trapezoid {@code {leftEdge, rightEdge, bottom, top}} into pieces.
+     */
+    private static void emit(Builder out, double[] xs, double[] ys, double[] trapezoid, float tolerance) {
+        int left = (int) trapezoid[0];
+        int right = (int) trapezoid[1];
+        double y0 = trapezoid[2];
+        double y1 = trapezoid[3];
+        double bottomLeft = edgeX(xs, ys, left, y0), bottomRight = edgeX(xs, ys, right, y0);
+        double topLeft = edgeX(xs, ys, left, y1), topRight = edgeX(xs, ys, right, y1);
+        double bottom = bottomRight - bottomLeft;
+        double top = topRight - topLeft;
+
+        if (Math.abs(bottom - top) <= tolerance) {
+            out.parallelogram(bottomLeft, y0, bottomRight, y0, topLeft, y1);
+        } else if (top <= tolerance) {
+            out.triangle(bottomLeft, y0, bottomRight, y0, topLeft, y1);
+        } else if (bottom <= tolerance) {
+            out.triangle(bottomLeft, y0, topRight, y1, topLeft, y1);
+        } else if (bottom > top) {
+            // Parallelogram as wide as the top, triangle in the remaining bottom-right corner
+            out.parallelogram(bottomLeft, y0, bottomLeft + top, y0, topLeft, y1);
+            out.triangle(bottomLeft + top, y0, bottomRight, y0, topRight, y1);
+        } else {
+            // Parallelogram as wide as the bottom, triangle in the remaining top-right corner
+            out.parallelogram(bottomLeft, y0, bottomRight, y0, topLeft, y1);
+            out.triangle(bottomRight, y0, topRight, y1, topLeft + bottom, y1);
+        }
+    }
+
+    /**
+     * Collects pieces as vertices in world space. Every piece gets its own vertices,
+     * listed counter-clockwise in plane coordinates, i.e. with the outline's winding.
+     */
+    private static final class Builder {
+        private final Vector3fc base;
+        private final double ux, uy, uz, vx, vy, vz;
+        private float[] vertices = new float[48];
+        private int vertexCount;
+        private int[] parallelograms = new int[12];
+        private int parallelogramLength;
+        private int[] triangles = new int[12];
+        private int triangleLength;
+
+        Builder(Vector3fc base, double ux, double uy, double uz, double vx, double vy, double vz) {
+            this.base = base;
+            this.ux = ux; this.uy = uy; this.uz = uz;
+            this.vx = vx; this.vy = vy; this.vz = vz;
+        }
+
+        void parallelogram(double x1, double y1, double x2, double y2, double x3, double y3) {
+            if (parallelogramLength + 3 > parallelograms.length) {
+                parallelograms = Arrays.copyOf(parallelograms, parallelograms.length * 2);
+            }
+            parallelograms[parallelogramLength++] = vertex(x1, y1);
+            parallelograms[parallelogramLength++] = vertex(x2, y2);
+            parallelograms[parallelogramLength++] = vertex(x3, y3);
+        }
+
+        void triangle(double x1, double y1, double x2, double y2, double x3, double y3) {
+            if (triangleLength + 3 > triangles.length) {
+                triangles = Arrays.copyOf(triangles, triangles.length * 2);
+            }
+            triangles[triangleLength++] = vertex(x1, y1);
+            triangles[triangleLength++] = vertex(x2, y2);
+            triangles[triangleLength++] = vertex(x3, y3);
+        }
+
+        private int vertex(double x, double y) {
+            if ((vertexCount + 1) * 3 > vertices.length) {
+                vertices = Arrays.copyOf(vertices, vertices.length * 2);
+            }
+            int offset = vertexCount * 3;
+            vertices[offset] = (float) (base.x() + x * ux + y * vx);
+            vertices[offset + 1] = (float) (base.y() + x * uy + y * vy);
+            vertices[offset + 2] = (float) (base.z() + x * uz + y * vz);
+            return vertexCount++;
+        }
+
+        OptimizedMesh build() {
+            return new OptimizedMesh(Arrays.copyOf(vertices, vertexCount * 3),
+                    Arrays.copyOf(parallelograms, parallelogramLength),
+                    Arrays.copyOf(triangles, triangleLength));
+        }
+    }
+}
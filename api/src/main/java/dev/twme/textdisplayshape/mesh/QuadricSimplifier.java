@@ -0,0 +1,362 @@
+package dev.twme.textdisplayshape.mesh;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Quadric error metric edge-collapse simplification (Garland and Heckbert,
+ * "Surface Simplification Using Quadric Error Metrics").
+ * <p>
+ * Every vertex accumulates the quadric of the planes of its triangles. Edges
+ * are collapsed cheapest first into the position that minimizes the summed
+ * quadric, so the cost of a collapse is the sum of squared distances from the
+ * new vertex to the original planes. Open borders get an extra constraint
+ * plane perpendicular to the surface so that flat shapes keep their outline.
+ * Collapses that would flip a triangle are skipped.
+ * <p>
+ * Stale queue entries are dropped lazily: each vertex carries a version that
+ * changes whenever its quadric or position does, and the edges of a surviving
+ * vertex are queued again with fresh costs after every collapse.
+ */
+final class QuadricSimplifier {
+
+    /**
+     * Weight of the constraint planes on border edges, relative to surface planes.
+     */
+    private static final double BORDER_WEIGHT = 1000.0;
+
+    private final float[] positions;
+    private final int[] triangles;
+    private final boolean[] removedTriangle;
+    // Symmetric 4x4 quadric per vertex: aa ab ac ad bb bc bd cc cd dd
+    private final double[] quadrics;
+    private final int[] version;
+    private final boolean[] removedVertex;
+    private final int[][] vertexTriangles;
+    private final int[] vertexTriangleCount;
+    private final double[] candidate = new double[3];
+    private int liveTriangles;
+
+    private record Collapse(double cost, int keep, int remove, int keepVersion, int removeVersion,
+                            float x, float y, float z) {
+    }
+
+    private QuadricSimplifier(TriangleMesh mesh) {
+        int vertexCount = mesh.vertexCount();
+        this.positions = mesh.vertices.clone();
+        this.triangles = mesh.indices.clone();
+        this.removedTriangle = new boolean[mesh.triangleCount()];
+        this.quadrics = new double[vertexCount * 10];
+        this.version = new int[vertexCount];
+        this.removedVertex = new boolean[vertexCount];
+        this.vertexTriangles = new int[vertexCount][];
+        this.vertexTriangleCount = new int[vertexCount];
+        this.liveTriangles = mesh.triangleCount();
+    }
+
+    static TriangleMesh simplify(TriangleMesh mesh, int targetTriangles, float maxError) {
+        QuadricSimplifier simplifier = new QuadricSimplifier(mesh);
+        simplifier.run(Math.max(0, targetTriangles), (double) maxError * maxError);
+        return simplifier.result();
+    }
+
+    private void run(int targetTriangles, double maxCost) {
+        int triangleCount = removedTriangle.length;
+        for (int t = 0; t < triangleCount; t++) {
+            int a = triangles[t * 3], b = triangles[t * 3 + 1], c = triangles[t * 3 + 2];
+            if (a == b || b == c || c == a) {
+                removedTriangle[t] = true;
+                liveTriangles--;
+                continue;
+            }
+            addTriangle(a, t);
+            addTriangle(b, t);
+            addTriangle(c, t);
+            addTrianglePlane(t);
+        }
+
+        // Undirected edge -> number of live triangles using it; border edges are used once
+        Map<Long, Integer> edges = new HashMap<>(triangleCount * 4);
+        for (int t = 0; t < triangleCount; t++) {
+            if (removedTriangle[t]) continue;
+            for (int k = 0; k < 3; k++) {
+                edges.merge(edgeKey(triangles[t * 3 + k], triangles[t * 3 + (k + 1) % 3]), 1, Integer::sum);
+            }
+        }
+        for (int t = 0; t < triangleCount; t++) {
+            if (removedTriangle[t]) continue;
+            for (int k = 0; k < 3; k++) {
+                int u = triangles[t * 3 + k], w = triangles[t * 3 + (k + 1) % 3];
+                if (edges.get(edgeKey(u, w)) == 1) {
+                    addBorderPlane(t, u, w);
+                }
+            }
+        }
+
+        PriorityQueue<Collapse> queue = new PriorityQueue<>(Math.max(1, edges.size()),
+                (x, y) -> Double.compare(x.cost, y.cost));
+        for (long key : edges.keySet()) {
+            queue.add(collapse((int) (key >>> 32), (int) key));
+        }
+
+        while (liveTriangles > targetTriangles && !queue.isEmpty()) {
+            Collapse next = queue.poll();
+            if (removedVertex[next.keep] || removedVertex[next.remove]
+                    || version[next.keep] != next.keepVersion || version[next.remove] != next.removeVersion) {
+                continue;
+            }
+            if (next.cost > maxCost) {
+                break;
+            }
+            if (flips(next.keep, next.remove, next.x, next.y, next.z)
+                    || flips(next.remove, next.keep, next.x, next.y, next.z)) {
+                continue;
+            }
+            apply(next);
+            int keep = next.keep;
+            for (int i = 0; i < vertexTriangleCount[keep]; i++) {
+                int t = vertexTriangles[keep][i];
+                if (removedTriangle[t]) continue;
+                for (int k = 0; k < 3; k++) {
+                    int other = triangles[t * 3 + k];
+                    if (other != keep) {
+                        queue.add(collapse(keep, other));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the cost and target position of collapsing edge {@code a-b}.
+     */
+    private Collapse collapse(int a, int b) {
+        double[] q = new double[10];
+        for (int i = 0; i < 10; i++) {
+            q[i] = quadrics[a * 10 + i] + quadrics[b * 10 + i];
+        }
+        double x, y, z;
+        if (optimalPosition(q)) {
+            x = candidate[0];
+            y = candidate[1];
+            z = candidate[2];
+        } else {
+            // Singular quadric (e.g. a flat region): best of the endpoints and the midpoint
+            x = positions[a * 3];
+            y = positions[a * 3 + 1];
+            z = positions[a * 3 + 2];
+            double best = error(q, x, y, z);
+            double bx = positions[b * 3], by = positions[b * 3 + 1], bz = positions[b * 3 + 2];
+            double errorB = error(q, bx, by, bz);
+            if (errorB < best) {
+                best = errorB;
+                x = bx;
+                y = by;
+                z = bz;
+            }
+            double mx = (positions[a * 3] + bx) * 0.5, my = (positions[a * 3 + 1] + by) * 0.5,
+                    mz = (positions[a * 3 + 2] + bz) * 0.5;
+            if (error(q, mx, my, mz) < best) {
+                x = mx;
+                y = my;
+                z = mz;
+            }
+        }
+        double cost = Math.max(0.0, error(q, x, y, z));
+        return new Collapse(cost, a, b, version[a], version[b], (float) x, (float) y, (float) z);
+    }
+
+    /**
+     * Solves {@code A p = -b} for the quadric minimum, where {@code A} is the upper
+     * 3x3 block; leaves the result in {@link #candidate}.
+     *
+     * @return false if {@code A} is close to singular
+     */
+    private boolean optimalPosition(double[] q) {
+        double a00 = q[0], a01 = q[1], a02 = q[2], a11 = q[4], a12 = q[5], a22 = q[7];
+        double c00 = a11 * a22 - a12 * a12;
+        double c01 = a02 * a12 - a01 * a22;
+        double c02 = a01 * a12 - a02 * a11;
+        double det = a00 * c00 + a01 * c01 + a02 * c02;
+        double scale = a00 + a11 + a22;
+        if (Math.abs(det) <= 1e-9 * scale * scale * scale) {
+            return false;
+        }
+        double c11 = a00 * a22 - a02 * a02;
+        double c12 = a01 * a02 - a00 * a12;
+        double c22 = a00 * a11 - a01 * a01;
+        double b0 = -q[3], b1 = -q[6], b2 = -q[8];
+        candidate[0] = (c00 * b0 + c01 * b1 + c02 * b2) / det;
+        candidate[1] = (c01 * b0 + c11 * b1 + c12 * b2) / det;
+        candidate[2] = (c02 * b0 + c12 * b1 + c22 * b2) / det;
+        return true;
+    }
+
+    private static double error(double[] q, double x, double y, double z) {
+        return q[0] * x * x + 2 * q[1] * x * y + 2 * q[2] * x * z + 2 * q[3] * x
+                + q[4] * y * y + 2 * q[5] * y * z + 2 * q[6] * y
+                + q[7] * z * z + 2 * q[8] * z
+                + q[9];
+    }
+
+    /**
+     * Checks whether moving {@code vertex} to the target position flips the normal
+     * of one of its triangles that survives the collapse of edge {@code vertex-other}.
+     */
+    private boolean flips(int vertex, int other, float x, float y, float z) {
+        for (int i = 0; i < vertexTriangleCount[vertex]; i++) {
+            int t = vertexTriangles[vertex][i];
+            if (removedTriangle[t]) continue;
+            int a = triangles[t * 3], b = triangles[t * 3 + 1], c = triangles[t * 3 + 2];
+            if (a == other || b == other || c == other) continue;
+
+            double[] before = normal(a, b, c, -1, 0, 0, 0);
+            double[] after = normal(a, b, c, vertex, x, y, z);
+            double dot = before[0] * after[0] + before[1] * after[1] + before[2] * after[2];
+            if (dot <= 0.0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes the (unnormalized) normal of triangle {@code (a, b, c)}, with
+     * vertex {@code moved} placed at {@code (x, y, z)}.
+     */
+    private double[] normal(int a, int b, int c, int moved, float x, float y, float z) {
+        double ax = a == moved ? x : positions[a * 3], ay = a == moved ? y : positions[a * 3 + 1], az = a == moved ? z : positions[a * 3 + 2];
+        double bx = b == moved ? x : positions[b * 3], by = b == moved ? y : positions[b * 3 + 1], bz = b == moved ? z : positions[b * 3 + 2];
+        double cx = c == moved ? x : positions[c * 3], cy = c == moved ? y : positions[c * 3 + 1], cz = c == moved ? z : positions[c * 3 + 2];
+        double ex = bx - ax, ey = by - ay, ez = bz - az;
+        double fx = cx - ax, fy = cy - ay, fz = cz - az;
+        return new double[]{ey * fz - ez * fy, ez * fx - ex * fz, ex * fy - ey * fx};
+    }
+
+    /**
+     * Collapses {@code remove} into {@code keep}, which moves to the target position.
+     */
+    private void apply(Collapse collapse) {
+        int keep = collapse.keep;
+        int remove = collapse.remove;
+        positions[keep * 3] = collapse.x;
+        positions[keep * 3 + 1] = collapse.y;
+        positions[keep * 3 + 2] = collapse.z;
+        for (int i = 0; i < 10; i++) {
+            quadrics[keep * 10 + i] += quadrics[remove * 10 + i];
+        }
+        removedVertex[remove] = true;
+        version[keep]++;
+
+        for (int i = 0; i < vertexTriangleCount[remove]; i++) {
+            int t = vertexTriangles[remove][i];
+            if (removedTriangle[t]) continue;
+            boolean shared = false;
+            for (int k = 0; k < 3; k++) {
+                if (triangles[t * 3 + k] == keep) shared = true;
+            }
+            if (shared) {
+                // Triangle on the collapsed edge degenerates
+                removedTriangle[t] = true;
+                liveTriangles--;
+            } else {
+                for (int k = 0; k < 3; k++) {
+                    if (triangles[t * 3 + k] == remove) triangles[t * 3 + k] = keep;
+                }
+                addTriangle(keep, t);
+            }
+        }
+    }
+
+    private void addTriangle(int vertex, int triangle) {
+        int[] list = vertexTriangles[vertex];
+        int count = vertexTriangleCount[vertex];
+        if (list == null) {
+            list = new int[8];
+        } else if (count == list.length) {
+            list = Arrays.copyOf(list, count * 2);
+        }
+        list[count] = triangle;
+        vertexTriangles[vertex] = list;
+        vertexTriangleCount[vertex] = count + 1;
+    }
+
+    private void addTrianglePlane(int t) {
+        int a = triangles[t * 3], b = triangles[t * 3 + 1], c = triangles[t * 3 + 2];
+        double[] n = normal(a, b, c, -1, 0, 0, 0);
+        double length = Math.sqrt(n[0] * n[0] + n[1] * n[1] + n[2] * n[2]);
+        if (length == 0.0) return;
+        double nx = n[0] / length, ny = n[1] / length, nz = n[2] / length;
+        double d = -(nx * positions[a * 3] + ny * positions[a * 3 + 1] + nz * positions[a * 3 + 2]);
+        addPlane(a, nx, ny, nz, d, 1.0);
+        addPlane(b, nx, ny, nz, d, 1.0);
+        addPlane(c, nx, ny, nz, d, 1.0);
+    }
+
+    /**
+     * Adds the plane through border edge {@code u-w} of triangle {@code t} that is
+     * perpendicular to the triangle, to both edge vertices.
+     */
+    private void addBorderPlane(int t, int u, int w) {
+        double[] n = normal(triangles[t * 3], triangles[t * 3 + 1], triangles[t * 3 + 2], -1, 0, 0, 0);
+        double ex = positions[w * 3] - positions[u * 3];
+        double ey = positions[w * 3 + 1] - positions[u * 3 + 1];
+        double ez = positions[w * 3 + 2] - positions[u * 3 + 2];
+        double px = ey * n[2] - ez * n[1], py = ez * n[0] - ex * n[2], pz = ex * n[1] - ey * n[0];
+        double length = Math.sqrt(px * px + py * py + pz * pz);
+        if (length == 0.0) return;
+        px /= length;
+        py /= length;
+        pz /= length;
+        double d = -(px * positions[u * 3] + py * positions[u * 3 + 1] + pz * positions[u * 3 + 2]);
+        addPlane(u, px, py, pz, d, BORDER_WEIGHT);
+        addPlane(w, px, py, pz, d, BORDER_WEIGHT);
+    }
+
+    private void addPlane(int vertex, double a, double b, double c, double d, double weight) {
+        int o = vertex * 10;
+        quadrics[o] += weight * a * a;
+        quadrics[o + 1] += weight * a * b;
+        quadrics[o + 2] += weight * a * c;
+        quadrics[o + 3] += weight * a * d;
+        quadrics[o + 4] += weight * b * b;
+        quadrics[o + 5] += weight * b * c;
+        quadrics[o + 6] += weight * b * d;
+        quadrics[o + 7] += weight * c * c;
+        quadrics[o + 8] += weight * c * d;
+        quadrics[o + 9] += weight * d * d;
+    }
+
+    private static long edgeKey(int a, int b) {
+        int min = Math.min(a, b), max = Math.max(a, b);
+        return ((long) min << 32) | (max & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Compacts the surviving triangles and the vertices they use.
+     */
+    private TriangleMesh result() {
+        int vertexCount = version.length;
+        int[] remap = new int[vertexCount];
+        Arrays.fill(remap, -1);
+        float[] vertices = new float[vertexCount * 3];
+        int[] indices = new int[liveTriangles * 3];
+        int used = 0;
+        int offset = 0;
+        for (int t = 0; t < removedTriangle.length; t++) {
+            if (removedTriangle[t]) continue;
+            for (int k = 0; k < 3; k++) {
+                int v = triangles[t * 3 + k];
+                if (remap[v] < 0) {
+                    remap[v] = used;
+                    System.arraycopy(positions, v * 3, vertices, used * 3, 3);
+                    used++;
+                }
+                indices[offset++] = remap[v];
+            }
+        }
+        return new TriangleMesh(Arrays.copyOf(vertices, used * 3), indices);
+    }
+}
@@ -0,0 +1,91 @@
+package dev.twme.textdisplayshape.mesh;
+
+import dev.twme.textdisplayshape.util.TRSBuffer;
+import dev.twme.textdisplayshape.util.TextDisplayUtil;
+
+/**
+ * A {@link TriangleConsumer} that solves streamed triangles in fixed-size
+ * batches with the batch TRS solver and hands each filled buffer to a
+ * {@link Listener}.
+ *
+ * <p>Memory use is bounded by the batch size no matter how many triangles are
+ * streamed. The buffer passed to the listener is reused for the next batch, so
+ * the listener must copy anything it keeps. Call {@link #flush()} after the last
+ * triangle.</p>
+ */
+public class TRSBatcher implements TriangleConsumer {
+
+    /**
+     * Receives solved batches.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Called with a buffer holding {@code pieceCount} pieces, starting at piece 0;
+         * every triangle contributes {@link TextDisplayUtil#TRIANGLE_PIECE_COUNT}
+         * consecutive pieces.
+         *
+         * @param pieces     the solved pieces (reused after this call returns)
+         * @param pieceCount the number of valid pieces
+         */
+        void accept(TRSBuffer pieces, int pieceCount);
+    }
+
+    private final float[] vertices;
+    private final int[] indices;
+    private final TRSBuffer buffer;
+    private final Listener listener;
+    private int count;
+    private long total;
+
+    /**
+     * Creates a batcher.
+     *
+     * @param batchTriangles the number of triangles solved per batch
+     * @param listener       receives every solved batch
+     */
+    public TRSBatcher(int batchTriangles, Listener listener) {
+        if (batchTriangles <= 0) {
+            throw new IllegalArgumentException("batchTriangles must be positive: " + batchTriangles);
+        }
+        this.vertices = new float[batchTriangles * 9];
+        this.indices = new int[batchTriangles * 3];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        this.buffer = TRSBuffer.forTriangles(batchTriangles);
+        this.listener = listener;
+    }
+
+    @Override
+    public void accept(float x1, float y1, float z1, float x2, float y2, float z2, float x3, float y3, float z3) {
+        int o = count * 9;
+        vertices[o] = x1; vertices[o + 1] = y1; vertices[o + 2] = z1;
+        vertices[o + 3] = x2; vertices[o + 4] = y2; vertices[o + 5] = z2;
+        vertices[o + 6] = x3; vertices[o + 7] = y3; vertices[o + 8] = z3;
+        if (++count * 3 == indices.length) {
+            flush();
+        }
+    }
+
+    /**
+     * Solves the pending triangles, if any, and passes them to the listener.
+     */
+    public void flush() {
+        if (count == 0) return;
+        int pieces = TextDisplayUtil.computeTriangleTRS(vertices, indices, 0, count, buffer, 0);
+        total += count;
+        count = 0;
+        listener.accept(buffer, pieces);
+    }
+
+    /**
+     * Gets the number of triangles solved so far.
+     *
+     * @return the solved triangle count
+     */
+    public long solvedTriangles() {
+        return total;
+    }
+}
@@ -0,0 +1,24 @@
+package dev.twme.textdisplayshape.mesh;
+
+/**
+ * Receives triangles one at a time as plain coordinates, so that loaders can
+ * stream geometry without creating an object per vertex or face.
+ */
+@FunctionalInterface
+public interface TriangleConsumer {
+
+    /**
+     * Accepts one triangle, with vertices in winding order.
+     *
+     * @param x1 first vertex x
+     * @param y1 first vertex y
+     * @param z1 first vertex z
+     * @param x2 second vertex x
+     * @param y2 second vertex y
+     * @param z2 second vertex z
+     * @param x3 third vertex x
+     * @param y3 third vertex y
+     * @param z3 third vertex z
+     */
+    void accept(float x1, float y1, float z1, float x2, float y2, float z2, float x3, float y3, float z3);
+}
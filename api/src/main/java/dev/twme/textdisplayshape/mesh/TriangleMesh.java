@@ -0,0 +1,60 @@
+package dev.twme.textdisplayshape.mesh;
+
+import java.util.Objects;
+
+/**
+ * An indexed triangle mesh in the flat layout used by the batch solvers in
+ * {@link dev.twme.textdisplayshape.util.TextDisplayUtil}.
+ *
+ * <p>Vertex {@code v} is stored at {@code vertices[3v..3v+2]} and triangle
+ * {@code t} references the vertices {@code indices[3t..3t+2]}. The winding of
+ * each triangle decides which side its TextDisplay pieces face. Triangles that
+ * should share an edge must reference the same vertex indices.</p>
+ */
+public class TriangleMesh {
+    public final float[] vertices;
+    public final int[] indices;
+
+    /**
+     * Creates a mesh over the given arrays without copying them.
+     *
+     * @param vertices vertex positions, three floats per vertex
+     * @param indices  vertex indices, three per triangle
+     * @throws IllegalArgumentException if an array length is not a multiple of three
+     * @throws IndexOutOfBoundsException if an index does not reference a vertex
+     */
+    public TriangleMesh(float[] vertices, int[] indices) {
+        Objects.requireNonNull(vertices, "vertices");
+        Objects.requireNonNull(indices, "indices");
+        if (vertices.length % 3 != 0) {
+            throw new IllegalArgumentException("vertices length must be a multiple of 3: " + vertices.length);
+        }
+        if (indices.length % 3 != 0) {
+            throw new IllegalArgumentException("indices length must be a multiple of 3: " + indices.length);
+        }
+        int vertexCount = vertices.length / 3;
+        for (int index : indices) {
+            Objects.checkIndex(index, vertexCount);
+        }
+        this.vertices = vertices;
+        this.indices = indices;
+    }
+
+    /**
+     * Gets the number of vertices.
+     *
+     * @return the vertex count
+     */
+    public int vertexCount() {
+        return vertices.length / 3;
+    }
+
+    /**
+     * Gets the number of triangles.
+     *
+     * @return the triangle count
+     */
+    public int triangleCount() {
+        return indices.length / 3;
+    }
+}
@@ -0,0 +1,97 @@
+package dev.twme.textdisplayshape.shape;
+
+import java.util.Arrays;
+
+/**
+ * Distance thresholds that choose a level of detail, with hysteresis.
+ *
+ * <p>Level {@code i} is used up to {@code maxDistances[i]}; beyond the last
+ * threshold the shape is hidden ({@link #hiddenLevel()}). A viewer only moves to
+ * a coarser level once it is more than {@code hysteresis} past the threshold,
+ * and back to a finer one once it is more than {@code hysteresis} inside it, so
+ * a player standing on a threshold does not flip between levels.</p>
+ *
+ * <p>This class is platform-agnostic and immutable.</p>
+ */
+public final class LevelOfDetail {
+
+    private final double[] maxDistances;
+    private final double hysteresis;
+
+    /**
+     * Creates level thresholds.
+     *
+     * @param hysteresis   the distance band, in blocks, around each threshold
+     *                     in which the current level is kept
+     * @param maxDistances the maximum distance of each level, ascending; use
+     *                     {@link Double#POSITIVE_INFINITY} as the last value to
+     *                     never hide the shape
+     * @throws IllegalArgumentException if no distance is given, the distances are
+     *                                  not ascending or the hysteresis is negative
+     */
+    public LevelOfDetail(double hysteresis, double... maxDistances) {
+        if (maxDistances.length == 0) {
+            throw new IllegalArgumentException("At least one level is required");
+        }
+        if (!(hysteresis >= 0)) {
+            throw new IllegalArgumentException("hysteresis must not be negative: " + hysteresis);
+        }
+        for (int i = 1; i < maxDistances.length; i++) {
+            if (!(maxDistances[i] > maxDistances[i - 1])) {
+                throw new IllegalArgumentException("maxDistances must be ascending: " + Arrays.toString(maxDistances));
+            }
+        }
+        this.maxDistances = maxDistances.clone();
+        this.hysteresis = hysteresis;
+    }
+
+    /**
+     * Gets the number of visible levels.
+     *
+     * @return the level count
+     */
+    public int levelCount() {
+        return maxDistances.length;
+    }
+
+    /**
+     * Gets the level index that means "not visible", which equals {@link #levelCount()}.
+     *
+     * @return the hidden level index
+     */
+    public int hiddenLevel() {
+        return maxDistances.length;
+    }
+
+    /**
+     * Chooses the level for a new viewer, without hysteresis.
+     *
+     * @param distance the viewer distance in blocks
+     * @return the level index, or {@link #hiddenLevel()}
+     */
+    public int initialLevel(double distance) {
+        int level = 0;
+        while (level < maxDistances.length && distance > maxDistances[level]) {
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * Chooses the level for a viewer that currently sees {@code currentLevel}.
+     *
+     * @param currentLevel the current level index, or {@link #hiddenLevel()}
+     * @param distance     the viewer distance in blocks
+     * @return the new level index, or {@link #hiddenLevel()}
+     */
+    public int select(int currentLevel, double distance) {
+        int level = currentLevel;
+        while (level < maxDistances.length && distance > maxDistances[level] + hysteresis) {
+            level++;
+        }
+        while (level > 0 && distance < maxDistances[level - 1] - hysteresis) {
+            level--;
+        }
+        return level;
+    }
+}
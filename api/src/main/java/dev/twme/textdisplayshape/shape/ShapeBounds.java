@@ -0,0 +1,103 @@
+package dev.twme.textdisplayshape.shape;
+
+import java.util.Collection;
+
+import org.joml.Vector3fc;
+
+/**
+ * Axis-aligned bounding box of a shape in world coordinates.
+ *
+ * <p>Used to decide which players are close enough to see a shape and which
+ * chunks a shape overlaps. This record is platform-agnostic and immutable.</p>
+ *
+ * @param minX the minimum X coordinate
+ * @param minY the minimum Y coordinate
+ * @param minZ the minimum Z coordinate
+ * @param maxX the maximum X coordinate
+ * @param maxY the maximum Y coordinate
+ * @param maxZ the maximum Z coordinate
+ */
+public record ShapeBounds(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+
+    /**
+     * Creates bounds, validating that every minimum is at most its maximum.
+     *
+     * @throws IllegalArgumentException if a minimum is greater than its maximum or NaN
+     */
+    public ShapeBounds {
+        if (!(minX <= maxX && minY <= maxY && minZ <= maxZ)) {
+            throw new IllegalArgumentException("Invalid bounds: " + minX + ", " + minY + ", " + minZ
+                    + " to " + maxX + ", " + maxY + ", " + maxZ);
+        }
+    }
+
+    /**
+     * Computes the bounds of a set of points.
+     *
+     * @param points  the points in world coordinates
+     * @param padding the distance added on every side, e.g. half a line's thickness
+     * @return the bounds
+     * @throws IllegalArgumentException if there are no points
+     */
+    public static ShapeBounds of(Collection<? extends Vector3fc> points, double padding) {
+        if (points.isEmpty()) {
+            throw new IllegalArgumentException("At least one point is required");
+        }
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (Vector3fc p : points) {
+            minX = Math.min(minX, p.x()); minY = Math.min(minY, p.y()); minZ = Math.min(minZ, p.z());
+            maxX = Math.max(maxX, p.x()); maxY = Math.max(maxY, p.y()); maxZ = Math.max(maxZ, p.z());
+        }
+        return new ShapeBounds(minX - padding, minY - padding, minZ - padding,
+                maxX + padding, maxY + padding, maxZ + padding);
+    }
+
+    /**
+     * Computes the bounds of flat vertex positions, such as those of a mesh.
+     *
+     * @param vertices the positions in world coordinates, three floats per vertex
+     * @param padding  the distance added on every side
+     * @return the bounds
+     * @throws IllegalArgumentException if there are no vertices
+     */
+    public static ShapeBounds of(float[] vertices, double padding) {
+        if (vertices.length < 3) {
+            throw new IllegalArgumentException("At least one vertex is required");
+        }
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i + 2 < vertices.length; i += 3) {
+            minX = Math.min(minX, vertices[i]); minY = Math.min(minY, vertices[i + 1]); minZ = Math.min(minZ, vertices[i + 2]);
+            maxX = Math.max(maxX, vertices[i]); maxY = Math.max(maxY, vertices[i + 1]); maxZ = Math.max(maxZ, vertices[i + 2]);
+        }
+        return new ShapeBounds(minX - padding, minY - padding, minZ - padding,
+                maxX + padding, maxY + padding, maxZ + padding);
+    }
+
+    /**
+     * Gets the squared distance from a point to the nearest point of these
+     * bounds, 0 if the point is inside.
+     *
+     * @param x the point X coordinate
+     * @param y the point Y coordinate
+     * @param z the point Z coordinate
+     * @return the squared distance
+     */
+    public double distanceSquared(double x, double y, double z) {
+        double dx = Math.max(0, Math.max(minX - x, x - maxX));
+        double dy = Math.max(0, Math.max(minY - y, y - maxY));
+        double dz = Math.max(0, Math.max(minZ - z, z - maxZ));
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Gets these bounds grown by a distance on every side.
+     *
+     * @param amount the distance to grow by
+     * @return the expanded bounds
+     */
+    public ShapeBounds expand(double amount) {
+        return new ShapeBounds(minX - amount, minY - amount, minZ - amount, maxX + amount, maxY + amount, maxZ + amount);
+    }
+}
@@ -0,0 +1,174 @@
+package dev.twme.textdisplayshape.shape;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Spatial index of shapes in one world, keyed by chunk column.
+ *
+ * <p>Every value is stored in each 16x16 chunk column its {@link ShapeBounds}
+ * overlap. A query only visits the columns it covers, so finding the shapes
+ * near a point costs the number of nearby columns and shapes, not the number of
+ * shapes in the world. A value spanning many columns is reported once per
+ * query.</p>
+ *
+ * <p>Values are compared by identity. Keep one index per world. This class is
+ * platform-agnostic and not thread-safe.</p>
+ *
+ * @param <T> the indexed values, e.g. shapes
+ */
+public final class ShapeIndex<T> {
+
+    private static final int CHUNK_SHIFT = 4;
+
+    private final Map<T, Entry<T>> entries = new IdentityHashMap<>();
+    private final Map<Long, List<Entry<T>>> cells = new HashMap<>();
+    private int queryStamp = 0;
+
+    /**
+     * Adds a value, or moves it if it is already indexed.
+     *
+     * @param value  the value
+     * @param bounds its bounds in world coordinates
+     */
+    public void put(T value, ShapeBounds bounds) {
+        Entry<T> entry = entries.get(value);
+        if (entry != null) {
+            unlink(entry);
+            entry.bounds = bounds;
+        } else {
+            entry = new Entry<>(value, bounds);
+            entries.put(value, entry);
+        }
+        for (int x = cell(bounds.minX()); x <= cell(bounds.maxX()); x++) {
+            for (int z = cell(bounds.minZ()); z <= cell(bounds.maxZ()); z++) {
+                cells.computeIfAbsent(chunkKey(x, z), key -> new ArrayList<>(2)).add(entry);
+            }
+        }
+    }
+
+    /**
+     * Removes a value.
+     *
+     * @param value the value
+     * @return true if the value was indexed
+     */
+    public boolean remove(T value) {
+        Entry<T> entry = entries.remove(value);
+        if (entry == null) return false;
+        unlink(entry);
+        return true;
+    }
+
+    /**
+     * Gets the bounds a value was indexed with.
+     *
+     * @param value the value
+     * @return the bounds, or null if the value is not indexed
+     */
+    public ShapeBounds getBounds(T value) {
+        Entry<T> entry = entries.get(value);
+        return entry == null ? null : entry.bounds;
+    }
+
+    public boolean contains(T value) { return entries.containsKey(value); }
+    public int size() { return entries.size(); }
+    public boolean isEmpty() { return entries.isEmpty(); }
+
+    /**
+     * Visits every value whose bounds are within a distance of a point.
+     *
+     * @param x        the point X coordinate
+     * @param y        the point Y coordinate
+     * @param z        the point Z coordinate
+     * @param radius   the maximum distance from the point to the bounds
+     * @param consumer receives each matching value once; must not modify this index
+     */
+    public void queryRadius(double x, double y, double z, double radius, Consumer<? super T> consumer) {
+        int stamp = nextStamp();
+        double radiusSquared = radius * radius;
+        for (int cx = cell(x - radius); cx <= cell(x + radius); cx++) {
+            for (int cz = cell(z - radius); cz <= cell(z + radius); cz++) {
+                List<Entry<T>> cell = cells.get(chunkKey(cx, cz));
+                if (cell == null) continue;
+                for (Entry<T> entry : cell) {
+                    if (entry.stamp == stamp) continue;
+                    entry.stamp = stamp;
+                    if (entry.bounds.distanceSquared(x, y, z) <= radiusSquared) consumer.accept(entry.value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets every value whose bounds are within a distance of a point.
+     *
+     * @see #queryRadius(double, double, double, double, Consumer)
+     */
+    public List<T> queryRadius(double x, double y, double z, double radius) {
+        List<T> result = new ArrayList<>();
+        queryRadius(x, y, z, radius, result::add);
+        return result;
+    }
+
+    /**
+     * Gets every value whose bounds overlap a chunk column.
+     *
+     * @param chunkX the chunk X coordinate (block X &gt;&gt; 4)
+     * @param chunkZ the chunk Z coordinate (block Z &gt;&gt; 4)
+     * @return the values, possibly empty
+     */
+    public List<T> queryChunk(int chunkX, int chunkZ) {
+        List<Entry<T>> cell = cells.get(chunkKey(chunkX, chunkZ));
+        List<T> result = new ArrayList<>(cell == null ? 0 : cell.size());
+        if (cell != null) {
+            for (Entry<T> entry : cell) result.add(entry.value);
+        }
+        return result;
+    }
+
+    private void unlink(Entry<T> entry) {
+        ShapeBounds bounds = entry.bounds;
+        for (int x = cell(bounds.minX()); x <= cell(bounds.maxX()); x++) {
+            for (int z = cell(bounds.minZ()); z <= cell(bounds.maxZ()); z++) {
+                long key = chunkKey(x, z);
+                List<Entry<T>> cell = cells.get(key);
+                if (cell == null) continue;
+                cell.remove(entry);
+                if (cell.isEmpty()) cells.remove(key);
+            }
+        }
+    }
+
+    private int nextStamp() {
+        if (++queryStamp == 0) {
+            // Wrapped around: clear the stamps so no entry looks visited
+            for (Entry<T> entry : entries.values()) entry.stamp = 0;
+            queryStamp = 1;
+        }
+        return queryStamp;
+    }
+
+    private static int cell(double coordinate) {
+        return (int) Math.floor(coordinate) >> CHUNK_SHIFT;
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static final class Entry<T> {
+        private final T value;
+        private ShapeBounds bounds;
+        private int stamp;
+
+        private Entry(T value, ShapeBounds bounds) {
+            this.value = value;
+            this.bounds = bounds;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package dev.twme.textdisplayshape.util;
+
+/**
+ * Accelerated implementation of the batch solvers in {@link TextDisplayUtil}.
+ * <p>
+ * A kernel may solve only a prefix of the requested range (for example, whole
+ * SIMD lanes) and reports how many items it handled; the caller finishes the
+ * remainder with the scalar path.
+ */
+interface BatchTRSKernel {
+
+    /**
+     * Solves triangles {@code [firstTriangle, firstTriangle + n)} for some
+     * {@code n <= triangleCount}, writing 3 pieces per triangle starting at
+     * {@code destPiece}.
+     *
+     * @return the number of triangles solved
+     */
+    int solveTriangles(float[] vertices, int[] indices, int firstTriangle, int triangleCount,
+                       TRSBuffer dest, int destPiece);
+
+    /**
+     * Solves parallelograms {@code [first, first + n)} for some {@code n <= count},
+     * writing 1 piece per parallelogram starting at {@code destPiece}.
+     *
+     * @return the number of parallelograms solved
+     */
+    int solveParallelograms(float[] vertices, int[] indices, int first, int count,
+                            TRSBuffer dest, int destPiece);
+}
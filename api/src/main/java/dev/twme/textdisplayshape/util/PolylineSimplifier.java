@@ -0,0 +1,113 @@
+package dev.twme.textdisplayshape.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+
+/**
+ * Reduces the number of points of a polyline with the Ramer-Douglas-Peucker
+ * algorithm, for coarser levels of detail.
+ *
+ * <p>A point is dropped when it lies within {@code tolerance} of the segment
+ * that replaces it, so the simplified line never deviates from the original by
+ * more than the tolerance. The first and last points are always kept.</p>
+ */
+public final class PolylineSimplifier {
+
+    private PolylineSimplifier() {
+    }
+
+    /**
+     * Simplifies a polyline.
+     *
+     * @param points    the polyline points
+     * @param tolerance the maximum deviation, in blocks
+     * @param closed    whether the polyline connects its last point back to the first
+     * @return new vectors for the kept points, in order
+     */
+    public static List<Vector3f> simplify(List<? extends Vector3fc> points, float tolerance, boolean closed) {
+        int n = points.size();
+        if (n <= 2) {
+            return copy(points, new boolean[]{true, true}, n);
+        }
+        boolean[] keep = new boolean[n];
+        keep[0] = true;
+        if (closed) {
+            // Split the loop at the point farthest from the first one and simplify both halves
+            int far = 0;
+            float farDistance = -1f;
+            for (int i = 1; i < n; i++) {
+                float d = points.get(0).distanceSquared(points.get(i));
+                if (d > farDistance) {
+                    farDistance = d;
+                    far = i;
+                }
+            }
+            keep[far] = true;
+            simplifyRange(points, 0, far, tolerance * tolerance, keep);
+            simplifyRange(points, far, n, tolerance * tolerance, keep);
+        } else {
+            keep[n - 1] = true;
+            simplifyRange(points, 0, n - 1, tolerance * tolerance, keep);
+        }
+        return copy(points, keep, n);
+    }
+
+    /**
+     * Marks the points between {@code first} and {@code last} (exclusive) to keep.
+     * Index {@code n} stands for point 0, closing the loop.
+     */
+    private static void simplifyRange(List<? extends Vector3fc> points, int first, int last, float limit,
+                                      boolean[] keep) {
+        int n = points.size();
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = first;
+        stack[top++] = last;
+        while (top > 0) {
+            int end = stack[--top];
+            int start = stack[--top];
+            Vector3fc a = points.get(start);
+            Vector3fc b = points.get(end % n);
+            int farthest = -1;
+            float farthestDistance = limit;
+            for (int i = start + 1; i < end; i++) {
+                float d = segmentDistanceSquared(points.get(i), a, b);
+                if (d > farthestDistance) {
+                    farthestDistance = d;
+                    farthest = i;
+                }
+            }
+            if (farthest < 0) continue;
+            keep[farthest] = true;
+            if (top + 4 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[top++] = start;
+            stack[top++] = farthest;
+            stack[top++] = farthest;
+            stack[top++] = end;
+        }
+    }
+
+    private static float segmentDistanceSquared(Vector3fc p, Vector3fc a, Vector3fc b) {
+        float abx = b.x() - a.x(), aby = b.y() - a.y(), abz = b.z() - a.z();
+        float apx = p.x() - a.x(), apy = p.y() - a.y(), apz = p.z() - a.z();
+        float lengthSquared = abx * abx + aby * aby + abz * abz;
+        float t = lengthSquared > 0f ? (apx * abx + apy * aby + apz * abz) / lengthSquared : 0f;
+        t = Math.max(0f, Math.min(1f, t));
+        float dx = apx - abx * t, dy = apy - aby * t, dz = apz - abz * t;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static List<Vector3f> copy(List<? extends Vector3fc> points, boolean[] keep, int n) {
+        List<Vector3f> result = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (keep[i]) result.add(new Vector3f(points.get(i)));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,240 @@
+package dev.twme.textdisplayshape.util;
+
+import org.joml.Matrix3f;
+import org.joml.Matrix4fc;
+
+/**
+ * Allocation-free singular value decomposition of the upper 3x3 part of a
+ * transformation matrix, {@code M = U * Sigma * V^T}, with {@code U} and
+ * {@code V} proper rotations.
+ * <p>
+ * Follows the structure of McAdams et al., "Computing the Singular Value
+ * Decomposition of 3x3 matrices with minimal branching and elementary floating
+ * point operations": a bounded number of cyclic Jacobi sweeps diagonalizes
+ * {@code M^T * M} to find {@code V}, the columns of {@code M * V} are sorted by
+ * decreasing norm, and three Givens rotations (a QR factorization) recover
+ * {@code U} and the singular values. Each Jacobi rotation uses the exact
+ * tangent instead of McAdams' approximate one, so the fixed sweep count is
+ * enough for full float precision. Arithmetic is done in double precision.
+ * <p>
+ * The two largest singular values are non-negative; the smallest carries the
+ * sign of {@code det(M)}, so mirroring matrices are represented exactly with a
+ * negative scale instead of an improper rotation.
+ * <p>
+ * Instances hold scratch state and are not thread-safe; {@link TextDisplayUtil}
+ * keeps one per thread.
+ */
+final class Svd3x3 {
+
+    /**
+     * Upper bound on Jacobi sweeps; a sweep visits all three off-diagonal pairs.
+     */
+    private static final int MAX_SWEEPS = 6;
+
+    // Row-major 3x3 scratch matrices: s = M^T * M, v = eigenvectors, b = M * V then R, u = Q
+    private final double[] s = new double[9];
+    private final double[] v = new double[9];
+    private final double[] b = new double[9];
+    private final double[] u = new double[9];
+
+    /**
+     * Decomposes the upper 3x3 part of {@code matrix} into {@code dest}. The
+     * translation of {@code dest} is left untouched.
+     *
+     * @param matrix  the matrix to decompose
+     * @param dest    receives leftRotation = U, scale = Sigma, rightRotation = V^T
+     * @param scratch a matrix used to convert the rotations to quaternions
+     */
+    void decompose(Matrix4fc matrix, TRSResult dest, Matrix3f scratch) {
+        double[] b = this.b;
+        // JOML names elements m<column><row>
+        b[0] = matrix.m00(); b[1] = matrix.m10(); b[2] = matrix.m20();
+        b[3] = matrix.m01(); b[4] = matrix.m11(); b[5] = matrix.m21();
+        b[6] = matrix.m02(); b[7] = matrix.m12(); b[8] = matrix.m22();
+
+        symmetricEigenvectors(b);
+        multiplyByV(b);
+        sortColumns();
+        qr();
+
+        double[] u = this.u;
+        double[] v = this.v;
+        dest.scale().set((float) b[0], (float) b[4], (float) b[8]);
+        // Matrix3f.set takes columns
+        scratch.set((float) u[0], (float) u[3], (float) u[6],
+                (float) u[1], (float) u[4], (float) u[7],
+                (float) u[2], (float) u[5], (float) u[8]);
+        dest.leftRotation().setFromNormalized(scratch).normalize();
+        // rightRotation = V^T: the rows of V^T are the columns of V
+        scratch.set((float) v[0], (float) v[1], (float) v[2],
+                (float) v[3], (float) v[4], (float) v[5],
+                (float) v[6], (float) v[7], (float) v[8]);
+        dest.rightRotation().setFromNormalized(scratch).normalize();
+    }
+
+    /**
+     * Diagonalizes {@code S = A^T * A} with cyclic Jacobi rotations, accumulating
+     * the eigenvectors into {@link #v}.
+     */
+    private void symmetricEigenvectors(double[] a) {
+        double[] s = this.s;
+        for (int r = 0; r < 3; r++) {
+            for (int c = r; c < 3; c++) {
+                double dot = a[r] * a[c] + a[3 + r] * a[3 + c] + a[6 + r] * a[6 + c];
+                s[r * 3 + c] = dot;
+                s[c * 3 + r] = dot;
+            }
+        }
+        setIdentity(v);
+
+        double scale = s[0] * s[0] + s[4] * s[4] + s[8] * s[8];
+        for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+            double off = s[1] * s[1] + s[2] * s[2] + s[5] * s[5];
+            // Off-diagonal terms below float resolution of the diagonal: converged
+            if (off <= 1e-15 * scale) {
+                break;
+            }
+            jacobi(0, 1, 2);
+            jacobi(0, 2, 1);
+            jacobi(1, 2, 0);
+        }
+    }
+
+    /**
+     * Applies the Jacobi rotation that zeroes {@code s[p][q]}; {@code k} is the
+     * remaining index.
+     */
+    private void jacobi(int p, int q, int k) {
+        double[] s = this.s;
+        double spq = s[p * 3 + q];
+        if (spq == 0.0) {
+            return;
+        }
+        double spp = s[p * 3 + p];
+        double sqq = s[q * 3 + q];
+        double tau = (sqq - spp) / (2.0 * spq);
+        double t = Math.copySign(1.0, tau) / (Math.abs(tau) + Math.sqrt(1.0 + tau * tau));
+        double c = 1.0 / Math.sqrt(1.0 + t * t);
+        double sn = t * c;
+
+        s[p * 3 + p] = spp - t * spq;
+        s[q * 3 + q] = sqq + t * spq;
+        s[p * 3 + q] = 0.0;
+        s[q * 3 + p] = 0.0;
+        double skp = s[k * 3 + p];
+        double skq = s[k * 3 + q];
+        double nkp = c * skp - sn * skq;
+        double nkq = sn * skp + c * skq;
+        s[k * 3 + p] = nkp;
+        s[p * 3 + k] = nkp;
+        s[k * 3 + q] = nkq;
+        s[q * 3 + k] = nkq;
+
+        double[] v = this.v;
+        for (int r = 0; r < 9; r += 3) {
+            double vp = v[r + p];
+            double vq = v[r + q];
+            v[r + p] = c * vp - sn * vq;
+            v[r + q] = sn * vp + c * vq;
+        }
+    }
+
+    /**
+     * Replaces {@code a} with {@code a * V}.
+     */
+    private void multiplyByV(double[] a) {
+        double[] v = this.v;
+        for (int r = 0; r < 9; r += 3) {
+            double a0 = a[r];
+            double a1 = a[r + 1];
+            double a2 = a[r + 2];
+            a[r] = a0 * v[0] + a1 * v[3] + a2 * v[6];
+            a[r + 1] = a0 * v[1] + a1 * v[4] + a2 * v[7];
+            a[r + 2] = a0 * v[2] + a1 * v[5] + a2 * v[8];
+        }
+    }
+
+    /**
+     * Orders the columns of {@code B = M * V} (and of {@code V}) by decreasing
+     * norm, negating one column per swap so that {@code V} stays a rotation.
+     */
+    private void sortColumns() {
+        double n0 = columnNormSquared(b, 0);
+        double n1 = columnNormSquared(b, 1);
+        double n2 = columnNormSquared(b, 2);
+        if (n0 < n1) {
+            swapColumns(0, 1);
+            double t = n0;
+            n0 = n1;
+            n1 = t;
+        }
+        if (n0 < n2) {
+            swapColumns(0, 2);
+            n2 = n0;
+        }
+        if (n1 < n2) {
+            swapColumns(1, 2);
+        }
+    }
+
+    private static double columnNormSquared(double[] m, int c) {
+        return m[c] * m[c] + m[3 + c] * m[3 + c] + m[6 + c] * m[6 + c];
+    }
+
+    private void swapColumns(int i, int j) {
+        for (int r = 0; r < 9; r += 3) {
+            double t = b[r + i];
+            b[r + i] = -b[r + j];
+            b[r + j] = t;
+            t = v[r + i];
+            v[r + i] = -v[r + j];
+            v[r + j] = t;
+        }
+    }
+
+    /**
+     * Factors {@code B = U * R} with three Givens rotations, leaving the upper
+     * triangular {@code R} (diagonal up to rounding) in {@link #b}.
+     */
+    private void qr() {
+        setIdentity(u);
+        givens(0, 1, 0);
+        givens(0, 2, 0);
+        givens(1, 2, 1);
+    }
+
+    /**
+     * Rotates rows {@code i} and {@code j} of {@link #b} so that
+     * {@code b[j][column]} becomes zero, accumulating the rotation into {@link #u}.
+     */
+    private void givens(int i, int j, int column) {
+        double[] b = this.b;
+        double x = b[i * 3 + column];
+        double y = b[j * 3 + column];
+        double rho = Math.sqrt(x * x + y * y);
+        if (rho < 1e-30) {
+            return;
+        }
+        double c = x / rho;
+        double sn = y / rho;
+        for (int k = 0; k < 3; k++) {
+            double bi = b[i * 3 + k];
+            double bj = b[j * 3 + k];
+            b[i * 3 + k] = c * bi + sn * bj;
+            b[j * 3 + k] = c * bj - sn * bi;
+        }
+        double[] u = this.u;
+        for (int r = 0; r < 9; r += 3) {
+            double ui = u[r + i];
+            double uj = u[r + j];
+            u[r + i] = c * ui + sn * uj;
+            u[r + j] = c * uj - sn * ui;
+        }
+    }
+
+    private static void setIdentity(double[] m) {
+        m[0] = 1.0; m[1] = 0.0; m[2] = 0.0;
+        m[3] = 0.0; m[4] = 1.0; m[5] = 0.0;
+        m[6] = 0.0; m[7] = 0.0; m[8] = 1.0;
+    }
+}
@@ -0,0 +1,110 @@
+package dev.twme.textdisplayshape.util;
+
+import java.util.Objects;
+
+/**
+ * Struct-of-arrays storage for many TRS results, filled by the batch solvers
+ * in {@link TextDisplayUtil}.
+ *
+ * <p>Piece {@code i} is stored at {@code translations[3i..3i+2]},
+ * {@code leftRotations[4i..4i+3]} (x, y, z, w), {@code scales[3i..3i+2]} and
+ * {@code rightRotations[4i..4i+3]} (x, y, z, w). The arrays are exposed
+ * directly so callers can read them without copying.</p>
+ */
+public class TRSBuffer {
+    public final float[] translations;
+    public final float[] leftRotations;
+    public final float[] scales;
+    public final float[] rightRotations;
+
+    private final int capacity;
+
+    /**
+     * Creates a buffer that can hold {@code capacity} pieces.
+     *
+     * @param capacity the number of pieces
+     */
+    public TRSBuffer(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+        }
+        this.capacity = capacity;
+        this.translations = new float[capacity * 3];
+        this.leftRotations = new float[capacity * 4];
+        this.scales = new float[capacity * 3];
+        this.rightRotations = new float[capacity * 4];
+    }
+
+    /**
+     * Creates a buffer large enough for the pieces of {@code triangleCount} triangles.
+     *
+     * @param triangleCount the number of triangles
+     * @return a new buffer
+     */
+    public static TRSBuffer forTriangles(int triangleCount) {
+        return new TRSBuffer(triangleCount * TextDisplayUtil.TRIANGLE_PIECE_COUNT);
+    }
+
+    /**
+     * Gets the number of pieces this buffer can hold.
+     *
+     * @return the capacity in pieces
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Stores a TRS result at the given piece index.
+     *
+     * @param piece the piece index
+     * @param trs   the result to copy
+     */
+    public void set(int piece, TRSResult trs) {
+        Objects.checkIndex(piece, capacity);
+        int t = piece * 3;
+        int r = piece * 4;
+        translations[t] = trs.translation().x;
+        translations[t + 1] = trs.translation().y;
+        translations[t + 2] = trs.translation().z;
+        leftRotations[r] = trs.leftRotation().x;
+        leftRotations[r + 1] = trs.leftRotation().y;
+        leftRotations[r + 2] = trs.leftRotation().z;
+        leftRotations[r + 3] = trs.leftRotation().w;
+        scales[t] = trs.scale().x;
+        scales[t + 1] = trs.scale().y;
+        scales[t + 2] = trs.scale().z;
+        rightRotations[r] = trs.rightRotation().x;
+        rightRotations[r + 1] = trs.rightRotation().y;
+        rightRotations[r + 2] = trs.rightRotation().z;
+        rightRotations[r + 3] = trs.rightRotation().w;
+    }
+
+    /**
+     * Copies the piece at the given index into the components of {@code dest}.
+     *
+     * @param piece the piece index
+     * @param dest  will hold the piece
+     * @return dest
+     */
+    public TRSResult get(int piece, TRSResult dest) {
+        Objects.checkIndex(piece, capacity);
+        int t = piece * 3;
+        int r = piece * 4;
+        dest.translation().set(translations[t], translations[t + 1], translations[t + 2]);
+        dest.leftRotation().set(leftRotations[r], leftRotations[r + 1], leftRotations[r + 2], leftRotations[r + 3]);
+        dest.scale().set(scales[t], scales[t + 1], scales[t + 2]);
+        dest.rightRotation().set(rightRotations[r], rightRotations[r + 1], rightRotations[r + 2], rightRotations[r + 3]);
+        return dest;
+    }
+
+    /**
+     * Gets the piece at the given index as a new TRS result.
+     *
+     * @param piece the piece index
+     * @return a new result holding the piece
+     */
+    public TRSResult get(int piece) {
+        return get(piece, TRSResult.identity());
+    }
+}
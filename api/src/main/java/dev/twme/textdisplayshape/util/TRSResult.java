@@ -6,10 +6,23 @@ import org.joml.Vector3f;
 /**
  * Result of decomposing a transformation matrix into Minecraft's TextDisplay format.
  * Format: Translation * LeftRotation * Scale * RightRotation
+ *
+ * <p>The components are mutable JOML objects, so a result can be reused as the
+ * destination of the allocation-free overloads in {@link TextDisplayUtil}.</p>
  */
 public record TRSResult(
     Vector3f translation,
     Quaternionf leftRotation,
     Vector3f scale,
     Quaternionf rightRotation
-) {}
+) {
+
+    /**
+     * Creates a new identity result (zero translation, unit scale, no rotation).
+     *
+     * @return a new identity result
+     */
+    public static TRSResult identity() {
+        return new TRSResult(new Vector3f(), new Quaternionf(), new Vector3f(1f, 1f, 1f), new Quaternionf());
+    }
+}
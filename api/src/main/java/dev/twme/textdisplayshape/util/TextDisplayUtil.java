@@ -1,23 +1,106 @@
 package dev.twme.textdisplayshape.util;
 
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.joml.Matrix3f;
 import org.joml.Matrix4f;
 import org.joml.Matrix4fc;
 import org.joml.Quaternionf;
+import org.joml.Quaternionfc;
 import org.joml.Vector3f;
+import org.joml.Vector3fc;
 
 /**
  * Core utility class for TextDisplay shape rendering calculations.
  * Supports triangles, lines, and parallelograms.
  *
  * <p>This class is platform-agnostic and uses only JOML math types.</p>
+ *
+ * <p>Methods that accept a {@code dest} argument write their result into the
+ * caller-supplied object and use a per-thread scratch workspace for every
+ * intermediate value, so they do not allocate once the workspace exists.
+ * The overloads without {@code dest} allocate a fresh result on each call.</p>
  */
 public class TextDisplayUtil {
 
+    /**
+     * Number of TextDisplay pieces used to render one triangle.
+     */
+    public static final int TRIANGLE_PIECE_COUNT = 3;
+
+    /**
+     * Scratch objects reused by the allocation-free overloads. One instance
+     * exists per thread, so the overloads are safe to call concurrently.
+     */
+    private static final class Workspace {
+        final Vector3f origin = new Vector3f();
+        final Vector3f edge1 = new Vector3f();
+        final Vector3f edge2 = new Vector3f();
+        final Vector3f xAxis = new Vector3f();
+        final Vector3f yAxis = new Vector3f();
+        final Vector3f zAxis = new Vector3f();
+        final Quaternionf rotation = new Quaternionf();
+        final Quaternionf uRotation = new Quaternionf();
+        final Matrix3f basis = new Matrix3f();
+        final Svd3x3 svd = new Svd3x3();
+        final Vector3f vertex1 = new Vector3f();
+        final Vector3f vertex2 = new Vector3f();
+        final Vector3f vertex3 = new Vector3f();
+        final TRSResult[] pieces = {TRSResult.identity(), TRSResult.identity(), TRSResult.identity()};
+        float width;
+        float height;
+        float shear;
+    }
+
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
+    /**
+     * System property that disables the Vector API batch kernel when set to {@code true}.
+     */
+    public static final String DISABLE_VECTOR_PROPERTY = "textdisplayshape.vector.disabled";
+
+    private static final BatchTRSKernel VECTOR_KERNEL = loadVectorKernel();
+
+    /**
+     * Loads the SIMD batch kernel when the optional {@code textdisplayshape-vector}
+     * artifact is on the classpath, the {@code jdk.incubator.vector} module is
+     * available (the JVM was started with {@code --add-modules jdk.incubator.vector})
+     * and it has not been disabled; otherwise the batch solvers stay scalar.
+     */
+    private static BatchTRSKernel loadVectorKernel() {
+        if (Boolean.getBoolean(DISABLE_VECTOR_PROPERTY)
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return (BatchTRSKernel) Class.forName("dev.twme.textdisplayshape.util.VectorTRSKernel")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether the batch solvers use the SIMD (Vector API) kernel.
+     * <p>
+     * The kernel is selected once at class initialization. It requires the
+     * {@code textdisplayshape-vector} artifact on the classpath and the JVM to be
+     * started with {@code --add-modules jdk.incubator.vector}, and can be turned off
+     * with {@code -D}{@value #DISABLE_VECTOR_PROPERTY}{@code =true}.
+     *
+     * @return true if the batch solvers are vectorized
+     */
+    public static boolean isVectorAccelerated() {
+        return VECTOR_KERNEL != null;
+    }
+
     /**
      * Creates a custom shear transformation matrix and multiplies it with the
      * original matrix.
@@ -123,39 +206,55 @@ public class TextDisplayUtil {
      * @return the transformation matrix
      */
     public static Matrix4f textDisplayLine(Vector3f point1, Vector3f point2, float thickness, float roll) {
-        Vector3f direction = new Vector3f(point2).sub(point1);
+        return textDisplayLine(point1, point2, thickness, roll, new Matrix4f());
+    }
+
+    /**
+     * Calculates the transformation matrix for a line with roll angle, writing
+     * the result into {@code dest} instead of allocating a new matrix.
+     *
+     * @param point1    the start point of the line
+     * @param point2    the end point of the line
+     * @param thickness the thickness of the line
+     * @param roll      the roll angle in radians (rotation around the line axis)
+     * @param dest      will hold the transformation matrix
+     * @return dest
+     * @see #textDisplayLine(Vector3f, Vector3f, float, float)
+     */
+    public static Matrix4f textDisplayLine(Vector3fc point1, Vector3fc point2, float thickness, float roll, Matrix4f dest) {
+        Workspace ws = WORKSPACE.get();
+        Vector3f direction = point2.sub(point1, ws.edge1);
         float length = direction.length();
 
         if (length < 0.001f) {
-            return new Matrix4f();
+            return dest.identity();
         }
 
         // Find an axis perpendicular to the line direction as the "up" direction
-        Vector3f up = new Vector3f(0, 1, 0);
+        Vector3f up = ws.edge2.set(0, 1, 0);
         if (Math.abs(direction.dot(up) / length) > 0.99f) {
-            up = new Vector3f(1, 0, 0);
+            up.set(1, 0, 0);
         }
 
-        Vector3f zAxis = new Vector3f(direction).cross(up).normalize();
-        Vector3f xAxis = new Vector3f(direction).normalize();
-        Vector3f yAxis = new Vector3f(zAxis).cross(xAxis).normalize();
-
-        Quaternionf rotation = new Quaternionf().lookAlong(new Vector3f(zAxis).mul(-1f), yAxis).conjugate();
+        Vector3f zAxis = direction.cross(up, ws.zAxis).normalize();
+        Vector3f xAxis = direction.normalize(ws.xAxis);
+        Vector3f yAxis = zAxis.cross(xAxis, ws.yAxis).normalize();
 
-        // Apply roll rotation around the line axis (X axis in local space)
-        Quaternionf rollRotation = new Quaternionf().rotateX(roll);
-        rotation = rotation.mul(rollRotation);
+        Quaternionf rotation = ws.rotation.identity()
+                .lookAlong(-zAxis.x, -zAxis.y, -zAxis.z, yAxis.x, yAxis.y, yAxis.z)
+                .conjugate()
+                .rotateX(roll); // Apply roll rotation around the line axis (X axis in local space)
 
         // Line transformation: translate to start point, rotate to correct direction,
-        // center thickness, scale to correct length and thickness
+        // center thickness, scale to correct length and thickness.
         // translate(0, -0.5, 0) centers the line in the Y direction (thickness
-        // direction)
-        return new Matrix4f()
-                .translate(point1)
+        // direction); the final translate/scale applies the unit square in place
+        return dest.translation(point1.x(), point1.y(), point1.z())
                 .rotate(rotation)
                 .scale(length, thickness, 1f)
-                .translate(0f, -0.5f, 0f) // Center: offset down by half unit (since unit square starts at 0)
-                .mul(getTextDisplayUnitSquare());
+                .translate(0f, -0.5f, 0f)
+                .translate(0.4F, 0.0F, 0.0F)
+                .scale(8.0F, 4.0F, 1.0F);
     }
 
     /**
@@ -202,25 +301,56 @@ public class TextDisplayUtil {
         return transform.mul(getTextDisplayUnitSquare());
     }
 
+    /**
+     * Private helper: computes the triangle/parallelogram frame (rotation, width,
+     * height and shear) for the given points into the workspace.
+     */
+    private static void computeFrame(Vector3fc point1, Vector3fc point2, Vector3fc point3, Workspace ws) {
+        ws.origin.set(point1);
+        Vector3f p2vec = point2.sub(point1, ws.edge1);
+        Vector3f p3vec = point3.sub(point1, ws.edge2);
+
+        if (p2vec.cross(p3vec, ws.zAxis).lengthSquared() < 1.0E-4F) {
+            p3vec.add(0.0001f, 0.0001f, 0.0001f);
+        }
+
+        Vector3f zAxis = p2vec.cross(p3vec, ws.zAxis).normalize();
+        Vector3f xAxis = p2vec.normalize(ws.xAxis);
+        Vector3f yAxis = zAxis.cross(xAxis, ws.yAxis).normalize();
+
+        float width = p2vec.length();
+        float p3Width = p3vec.dot(xAxis);
+        ws.width = width;
+        ws.height = p3vec.dot(yAxis);
+        ws.shear = (width > 0.001f) ? p3Width / width : 0.0f;
+
+        ws.rotation.identity()
+                .lookAlong(-zAxis.x, -zAxis.y, -zAxis.z, yAxis.x, yAxis.y, yAxis.z)
+                .conjugate();
+    }
+
     /**
      * Private helper: computes TRS decomposition from a 2x2 inner matrix and 2D translation,
      * combined with world rotation and origin, using analytical 2x2 SVD.
+     * The result is written into {@code dest}.
      */
     private static TRSResult computeTRSFromInner2D(
             double m00, double m01, double m10, double m11,
             double tx, double ty,
-            Quaternionf rotation, Vector3f worldOrigin) {
+            Quaternionfc rotation, Vector3fc worldOrigin,
+            Workspace ws, TRSResult dest) {
 
         // World translation = origin + rotation * (tx, ty, 0)
-        Vector3f innerTranslation = new Vector3f((float) tx, (float) ty, 0f);
-        Vector3f worldTranslation = new Vector3f();
-        rotation.transform(innerTranslation, worldTranslation);
+        Vector3f worldTranslation = dest.translation().set((float) tx, (float) ty, 0f);
+        rotation.transform(worldTranslation);
         worldTranslation.add(worldOrigin);
 
         // Check if matrix is already diagonal (no off-diagonal terms)
         if (Math.abs(m01) < 1e-6 && Math.abs(m10) < 1e-6) {
-            return new TRSResult(worldTranslation, new Quaternionf(rotation),
-                    new Vector3f((float) m00, (float) m11, 1f), new Quaternionf());
+            dest.leftRotation().set(rotation);
+            dest.scale().set((float) m00, (float) m11, 1f);
+            dest.rightRotation().identity();
+            return dest;
         }
 
         // Analytical 2x2 SVD: M = U * Sigma * V^T
@@ -266,22 +396,22 @@ public class TextDisplayUtil {
         }
 
         // leftRotation = worldRotation * U_3x3
-        org.joml.Matrix3f uMat = new org.joml.Matrix3f(
+        ws.basis.set(
                 (float) u00, (float) u10, 0,
                 (float) u01, (float) u11, 0,
                 0, 0, 1);
-        Quaternionf uQuat = new Quaternionf().setFromNormalized(uMat).normalize();
-        Quaternionf leftRotation = new Quaternionf(rotation).mul(uQuat).normalize();
+        Quaternionf uQuat = ws.uRotation.setFromNormalized(ws.basis).normalize();
+        dest.leftRotation().set(rotation).mul(uQuat).normalize();
 
         // rightRotation = V^T_3x3
-        org.joml.Matrix3f vtMat = new org.joml.Matrix3f(
+        ws.basis.set(
                 (float) cosV, (float) -sinV, 0,
                 (float) sinV, (float) cosV, 0,
                 0, 0, 1);
-        Quaternionf rightRotation = new Quaternionf().setFromNormalized(vtMat).normalize();
+        dest.rightRotation().setFromNormalized(ws.basis).normalize();
 
-        Vector3f scale = new Vector3f((float) sigma1, finalSigma2, 1f);
-        return new TRSResult(worldTranslation, leftRotation, scale, rightRotation);
+        dest.scale().set((float) sigma1, finalSigma2, 1f);
+        return dest;
     }
 
     /**
@@ -295,33 +425,38 @@ public class TextDisplayUtil {
      * @return TRS result with translation in absolute world coordinates
      */
     public static TRSResult computeParallelogramTRS(Vector3f point1, Vector3f point2, Vector3f point3) {
-        Vector3f p2vec = new Vector3f(point2).sub(point1);
-        Vector3f p3vec = new Vector3f(point3).sub(point1);
-
-        if (new Vector3f(p2vec).cross(p3vec).lengthSquared() < 1.0E-4F) {
-            p3vec.add(0.0001f, 0.0001f, 0.0001f);
-        }
-
-        Vector3f zAxis = new Vector3f(p2vec).cross(p3vec).normalize();
-        Vector3f xAxis = new Vector3f(p2vec).normalize();
-        Vector3f yAxis = new Vector3f(zAxis).cross(xAxis).normalize();
+        return computeParallelogramTRS(point1, point2, point3, TRSResult.identity());
+    }
 
-        float width = p2vec.length();
-        float height = p3vec.dot(yAxis);
-        float p3Width = p3vec.dot(xAxis);
+    /**
+     * Computes the TRS decomposition for a parallelogram, writing the result
+     * into the components of {@code dest} instead of allocating a new result.
+     *
+     * @param point1 the starting point (one corner)
+     * @param point2 the second point (defines the first edge, width direction)
+     * @param point3 the third point (defines the second edge, height direction)
+     * @param dest   will hold the TRS result with translation in absolute world coordinates
+     * @return dest
+     * @see #computeParallelogramTRS(Vector3f, Vector3f, Vector3f)
+     */
+    public static TRSResult computeParallelogramTRS(Vector3fc point1, Vector3fc point2, Vector3fc point3,
+                                                    TRSResult dest) {
+        return computeParallelogramTRS(point1, point2, point3, WORKSPACE.get(), dest);
+    }
 
-        Quaternionf rotation = new Quaternionf().lookAlong(new Vector3f(zAxis).mul(-1f), yAxis).conjugate();
-        float shear = (width > 0.001f) ? p3Width / width : 0.0f;
+    private static TRSResult computeParallelogramTRS(Vector3fc point1, Vector3fc point2, Vector3fc point3,
+                                                     Workspace ws, TRSResult dest) {
+        computeFrame(point1, point2, point3, ws);
 
         // Inner 2x2 = scale(w,h) * shear(s,0) * unitSquare
         // = [[w, ws], [0, h]] * [[8, 0], [0, 4]] = [[8w, 4ws], [0, 4h]]
-        double w = width;
-        double h = height;
-        double s = shear;
+        double w = ws.width;
+        double h = ws.height;
+        double s = ws.shear;
         return computeTRSFromInner2D(
                 8.0 * w, 4.0 * w * s, 0, 4.0 * h,
                 0.4 * w, 0,
-                rotation, point1);
+                ws.rotation, ws.origin, ws, dest);
     }
 
     /**
@@ -335,181 +470,226 @@ public class TextDisplayUtil {
      * @return list of 3 TRS results with translation in absolute world coordinates
      */
     public static List<TRSResult> computeTriangleTRS(Vector3f point1, Vector3f point2, Vector3f point3) {
-        Vector3f p2vec = new Vector3f(point2).sub(point1);
-        Vector3f p3vec = new Vector3f(point3).sub(point1);
-
-        if (new Vector3f(p2vec).cross(p3vec).lengthSquared() < 1.0E-4F) {
-            p3vec.add(0.0001f, 0.0001f, 0.0001f);
+        TRSResult[] pieces = new TRSResult[TRIANGLE_PIECE_COUNT];
+        for (int i = 0; i < pieces.length; i++) {
+            pieces[i] = TRSResult.identity();
         }
+        return new ArrayList<>(Arrays.asList(computeTriangleTRS(point1, point2, point3, pieces)));
+    }
 
-        Vector3f zAxis = new Vector3f(p2vec).cross(p3vec).normalize();
-        Vector3f xAxis = new Vector3f(p2vec).normalize();
-        Vector3f yAxis = new Vector3f(zAxis).cross(xAxis).normalize();
-
-        float width = p2vec.length();
-        float height = p3vec.dot(yAxis);
-        float p3Width = p3vec.dot(xAxis);
-
-        Quaternionf rotation = new Quaternionf().lookAlong(new Vector3f(zAxis).mul(-1f), yAxis).conjugate();
-        float shear = (width > 0.001f) ? p3Width / width : 0.0f;
+    /**
+     * Computes the TRS decomposition for a triangle, writing the 3 sub-pieces
+     * into the components of {@code dest[0..2]} instead of allocating new results.
+     *
+     * @param point1 the first vertex
+     * @param point2 the second vertex
+     * @param point3 the third vertex
+     * @param dest   array of at least {@link #TRIANGLE_PIECE_COUNT} results that will
+     *               hold the pieces, with translation in absolute world coordinates
+     * @return dest
+     * @see #computeTriangleTRS(Vector3f, Vector3f, Vector3f)
+     */
+    public static TRSResult[] computeTriangleTRS(Vector3fc point1, Vector3fc point2, Vector3fc point3,
+                                                 TRSResult[] dest) {
+        if (dest.length < TRIANGLE_PIECE_COUNT) {
+            throw new IllegalArgumentException("dest must hold at least " + TRIANGLE_PIECE_COUNT + " results");
+        }
+        return computeTriangleTRS(point1, point2, point3, WORKSPACE.get(), dest);
+    }
 
-        double w = width;
-        double h = height;
-        double s = shear;
+    private static TRSResult[] computeTriangleTRS(Vector3fc point1, Vector3fc point2, Vector3fc point3,
+                                                  Workspace ws, TRSResult[] dest) {
+        computeFrame(point1, point2, point3, ws);
 
-        List<TRSResult> results = new ArrayList<>(3);
+        double w = ws.width;
+        double h = ws.height;
+        double s = ws.shear;
 
         // Piece 0 (bottom-left quarter): linear = [[4w, 2ws], [0, 2h]], translation = (0.2w, 0)
-        results.add(computeTRSFromInner2D(
+        computeTRSFromInner2D(
                 4.0 * w, 2.0 * w * s, 0, 2.0 * h,
                 0.2 * w, 0,
-                rotation, point1));
+                ws.rotation, ws.origin, ws, dest[0]);
 
         // Piece 1 (top-right, y-shear): linear = [[4w, 2w(s-1)], [0, 2h]], translation = (0.7w, 0)
-        results.add(computeTRSFromInner2D(
+        computeTRSFromInner2D(
                 4.0 * w, 2.0 * w * (s - 1.0), 0, 2.0 * h,
                 0.7 * w, 0,
-                rotation, point1));
+                ws.rotation, ws.origin, ws, dest[1]);
 
         // Piece 2 (bottom-right, x-shear): linear = [[4w-4ws, 2ws], [-4h, 2h]], translation = (0.2w+0.3ws, 0.3h)
-        results.add(computeTRSFromInner2D(
+        computeTRSFromInner2D(
                 4.0 * w - 4.0 * w * s, 2.0 * w * s, -4.0 * h, 2.0 * h,
                 0.2 * w + 0.3 * w * s, 0.3 * h,
-                rotation, point1));
+                ws.rotation, ws.origin, ws, dest[2]);
 
-        return results;
+        return dest;
     }
 
     /**
-     * Decomposes a Matrix4f into the format used by Minecraft's Display Entity:
-     * leftRotation * scale * rightRotation + translation.
-     * This uses polar decomposition to properly handle matrices with shear.
+     * Computes the TRS decomposition for every triangle of an indexed mesh in one
+     * pass, writing {@link #TRIANGLE_PIECE_COUNT} pieces per triangle into
+     * {@code dest} starting at piece 0.
+     * <p>
+     * Vertex {@code v} is read from {@code vertices[3v..3v+2]}; triangle {@code t}
+     * uses the vertices {@code indices[3t..3t+2]}. No objects are allocated, which
+     * makes this suitable for recomputing large meshes every tick. When
+     * {@link #isVectorAccelerated()} is true, whole groups of triangles are solved
+     * with SIMD instructions and only the remainder uses the scalar path.
      *
-     * @param matrix the transformation matrix to decompose
-     * @return a TRSResult containing translation, scale, leftRotation, and
-     *         rightRotation
+     * @param vertices flat array of vertex positions (x, y, z per vertex)
+     * @param indices  flat array of vertex indices (3 per triangle)
+     * @param dest     buffer with room for {@code indices.length} pieces (one per index)
+     * @return the number of pieces written
      */
-    public static TRSResult decompose(Matrix4f matrix) {
-        // Extract translation from the 4th column
-        Vector3f translation = new Vector3f();
-        matrix.getTranslation(translation);
-
-        // Extract the 3x3 upper-left portion (rotation + scale + shear)
-        org.joml.Matrix3f upper3x3 = new org.joml.Matrix3f();
-        matrix.get3x3(upper3x3);
-
-        // Perform polar decomposition: M = Q * S where Q is orthogonal (rotation) and S
-        // is symmetric
-        // We use an iterative method to find Q
-        org.joml.Matrix3f Q = new org.joml.Matrix3f(upper3x3);
-        // Iterations count: 10 is usually sufficient for high precision
-        for (int i = 0; i < 10; i++) {
-            // Q_next = 0.5 * (Q + Q^-T)
-            org.joml.Matrix3f Qinv = new org.joml.Matrix3f(Q).invert();
-            if (Float.isNaN(Qinv.m00))
-                break; // Handle singular matrix
-            org.joml.Matrix3f QinvT = new org.joml.Matrix3f(Qinv).transpose();
-            Q.add(QinvT).scale(0.5f);
-        }
+    public static int computeTriangleTRS(float[] vertices, int[] indices, TRSBuffer dest) {
+        return computeTriangleTRS(vertices, indices, 0, indices.length / 3, dest, 0);
+    }
 
-        // S = Q^T * M (the symmetric part containing scale and shear)
-        org.joml.Matrix3f S = new org.joml.Matrix3f(Q).transpose().mul(upper3x3);
-
-        // We need to diagonalize S to find scale (eigenvalues) and rightRotation
-        // (eigenvectors).
-        // Since S is symmetric, S = V * D * V^T, where V is orthogonal.
-        // The decomposition we want is M = L * Sc * R
-        // M = Q * S = Q * (V * D * V^T) = (Q * V) * D * V^T
-        // So:
-        // Scale = D (diagonal elements)
-        // LeftRotation = Q * V
-        // RightRotation = V^T
-
-        // Diagonalize S using Jacobi method (simplified 3x3 implementation or use
-        // library if available)
-
-        // Initialize V as identity
-        org.joml.Matrix3f V = new org.joml.Matrix3f(); // Eigenvectors
-        V.identity();
-
-        // Jacobi Iteration
-        org.joml.Matrix3f A = new org.joml.Matrix3f(S);
-        int maxIter = 20;
-        for (int iter = 0; iter < maxIter; iter++) {
-            // Find pivot (largest off-diagonal element)
-            float max = 0.0f;
-            int p = 0, q = 1;
-            for (int i = 0; i < 3; i++) {
-                for (int j = i + 1; j < 3; j++) {
-                    float val = Math.abs(A.getRowColumn(i, j));
-                    if (val > max) {
-                        max = val;
-                        p = i;
-                        q = j;
-                    }
-                }
-            }
-
-            if (max < 1e-6f)
-                break; // Converged
-
-            // Compute rotation
-            float app = A.getRowColumn(p, p);
-            float aqq = A.getRowColumn(q, q);
-            float apq = A.getRowColumn(p, q);
-            float phi = 0.5f * (float) Math.atan2(2.0f * apq, aqq - app);
-            float c = (float) Math.cos(phi);
-            float s = (float) Math.sin(phi);
-
-            // Rotation matrix J
-            org.joml.Matrix3f J = new org.joml.Matrix3f();
-            J.setRowColumn(p, p, c);
-            J.setRowColumn(q, q, c);
-            J.setRowColumn(p, q, s);
-            J.setRowColumn(q, p, -s);
-
-            org.joml.Matrix3f JT = new org.joml.Matrix3f(J).transpose();
-            A = JT.mul(A).mul(J);
-            V.mul(J);
+    /**
+     * Computes the TRS decomposition for a range of triangles of an indexed mesh,
+     * writing {@link #TRIANGLE_PIECE_COUNT} pieces per triangle into {@code dest}.
+     *
+     * @param vertices      flat array of vertex positions (x, y, z per vertex)
+     * @param indices       flat array of vertex indices (3 per triangle)
+     * @param firstTriangle the first triangle to solve
+     * @param triangleCount the number of triangles to solve
+     * @param dest          the buffer to write into
+     * @param destPiece     the piece index in {@code dest} to start writing at
+     * @return the number of pieces written
+     * @see #computeTriangleTRS(float[], int[], TRSBuffer)
+     */
+    public static int computeTriangleTRS(float[] vertices, int[] indices, int firstTriangle, int triangleCount,
+                                         TRSBuffer dest, int destPiece) {
+        Objects.checkFromIndexSize(firstTriangle * 3, triangleCount * 3, indices.length);
+        Objects.checkFromIndexSize(destPiece, triangleCount * TRIANGLE_PIECE_COUNT, dest.capacity());
+
+        int t = 0;
+        if (VECTOR_KERNEL != null) {
+            t = VECTOR_KERNEL.solveTriangles(vertices, indices, firstTriangle, triangleCount, dest, destPiece);
         }
 
-        // Now D is diagonal of A
-        Vector3f D = new Vector3f(A.m00, A.m11, A.m22);
-
-        // Fix negative scales (flip scale and eigenvector)
-        if (D.x < 0) {
-            D.x = -D.x;
-            negateColumn(V, 0);
+        Workspace ws = WORKSPACE.get();
+        for (; t < triangleCount; t++) {
+            int i = (firstTriangle + t) * 3;
+            int a = indices[i] * 3;
+            int b = indices[i + 1] * 3;
+            int c = indices[i + 2] * 3;
+            ws.vertex1.set(vertices[a], vertices[a + 1], vertices[a + 2]);
+            ws.vertex2.set(vertices[b], vertices[b + 1], vertices[b + 2]);
+            ws.vertex3.set(vertices[c], vertices[c + 1], vertices[c + 2]);
+            storeTrianglePieces(ws, dest, destPiece + t * TRIANGLE_PIECE_COUNT);
         }
-        if (D.y < 0) {
-            D.y = -D.y;
-            negateColumn(V, 1);
-        }
-        if (D.z < 0) {
-            D.z = -D.z;
-            negateColumn(V, 2);
+        return triangleCount * TRIANGLE_PIECE_COUNT;
+    }
+
+    /**
+     * Computes the TRS decomposition for every triangle of an indexed mesh whose
+     * vertex positions are held in a {@link FloatBuffer} (for example a direct or
+     * memory-mapped buffer). Positions are read with absolute indexing starting at
+     * index 0, so the buffer position is not changed. This overload always uses
+     * the scalar path.
+     *
+     * @param vertices buffer of vertex positions (x, y, z per vertex)
+     * @param indices  flat array of vertex indices (3 per triangle)
+     * @param dest     buffer with room for {@code indices.length} pieces (one per index)
+     * @return the number of pieces written
+     * @see #computeTriangleTRS(float[], int[], TRSBuffer)
+     */
+    public static int computeTriangleTRS(FloatBuffer vertices, int[] indices, TRSBuffer dest) {
+        int triangleCount = indices.length / 3;
+        Objects.checkFromIndexSize(0, triangleCount * TRIANGLE_PIECE_COUNT, dest.capacity());
+
+        Workspace ws = WORKSPACE.get();
+        for (int t = 0; t < triangleCount; t++) {
+            int i = t * 3;
+            int a = indices[i] * 3;
+            int b = indices[i + 1] * 3;
+            int c = indices[i + 2] * 3;
+            ws.vertex1.set(vertices.get(a), vertices.get(a + 1), vertices.get(a + 2));
+            ws.vertex2.set(vertices.get(b), vertices.get(b + 1), vertices.get(b + 2));
+            ws.vertex3.set(vertices.get(c), vertices.get(c + 1), vertices.get(c + 2));
+            storeTrianglePieces(ws, dest, t * TRIANGLE_PIECE_COUNT);
         }
+        return triangleCount * TRIANGLE_PIECE_COUNT;
+    }
 
-        // Calculate components
-        Vector3f scale = new Vector3f(D);
+    /**
+     * Computes the TRS decomposition for many parallelograms in one pass, writing
+     * one piece per parallelogram into {@code dest} starting at piece 0.
+     * <p>
+     * Parallelogram {@code p} uses the vertices {@code indices[3p..3p+2]} as
+     * (starting corner, width point, height point), matching
+     * {@link #computeParallelogramTRS(Vector3f, Vector3f, Vector3f)}.
+     *
+     * @param vertices flat array of vertex positions (x, y, z per vertex)
+     * @param indices  flat array of vertex indices (3 per parallelogram)
+     * @param dest     buffer with room for {@code indices.length / 3} pieces
+     * @return the number of pieces written
+     */
+    public static int computeParallelogramTRS(float[] vertices, int[] indices, TRSBuffer dest) {
+        int count = indices.length / 3;
+        Objects.checkFromIndexSize(0, count, dest.capacity());
 
-        // Left Rotation = Q * V
-        org.joml.Matrix3f leftRotMat = new org.joml.Matrix3f(Q).mul(V);
-        Quaternionf leftRotation = new Quaternionf().setFromNormalized(leftRotMat);
-        leftRotation.normalize();
+        int p = 0;
+        if (VECTOR_KERNEL != null) {
+            p = VECTOR_KERNEL.solveParallelograms(vertices, indices, 0, count, dest, 0);
+        }
 
-        // Right Rotation = V^T
-        org.joml.Matrix3f rightRotMat = new org.joml.Matrix3f(V).transpose();
-        Quaternionf rightRotation = new Quaternionf().setFromNormalized(rightRotMat);
-        rightRotation.normalize();
+        Workspace ws = WORKSPACE.get();
+        TRSResult piece = ws.pieces[0];
+        for (; p < count; p++) {
+            int i = p * 3;
+            int a = indices[i] * 3;
+            int b = indices[i + 1] * 3;
+            int c = indices[i + 2] * 3;
+            ws.vertex1.set(vertices[a], vertices[a + 1], vertices[a + 2]);
+            ws.vertex2.set(vertices[b], vertices[b + 1], vertices[b + 2]);
+            ws.vertex3.set(vertices[c], vertices[c + 1], vertices[c + 2]);
+            dest.set(p, computeParallelogramTRS(ws.vertex1, ws.vertex2, ws.vertex3, ws, piece));
+        }
+        return count;
+    }
 
-        return new TRSResult(translation, leftRotation, scale, rightRotation);
+    private static void storeTrianglePieces(Workspace ws, TRSBuffer dest, int destPiece) {
+        TRSResult[] pieces = computeTriangleTRS(ws.vertex1, ws.vertex2, ws.vertex3, ws, ws.pieces);
+        for (int k = 0; k < TRIANGLE_PIECE_COUNT; k++) {
+            dest.set(destPiece + k, pieces[k]);
+        }
     }
 
-    private static void negateColumn(org.joml.Matrix3f m, int col) {
-        float x = m.getRowColumn(0, col);
-        float y = m.getRowColumn(1, col);
-        float z = m.getRowColumn(2, col);
-        m.setColumn(col, -x, -y, -z);
+    /**
+     * Decomposes a Matrix4f into the format used by Minecraft's Display Entity:
+     * leftRotation * scale * rightRotation + translation.
+     * This uses a singular value decomposition, so matrices with shear are handled.
+     * The scale components are ordered from largest to smallest magnitude, and the
+     * last one is negative when the matrix mirrors.
+     *
+     * @param matrix the transformation matrix to decompose
+     * @return a TRSResult containing translation, scale, leftRotation, and
+     *         rightRotation
+     */
+    public static TRSResult decompose(Matrix4f matrix) {
+        return decompose(matrix, TRSResult.identity());
+    }
+
+    /**
+     * Decomposes a Matrix4f into the format used by Minecraft's Display Entity and
+     * stores the result in {@code dest}, without allocating.
+     * <p>
+     * The upper 3x3 part is factored as {@code leftRotation * scale * rightRotation}
+     * with a fixed-iteration 3x3 SVD. The scale components are ordered from largest
+     * to smallest magnitude; the last one is negative when the matrix mirrors
+     * (negative determinant).
+     *
+     * @param matrix the transformation matrix to decompose
+     * @param dest   the result to write into
+     * @return {@code dest}
+     */
+    public static TRSResult decompose(Matrix4fc matrix, TRSResult dest) {
+        Workspace ws = WORKSPACE.get();
+        matrix.getTranslation(dest.translation());
+        ws.svd.decompose(matrix, dest, ws.basis);
+        return dest;
     }
 }
@@ -0,0 +1,288 @@
+package dev.twme.textdisplayshape.mesh;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MeshLoaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsFacesWithTextureAndNormalIndices() throws IOException {
+        TriangleMesh mesh = MeshLoader.loadObj(obj("""
+                # square
+                v 0 0 0
+                v 1 0 0
+                v 1 1 0
+                v 0 1 0
+                vt 0 0
+                vt 1 0
+                vn 0 0 1
+                f 1/1/1 2/2/1 3/2/1
+                f 1//1 3//1 4//1
+                f 4/1 1/2 2/1
+                """));
+
+        assertArrayEquals(new float[] {0, 0, 0, 1, 0, 0, 1, 1, 0, 0, 1, 0}, mesh.vertices);
+        assertArrayEquals(new int[] {0, 1, 2, 0, 2, 3, 3, 0, 1}, mesh.indices);
+    }
+
+    @Test
+    void resolvesNegativeIndicesAgainstPrecedingVertices() throws IOException {
+        TriangleMesh mesh = MeshLoader.loadObj(obj("""
+                v 0 0 0
+                v 1 0 0
+                v 0 1 0
+                f -3 -2 -1
+                v 1 1 0
+                f -3 -1 -2
+                """));
+
+        assertArrayEquals(new int[] {0, 1, 2, 1, 3, 2}, mesh.indices);
+    }
+
+    @Test
+    void fanTriangulatesQuadsAndPolygons() throws IOException {
+        TriangleMesh mesh = MeshLoader.loadObj(obj("""
+                v 0 0 0
+                v 1 0 0
+                v 2 1 0
+                v 1 2 0
+                v 0 2 0
+                v -1 1 0
+                f 1 2 3 4
+                f 1 2 3 4 5 6
+                """));
+
+        assertArrayEquals(new int[] {
+                0, 1, 2, 0, 2, 3,
+                0, 1, 2, 0, 2, 3, 0, 3, 4, 0, 4, 5}, mesh.indices);
+    }
+
+    @Test
+    void parsesSignedExponents() throws IOException {
+        TriangleMesh mesh = MeshLoader.loadObj(obj("""
+                v 1.0e+00 -2.5E-1 3e2
+                v +1E+1 .5e-3 -0.0e-0
+                v 12.5e+2 1e-45 0e+99
+                f 1 2 3
+                """));
+
+        assertArrayEquals(new float[] {1f, -0.25f, 300f, 10f, 0.0005f, -0f, 1250f, 1e-45f, 0f}, mesh.vertices);
+    }
+
+    @Test
+    void rejectsExponentWithoutDigits() throws IOException {
+        Path path = obj("v 1e+ 0 0\n");
+        IOException error = assertThrows(IOException.class, () -> MeshLoader.loadObj(path));
+        assertTrue(error.getMessage().startsWith("Expected exponent digits at byte 5"), error.getMessage());
+    }
+
+    @Test
+    void acceptsCrlfLineEndings() throws IOException {
+        String text = """
+                v 0 0 0
+                v 1 0 0
+                v 0 1 0
+                v 1 1 0
+                f 1 2 3 4
+                f 2/1/1 4/1/1 3/1/1
+                """;
+        TriangleMesh unix = MeshLoader.loadObj(obj(text));
+        TriangleMesh windows = MeshLoader.loadObj(obj(text.replace("\n", "\r\n")));
+
+        assertArrayEquals(unix.vertices, windows.vertices);
+        assertArrayEquals(unix.indices, windows.indices);
+        assertEquals(3, windows.triangleCount());
+    }
+
+    @Test
+    void rejectsUndefinedVertices() throws IOException {
+        assertThrows(IOException.class, () -> MeshLoader.loadObj(obj("v 0 0 0\nv 1 0 0\nf 1 2 3\n")));
+        assertThrows(IOException.class, () -> MeshLoader.loadObj(obj("v 0 0 0\nv 1 0 0\nv 0 1 0\nf -4 1 2\n")));
+        assertThrows(IOException.class, () -> MeshLoader.loadObj(obj("v 0 0 0\nv 1 0 0\nv 0 1 0\nf 0 1 2\n")));
+    }
+
+    @Test
+    void objWindowBoundariesDoNotChangeTheMesh() throws IOException {
+        Path path = obj(randomObj(new Random(60), 400, 300));
+        TriangleMesh whole = MeshLoader.loadObj(path);
+        assertEquals(300 * 2, whole.triangleCount());
+
+        // Windows much smaller than the file, so most lines straddle a window boundary
+        for (int windowSize : new int[] {64, 97, 1000}) {
+            TriangleMesh windowed = MeshLoader.loadObj(path, windowSize);
+            assertArrayEquals(whole.vertices, windowed.vertices, "window " + windowSize);
+            assertArrayEquals(whole.indices, windowed.indices, "window " + windowSize);
+
+            float[] streamed = new float[whole.triangleCount() * 9];
+            int[] offset = {0};
+            long count = MeshLoader.streamObj(path, collect(streamed, offset), windowSize);
+            assertEquals(whole.triangleCount(), count);
+            assertArrayEquals(coordinates(whole), streamed, "window " + windowSize);
+        }
+    }
+
+    @Test
+    void rejectsLinesLongerThanAWindow() throws IOException {
+        Path path = obj("v 0 0 0\nv 1.000000000000000000000 0 0\nv 0 1 0\nf 1 2 3\n");
+        assertThrows(IOException.class, () -> MeshLoader.loadObj(path, 16));
+    }
+
+    @Test
+    void readsBinaryStl() throws IOException {
+        float[] coordinates = randomCoordinates(new Random(61), 7);
+        Path path = stl(coordinates, 7);
+        assertEquals(84 + 7 * 50, Files.size(path));
+
+        TriangleMesh mesh = MeshLoader.load(path);
+        assertArrayEquals(coordinates, mesh.vertices);
+        assertEquals(7, mesh.triangleCount());
+        for (int i = 0; i < mesh.indices.length; i++) {
+            assertEquals(i, mesh.indices[i]);
+        }
+    }
+
+    @Test
+    void readsEmptyStl() throws IOException {
+        assertEquals(0, MeshLoader.loadStl(stl(new float[0], 0)).triangleCount());
+    }
+
+    @Test
+    void stlWindowBoundariesDoNotChangeTheTriangles() throws IOException {
+        float[] coordinates = randomCoordinates(new Random(62), 101);
+        Path path = stl(coordinates, 101);
+
+        // 50, 120 and 2000 bytes: one, two and 40 records per window
+        for (int windowSize : new int[] {50, 120, 2000}) {
+            float[] streamed = new float[coordinates.length];
+            int[] offset = {0};
+            assertEquals(101, MeshLoader.streamStl(path, collect(streamed, offset), windowSize));
+            assertArrayEquals(coordinates, streamed, "window " + windowSize);
+        }
+    }
+
+    @Test
+    void rejectsTruncatedStl() throws IOException {
+        Path path = stl(randomCoordinates(new Random(63), 3), 3);
+        byte[] bytes = Files.readAllBytes(path);
+
+        Path truncated = dir.resolve("truncated.stl");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> MeshLoader.loadStl(truncated));
+
+        Path padded = dir.resolve("padded.stl");
+        Files.write(padded, Arrays.copyOf(bytes, bytes.length + 1));
+        assertThrows(IOException.class, () -> MeshLoader.loadStl(padded));
+
+        Path headerOnly = dir.resolve("header.stl");
+        Files.write(headerOnly, Arrays.copyOf(bytes, 83));
+        assertThrows(IOException.class, () -> MeshLoader.loadStl(headerOnly));
+    }
+
+    @Test
+    void dispatchesOnExtension() throws IOException {
+        Path path = dir.resolve("mesh.OBJ");
+        Files.writeString(path, "v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 3\n");
+        assertEquals(1, MeshLoader.load(path).triangleCount());
+        assertEquals(1, MeshLoader.stream(path, (x1, y1, z1, x2, y2, z2, x3, y3, z3) -> { }));
+
+        Path unknown = dir.resolve("mesh.ply");
+        Files.writeString(unknown, "ply\n");
+        assertThrows(IOException.class, () -> MeshLoader.load(unknown));
+    }
+
+    private Path obj(String text) throws IOException {
+        Path path = Files.createTempFile(dir, "mesh", ".obj");
+        Files.write(path, text.getBytes(StandardCharsets.US_ASCII));
+        return path;
+    }
+
+    /**
+     * Writes a binary STL file with an 80-byte header, the triangle count and
+     * one 50-byte record per triangle.
+     */
+    private Path stl(float[] coordinates, int triangles) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(84 + triangles * 50).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put("binary stl".getBytes(StandardCharsets.US_ASCII));
+        buffer.position(80);
+        buffer.putInt(triangles);
+        for (int t = 0; t < triangles; t++) {
+            // Normal, ignored by the loader
+            buffer.putFloat(0f).putFloat(0f).putFloat(1f);
+            for (int i = 0; i < 9; i++) {
+                buffer.putFloat(coordinates[t * 9 + i]);
+            }
+            buffer.putShort((short) 0);
+        }
+        Path path = Files.createTempFile(dir, "mesh", ".stl");
+        Files.write(path, buffer.array());
+        return path;
+    }
+
+    /**
+     * An OBJ file with random vertices and quad faces, in a mix of index forms.
+     */
+    private static String randomObj(Random random, int vertices, int faces) {
+        StringBuilder text = new StringBuilder("# random mesh\n");
+        for (int i = 0; i < vertices; i++) {
+            text.append("v ").append(random.nextFloat() * 200 - 100)
+                    .append(' ').append(random.nextFloat() * 2e-3f)
+                    .append(' ').append(-random.nextFloat() * 1e5f).append('\n');
+        }
+        for (int f = 0; f < faces; f++) {
+            text.append('f');
+            for (int k = 0; k < 4; k++) {
+                int index = random.nextInt(vertices);
+                text.append(' ');
+                switch (k) {
+                    case 0 -> text.append(index + 1);
+                    case 1 -> text.append(index - vertices);
+                    case 2 -> text.append(index + 1).append("/1/1");
+                    default -> text.append(index + 1).append("//1");
+                }
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    private static float[] randomCoordinates(Random random, int triangles) {
+        float[] coordinates = new float[triangles * 9];
+        for (int i = 0; i < coordinates.length; i++) {
+            coordinates[i] = random.nextFloat() * 20f - 10f;
+        }
+        return coordinates;
+    }
+
+    private static TriangleConsumer collect(float[] into, int[] offset) {
+        return (x1, y1, z1, x2, y2, z2, x3, y3, z3) -> {
+            float[] triangle = {x1, y1, z1, x2, y2, z2, x3, y3, z3};
+            System.arraycopy(triangle, 0, into, offset[0], 9);
+            offset[0] += 9;
+        };
+    }
+
+    private static float[] coordinates(TriangleMesh mesh) {
+        float[] coordinates = new float[mesh.indices.length * 3];
+        for (int i = 0; i < mesh.indices.length; i++) {
+            System.arraycopy(mesh.vertices, mesh.indices[i] * 3, coordinates, i * 3, 3);
+        }
+        return coordinates;
+    }
+}
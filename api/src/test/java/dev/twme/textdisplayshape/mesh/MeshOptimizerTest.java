@@ -0,0 +1,339 @@
+package dev.twme.textdisplayshape.mesh;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+class MeshOptimizerTest {
+
+    @Test
+    void mergesEveryQuadOfATriangulatedGrid() {
+        TriangleMesh grid = grid(8, 5, 0.5f, 0.25f);
+        OptimizedMesh optimized = MeshOptimizer.mergeParallelograms(grid);
+
+        assertEquals(8 * 5, optimized.parallelogramCount());
+        assertEquals(0, optimized.triangleCount());
+        assertEquals(8 * 5, optimized.pieceCount());
+        assertEquals(optimized.pieceCount(), optimized.computeTRS().capacity());
+    }
+
+    @Test
+    void mergedParallelogramsKeepWindingAndCoverTheirTriangles() {
+        TriangleMesh grid = grid(4, 4, 1f, 0.3f);
+        OptimizedMesh optimized = MeshOptimizer.mergeParallelograms(grid);
+        float[] v = grid.vertices;
+
+        Set<String> corners = new HashSet<>();
+        for (int t = 0; t < grid.triangleCount(); t++) {
+            for (int k = 0; k < 3; k++) {
+                corners.add(key(vertex(v, grid.indices[t * 3 + k])));
+            }
+        }
+
+        for (int p = 0; p < optimized.parallelogramCount(); p++) {
+            Vector3f a = vertex(v, optimized.parallelogramIndices[p * 3]);
+            Vector3f u = vertex(v, optimized.parallelogramIndices[p * 3 + 1]);
+            Vector3f w = vertex(v, optimized.parallelogramIndices[p * 3 + 2]);
+
+            // The grid is wound counter-clockwise seen from +z
+            Vector3f normal = new Vector3f(u).sub(a).cross(new Vector3f(w).sub(a));
+            assertTrue(normal.z > 0, () -> "parallelogram flipped: " + normal);
+
+            // The fourth corner is a vertex of the mesh, not a new point
+            Vector3f fourth = new Vector3f(u).add(w).sub(a);
+            assertTrue(corners.contains(key(fourth)), () -> "fourth corner off the mesh: " + fourth);
+        }
+    }
+
+    @Test
+    void keepsTrianglesThatDoNotFormAParallelogram() {
+        // A trapezoid split along a diagonal: the diagonals do not bisect each other
+        float[] vertices = {0, 0, 0, 4, 0, 0, 3, 1, 0, 1, 1, 0};
+        int[] indices = {0, 1, 2, 0, 2, 3};
+        OptimizedMesh optimized = MeshOptimizer.mergeParallelograms(new TriangleMesh(vertices, indices));
+
+        assertEquals(0, optimized.parallelogramCount());
+        assertEquals(2, optimized.triangleCount());
+    }
+
+    @Test
+    void keepsTrianglesFacingOppositeWays() {
+        // A square split along a diagonal, but the second triangle is wound backwards
+        float[] vertices = {0, 0, 0, 1, 0, 0, 1, 1, 0, 0, 1, 0};
+        int[] indices = {0, 1, 2, 0, 3, 2};
+        OptimizedMesh optimized = MeshOptimizer.mergeParallelograms(new TriangleMesh(vertices, indices));
+
+        assertEquals(0, optimized.parallelogramCount());
+        assertEquals(2, optimized.triangleCount());
+    }
+
+    @Test
+    void mergesWithinTolerance() {
+        float[] vertices = {0, 0, 0, 1, 0, 0, 1, 1, 0, 0, 1.00005f, 0};
+        int[] indices = {0, 1, 2, 0, 2, 3};
+        TriangleMesh mesh = new TriangleMesh(vertices, indices);
+
+        assertEquals(1, MeshOptimizer.mergeParallelograms(mesh).parallelogramCount());
+        assertEquals(0, MeshOptimizer.mergeParallelograms(mesh, 1e-6f).parallelogramCount());
+    }
+
+    @Test
+    void parallelogramHasTheCornersOfItsQuad() {
+        float[] vertices = {0, 0, 0, 2, 0, 0, 3, 1, 0, 1, 1, 0};
+        int[] indices = {0, 1, 2, 0, 2, 3};
+        OptimizedMesh optimized = MeshOptimizer.mergeParallelograms(new TriangleMesh(vertices, indices));
+        assertEquals(1, optimized.parallelogramCount());
+
+        int[] p = optimized.parallelogramIndices;
+        Vector3f a = vertex(vertices, p[0]);
+        Vector3f u = vertex(vertices, p[1]);
+        Vector3f w = vertex(vertices, p[2]);
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            expected.add(key(vertex(vertices, i)));
+        }
+        Set<String> actual = Set.of(key(a), key(u), key(w), key(new Vector3f(u).add(w).sub(a)));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void reversedMeshFacesTheOtherWay() {
+        // Two grid quads plus a triangle that merges with nothing
+        float[] vertices = {0, 0, 0, 1, 0, 0, 2, 0, 0, 0, 1, 0, 1, 1, 0, 2, 1, 0, 5, 5, 0};
+        int[] indices = {0, 1, 4, 0, 4, 3, 1, 2, 5, 1, 5, 4, 2, 6, 5};
+        OptimizedMesh optimized = MeshOptimizer.mergeParallelograms(new TriangleMesh(vertices, indices));
+        OptimizedMesh reversed = optimized.reversed();
+
+        assertEquals(2, reversed.parallelogramCount());
+        assertEquals(1, reversed.triangleCount());
+        assertSame(optimized.vertices, reversed.vertices);
+        for (int p = 0; p < reversed.parallelogramCount(); p++) {
+            assertEquals(-normalZ(optimized, optimized.parallelogramIndices, p), normalZ(reversed, reversed.parallelogramIndices, p));
+            // A parallelogram keeps its corner
+            assertEquals(optimized.parallelogramIndices[p * 3], reversed.parallelogramIndices[p * 3]);
+        }
+        assertEquals(-normalZ(optimized, optimized.triangleIndices, 0), normalZ(reversed, reversed.triangleIndices, 0));
+
+        OptimizedMesh twice = reversed.reversed();
+        assertArrayEquals(optimized.parallelogramIndices, twice.parallelogramIndices);
+        assertArrayEquals(optimized.triangleIndices, twice.triangleIndices);
+    }
+
+    @Test
+    void simplifiesFlatGridWithoutChangingItsArea() {
+        TriangleMesh grid = grid(16, 16, 0.25f, 0f);
+        TriangleMesh simplified = MeshOptimizer.simplify(grid, 2, 1e-3f);
+
+        assertTrue(simplified.triangleCount() < grid.triangleCount() / 10,
+                () -> simplified.triangleCount() + " triangles left");
+        assertEquals(area(grid), area(simplified), 1e-3f);
+        for (int i = 0; i < simplified.vertexCount(); i++) {
+            assertEquals(0f, simplified.vertices[i * 3 + 2], 1e-6f);
+        }
+        assertAllVerticesUsed(simplified);
+    }
+
+    @Test
+    void simplifiesSphereToTarget() {
+        TriangleMesh sphere = sphere(3, 2f);
+        assertEquals(1280, sphere.triangleCount());
+
+        TriangleMesh simplified = MeshOptimizer.simplify(sphere, 200);
+        assertTrue(simplified.triangleCount() <= 200, () -> simplified.triangleCount() + " triangles left");
+        assertTrue(simplified.triangleCount() >= 150, () -> simplified.triangleCount() + " triangles left");
+        assertAllVerticesUsed(simplified);
+
+        float[] v = simplified.vertices;
+        for (int i = 0; i < simplified.vertexCount(); i++) {
+            float radius = vertex(v, i).length();
+            assertEquals(2f, radius, 0.2f, "vertex " + i + " left the surface");
+        }
+        for (int t = 0; t < simplified.triangleCount(); t++) {
+            Vector3f a = vertex(v, simplified.indices[t * 3]);
+            Vector3f b = vertex(v, simplified.indices[t * 3 + 1]);
+            Vector3f c = vertex(v, simplified.indices[t * 3 + 2]);
+            Vector3f normal = new Vector3f(b).sub(a).cross(new Vector3f(c).sub(a));
+            Vector3f centroid = new Vector3f(a).add(b).add(c);
+            int triangle = t;
+            assertTrue(normal.dot(centroid) > 0, () -> "triangle " + triangle + " is flipped");
+        }
+    }
+
+    @Test
+    void simplifyStopsAtMaxError() {
+        TriangleMesh sphere = sphere(2, 2f);
+        assertEquals(sphere.triangleCount(), MeshOptimizer.simplify(sphere, 0, 1e-5f).triangleCount());
+
+        TriangleMesh coarse = MeshOptimizer.simplify(sphere, 0, 0.5f);
+        assertTrue(coarse.triangleCount() < sphere.triangleCount());
+        assertTrue(coarse.triangleCount() > 0);
+    }
+
+    @Test
+    void weldsUnsharedVertices() {
+        TriangleMesh grid = grid(6, 4, 1f, 0f);
+        // STL-style: every triangle has its own three vertices
+        float[] unshared = new float[grid.indices.length * 3];
+        int[] indices = new int[grid.indices.length];
+        for (int i = 0; i < grid.indices.length; i++) {
+            System.arraycopy(grid.vertices, grid.indices[i] * 3, unshared, i * 3, 3);
+            indices[i] = i;
+        }
+        // Jitter one copy of every vertex slightly
+        for (int i = 0; i < unshared.length; i += 9) {
+            unshared[i] += 1e-5f;
+        }
+        TriangleMesh mesh = new TriangleMesh(unshared, indices);
+
+        TriangleMesh welded = MeshOptimizer.weldVertices(mesh, 1e-4f);
+        assertEquals(grid.vertexCount(), welded.vertexCount());
+        assertEquals(grid.triangleCount(), welded.triangleCount());
+        assertEquals(grid.triangleCount() / 2, MeshOptimizer.mergeParallelograms(welded).parallelogramCount());
+
+        // Exact welding leaves the jittered copies apart
+        assertTrue(MeshOptimizer.weldVertices(mesh, 0f).vertexCount() > grid.vertexCount());
+    }
+
+    @Test
+    void weldingDropsCollapsedTriangles() {
+        float[] vertices = {0, 0, 0, 1, 0, 0, 0, 1, 0, 1e-5f, 0, 0};
+        int[] indices = {0, 1, 2, 0, 3, 2};
+        TriangleMesh welded = MeshOptimizer.weldVertices(new TriangleMesh(vertices, indices), 1e-4f);
+
+        assertEquals(3, welded.vertexCount());
+        assertEquals(1, welded.triangleCount());
+    }
+
+    @Test
+    void convertsEntityBudgetToTriangles() {
+        assertEquals(1000, MeshOptimizer.maxTrianglesForEntities(3000, false));
+        assertEquals(500, MeshOptimizer.maxTrianglesForEntities(3000, true));
+        assertEquals(0, MeshOptimizer.maxTrianglesForEntities(2, false));
+    }
+
+    /**
+     * Builds an icosphere: an icosahedron subdivided {@code levels} times with
+     * its vertices pushed onto the sphere, wound outwards.
+     */
+    static TriangleMesh sphere(int levels, float radius) {
+        float g = (float) ((1 + Math.sqrt(5)) / 2);
+        List<Vector3f> points = new ArrayList<>(List.of(
+                new Vector3f(-1, g, 0), new Vector3f(1, g, 0), new Vector3f(-1, -g, 0), new Vector3f(1, -g, 0),
+                new Vector3f(0, -1, g), new Vector3f(0, 1, g), new Vector3f(0, -1, -g), new Vector3f(0, 1, -g),
+                new Vector3f(g, 0, -1), new Vector3f(g, 0, 1), new Vector3f(-g, 0, -1), new Vector3f(-g, 0, 1)));
+        int[] faces = {0, 11, 5, 0, 5, 1, 0, 1, 7, 0, 7, 10, 0, 10, 11, 1, 5, 9, 5, 11, 4, 11, 10, 2,
+                10, 7, 6, 7, 1, 8, 3, 9, 4, 3, 4, 2, 3, 2, 6, 3, 6, 8, 3, 8, 9, 4, 9, 5, 2, 4, 11,
+                6, 2, 10, 8, 6, 7, 9, 8, 1};
+        for (int level = 0; level < levels; level++) {
+            Map<Long, Integer> midpoints = new HashMap<>();
+            int[] next = new int[faces.length * 4];
+            for (int t = 0; t < faces.length; t += 3) {
+                int a = faces[t], b = faces[t + 1], c = faces[t + 2];
+                int ab = midpoint(points, midpoints, a, b);
+                int bc = midpoint(points, midpoints, b, c);
+                int ca = midpoint(points, midpoints, c, a);
+                int[] split = {a, ab, ca, b, bc, ab, c, ca, bc, ab, bc, ca};
+                System.arraycopy(split, 0, next, t * 4, split.length);
+            }
+            faces = next;
+        }
+        float[] vertices = new float[points.size() * 3];
+        for (int i = 0; i < points.size(); i++) {
+            Vector3f point = points.get(i).normalize(radius);
+            vertices[i * 3] = point.x;
+            vertices[i * 3 + 1] = point.y;
+            vertices[i * 3 + 2] = point.z;
+        }
+        return new TriangleMesh(vertices, faces);
+    }
+
+    private static int midpoint(List<Vector3f> points, Map<Long, Integer> midpoints, int a, int b) {
+        long key = ((long) Math.min(a, b) << 32) | Math.max(a, b);
+        return midpoints.computeIfAbsent(key, k -> {
+            points.add(new Vector3f(points.get(a)).normalize().add(new Vector3f(points.get(b)).normalize()).mul(0.5f));
+            return points.size() - 1;
+        });
+    }
+
+    private static float area(TriangleMesh mesh) {
+        float area = 0f;
+        for (int t = 0; t < mesh.triangleCount(); t++) {
+            Vector3f a = vertex(mesh.vertices, mesh.indices[t * 3]);
+            Vector3f b = vertex(mesh.vertices, mesh.indices[t * 3 + 1]);
+            Vector3f c = vertex(mesh.vertices, mesh.indices[t * 3 + 2]);
+            area += new Vector3f(b).sub(a).cross(new Vector3f(c).sub(a)).length() / 2f;
+        }
+        return area;
+    }
+
+    private static void assertAllVerticesUsed(TriangleMesh mesh) {
+        boolean[] used = new boolean[mesh.vertexCount()];
+        for (int index : mesh.indices) {
+            used[index] = true;
+        }
+        for (int i = 0; i < used.length; i++) {
+            assertTrue(used[i], "vertex " + i + " is unused");
+        }
+    }
+
+    /**
+     * Builds a flat grid of {@code columns x rows} sheared cells in the xy plane,
+     * each split into two counter-clockwise triangles along its long diagonal.
+     */
+    static TriangleMesh grid(int columns, int rows, float size, float shear) {
+        float[] vertices = new float[(columns + 1) * (rows + 1) * 3];
+        for (int y = 0; y <= rows; y++) {
+            for (int x = 0; x <= columns; x++) {
+                int i = (y * (columns + 1) + x) * 3;
+                vertices[i] = x * size + y * size * shear;
+                vertices[i + 1] = y * size;
+            }
+        }
+        int[] indices = new int[columns * rows * 6];
+        int offset = 0;
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < columns; x++) {
+                int a = y * (columns + 1) + x;
+                int b = a + 1;
+                int c = a + columns + 2;
+                int d = a + columns + 1;
+                indices[offset++] = a;
+                indices[offset++] = b;
+                indices[offset++] = c;
+                indices[offset++] = a;
+                indices[offset++] = c;
+                indices[offset++] = d;
+            }
+        }
+        return new TriangleMesh(vertices, indices);
+    }
+
+    /**
+     * The z component of the normal of piece {@code p}, wound as given.
+     */
+    private static float normalZ(OptimizedMesh mesh, int[] indices, int p) {
+        Vector3f a = vertex(mesh.vertices, indices[p * 3]);
+        Vector3f u = vertex(mesh.vertices, indices[p * 3 + 1]).sub(a);
+        Vector3f w = vertex(mesh.vertices, indices[p * 3 + 2]).sub(a);
+        return u.cross(w).z;
+    }
+
+    static Vector3f vertex(float[] vertices, int index) {
+        return new Vector3f(vertices[index * 3], vertices[index * 3 + 1], vertices[index * 3 + 2]);
+    }
+
+    private static String key(Vector3f point) {
+        return Math.round(point.x * 1000) + "," + Math.round(point.y * 1000) + "," + Math.round(point.z * 1000);
+    }
+}
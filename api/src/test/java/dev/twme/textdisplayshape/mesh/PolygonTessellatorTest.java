@@ -0,0 +1,265 @@
+package dev.twme.textdisplayshape.mesh;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.joml.Quaternionf;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+class PolygonTessellatorTest {
+
+    private static final int SAMPLES = 20_000;
+
+    /**
+     * Distance from a piece edge within which a sample counts as inside when
+     * looking for gaps, and as outside when looking for overlaps.
+     */
+    private static final float EDGE = 1e-4f;
+
+    @Test
+    void squareIsOneParallelogram() {
+        OptimizedMesh mesh = PolygonTessellator.tessellate(outline(0, 0, 2, 0, 2, 2, 0, 2));
+
+        assertEquals(1, mesh.parallelogramCount());
+        assertEquals(0, mesh.triangleCount());
+        assertCoverage(List.of(new Vector2f(0, 0), new Vector2f(2, 0), new Vector2f(2, 2), new Vector2f(0, 2)), mesh);
+    }
+
+    @Test
+    void collinearPointsAreMerged() {
+        // The same square with extra points along every side
+        OptimizedMesh mesh = PolygonTessellator.tessellate(outline(
+                0, 0, 0.5f, 0, 1, 0, 2, 0, 2, 0.7f, 2, 2, 1.2f, 2, 1.2f, 2, 0, 2, 0, 1));
+
+        assertEquals(1, mesh.parallelogramCount());
+        assertEquals(0, mesh.triangleCount());
+    }
+
+    @Test
+    void lShapeIsRectanglesOnly() {
+        float[] l = {0, 0, 3, 0, 3, 1, 1, 1, 1, 3, 0, 3};
+        OptimizedMesh mesh = PolygonTessellator.tessellate(outline(l));
+
+        assertEquals(0, mesh.triangleCount());
+        assertTrue(mesh.parallelogramCount() <= 3, () -> mesh.parallelogramCount() + " pieces");
+        assertCoverage(points(l), mesh);
+    }
+
+    @Test
+    void concaveStarIsCovered() {
+        float[] star = star(5, 2f, 0.8f);
+        assertCoverage(points(star), PolygonTessellator.tessellate(outline(star)));
+    }
+
+    @Test
+    void pentagramIsFilledEvenOdd() {
+        // {5/2} star polygon: the center pentagon is covered twice and stays empty
+        float[] pentagram = starPolygon(5, 2, 2f);
+        assertCoverage(points(pentagram), PolygonTessellator.tessellate(outline(pentagram)));
+    }
+
+    @Test
+    void heptagramIsFilledEvenOdd() {
+        float[] heptagram = starPolygon(7, 3, 2f);
+        assertCoverage(points(heptagram), PolygonTessellator.tessellate(outline(heptagram)));
+    }
+
+    @Test
+    void selfIntersectingQuadIsFilledEvenOdd() {
+        // Two unequal loops meeting at a crossing, so the signed area is not zero
+        float[] bowtie = {0, 0, 3, 2, 3, 0, 0, 1};
+        assertCoverage(points(bowtie), PolygonTessellator.tessellate(outline(bowtie)));
+    }
+
+    @Test
+    void tiltedOutlineKeepsWinding() {
+        Quaternionf tilt = new Quaternionf().rotateXYZ(0.4f, -1.1f, 0.3f);
+        float[] star = star(6, 2f, 1f);
+        List<Vector3f> outline = outline(star);
+        for (Vector3f point : outline) {
+            tilt.transform(point).add(10f, 64f, -3f);
+        }
+        Vector3f normal = tilt.transform(new Vector3f(0, 0, 1));
+
+        OptimizedMesh mesh = PolygonTessellator.tessellate(outline);
+        assertTrue(mesh.pieceCount() > 0);
+        float area = 0f;
+        for (int p = 0; p < mesh.parallelogramCount(); p++) {
+            area += 2f * pieceNormal(mesh.vertices, mesh.parallelogramIndices, p).dot(normal);
+        }
+        for (int t = 0; t < mesh.triangleCount(); t++) {
+            float projected = pieceNormal(mesh.vertices, mesh.triangleIndices, t).dot(normal);
+            assertTrue(projected > 0, "triangle " + t + " is flipped");
+            area += projected;
+        }
+        for (int p = 0; p < mesh.parallelogramCount(); p++) {
+            assertTrue(pieceNormal(mesh.vertices, mesh.parallelogramIndices, p).dot(normal) > 0,
+                    "parallelogram " + p + " is flipped");
+        }
+        // Twice the signed area of the star, from the shoelace formula
+        assertEquals(shoelace(star), area / 2f, 1e-3f);
+    }
+
+    @Test
+    void degenerateOutlinesAreEmpty() {
+        assertEquals(0, PolygonTessellator.tessellate(outline(0, 0, 1, 1)).pieceCount());
+        assertEquals(0, PolygonTessellator.tessellate(outline(0, 0, 1, 0, 2, 0, 3, 0)).pieceCount());
+    }
+
+    /**
+     * Samples points over the bounding box and checks that every point inside
+     * the outline (even-odd rule) lies in a piece, no point outside does, and no
+     * point lies in two pieces. The outline must be in the z = 0 plane.
+     */
+    private static void assertCoverage(List<Vector2f> polygon, OptimizedMesh mesh) {
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (Vector2f point : polygon) {
+            minX = Math.min(minX, point.x);
+            minY = Math.min(minY, point.y);
+            maxX = Math.max(maxX, point.x);
+            maxY = Math.max(maxY, point.y);
+        }
+
+        Random random = new Random(40);
+        int wrong = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            float x = minX + random.nextFloat() * (maxX - minX);
+            float y = minY + random.nextFloat() * (maxY - minY);
+            boolean inside = evenOdd(polygon, x, y);
+            int loose = covering(mesh, x, y, EDGE);
+            int strict = covering(mesh, x, y, -EDGE);
+            if (strict > 1 || (inside && loose == 0) || (!inside && strict > 0)) {
+                wrong++;
+            }
+        }
+        assertEquals(0, wrong, wrong + " of " + SAMPLES + " samples are covered wrongly");
+    }
+
+    private static boolean evenOdd(List<Vector2f> polygon, float x, float y) {
+        boolean inside = false;
+        for (int i = 0, j = polygon.size() - 1; i < polygon.size(); j = i++) {
+            Vector2f a = polygon.get(i);
+            Vector2f b = polygon.get(j);
+            if ((a.y > y) != (b.y > y) && x < (b.x - a.x) * (y - a.y) / (b.y - a.y) + a.x) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Counts the pieces containing the point, with their edges moved outwards by
+     * {@code margin} (inwards if negative).
+     */
+    private static int covering(OptimizedMesh mesh, float x, float y, float margin) {
+        float[] v = mesh.vertices;
+        int count = 0;
+        for (int p = 0; p < mesh.parallelogramCount(); p++) {
+            int[] indices = mesh.parallelogramIndices;
+            if (contains(v, indices[p * 3], indices[p * 3 + 1], indices[p * 3 + 2], x, y, margin, true)) {
+                count++;
+            }
+        }
+        for (int t = 0; t < mesh.triangleCount(); t++) {
+            int[] indices = mesh.triangleIndices;
+            if (contains(v, indices[t * 3], indices[t * 3 + 1], indices[t * 3 + 2], x, y, margin, false)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether the point is in the parallelogram or triangle spanned from
+     * corner {@code a} by {@code b - a} and {@code c - a}.
+     */
+    private static boolean contains(float[] v, int a, int b, int c, float x, float y, float margin,
+                                    boolean parallelogram) {
+        float ax = v[a * 3], ay = v[a * 3 + 1];
+        float ex = v[b * 3] - ax, ey = v[b * 3 + 1] - ay;
+        float fx = v[c * 3] - ax, fy = v[c * 3 + 1] - ay;
+        float det = ex * fy - ey * fx;
+        float px = x - ax, py = y - ay;
+        float s = (px * fy - py * fx) / det;
+        float t = (ex * py - ey * px) / det;
+        // Margins in edge coordinates
+        float ms = margin * (float) Math.hypot(fx, fy) / Math.abs(det);
+        float mt = margin * (float) Math.hypot(ex, ey) / Math.abs(det);
+        if (s < -ms || t < -mt) {
+            return false;
+        }
+        if (parallelogram) {
+            return s <= 1 + ms && t <= 1 + mt;
+        }
+        float mu = margin * (float) Math.hypot(fx - ex, fy - ey) / Math.abs(det);
+        return s + t <= 1 + mu;
+    }
+
+    private static Vector3f pieceNormal(float[] v, int[] indices, int piece) {
+        int a = indices[piece * 3], b = indices[piece * 3 + 1], c = indices[piece * 3 + 2];
+        Vector3f origin = new Vector3f(v[a * 3], v[a * 3 + 1], v[a * 3 + 2]);
+        Vector3f e = new Vector3f(v[b * 3], v[b * 3 + 1], v[b * 3 + 2]).sub(origin);
+        Vector3f f = new Vector3f(v[c * 3], v[c * 3 + 1], v[c * 3 + 2]).sub(origin);
+        return e.cross(f);
+    }
+
+    private static float shoelace(float[] xy) {
+        float area = 0f;
+        int n = xy.length / 2;
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            area += xy[i * 2] * xy[j * 2 + 1] - xy[j * 2] * xy[i * 2 + 1];
+        }
+        return area / 2f;
+    }
+
+    /**
+     * A star outline with {@code points} tips, alternating between two radii.
+     */
+    private static float[] star(int points, float outer, float inner) {
+        float[] xy = new float[points * 4];
+        for (int i = 0; i < points * 2; i++) {
+            double angle = Math.PI * i / points;
+            float radius = i % 2 == 0 ? outer : inner;
+            xy[i * 2] = (float) (radius * Math.cos(angle));
+            xy[i * 2 + 1] = (float) (radius * Math.sin(angle));
+        }
+        return xy;
+    }
+
+    /**
+     * The star polygon {n/step}: the points of a regular n-gon joined every
+     * {@code step}-th point, which crosses itself.
+     */
+    private static float[] starPolygon(int n, int step, float radius) {
+        float[] xy = new float[n * 2];
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * i * step / n + 0.1;
+            xy[i * 2] = (float) (radius * Math.cos(angle));
+            xy[i * 2 + 1] = (float) (radius * Math.sin(angle));
+        }
+        return xy;
+    }
+
+    private static List<Vector3f> outline(float... xy) {
+        List<Vector3f> outline = new ArrayList<>(xy.length / 2);
+        for (int i = 0; i < xy.length; i += 2) {
+            outline.add(new Vector3f(xy[i], xy[i + 1], 0f));
+        }
+        return outline;
+    }
+
+    private static List<Vector2f> points(float[] xy) {
+        List<Vector2f> points = new ArrayList<>(xy.length / 2);
+        for (int i = 0; i < xy.length; i += 2) {
+            points.add(new Vector2f(xy[i], xy[i + 1]));
+        }
+        return points;
+    }
+}
@@ -0,0 +1,100 @@
+package dev.twme.textdisplayshape.shape;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class LevelOfDetailTest {
+
+    private final LevelOfDetail lod = new LevelOfDetail(2.0, 10.0, 20.0, 40.0);
+
+    @Test
+    void initialLevelIncludesEachThreshold() {
+        assertEquals(3, lod.levelCount());
+        assertEquals(3, lod.hiddenLevel());
+
+        assertEquals(0, lod.initialLevel(0.0));
+        assertEquals(0, lod.initialLevel(10.0));
+        assertEquals(1, lod.initialLevel(Math.nextUp(10.0)));
+        assertEquals(1, lod.initialLevel(20.0));
+        assertEquals(2, lod.initialLevel(40.0));
+        assertEquals(lod.hiddenLevel(), lod.initialLevel(Math.nextUp(40.0)));
+        assertEquals(lod.hiddenLevel(), lod.initialLevel(Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    void selectKeepsLevelWithinHysteresis() {
+        // Coarser only once more than the hysteresis past the threshold
+        assertEquals(0, lod.select(0, 11.9));
+        assertEquals(0, lod.select(0, 12.0));
+        assertEquals(1, lod.select(0, Math.nextUp(12.0)));
+
+        // Finer only once more than the hysteresis inside it
+        assertEquals(1, lod.select(1, 8.1));
+        assertEquals(1, lod.select(1, 8.0));
+        assertEquals(0, lod.select(1, Math.nextDown(8.0)));
+
+        // Walking back and forth across a threshold does not flip the level
+        int level = lod.initialLevel(19.0);
+        for (double distance : new double[] {21.0, 19.0, 21.9, 18.1, 20.0}) {
+            level = lod.select(level, distance);
+            assertEquals(1, level, "at " + distance);
+        }
+    }
+
+    @Test
+    void selectSkipsSeveralLevelsAtOnce() {
+        assertEquals(2, lod.select(0, 30.0));
+        assertEquals(0, lod.select(2, 5.0));
+        assertEquals(lod.hiddenLevel(), lod.select(0, 100.0));
+        assertEquals(0, lod.select(lod.hiddenLevel(), 5.0));
+    }
+
+    @Test
+    void culledBeyondLastLevel() {
+        assertEquals(2, lod.select(2, 42.0));
+        assertEquals(lod.hiddenLevel(), lod.select(2, Math.nextUp(42.0)));
+
+        // Hidden viewers reappear only once inside the hysteresis band
+        assertEquals(lod.hiddenLevel(), lod.select(lod.hiddenLevel(), 39.0));
+        assertEquals(lod.hiddenLevel(), lod.select(lod.hiddenLevel(), 38.0));
+        assertEquals(2, lod.select(lod.hiddenLevel(), 37.9));
+
+        LevelOfDetail never = new LevelOfDetail(2.0, 10.0, Double.POSITIVE_INFINITY);
+        assertEquals(1, never.initialLevel(1e9));
+        assertEquals(1, never.select(0, Double.MAX_VALUE));
+    }
+
+    @Test
+    void zeroHysteresisMatchesInitialLevel() {
+        LevelOfDetail exact = new LevelOfDetail(0.0, 10.0, 20.0, 40.0);
+        Random random = new Random(70);
+        for (int i = 0; i < 1_000; i++) {
+            double distance = random.nextDouble() * 50.0;
+            int current = random.nextInt(exact.hiddenLevel() + 1);
+            assertEquals(exact.initialLevel(distance), exact.select(current, distance),
+                    "from " + current + " at " + distance);
+        }
+    }
+
+    @Test
+    void rejectsInvalidThresholds() {
+        assertThrows(IllegalArgumentException.class, () -> new LevelOfDetail(1.0));
+        assertThrows(IllegalArgumentException.class, () -> new LevelOfDetail(1.0, 20.0, 10.0));
+        assertThrows(IllegalArgumentException.class, () -> new LevelOfDetail(1.0, 10.0, 10.0));
+        assertThrows(IllegalArgumentException.class, () -> new LevelOfDetail(1.0, 10.0, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> new LevelOfDetail(-1.0, 10.0));
+        assertThrows(IllegalArgumentException.class, () -> new LevelOfDetail(Double.NaN, 10.0));
+    }
+
+    @Test
+    void copiesThresholds() {
+        double[] distances = {10.0, 20.0};
+        LevelOfDetail copied = new LevelOfDetail(0.0, distances);
+        distances[0] = 100.0;
+        assertEquals(1, copied.initialLevel(15.0));
+    }
+}
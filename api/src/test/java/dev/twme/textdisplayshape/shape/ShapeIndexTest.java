@@ -0,0 +1,158 @@
+package dev.twme.textdisplayshape.shape;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class ShapeIndexTest {
+
+    private static final int SHAPES = 5_000;
+    private static final int QUERIES = 2_000;
+
+    @Test
+    void radiusQueriesMatchBruteForce() {
+        Random random = new Random(50);
+        ShapeIndex<Shape> index = new ShapeIndex<>();
+        List<ShapeBounds> bounds = new ArrayList<>(SHAPES);
+        Shape[] shapes = shapes();
+        for (int i = 0; i < SHAPES; i++) {
+            bounds.add(randomBounds(random));
+            index.put(shapes[i], bounds.get(i));
+        }
+
+        for (int q = 0; q < QUERIES; q++) {
+            assertQueryMatches(index, shapes, bounds, random);
+        }
+    }
+
+    @Test
+    void queriesMatchBruteForceAfterMovesAndRemovals() {
+        Random random = new Random(51);
+        ShapeIndex<Shape> index = new ShapeIndex<>();
+        List<ShapeBounds> bounds = new ArrayList<>(SHAPES);
+        Shape[] shapes = shapes();
+        for (int i = 0; i < SHAPES; i++) {
+            bounds.add(randomBounds(random));
+            index.put(shapes[i], bounds.get(i));
+        }
+        for (int i = 0; i < SHAPES; i += 3) {
+            bounds.set(i, randomBounds(random));
+            index.put(shapes[i], bounds.get(i));
+        }
+        for (int i = 1; i < SHAPES; i += 5) {
+            assertTrue(index.remove(shapes[i]));
+            bounds.set(i, null);
+        }
+
+        assertEquals(SHAPES - (SHAPES + 3) / 5, index.size());
+        for (int q = 0; q < QUERIES; q++) {
+            assertQueryMatches(index, shapes, bounds, random);
+        }
+        for (int i = 0; i < SHAPES; i++) {
+            assertEquals(bounds.get(i), index.getBounds(shapes[i]));
+        }
+    }
+
+    @Test
+    void chunkQueriesMatchBruteForce() {
+        Random random = new Random(52);
+        ShapeIndex<Shape> index = new ShapeIndex<>();
+        List<ShapeBounds> bounds = new ArrayList<>(SHAPES);
+        Shape[] shapes = shapes();
+        for (int i = 0; i < SHAPES; i++) {
+            bounds.add(randomBounds(random));
+            index.put(shapes[i], bounds.get(i));
+        }
+
+        for (int chunkX = -20; chunkX < 20; chunkX++) {
+            for (int chunkZ = -20; chunkZ < 20; chunkZ++) {
+                Set<Shape> expected = new HashSet<>();
+                for (int i = 0; i < SHAPES; i++) {
+                    ShapeBounds b = bounds.get(i);
+                    if (Math.floor(b.minX()) < (chunkX + 1) * 16 && Math.floor(b.maxX()) >= chunkX * 16
+                            && Math.floor(b.minZ()) < (chunkZ + 1) * 16 && Math.floor(b.maxZ()) >= chunkZ * 16) {
+                        expected.add(shapes[i]);
+                    }
+                }
+                List<Shape> actual = index.queryChunk(chunkX, chunkZ);
+                assertEquals(expected.size(), actual.size(), "chunk " + chunkX + ", " + chunkZ);
+                assertEquals(expected, new HashSet<>(actual), "chunk " + chunkX + ", " + chunkZ);
+            }
+        }
+    }
+
+    @Test
+    void valuesAreComparedByIdentity() {
+        ShapeIndex<String> index = new ShapeIndex<>();
+        String first = new String("shape");
+        String second = new String("shape");
+        ShapeBounds bounds = new ShapeBounds(0, 0, 0, 1, 1, 1);
+        index.put(first, bounds);
+        index.put(second, bounds);
+
+        assertEquals(2, index.size());
+        assertEquals(2, index.queryRadius(0, 0, 0, 1).size());
+        assertTrue(index.remove(first));
+        assertFalse(index.remove(first));
+        assertNull(index.getBounds(first));
+        assertTrue(index.contains(second));
+    }
+
+    /**
+     * Runs one random radius query and compares it with a scan of every bounds.
+     * Removed values have null bounds.
+     */
+    private static void assertQueryMatches(ShapeIndex<Shape> index, Shape[] shapes, List<ShapeBounds> bounds,
+                                           Random random) {
+        double x = random.nextDouble() * 700 - 350;
+        double y = random.nextDouble() * 300 - 50;
+        double z = random.nextDouble() * 700 - 350;
+        double radius = random.nextDouble() * 64;
+
+        Set<Shape> expected = new HashSet<>();
+        for (int i = 0; i < bounds.size(); i++) {
+            ShapeBounds b = bounds.get(i);
+            if (b != null && b.distanceSquared(x, y, z) <= radius * radius) {
+                expected.add(shapes[i]);
+            }
+        }
+        List<Shape> actual = index.queryRadius(x, y, z, radius);
+        // Every value once
+        assertEquals(expected.size(), actual.size(), "duplicates or misses near " + x + ", " + y + ", " + z);
+        assertEquals(expected, new HashSet<>(actual));
+    }
+
+    /**
+     * Random bounds around the origin, mostly small but some spanning many chunks.
+     */
+    private static ShapeBounds randomBounds(Random random) {
+        double x = random.nextDouble() * 640 - 320;
+        double y = random.nextDouble() * 256 - 32;
+        double z = random.nextDouble() * 640 - 320;
+        double size = random.nextInt(10) == 0 ? random.nextDouble() * 80 : random.nextDouble() * 6;
+        return new ShapeBounds(x, y, z, x + size, y + random.nextDouble() * 6, z + random.nextDouble() * size);
+    }
+
+    private static Shape[] shapes() {
+        Shape[] shapes = new Shape[SHAPES];
+        for (int i = 0; i < SHAPES; i++) {
+            shapes[i] = new Shape(i);
+        }
+        return shapes;
+    }
+
+    /**
+     * Stand-in for an indexed shape; the index compares values by identity.
+     */
+    private record Shape(int id) {
+    }
+}
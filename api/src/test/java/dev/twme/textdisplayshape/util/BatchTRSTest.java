@@ -0,0 +1,174 @@
+package dev.twme.textdisplayshape.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.List;
+import java.util.Random;
+
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the struct-of-arrays batch solvers against the per-shape scalar
+ * methods. When the JVM runs with {@code jdk.incubator.vector}, this also
+ * covers the SIMD kernel, which works in single precision.
+ */
+class BatchTRSTest {
+
+    private static final float TOLERANCE = 1e-3f;
+
+    private static final int VERTEX_COUNT = 200;
+    private static final int TRIANGLE_COUNT = 501;
+
+    @Test
+    void triangleBatchMatchesScalar() {
+        Random random = new Random(10);
+        float[] vertices = randomVertices(random);
+        int[] indices = randomIndices(random, TRIANGLE_COUNT);
+
+        TRSBuffer buffer = TRSBuffer.forTriangles(TRIANGLE_COUNT);
+        assertEquals(indices.length, TextDisplayUtil.computeTriangleTRS(vertices, indices, buffer));
+
+        for (int t = 0; t < TRIANGLE_COUNT; t++) {
+            List<TRSResult> expected = TextDisplayUtil.computeTriangleTRS(
+                    vertex(vertices, indices[t * 3]),
+                    vertex(vertices, indices[t * 3 + 1]),
+                    vertex(vertices, indices[t * 3 + 2]));
+            for (int k = 0; k < TextDisplayUtil.TRIANGLE_PIECE_COUNT; k++) {
+                assertSameTransform(expected.get(k), buffer.get(t * TextDisplayUtil.TRIANGLE_PIECE_COUNT + k));
+            }
+        }
+    }
+
+    @Test
+    void triangleRangeWritesAtOffset() {
+        Random random = new Random(11);
+        float[] vertices = randomVertices(random);
+        int[] indices = randomIndices(random, TRIANGLE_COUNT);
+
+        TRSBuffer whole = TRSBuffer.forTriangles(TRIANGLE_COUNT);
+        TextDisplayUtil.computeTriangleTRS(vertices, indices, whole);
+
+        int first = 37;
+        int count = 100;
+        TRSBuffer range = TRSBuffer.forTriangles(count + 1);
+        int written = TextDisplayUtil.computeTriangleTRS(vertices, indices, first, count, range, 3);
+        assertEquals(count * TextDisplayUtil.TRIANGLE_PIECE_COUNT, written);
+
+        for (int piece = 0; piece < written; piece++) {
+            assertSameTransform(whole.get(first * TextDisplayUtil.TRIANGLE_PIECE_COUNT + piece), range.get(3 + piece));
+        }
+    }
+
+    @Test
+    void triangleRangeRejectsSmallBuffer() {
+        float[] vertices = randomVertices(new Random(12));
+        int[] indices = randomIndices(new Random(12), 4);
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> TextDisplayUtil.computeTriangleTRS(vertices, indices, TRSBuffer.forTriangles(3)));
+    }
+
+    @Test
+    void floatBufferBatchMatchesArrayBatch() {
+        Random random = new Random(13);
+        float[] vertices = randomVertices(random);
+        int[] indices = randomIndices(random, TRIANGLE_COUNT);
+
+        FloatBuffer direct = ByteBuffer.allocateDirect(vertices.length * Float.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer()
+                .put(vertices);
+
+        TRSBuffer fromArray = TRSBuffer.forTriangles(TRIANGLE_COUNT);
+        TRSBuffer fromBuffer = TRSBuffer.forTriangles(TRIANGLE_COUNT);
+        TextDisplayUtil.computeTriangleTRS(vertices, indices, fromArray);
+        TextDisplayUtil.computeTriangleTRS(direct, indices, fromBuffer);
+
+        assertEquals(vertices.length, direct.position(), "buffer position must not change");
+        for (int piece = 0; piece < fromArray.capacity(); piece++) {
+            assertSameTransform(fromArray.get(piece), fromBuffer.get(piece));
+        }
+    }
+
+    @Test
+    void parallelogramBatchMatchesScalar() {
+        Random random = new Random(14);
+        float[] vertices = randomVertices(random);
+        int[] indices = randomIndices(random, TRIANGLE_COUNT);
+
+        TRSBuffer buffer = new TRSBuffer(TRIANGLE_COUNT);
+        assertEquals(TRIANGLE_COUNT, TextDisplayUtil.computeParallelogramTRS(vertices, indices, buffer));
+
+        for (int p = 0; p < TRIANGLE_COUNT; p++) {
+            TRSResult expected = TextDisplayUtil.computeParallelogramTRS(
+                    vertex(vertices, indices[p * 3]),
+                    vertex(vertices, indices[p * 3 + 1]),
+                    vertex(vertices, indices[p * 3 + 2]));
+            assertSameTransform(expected, buffer.get(p));
+        }
+    }
+
+    private static float[] randomVertices(Random random) {
+        float[] vertices = new float[VERTEX_COUNT * 3];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = random.nextFloat() * 20f - 10f;
+        }
+        return vertices;
+    }
+
+    private static int[] randomIndices(Random random, int triangleCount) {
+        int[] indices = new int[triangleCount * 3];
+        for (int t = 0; t < triangleCount; t++) {
+            // Three distinct vertices per triangle
+            int a = random.nextInt(VERTEX_COUNT);
+            int b = (a + 1 + random.nextInt(VERTEX_COUNT - 1)) % VERTEX_COUNT;
+            int c;
+            do {
+                c = random.nextInt(VERTEX_COUNT);
+            } while (c == a || c == b);
+            indices[t * 3] = a;
+            indices[t * 3 + 1] = b;
+            indices[t * 3 + 2] = c;
+        }
+        return indices;
+    }
+
+    private static Vector3f vertex(float[] vertices, int index) {
+        return new Vector3f(vertices[index * 3], vertices[index * 3 + 1], vertices[index * 3 + 2]);
+    }
+
+    /**
+     * Compares two results by the transform they describe. The SVD factors of a
+     * piece are not unique (rotation sign, order of equal singular values), so
+     * the rebuilt matrices are compared instead of the raw components.
+     */
+    static void assertSameTransform(TRSResult expected, TRSResult actual) {
+        Matrix4f e = toMatrix(expected);
+        Matrix4f a = toMatrix(actual);
+        float scale = Math.max(1f, maxAbs(e));
+        assertTrue(e.equals(a, TOLERANCE * scale), () -> "expected\n" + e + "but was\n" + a);
+    }
+
+    static Matrix4f toMatrix(TRSResult trs) {
+        return new Matrix4f()
+                .translation(trs.translation())
+                .rotate(trs.leftRotation())
+                .scale(trs.scale())
+                .rotate(trs.rightRotation());
+    }
+
+    private static float maxAbs(Matrix4f m) {
+        float[] values = m.get(new float[16]);
+        float max = 0f;
+        for (float value : values) {
+            max = Math.max(max, Math.abs(value));
+        }
+        return max;
+    }
+}
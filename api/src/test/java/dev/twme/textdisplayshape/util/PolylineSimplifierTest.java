@@ -0,0 +1,118 @@
+package dev.twme.textdisplayshape.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+class PolylineSimplifierTest {
+
+    @Test
+    void collinearPointsReduceToEndpoints() {
+        List<Vector3f> line = new ArrayList<>();
+        for (int i = 0; i <= 10; i++) {
+            line.add(new Vector3f(i, 2f * i, -i));
+        }
+
+        List<Vector3f> simplified = PolylineSimplifier.simplify(line, 0.01f, false);
+        assertEquals(List.of(line.get(0), line.get(10)), simplified);
+    }
+
+    @Test
+    void shortInputIsCopied() {
+        List<Vector3f> two = List.of(new Vector3f(0f, 0f, 0f), new Vector3f(1f, 1f, 1f));
+        List<Vector3f> simplified = PolylineSimplifier.simplify(two, 100f, false);
+        assertEquals(two, simplified);
+        assertNotSame(two.get(0), simplified.get(0));
+
+        assertEquals(List.of(new Vector3f(3f, 2f, 1f)), PolylineSimplifier.simplify(List.of(new Vector3f(3f, 2f, 1f)), 1f, false));
+        assertTrue(PolylineSimplifier.simplify(List.of(), 1f, false).isEmpty());
+    }
+
+    @Test
+    void zeroToleranceOnlyDropsPointsOnTheLine() {
+        List<Vector3f> bump = List.of(
+                new Vector3f(0f, 0f, 0f),
+                new Vector3f(1f, 0.001f, 0f),
+                new Vector3f(2f, 0f, 0f),
+                new Vector3f(3f, 0f, 0f),
+                new Vector3f(4f, 0f, 0f));
+
+        // Every point off its segment is kept, however close
+        List<Vector3f> simplified = PolylineSimplifier.simplify(bump, 0f, false);
+        assertEquals(List.of(bump.get(0), bump.get(1), bump.get(2), bump.get(4)), simplified);
+    }
+
+    @Test
+    void endpointsAreAlwaysKept() {
+        Random random = new Random(80);
+        for (int i = 0; i < 200; i++) {
+            List<Vector3f> points = randomWalk(random, 3 + random.nextInt(50));
+            List<Vector3f> simplified = PolylineSimplifier.simplify(points, 1000f, false);
+            assertEquals(List.of(points.get(0), points.get(points.size() - 1)), simplified);
+        }
+    }
+
+    @Test
+    void keepsClosedLoopCorners() {
+        List<Vector3f> square = List.of(
+                new Vector3f(0f, 0f, 0f), new Vector3f(1f, 0f, 0f), new Vector3f(2f, 0f, 0f),
+                new Vector3f(2f, 0f, 1f), new Vector3f(2f, 0f, 2f),
+                new Vector3f(1f, 0f, 2f), new Vector3f(0f, 0f, 2f),
+                new Vector3f(0f, 0f, 1f));
+
+        List<Vector3f> simplified = PolylineSimplifier.simplify(square, 0.1f, true);
+        assertEquals(List.of(square.get(0), square.get(2), square.get(4), square.get(6)), simplified);
+    }
+
+    @Test
+    void droppedPointsStayWithinTolerance() {
+        Random random = new Random(81);
+        for (int i = 0; i < 200; i++) {
+            List<Vector3f> points = randomWalk(random, 2 + random.nextInt(200));
+            float tolerance = random.nextFloat() * 2f;
+            List<Vector3f> simplified = PolylineSimplifier.simplify(points, tolerance, false);
+
+            // Kept points are a subsequence of the input; every dropped point lies
+            // within the tolerance of the segment between its kept neighbours
+            int next = 0;
+            int previousKept = -1;
+            for (int p = 0; p < points.size(); p++) {
+                if (next < simplified.size() && points.get(p).equals(simplified.get(next))) {
+                    for (int d = previousKept + 1; d < p; d++) {
+                        float distance = segmentDistance(points.get(d), points.get(previousKept), points.get(p));
+                        assertTrue(distance <= tolerance + 1e-4f, distance + " > " + tolerance);
+                    }
+                    previousKept = p;
+                    next++;
+                }
+            }
+            assertEquals(simplified.size(), next, "kept points out of order");
+            assertEquals(points.size() - 1, previousKept);
+        }
+    }
+
+    private static List<Vector3f> randomWalk(Random random, int count) {
+        List<Vector3f> points = new ArrayList<>(count);
+        Vector3f position = new Vector3f();
+        for (int i = 0; i < count; i++) {
+            position.add(random.nextFloat() * 2f - 1f, random.nextFloat() * 2f - 1f, random.nextFloat() * 2f - 1f);
+            points.add(new Vector3f(position));
+        }
+        return points;
+    }
+
+    private static float segmentDistance(Vector3f p, Vector3f a, Vector3f b) {
+        Vector3f ab = new Vector3f(b).sub(a);
+        float lengthSquared = ab.lengthSquared();
+        float t = lengthSquared > 0f ? new Vector3f(p).sub(a).dot(ab) / lengthSquared : 0f;
+        t = Math.max(0f, Math.min(1f, t));
+        return p.distance(new Vector3f(a).fma(t, ab));
+    }
+}
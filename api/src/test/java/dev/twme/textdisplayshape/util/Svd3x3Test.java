@@ -0,0 +1,123 @@
+package dev.twme.textdisplayshape.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.joml.Matrix3f;
+import org.joml.Matrix4f;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+class Svd3x3Test {
+
+    private static final int SAMPLES = 10_000;
+
+    /**
+     * Relative reconstruction error allowed; the factors are stored as floats.
+     */
+    private static final float TOLERANCE = 1e-5f;
+
+    @Test
+    void rebuildsRandomMatrices() {
+        Random random = new Random(30);
+        for (int i = 0; i < SAMPLES; i++) {
+            assertRebuilds(randomAffine(random));
+        }
+    }
+
+    @Test
+    void rebuildsMirroredMatrices() {
+        Random random = new Random(31);
+        for (int i = 0; i < SAMPLES; i++) {
+            Matrix4f matrix = randomAffine(random);
+            if (matrix.determinant3x3() > 0) {
+                matrix.scale(1f, -1f, 1f);
+            }
+            TRSResult result = assertRebuilds(matrix);
+            assertTrue(result.scale().z < 0, () -> "mirrored input needs a negative last scale: " + result.scale());
+        }
+    }
+
+    @Test
+    void rebuildsRankDeficientMatrices() {
+        Random random = new Random(32);
+        for (int i = 0; i < SAMPLES; i++) {
+            Matrix4f matrix = randomAffine(random);
+            // Collapse one column into a combination of the other two
+            float a = random.nextFloat();
+            float b = random.nextFloat();
+            matrix.m20(a * matrix.m00() + b * matrix.m10())
+                    .m21(a * matrix.m01() + b * matrix.m11())
+                    .m22(a * matrix.m02() + b * matrix.m12());
+            assertRebuilds(matrix);
+        }
+    }
+
+    @Test
+    void rebuildsIsotropicMatrices() {
+        Random random = new Random(33);
+        for (int i = 0; i < SAMPLES; i++) {
+            float scale = 0.01f + random.nextFloat() * 10f;
+            Matrix4f matrix = new Matrix4f()
+                    .translation(random.nextFloat(), random.nextFloat(), random.nextFloat())
+                    .rotate(randomRotation(random))
+                    .scale(scale);
+            TRSResult result = assertRebuilds(matrix);
+            assertTrue(result.scale().equals(new Vector3f(scale), TOLERANCE * scale), result.scale()::toString);
+        }
+    }
+
+    @Test
+    void rebuildsZeroMatrix() {
+        TRSResult result = assertRebuilds(new Matrix4f().zero().m33(1f));
+        assertEquals(new Vector3f(), result.scale());
+    }
+
+    /**
+     * Decomposes {@code matrix}, checks that T * L * S * R reproduces it and
+     * that the scales follow the documented order and sign convention.
+     */
+    private static TRSResult assertRebuilds(Matrix4f matrix) {
+        TRSResult result = TRSResult.identity();
+        new Svd3x3().decompose(matrix, result, new Matrix3f());
+        matrix.getTranslation(result.translation());
+
+        Matrix4f rebuilt = BatchTRSTest.toMatrix(result);
+        float magnitude = 1f;
+        for (float value : matrix.get(new float[16])) {
+            magnitude = Math.max(magnitude, Math.abs(value));
+        }
+        assertTrue(matrix.equals(rebuilt, TOLERANCE * magnitude),
+                () -> "expected\n" + matrix + "but rebuilt\n" + rebuilt);
+
+        Vector3f scale = result.scale();
+        float slack = TOLERANCE * magnitude;
+        assertTrue(scale.x >= 0 && scale.y >= 0, () -> "leading scales must be non-negative: " + scale);
+        assertTrue(scale.x + slack >= scale.y && scale.y + slack >= Math.abs(scale.z),
+                () -> "scales must be sorted by magnitude: " + scale);
+        assertEquals(1f, result.leftRotation().lengthSquared(), 1e-4f);
+        assertEquals(1f, result.rightRotation().lengthSquared(), 1e-4f);
+        return result;
+    }
+
+    private static Matrix4f randomAffine(Random random) {
+        Matrix4f matrix = new Matrix4f();
+        for (int column = 0; column < 3; column++) {
+            for (int row = 0; row < 3; row++) {
+                matrix.setRowColumn(row, column, random.nextFloat() * 8f - 4f);
+            }
+        }
+        return matrix.setTranslation(random.nextFloat() * 100f, random.nextFloat() * 100f, random.nextFloat() * 100f);
+    }
+
+    private static Quaternionf randomRotation(Random random) {
+        return new Quaternionf(
+                random.nextFloat() - 0.5f,
+                random.nextFloat() - 0.5f,
+                random.nextFloat() - 0.5f,
+                random.nextFloat() - 0.5f).normalize();
+    }
+}
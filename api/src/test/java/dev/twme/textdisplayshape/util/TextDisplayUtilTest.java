@@ -0,0 +1,284 @@
+package dev.twme.textdisplayshape.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import org.joml.Matrix4f;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.junit.jupiter.api.Test;
+
+class TextDisplayUtilTest {
+
+    private static final float EPSILON = 1e-5f;
+
+    private static final Vector3f P1 = new Vector3f(1.5f, 64f, -3f);
+    private static final Vector3f P2 = new Vector3f(4f, 65f, -2f);
+    private static final Vector3f P3 = new Vector3f(2f, 68f, 1f);
+
+    /*
+     * Expected values below were produced by the allocating methods before the
+     * dest overloads existed. A TRS is {translation, leftRotation (x, y, z, w),
+     * scale, rightRotation (x, y, z, w)}; a matrix is in column-major order.
+     */
+
+    private static final float[][] LINES = {
+            {-19.999998f, -8.000002f, -7.9999986f, 0.0f, -0.12930168f, 0.37497473f, -0.051720668f, 0.0f,
+                    0.37139064f, 7.450581E-9f, -0.9284767f, 0.0f, 0.5161628f, 63.553127f, -3.3935347f, 1.0f},
+            {-3.9999926f, -31.999994f, -31.999994f, 0.0f, 0.8931842f, 0.25721684f, -0.36886466f, 0.0f,
+                    0.4409872f, -0.6616006f, 0.6064772f, 0.0f, 1.1883523f, 62.36785f, -4.5538917f, 1.0f},
+            // Vertical, where the up vector cannot be used
+            {2.9802322E-8f, -15.999999f, 0.0f, 0.0f, 0.351033f, 7.4505807E-10f, 0.19177021f, 0.0f,
+                    -0.47942552f, 0.0f, 0.8775825f, 0.0f, -0.043879125f, -0.79999995f, -0.023971276f, 1.0f},
+    };
+
+    private static final float[] PARALLELOGRAM_P1_P2_P3 = {0.5f, 63.6f, -3.4f,
+            0.01812391f, -0.9237018f, -0.38260978f, -0.0075071827f, 28.601763f, 15.031275f, 1.0f,
+            0.0f, 0.0f, -0.37799734f, 0.9258067f};
+
+    private static final float[] PARALLELOGRAM_AXIS_ALIGNED = {-0.8f, 0.0f, 0.0f,
+            0.0f, -1.0f, 0.0f, 0.0f, 16.0f, 12.0f, 1.0f,
+            0.0f, 0.0f, 0.0f, 1.0f};
+
+    private static final float[][] TRIANGLE_P1_P2_P3 = {
+            {1.0f, 63.8f, -3.2f, 0.01812391f, -0.9237018f, -0.38260978f, -0.0075071827f,
+                    14.300881f, 7.5156374f, 1.0f, 0.0f, 0.0f, -0.37799734f, 0.9258067f},
+            {-0.25f, 63.3f, -3.7f, 0.17167576f, -0.90778905f, -0.3760185f, -0.07111044f,
+                    11.550299f, 9.305408f, 1.0f, 0.0f, 0.0f, -0.08708234f, 0.9962012f},
+            {-0.53181815f, 64.32727f, -2.6727273f, 0.8417672f, -0.3807643f, -0.15771772f, -0.34867132f,
+                    21.345892f, 5.035172f, 1.0f, 0.0f, 0.0f, 0.25369483f, 0.9672843f},
+    };
+
+    private static final float[][] TRIANGLE_RIGHT = {
+            {-0.2f, 0.0f, 0.0f, 0.0f, -1.0f, 0.0f, 0.0f,
+                    4.0f, 2.0f, 1.0f, 0.0f, 0.0f, 0.0f, 1.0f},
+            {-0.7f, 0.0f, 0.0f, 0.11565253f, -0.9932898f, 0.0f, 0.0f,
+                    4.5764914f, 1.748064f, 1.0f, 0.0f, 0.0f, 0.2732665f, 0.9619384f},
+            {-0.2f, 0.3f, 0.0f, 0.41121614f, -0.9115379f, 0.0f, 0.0f,
+                    5.841619f, 1.3694834f, 1.0f, 0.0f, 0.0f, 0.12942247f, 0.99158955f},
+    };
+
+    private static final float[][] TRIANGLE_OBTUSE = {
+            {-0.8f, 0.0f, 0.0f, -0.02828397f, -0.99959993f, 0.0f, 0.0f,
+                    18.897955f, 1.6933049f, 1.0f, 0.0f, 0.0f, -0.27812064f, 0.96054614f},
+            {-2.8f, 0.0f, 0.0f, -0.0078098793f, -0.9999695f, 0.0f, 0.0f,
+                    16.126453f, 1.9843173f, 1.0f, 0.0f, 0.0f, -0.06309662f, 0.9980074f},
+            {-2.3f, 0.3f, 0.0f, -0.98708755f, 0.16018225f, 0.0f, 0.0f,
+                    11.313708f, 2.828427f, 1.0f, 0.0f, 0.0f, 0.5257311f, 0.85065085f},
+    };
+
+    @Test
+    void lineMatchesBaseline() {
+        Vector3f[][] ends = {{P1, P2}, {P1, P3}, {new Vector3f(0f, 0f, 0f), new Vector3f(0f, 2f, 0f)}};
+        float[] thickness = {0.1f, 0.25f, 0.1f};
+        float[] roll = {0f, 1.2f, 0.5f};
+        for (int i = 0; i < LINES.length; i++) {
+            Matrix4f expected = new Matrix4f().set(LINES[i]);
+            Matrix4f allocated = TextDisplayUtil.textDisplayLine(ends[i][0], ends[i][1], thickness[i], roll[i]);
+            assertMatrixEquals(expected, allocated);
+
+            Matrix4f dest = new Matrix4f().scale(3f);
+            assertSame(dest, TextDisplayUtil.textDisplayLine(ends[i][0], ends[i][1], thickness[i], roll[i], dest));
+            assertMatrixEquals(expected, dest);
+        }
+    }
+
+    @Test
+    void parallelogramTRSMatchesBaseline() {
+        assertTRSEquals(PARALLELOGRAM_P1_P2_P3, TextDisplayUtil.computeParallelogramTRS(P1, P2, P3));
+        TRSResult dest = garbage();
+        assertSame(dest, TextDisplayUtil.computeParallelogramTRS(P1, P2, P3, dest));
+        assertTRSEquals(PARALLELOGRAM_P1_P2_P3, dest);
+
+        Vector3f origin = new Vector3f(0f, 0f, 0f);
+        Vector3f x = new Vector3f(2f, 0f, 0f);
+        Vector3f y = new Vector3f(0f, 3f, 0f);
+        assertTRSEquals(PARALLELOGRAM_AXIS_ALIGNED, TextDisplayUtil.computeParallelogramTRS(origin, x, y));
+        // Reuses the dest written above; the diagonal case must reset the right rotation
+        TextDisplayUtil.computeParallelogramTRS(origin, x, y, dest);
+        assertTRSEquals(PARALLELOGRAM_AXIS_ALIGNED, dest);
+    }
+
+    @Test
+    void triangleTRSMatchesBaseline() {
+        assertTriangleMatches(TRIANGLE_P1_P2_P3, P1, P2, P3);
+        assertTriangleMatches(TRIANGLE_RIGHT,
+                new Vector3f(0f, 0f, 0f), new Vector3f(1f, 0f, 0f), new Vector3f(0f, 1f, 0f));
+        assertTriangleMatches(TRIANGLE_OBTUSE,
+                new Vector3f(0f, 0f, 0f), new Vector3f(4f, 0f, 0f), new Vector3f(5f, 1f, 0f));
+    }
+
+    @Test
+    void reusedDestAndWorkspaceKeepNoStateBetweenCalls() {
+        TRSResult[] triangle = {garbage(), garbage(), garbage()};
+        TRSResult parallelogram = garbage();
+        Vector3f[][] degenerate = {
+                {P1, P1, P1},
+                {P1, P2, new Vector3f(P2).mul(2f).sub(P1)},
+                {new Vector3f(0f, 0f, 0f), new Vector3f(0f, 0f, 0f), new Vector3f(1f, 0f, 0f)},
+        };
+        for (Vector3f[] points : degenerate) {
+            // Whatever a degenerate triangle gives, it must not leak into the next one
+            TextDisplayUtil.computeTriangleTRS(points[0], points[1], points[2], triangle);
+            TextDisplayUtil.computeParallelogramTRS(points[0], points[1], points[2], parallelogram);
+
+            TextDisplayUtil.computeTriangleTRS(P1, P2, P3, triangle);
+            TextDisplayUtil.computeParallelogramTRS(P1, P2, P3, parallelogram);
+            for (int k = 0; k < TextDisplayUtil.TRIANGLE_PIECE_COUNT; k++) {
+                assertTRSEquals(TRIANGLE_P1_P2_P3[k], triangle[k]);
+            }
+            assertTRSEquals(PARALLELOGRAM_P1_P2_P3, parallelogram);
+        }
+
+        // Inputs are read-only, also when a degenerate triangle is nudged
+        Vector3f a = new Vector3f(1f, 1f, 1f);
+        Vector3f b = new Vector3f(2f, 2f, 2f);
+        Vector3f c = new Vector3f(3f, 3f, 3f);
+        TextDisplayUtil.computeTriangleTRS(a, b, c, triangle);
+        assertVectorEquals(new Vector3f(1f, 1f, 1f), a);
+        assertVectorEquals(new Vector3f(2f, 2f, 2f), b);
+        assertVectorEquals(new Vector3f(3f, 3f, 3f), c);
+    }
+
+    @Test
+    void decomposeRecoversParallelogramScale() {
+        Matrix4f matrix = TextDisplayUtil.textDisplayParallelogram(P1, P2, P3);
+        TRSResult allocated = TextDisplayUtil.decompose(matrix);
+        TRSResult dest = garbage();
+        assertSame(dest, TextDisplayUtil.decompose(matrix, dest));
+
+        for (TRSResult result : new TRSResult[] {allocated, dest}) {
+            assertVectorEquals(new Vector3f(0.5f, 63.6f, -3.4f), result.translation());
+            assertTrue(new Vector3f(28.601763f, 15.031275f, 1.0f).equals(result.scale(), 1e-4f),
+                    () -> "scale " + result.scale());
+            assertMatrixEquals(matrix, BatchTRSTest.toMatrix(result));
+        }
+    }
+
+    @Test
+    void decomposeOrdersScalesByDecreasingMagnitude() {
+        Matrix4f matrix = new Matrix4f().translation(1f, 2f, 3f).scale(1f, 3f, 2f);
+        TRSResult result = TextDisplayUtil.decompose(matrix);
+
+        assertVectorEquals(new Vector3f(1f, 2f, 3f), result.translation());
+        assertVectorEquals(new Vector3f(3f, 2f, 1f), result.scale());
+        assertTrue(matrix.equals(BatchTRSTest.toMatrix(result), EPSILON));
+    }
+
+    @Test
+    void decomposeGivesMirroredMatrixNegativeSmallestScale() {
+        Matrix4f matrix = new Matrix4f().scale(-1f, 3f, 2f);
+        TRSResult result = TextDisplayUtil.decompose(matrix);
+
+        assertVectorEquals(new Vector3f(3f, 2f, -1f), result.scale());
+        assertTrue(matrix.equals(BatchTRSTest.toMatrix(result), EPSILON));
+
+        // Mirroring along a large axis still puts the sign on the smallest scale
+        Matrix4f flipped = new Matrix4f().scale(1f, -3f, 2f);
+        TRSResult flippedResult = TextDisplayUtil.decompose(flipped);
+        assertVectorEquals(new Vector3f(3f, 2f, -1f), flippedResult.scale());
+        assertTrue(flipped.equals(BatchTRSTest.toMatrix(flippedResult), EPSILON));
+    }
+
+    @Test
+    void destOverloadsDoNotAllocateAfterWarmUp() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        Matrix4f line = new Matrix4f();
+        TRSResult parallelogram = TRSResult.identity();
+        TRSResult[] triangle = {TRSResult.identity(), TRSResult.identity(), TRSResult.identity()};
+        TRSResult decomposed = TRSResult.identity();
+
+        // Warm up: creates the per-thread workspace and lets the JIT settle
+        for (int i = 0; i < 20_000; i++) {
+            runDestOverloads(line, parallelogram, triangle, decomposed, i);
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        // A one-off allocation outside the code under test (class loading, a JIT
+        // deoptimization) can land in a measured interval, so keep the best of a
+        // few rounds; a real per-call allocation shows up in every round
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 10_000; i++) {
+                runDestOverloads(line, parallelogram, triangle, decomposed, i);
+            }
+            long after = threads.getThreadAllocatedBytes(threadId);
+            allocated = Math.min(allocated, after - before);
+        }
+
+        assertEquals(0L, allocated, "dest overloads allocated " + allocated + " bytes");
+    }
+
+    private static void runDestOverloads(Matrix4f line, TRSResult parallelogram, TRSResult[] triangle,
+                                         TRSResult decomposed, int i) {
+        float roll = (i & 63) * 0.1f;
+        TextDisplayUtil.textDisplayLine(P1, P2, 0.1f, roll, line);
+        TextDisplayUtil.computeParallelogramTRS(P1, P2, P3, parallelogram);
+        TextDisplayUtil.computeTriangleTRS(P1, P2, P3, triangle);
+        TextDisplayUtil.decompose(line, decomposed);
+    }
+
+    private static void assertTriangleMatches(float[][] expected, Vector3f a, Vector3f b, Vector3f c) {
+        List<TRSResult> allocated = TextDisplayUtil.computeTriangleTRS(a, b, c);
+        TRSResult[] dest = {garbage(), garbage(), garbage()};
+        assertSame(dest, TextDisplayUtil.computeTriangleTRS(a, b, c, dest));
+        assertEquals(TextDisplayUtil.TRIANGLE_PIECE_COUNT, allocated.size());
+        for (int k = 0; k < TextDisplayUtil.TRIANGLE_PIECE_COUNT; k++) {
+            assertTRSEquals(expected[k], allocated.get(k));
+            assertTRSEquals(expected[k], dest[k]);
+        }
+    }
+
+    /**
+     * A result whose every component differs from anything the methods write.
+     */
+    private static TRSResult garbage() {
+        TRSResult result = TRSResult.identity();
+        result.translation().set(-7f, 13f, 99f);
+        result.leftRotation().set(0.5f, 0.5f, 0.5f, 0.5f);
+        result.scale().set(Float.NaN, -2f, 5f);
+        result.rightRotation().set(0f, 0.6f, 0f, 0.8f);
+        return result;
+    }
+
+    private static void assertTRSEquals(float[] expected, TRSResult actual) {
+        assertTRSEquals(new TRSResult(
+                new Vector3f(expected[0], expected[1], expected[2]),
+                new Quaternionf(expected[3], expected[4], expected[5], expected[6]),
+                new Vector3f(expected[7], expected[8], expected[9]),
+                new Quaternionf(expected[10], expected[11], expected[12], expected[13])), actual);
+    }
+
+    private static void assertMatrixEquals(Matrix4f expected, Matrix4f actual) {
+        assertTrue(expected.equals(actual, 1e-4f), () -> expected + " != " + actual);
+    }
+
+    static void assertTRSEquals(TRSResult expected, TRSResult actual) {
+        assertVectorEquals(expected.translation(), actual.translation());
+        assertVectorEquals(expected.scale(), actual.scale());
+        assertRotationEquals(expected.leftRotation(), actual.leftRotation());
+        assertRotationEquals(expected.rightRotation(), actual.rightRotation());
+    }
+
+    private static void assertVectorEquals(Vector3fc expected, Vector3fc actual) {
+        assertTrue(expected.equals(actual, EPSILON), () -> expected + " != " + actual);
+    }
+
+    private static void assertRotationEquals(Quaternionf expected, Quaternionf actual) {
+        // q and -q are the same rotation
+        float dot = Math.abs(expected.dot(actual));
+        assertEquals(1f, dot, EPSILON, () -> expected + " != " + actual);
+    }
+}
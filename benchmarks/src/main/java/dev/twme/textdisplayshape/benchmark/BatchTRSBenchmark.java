@@ -0,0 +1,88 @@
+package dev.twme.textdisplayshape.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dev.twme.textdisplayshape.util.TRSBuffer;
+import dev.twme.textdisplayshape.util.TextDisplayUtil;
+
+/**
+ * Batch solver benchmarks over a random indexed mesh, with the Vector API kernel
+ * enabled and disabled in separate forks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class BatchTRSBenchmark {
+
+    @Param({"64", "4096"})
+    public int triangles;
+
+    private float[] vertices;
+    private int[] indices;
+    private TRSBuffer triangleDest;
+    private TRSBuffer parallelogramDest;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        int vertexCount = triangles * 2;
+        vertices = new float[vertexCount * 3];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = random.nextFloat() * 32f - 16f;
+        }
+        indices = new int[triangles * 3];
+        for (int i = 0; i < indices.length; i += 3) {
+            // Three distinct vertices per triangle
+            indices[i] = random.nextInt(vertexCount);
+            indices[i + 1] = (indices[i] + 1 + random.nextInt(vertexCount - 1)) % vertexCount;
+            do {
+                indices[i + 2] = random.nextInt(vertexCount);
+            } while (indices[i + 2] == indices[i] || indices[i + 2] == indices[i + 1]);
+        }
+        triangleDest = TRSBuffer.forTriangles(triangles);
+        parallelogramDest = new TRSBuffer(triangles);
+    }
+
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = "-D" + TextDisplayUtil.DISABLE_VECTOR_PROPERTY + "=true")
+    public TRSBuffer trianglesScalar() {
+        TextDisplayUtil.computeTriangleTRS(vertices, indices, triangleDest);
+        return triangleDest;
+    }
+
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public TRSBuffer trianglesVector() {
+        TextDisplayUtil.computeTriangleTRS(vertices, indices, triangleDest);
+        return triangleDest;
+    }
+
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = "-D" + TextDisplayUtil.DISABLE_VECTOR_PROPERTY + "=true")
+    public TRSBuffer parallelogramsScalar() {
+        TextDisplayUtil.computeParallelogramTRS(vertices, indices, parallelogramDest);
+        return parallelogramDest;
+    }
+
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public TRSBuffer parallelogramsVector() {
+        TextDisplayUtil.computeParallelogramTRS(vertices, indices, parallelogramDest);
+        return parallelogramDest;
+    }
+}
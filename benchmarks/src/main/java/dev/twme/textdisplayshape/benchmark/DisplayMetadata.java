@@ -0,0 +1,66 @@
+package dev.twme.textdisplayshape.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Metadata of one text display as the packet shapes assemble it: a map keyed by
+ * metadata index holding freshly boxed values, turned into an entry list.
+ * <p>
+ * It stands in for EntityLib's display metadata only. No entity, viewer or
+ * packet is involved.
+ */
+final class DisplayMetadata {
+
+    // Metadata indices of the text display fields set by the packet shapes
+    static final int TRANSLATION = 11;
+    static final int SCALE = 12;
+    static final int LEFT_ROTATION = 13;
+    static final int RIGHT_ROTATION = 14;
+    static final int BRIGHTNESS = 16;
+    static final int VIEW_RANGE = 17;
+    static final int TEXT = 23;
+    static final int BACKGROUND = 25;
+    static final int FLAGS = 27;
+
+    private static final AtomicInteger ENTITY_IDS = new AtomicInteger(1_000_000);
+
+    record Entry(int index, Object value) {
+    }
+
+    record Vector3(float x, float y, float z) {
+    }
+
+    record Quaternion(float x, float y, float z, float w) {
+    }
+
+    private final int entityId = ENTITY_IDS.incrementAndGet();
+    private final Map<Integer, Entry> entries = new LinkedHashMap<>();
+    private int[] passengers = new int[0];
+
+    int getEntityId() {
+        return entityId;
+    }
+
+    void set(int index, Object value) {
+        entries.put(index, new Entry(index, value));
+    }
+
+    void setPassengers(List<DisplayMetadata> displays) {
+        passengers = new int[displays.size()];
+        for (int i = 0; i < passengers.length; i++) {
+            passengers[i] = displays.get(i).getEntityId();
+        }
+    }
+
+    int[] getPassengers() {
+        return passengers;
+    }
+
+    List<Entry> entries() {
+        return new ArrayList<>(entries.values());
+    }
+}
@@ -0,0 +1,135 @@
+package dev.twme.textdisplayshape.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.joml.Matrix4f;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import dev.twme.textdisplayshape.util.TRSResult;
+import dev.twme.textdisplayshape.util.TextDisplayUtil;
+
+/**
+ * Per-shape cost of the TRS math plus the display metadata the packet shapes
+ * build from it, using {@link DisplayMetadata} in place of EntityLib.
+ * <p>
+ * The methods follow the setup of {@code PacketTriangle},
+ * {@code PacketParallelogram} and {@code PacketLine}, including the optional
+ * root anchor. They do not run the packet module: entity creation, viewers,
+ * packet bundling and encoding need EntityLib and a PacketEvents channel and
+ * are not measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class TRSMetadataBenchmark {
+
+    private static final float ROOT_SCALE = 0.0001f;
+
+    @Param({"false", "true"})
+    public boolean rootAnchor;
+
+    private final Vector3f origin = new Vector3f(100f, 64f, -200f);
+    private final Vector3f p1 = new Vector3f(100.5f, 64.5f, -199f);
+    private final Vector3f p2 = new Vector3f(104f, 66f, -198.5f);
+    private final Vector3f p3 = new Vector3f(101f, 68.5f, -196f);
+
+    @Benchmark
+    public void triangle(Blackhole blackhole) {
+        List<DisplayMetadata> displays = new ArrayList<>();
+        for (TRSResult trs : TextDisplayUtil.computeTriangleTRS(p1, p2, p3)) {
+            displays.add(fromTRS(trs));
+        }
+        for (TRSResult trs : TextDisplayUtil.computeTriangleTRS(p1, p3, p2)) {
+            displays.add(fromTRS(trs));
+        }
+        consume(displays, blackhole);
+    }
+
+    @Benchmark
+    public void parallelogram(Blackhole blackhole) {
+        List<DisplayMetadata> displays = new ArrayList<>();
+        displays.add(fromTRS(TextDisplayUtil.computeParallelogramTRS(p1, p2, p3)));
+        displays.add(fromTRS(TextDisplayUtil.computeParallelogramTRS(p1, p3, p2)));
+        consume(displays, blackhole);
+    }
+
+    @Benchmark
+    public void line(Blackhole blackhole) {
+        List<DisplayMetadata> displays = new ArrayList<>();
+        displays.add(fromMatrix(TextDisplayUtil.textDisplayLine(p1, p2, 0.1f, 0f)));
+        displays.add(fromMatrix(TextDisplayUtil.textDisplayLine(p2, p1, 0.1f, -0f)));
+        consume(displays, blackhole);
+    }
+
+    private DisplayMetadata rootAnchor() {
+        DisplayMetadata anchor = new DisplayMetadata();
+        anchor.set(DisplayMetadata.TEXT, "");
+        anchor.set(DisplayMetadata.BACKGROUND, 0);
+        anchor.set(DisplayMetadata.FLAGS, (byte) 0x02);
+        anchor.set(DisplayMetadata.VIEW_RANGE, 1.0f);
+        anchor.set(DisplayMetadata.TRANSLATION, new DisplayMetadata.Vector3(0f, 0f, 0f));
+        anchor.set(DisplayMetadata.SCALE, new DisplayMetadata.Vector3(ROOT_SCALE, ROOT_SCALE, ROOT_SCALE));
+        return anchor;
+    }
+
+    private DisplayMetadata fromTRS(TRSResult trs) {
+        Vector3f adj = new Vector3f(trs.translation()).sub(origin);
+        DisplayMetadata display = styled();
+        display.set(DisplayMetadata.TRANSLATION, new DisplayMetadata.Vector3(adj.x, adj.y, adj.z));
+        display.set(DisplayMetadata.SCALE, new DisplayMetadata.Vector3(trs.scale().x, trs.scale().y, trs.scale().z));
+        display.set(DisplayMetadata.LEFT_ROTATION, new DisplayMetadata.Quaternion(trs.leftRotation().x, trs.leftRotation().y, trs.leftRotation().z, trs.leftRotation().w));
+        display.set(DisplayMetadata.RIGHT_ROTATION, new DisplayMetadata.Quaternion(trs.rightRotation().x, trs.rightRotation().y, trs.rightRotation().z, trs.rightRotation().w));
+        return display;
+    }
+
+    private DisplayMetadata fromMatrix(Matrix4f matrix) {
+        Matrix4f adj = new Matrix4f().translate(-origin.x, -origin.y, -origin.z).mul(matrix);
+        DisplayMetadata display = styled();
+        Vector3f translation = adj.getTranslation(new Vector3f());
+        Vector3f scale = adj.getScale(new Vector3f());
+        Quaternionf rotation = adj.getUnnormalizedRotation(new Quaternionf());
+        display.set(DisplayMetadata.TRANSLATION, new DisplayMetadata.Vector3(translation.x, translation.y, translation.z));
+        display.set(DisplayMetadata.SCALE, new DisplayMetadata.Vector3(scale.x, scale.y, scale.z));
+        display.set(DisplayMetadata.LEFT_ROTATION, new DisplayMetadata.Quaternion(rotation.x, rotation.y, rotation.z, rotation.w));
+        return display;
+    }
+
+    private DisplayMetadata styled() {
+        DisplayMetadata display = new DisplayMetadata();
+        display.set(DisplayMetadata.TEXT, " ");
+        display.set(DisplayMetadata.BACKGROUND, 0x96326464);
+        display.set(DisplayMetadata.FLAGS, (byte) 0x02);
+        display.set(DisplayMetadata.BRIGHTNESS, 15 << 4 | 15 << 20);
+        display.set(DisplayMetadata.VIEW_RANGE, 1.0f);
+        return display;
+    }
+
+    private void consume(List<DisplayMetadata> displays, Blackhole blackhole) {
+        if (rootAnchor) {
+            DisplayMetadata anchor = rootAnchor();
+            anchor.setPassengers(displays);
+            blackhole.consume(anchor.entries());
+            blackhole.consume(anchor.getPassengers());
+        }
+        for (DisplayMetadata display : displays) {
+            blackhole.consume(display.entries());
+        }
+    }
+}
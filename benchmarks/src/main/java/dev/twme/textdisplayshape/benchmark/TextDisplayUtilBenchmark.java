@@ -0,0 +1,103 @@
+package dev.twme.textdisplayshape.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.joml.Matrix4f;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dev.twme.textdisplayshape.util.TRSResult;
+import dev.twme.textdisplayshape.util.TextDisplayUtil;
+
+/**
+ * Single-shape benchmarks for the {@link TextDisplayUtil} math.
+ * <p>
+ * Each operation has an allocating variant (the API used by the shapes) and,
+ * where one exists, the allocation-free {@code dest} variant.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class TextDisplayUtilBenchmark {
+
+    private final Vector3f p1 = new Vector3f();
+    private final Vector3f p2 = new Vector3f();
+    private final Vector3f p3 = new Vector3f();
+    private final Matrix4f shearedMatrix = new Matrix4f();
+
+    private final TRSResult parallelogramDest = TRSResult.identity();
+    private final TRSResult[] triangleDest = {TRSResult.identity(), TRSResult.identity(), TRSResult.identity()};
+    private final TRSResult decomposeDest = TRSResult.identity();
+    private final Matrix4f lineDest = new Matrix4f();
+
+    @Setup
+    public void setup() {
+        p1.set(1.25f, 64.5f, -3.75f);
+        p2.set(4.5f, 66.0f, -1.0f);
+        p3.set(0.5f, 68.25f, 2.5f);
+        shearedMatrix.identity()
+                .translate(3f, 70f, -2f)
+                .rotate(new Quaternionf().rotateXYZ(0.3f, 1.1f, -0.4f))
+                .scale(2.5f, 0.75f, 1f);
+        shearedMatrix.m10(0.6f);
+    }
+
+    @Benchmark
+    public List<TRSResult> computeTriangleTRS() {
+        return TextDisplayUtil.computeTriangleTRS(p1, p2, p3);
+    }
+
+    @Benchmark
+    public TRSResult[] computeTriangleTRSDest() {
+        return TextDisplayUtil.computeTriangleTRS(p1, p2, p3, triangleDest);
+    }
+
+    @Benchmark
+    public TRSResult computeParallelogramTRS() {
+        return TextDisplayUtil.computeParallelogramTRS(p1, p2, p3);
+    }
+
+    @Benchmark
+    public TRSResult computeParallelogramTRSDest() {
+        return TextDisplayUtil.computeParallelogramTRS(p1, p2, p3, parallelogramDest);
+    }
+
+    @Benchmark
+    public Matrix4f textDisplayLine() {
+        return TextDisplayUtil.textDisplayLine(p1, p2, 0.1f, 0.25f);
+    }
+
+    @Benchmark
+    public Matrix4f textDisplayLineDest() {
+        return TextDisplayUtil.textDisplayLine(p1, p2, 0.1f, 0.25f, lineDest);
+    }
+
+    @Benchmark
+    public TRSResult decompose() {
+        return TextDisplayUtil.decompose(shearedMatrix);
+    }
+
+    @Benchmark
+    public TRSResult decomposeDest() {
+        return TextDisplayUtil.decompose(shearedMatrix, decomposeDest);
+    }
+
+    @Benchmark
+    public List<Matrix4f> getTextDisplayUnitTriangle() {
+        return TextDisplayUtil.getTextDisplayUnitTriangle();
+    }
+}
@@ -0,0 +1,22 @@
+package dev.twme.textdisplayshape.packet;
+
+import java.util.UUID;
+
+import dev.twme.textdisplayshape.shape.Shape;
+
+/**
+ * A packet shape that reports the encoded bytes it sends to a new viewer, so
+ * {@link PacketSendScheduler} can charge them to that viewer's budget.
+ */
+interface MeteredShape {
+
+    /**
+     * Adds a viewer like {@link Shape#addViewer(UUID)}.
+     *
+     * @param playerUUID the viewer
+     * @return the encoded bytes written to the viewer; 0 if nothing was sent,
+     *         or if the viewer's client version is unknown and the packets were
+     *         not taken from the encoding cache
+     */
+    long addMeteredViewer(UUID playerUUID);
+}
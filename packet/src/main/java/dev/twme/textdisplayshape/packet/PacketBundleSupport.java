@@ -0,0 +1,289 @@
+package dev.twme.textdisplayshape.packet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerBundle;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityRelativeMove;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityTeleport;
+
+import io.github.retrooper.packetevents.util.SpigotConversionUtil;
+import me.tofaa.entitylib.meta.display.AbstractDisplayMeta;
+import me.tofaa.entitylib.wrapper.WrapperEntity;
+
+/**
+ * Shows the entities of a packet shape to viewers as one bundle per viewer.
+ *
+ * <p>The entities are registered as viewers silently, then the spawn, metadata
+ * and passenger packets of the whole shape are written between two bundle
+ * delimiters and flushed once, so the client applies the shape in a single
+ * frame and the server flushes each connection once instead of once per packet.
+ * Shapes with more packets than the client accepts in one bundle are split
+ * into several consecutive bundles. The encoded packets are shared between
+ * viewers through the shape's {@link PacketEncodingCache}.</p>
+ */
+final class PacketBundleSupport {
+
+    /**
+     * Maximum number of packets the client accepts inside one bundle.
+     */
+    static final int MAX_BUNDLE_PACKETS = 4096;
+
+    private PacketBundleSupport() {
+    }
+
+    /**
+     * Shows the root anchor (if any) and the entities to every viewer.
+     * The entities must already be spawned (i.e. have a location).
+     *
+     * @return the encoded bytes written to all viewers, see {@link PacketEncodingCache#write}
+     */
+    static long show(Collection<UUID> viewerUUIDs, WrapperEntity rootAnchor, List<WrapperEntity> entities,
+                     PacketEncodingCache cache) {
+        long bytes = 0;
+        for (UUID viewerUUID : viewerUUIDs) {
+            bytes += show(viewerUUID, rootAnchor, entities, cache);
+        }
+        return bytes;
+    }
+
+    /**
+     * Shows the root anchor (if any) and the entities to one viewer.
+     *
+     * @return the encoded bytes written to the viewer, see {@link PacketEncodingCache#write}
+     */
+    static long show(UUID viewerUUID, WrapperEntity rootAnchor, List<WrapperEntity> entities,
+                     PacketEncodingCache cache) {
+        if (rootAnchor != null) rootAnchor.addViewerSilently(viewerUUID);
+        for (WrapperEntity entity : entities) entity.addViewerSilently(viewerUUID);
+        User user = user(viewerUUID);
+        if (user == null || entities.isEmpty()) return 0;
+        long bytes = cache.write(user, () -> bundled(spawnPackets(rootAnchor, entities)));
+        user.flushPackets();
+        return bytes;
+    }
+
+    /**
+     * Changes the geometry of a spawned shape in place. The first entities are
+     * kept and given the transform of the matching piece; surplus entities are
+     * destroyed and missing ones created, so entities are only spawned or
+     * removed when the piece count changes. Every viewer receives the changed
+     * metadata entries, the spawn packets of new entities and the anchor's
+     * passenger list as one bundle.
+     *
+     * @param pieces    the new pieces, in entity order
+     * @param transform applies a piece's transform to the metadata of a kept entity
+     * @param create    creates and stores the entity of a new piece
+     * @param interpolationTicks ticks over which the client interpolates the kept
+     *                  entities to their new transform, 0 to snap
+     */
+    static <T> void reshape(Collection<UUID> viewerUUIDs, WrapperEntity rootAnchor, List<WrapperEntity> entities,
+                            List<T> pieces, BiConsumer<WrapperEntity, T> transform, Function<T, WrapperEntity> create,
+                            int interpolationTicks, PacketEncodingCache cache) {
+        cache.invalidate();
+        boolean passengersChanged = false;
+        while (entities.size() > pieces.size()) {
+            WrapperEntity removed = entities.remove(entities.size() - 1);
+            removed.remove();
+            passengersChanged = true;
+        }
+        List<PacketWrapper<?>> packets = new ArrayList<>(pieces.size() * 2 + 1);
+        int kept = entities.size();
+        for (int i = 0; i < kept; i++) {
+            T piece = pieces.get(i);
+            WrapperPlayServerEntityMetadata delta = PacketMetadataSupport.animate(entities.get(i), entity -> transform.accept(entity, piece), interpolationTicks);
+            if (!PacketMetadataSupport.isEmpty(delta)) packets.add(delta);
+        }
+        List<WrapperEntity> added = new ArrayList<>(pieces.size() - kept);
+        for (int i = kept; i < pieces.size(); i++) {
+            WrapperEntity entity = create.apply(pieces.get(i));
+            packets.add(entity.createSpawnPacket());
+            packets.add(entity.getEntityMeta().createPacket());
+            added.add(entity);
+        }
+        if (rootAnchor != null && (passengersChanged || !added.isEmpty())) {
+            packets.add(PacketRootAnchorSupport.createPassengerPacket(rootAnchor, entities));
+        }
+        for (UUID viewerUUID : viewerUUIDs) {
+            for (WrapperEntity entity : added) entity.addViewerSilently(viewerUUID);
+        }
+        send(viewerUUIDs, packets);
+    }
+
+    /**
+     * Applies a metadata change to every entity and sends each viewer only the
+     * changed entries, as one bundle.
+     */
+    static void update(Collection<UUID> viewerUUIDs, List<WrapperEntity> entities, Consumer<WrapperEntity> change,
+                       PacketEncodingCache cache) {
+        cache.invalidate();
+        List<PacketWrapper<?>> packets = new ArrayList<>(entities.size());
+        for (WrapperEntity entity : entities) {
+            WrapperPlayServerEntityMetadata delta = PacketMetadataSupport.apply(entity, change);
+            if (!PacketMetadataSupport.isEmpty(delta)) packets.add(delta);
+        }
+        send(viewerUUIDs, packets);
+    }
+
+    /**
+     * Moves a spawned shape rigidly so that every entity stands at the new
+     * origin. With a root anchor only the anchor is teleported and the
+     * passengers follow on the client, so the move costs one packet per viewer
+     * regardless of the entity count; the passengers' server-side locations are
+     * updated without packets. Without an anchor every entity is teleported, in
+     * one bundle.
+     */
+    static void move(Collection<UUID> viewerUUIDs, WrapperEntity rootAnchor, List<WrapperEntity> entities,
+                     Location newOrigin, PacketEncodingCache cache) {
+        cache.invalidate();
+        com.github.retrooper.packetevents.protocol.world.Location location = SpigotConversionUtil.fromBukkitLocation(newOrigin);
+        List<PacketWrapper<?>> packets = new ArrayList<>(rootAnchor != null ? 1 : entities.size());
+        if (rootAnchor != null) {
+            packets.add(movePacket(rootAnchor, location));
+            rootAnchor.setLocation(location);
+            for (WrapperEntity entity : entities) entity.setLocation(location);
+        } else {
+            for (WrapperEntity entity : entities) {
+                packets.add(movePacket(entity, location));
+                entity.setLocation(location);
+            }
+        }
+        if (packets.size() == 1) {
+            for (UUID viewerUUID : viewerUUIDs) {
+                User user = user(viewerUUID);
+                if (user != null) user.sendPacket(packets.get(0));
+            }
+        } else {
+            send(viewerUUIDs, packets);
+        }
+    }
+
+    /**
+     * Re-bases a spawned shape on a new origin without moving it in the world:
+     * every entity's translation is shifted by the opposite of the origin delta
+     * while the entity (or, with a root anchor, only the anchor) moves to the new
+     * origin. All metadata and movement packets go to each viewer in one bundle,
+     * and moves that fit into a relative-move packet (under 8 blocks per axis)
+     * use it instead of a full teleport.
+     */
+    static void rebase(Collection<UUID> viewerUUIDs, WrapperEntity rootAnchor, List<WrapperEntity> entities,
+                       Location oldOrigin, Location newOrigin, PacketEncodingCache cache) {
+        cache.invalidate();
+        float dx = (float) (newOrigin.getX() - oldOrigin.getX());
+        float dy = (float) (newOrigin.getY() - oldOrigin.getY());
+        float dz = (float) (newOrigin.getZ() - oldOrigin.getZ());
+        com.github.retrooper.packetevents.protocol.world.Location location = SpigotConversionUtil.fromBukkitLocation(newOrigin);
+        List<PacketWrapper<?>> packets = new ArrayList<>(entities.size() * 2 + 1);
+        for (WrapperEntity entity : entities) {
+            if (entity.getEntityMeta() instanceof AbstractDisplayMeta meta) {
+                WrapperPlayServerEntityMetadata delta = PacketMetadataSupport.apply(entity, e -> {
+                    com.github.retrooper.packetevents.util.Vector3f old = meta.getTranslation();
+                    meta.setInterpolationDelay(0);
+                    meta.setTransformationInterpolationDuration(0);
+                    meta.setPositionRotationInterpolationDuration(0);
+                    meta.setTranslation(new com.github.retrooper.packetevents.util.Vector3f(old.getX() - dx, old.getY() - dy, old.getZ() - dz));
+                });
+                if (!PacketMetadataSupport.isEmpty(delta)) packets.add(delta);
+            }
+            if (rootAnchor == null) packets.add(movePacket(entity, location));
+            entity.setLocation(location);
+        }
+        if (rootAnchor != null) {
+            packets.add(movePacket(rootAnchor, location));
+            rootAnchor.setLocation(location);
+        }
+        send(viewerUUIDs, packets);
+    }
+
+    /**
+     * Builds a relative-move packet if the move fits into one, otherwise a
+     * teleport. The delta is taken between the encoded (1/4096 block) old and
+     * new positions, so repeated relative moves do not drift on the client.
+     */
+    private static PacketWrapper<?> movePacket(WrapperEntity entity, com.github.retrooper.packetevents.protocol.world.Location to) {
+        com.github.retrooper.packetevents.protocol.world.Location from = entity.getLocation();
+        long dx = Math.round(to.getX() * 4096) - Math.round(from.getX() * 4096);
+        long dy = Math.round(to.getY() * 4096) - Math.round(from.getY() * 4096);
+        long dz = Math.round(to.getZ() * 4096) - Math.round(from.getZ() * 4096);
+        if (fitsShort(dx) && fitsShort(dy) && fitsShort(dz)) {
+            return new WrapperPlayServerEntityRelativeMove(entity.getEntityId(), dx / 4096.0, dy / 4096.0, dz / 4096.0, false);
+        }
+        return teleportPacket(entity, to);
+    }
+
+    private static boolean fitsShort(long value) {
+        return value >= Short.MIN_VALUE && value <= Short.MAX_VALUE;
+    }
+
+    private static WrapperPlayServerEntityTeleport teleportPacket(WrapperEntity entity,
+                                                                  com.github.retrooper.packetevents.protocol.world.Location location) {
+        return new WrapperPlayServerEntityTeleport(entity.getEntityId(), location.getPosition(), location.getYaw(), location.getPitch(), false);
+    }
+
+    /**
+     * Writes the packets to every online viewer as one bundle and flushes once.
+     */
+    static void send(Collection<UUID> viewerUUIDs, List<PacketWrapper<?>> packets) {
+        if (packets.isEmpty()) return;
+        List<PacketWrapper<?>> bundle = bundled(packets);
+        for (UUID viewerUUID : viewerUUIDs) {
+            User user = user(viewerUUID);
+            if (user == null) continue;
+            for (PacketWrapper<?> packet : bundle) user.writePacket(packet);
+            user.flushPackets();
+        }
+    }
+
+    private static User user(UUID viewerUUID) {
+        Player player = Bukkit.getPlayer(viewerUUID);
+        return player == null ? null : PacketEvents.getAPI().getPlayerManager().getUser(player);
+    }
+
+    /**
+     * Builds the spawn and metadata packets of every entity, anchor first, and
+     * the passenger packet of the anchor after its passengers exist.
+     */
+    private static List<PacketWrapper<?>> spawnPackets(WrapperEntity rootAnchor, List<WrapperEntity> entities) {
+        List<PacketWrapper<?>> packets = new ArrayList<>(entities.size() * 2 + 3);
+        if (rootAnchor != null) {
+            packets.add(rootAnchor.createSpawnPacket());
+            packets.add(rootAnchor.getEntityMeta().createPacket());
+        }
+        for (WrapperEntity entity : entities) {
+            packets.add(entity.createSpawnPacket());
+            packets.add(entity.getEntityMeta().createPacket());
+        }
+        if (rootAnchor != null && !entities.isEmpty()) {
+            packets.add(PacketRootAnchorSupport.createPassengerPacket(rootAnchor, entities));
+        }
+        return packets;
+    }
+
+    /**
+     * Surrounds every run of at most {@link #MAX_BUNDLE_PACKETS} packets with
+     * bundle delimiters.
+     */
+    private static List<PacketWrapper<?>> bundled(List<? extends PacketWrapper<?>> packets) {
+        List<PacketWrapper<?>> bundled = new ArrayList<>(packets.size() + 2);
+        for (int start = 0; start < packets.size(); start += MAX_BUNDLE_PACKETS) {
+            int end = Math.min(packets.size(), start + MAX_BUNDLE_PACKETS);
+            bundled.add(new WrapperPlayServerBundle());
+            bundled.addAll(packets.subList(start, end));
+            bundled.add(new WrapperPlayServerBundle());
+        }
+        return bundled;
+    }
+}
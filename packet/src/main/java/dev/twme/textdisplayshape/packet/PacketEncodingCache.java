@@ -0,0 +1,79 @@
+package dev.twme.textdisplayshape.packet;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+
+/**
+ * Encoded spawn packets of one packet shape, shared by all viewers.
+ *
+ * <p>The packets are built and serialized once per client protocol version
+ * (through the first viewer's channel, so PacketEvents picks the right packet
+ * ids and format) and kept as buffers. Every later viewer on the same version
+ * receives retained duplicates of those bytes, so showing a shape to N viewers
+ * encodes it once instead of N times.</p>
+ *
+ * <p>The bytes contain entity ids, locations and metadata, so the owning shape
+ * must call {@link #invalidate()} whenever its entities are respawned or their
+ * style or transform changes. Not thread-safe; use from the main thread.</p>
+ */
+final class PacketEncodingCache {
+
+    private final Map<ClientVersion, List<Object>> encoded = new EnumMap<>(ClientVersion.class);
+
+    /**
+     * Writes the packets to a viewer from the cache, encoding them first if the
+     * viewer's version is not cached yet. Does not flush.
+     *
+     * @param user    the viewer
+     * @param packets builds the packets; only called on a cache miss
+     * @return the number of cached bytes written, 0 for a viewer with an unknown
+     *         client version, whose packets are encoded directly and not counted
+     */
+    long write(User user, Supplier<List<? extends PacketWrapper<?>>> packets) {
+        ClientVersion version = user.getClientVersion();
+        if (version == null || version == ClientVersion.UNKNOWN) {
+            // Unknown version (e.g. still logging in): encode for this viewer only
+            for (PacketWrapper<?> packet : packets.get()) user.writePacket(packet);
+            return 0;
+        }
+        List<Object> buffers = encoded.get(version);
+        if (buffers == null) {
+            buffers = encode(user, packets.get());
+            encoded.put(version, buffers);
+        }
+        long bytes = 0;
+        for (Object buffer : buffers) {
+            bytes += ByteBufHelper.readableBytes(buffer);
+            PacketEvents.getAPI().getProtocolManager().writePacket(user.getChannel(), ByteBufHelper.retainedDuplicate(buffer));
+        }
+        return bytes;
+    }
+
+    private static List<Object> encode(User user, List<? extends PacketWrapper<?>> packets) {
+        List<Object> buffers = new ArrayList<>(packets.size());
+        for (PacketWrapper<?> packet : packets) {
+            packet.prepareForSend(user.getChannel(), true);
+            buffers.add(packet.getBuffer());
+        }
+        return buffers;
+    }
+
+    /**
+     * Releases all cached buffers.
+     */
+    void invalidate() {
+        for (List<Object> buffers : encoded.values()) {
+            for (Object buffer : buffers) ByteBufHelper.release(buffer);
+        }
+        encoded.clear();
+    }
+}
@@ -5,6 +5,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import org.bukkit.Color;
 import org.bukkit.Location;
@@ -12,10 +13,9 @@ import org.joml.Matrix4f;
 import org.joml.Vector3f;
 
 import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
-import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerBundle;
-import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityTeleport;
 
 import dev.twme.textdisplayshape.shape.Shape;
+import dev.twme.textdisplayshape.shape.ShapeBounds;
 import dev.twme.textdisplayshape.shape.ShapeBuilder;
 import dev.twme.textdisplayshape.util.TextDisplayUtil;
 import io.github.retrooper.packetevents.util.SpigotConversionUtil;
@@ -31,25 +31,27 @@ import me.tofaa.entitylib.wrapper.WrapperEntity;
  * <p><b>Memory safety:</b> Viewers are tracked by UUID only, avoiding
  * memory leaks caused by holding stale Bukkit Player references.</p>
  */
-public class PacketLine implements Shape {
+public class PacketLine implements Shape, MeteredShape {
 
     private Location origin;
-    private final Vector3f p1;
-    private final Vector3f p2;
-    private final float thickness;
+    private Vector3f p1;
+    private Vector3f p2;
+    private float thickness;
     private final float roll;
-    private final int argbColor;
+    private int argbColor;
     private final boolean doubleSided;
-    private final int blockLight;
-    private final int skyLight;
+    private int blockLight;
+    private int skyLight;
     private final boolean seeThrough;
-    private final float viewRange;
+    private float viewRange;
     private final boolean rootAnchorEnabled;
 
     private final List<WrapperEntity> entities = new ArrayList<>();
     private final Set<UUID> viewerUUIDs = new HashSet<>();
+    private final PacketEncodingCache encodingCache = new PacketEncodingCache();
     private WrapperEntity rootAnchor;
     private boolean spawned = false;
+    private int interpolationTicks = 0;
 
     private PacketLine(Builder builder) {
         this.origin = builder.origin;
@@ -70,21 +72,47 @@ public class PacketLine implements Shape {
     public void spawn() {
         if (spawned) return;
         if (rootAnchorEnabled) {
-            rootAnchor = PacketRootAnchorSupport.createRootAnchor(origin, viewRange, viewerUUIDs);
+            rootAnchor = PacketRootAnchorSupport.createRootAnchor(origin, viewRange);
         }
-        Matrix4f matrix = TextDisplayUtil.textDisplayLine(p1, p2, thickness, roll);
-        createWrapperEntity(matrix);
-        if (doubleSided) {
-            Matrix4f backMatrix = TextDisplayUtil.textDisplayLine(p2, p1, thickness, -roll);
-            createWrapperEntity(backMatrix);
+        for (Matrix4f matrix : computeMatrices()) {
+            createWrapperEntity(matrix);
         }
+        PacketBundleSupport.show(viewerUUIDs, rootAnchor, entities, encodingCache);
         spawned = true;
     }
 
-    private void createWrapperEntity(Matrix4f matrix) {
-        Matrix4f adj = new Matrix4f()
-                .translate((float) -origin.getX(), (float) -origin.getY(), (float) -origin.getZ())
-                .mul(matrix);
+    private List<Matrix4f> computeMatrices() {
+        List<Matrix4f> matrices = new ArrayList<>(2);
+        matrices.add(TextDisplayUtil.textDisplayLine(p1, p2, thickness, roll));
+        if (doubleSided) {
+            matrices.add(TextDisplayUtil.textDisplayLine(p2, p1, thickness, -roll));
+        }
+        return matrices;
+    }
+
+    /**
+     * Moves the line to new endpoints. A spawned line keeps its entities and
+     * only sends their new transforms to the viewers.
+     */
+    public void setPoints(Vector3f p1, Vector3f p2) {
+        this.p1 = p1;
+        this.p2 = p2;
+        if (spawned) {
+            PacketBundleSupport.reshape(viewerUUIDs, rootAnchor, entities, computeMatrices(), this::setTransformFromMatrix, this::createWrapperEntity, interpolationTicks, encodingCache);
+        }
+    }
+
+    /**
+     * Changes the line thickness, updating a spawned line in place.
+     */
+    public void setThickness(float thickness) {
+        this.thickness = thickness;
+        if (spawned) {
+            PacketBundleSupport.reshape(viewerUUIDs, rootAnchor, entities, computeMatrices(), this::setTransformFromMatrix, this::createWrapperEntity, interpolationTicks, encodingCache);
+        }
+    }
+
+    private WrapperEntity createWrapperEntity(Matrix4f matrix) {
         WrapperEntity entity = new WrapperEntity(EntityTypes.TEXT_DISPLAY);
         entity.spawn(SpigotConversionUtil.fromBukkitLocation(origin));
         if (entity.getEntityMeta() instanceof TextDisplayMeta meta) {
@@ -95,15 +123,17 @@ public class PacketLine implements Shape {
                 displayMeta.setBrightnessOverride(blockLight << 4 | skyLight << 20);
                 displayMeta.setViewRange(viewRange);
             }
-            setTransformFromMatrix(entity, adj);
+            setTransformFromMatrix(entity, matrix);
         }
-        for (UUID uuid : viewerUUIDs) { entity.addViewer(uuid); }
         entities.add(entity);
-        if (rootAnchorEnabled) { PacketRootAnchorSupport.attachPassenger(rootAnchor, entity); }
+        return entity;
     }
 
-    private void setTransformFromMatrix(WrapperEntity entity, Matrix4f matrix) {
+    private void setTransformFromMatrix(WrapperEntity entity, Matrix4f worldMatrix) {
         if (!(entity.getEntityMeta() instanceof AbstractDisplayMeta meta)) return;
+        Matrix4f matrix = new Matrix4f()
+                .translate((float) -origin.getX(), (float) -origin.getY(), (float) -origin.getZ())
+                .mul(worldMatrix);
         Vector3f translation = new Vector3f(); matrix.getTranslation(translation);
         Vector3f scale = new Vector3f(); matrix.getScale(scale);
         org.joml.Quaternionf rotation = new org.joml.Quaternionf(); matrix.getUnnormalizedRotation(rotation);
@@ -117,20 +147,69 @@ public class PacketLine implements Shape {
         for (WrapperEntity entity : entities) { entity.remove(); }
         entities.clear();
         if (rootAnchor != null) { rootAnchor.remove(); rootAnchor = null; }
+        encodingCache.invalidate();
         spawned = false;
     }
 
     @Override public boolean isSpawned() { return spawned; }
 
-    @Override
-    public void addViewer(UUID playerUUID) {
-        viewerUUIDs.add(playerUUID);
+    /**
+     * Changes the background color. A spawned line only sends the changed
+     * color entry to its viewers.
+     */
+    public void setColor(int argb) {
+        this.argbColor = argb;
+        restyle(PacketMetadataSupport.backgroundColor(argb));
+    }
+
+    public void setColor(Color color) {
+        setColor(color.asARGB());
+    }
+
+    public void setBrightness(int blockLight, int skyLight) {
+        this.blockLight = blockLight;
+        this.skyLight = skyLight;
+        restyle(PacketMetadataSupport.brightness(blockLight, skyLight));
+    }
+
+    public void setViewRange(float viewRange) {
+        this.viewRange = viewRange;
+        restyle(PacketMetadataSupport.viewRange(viewRange));
+    }
+
+    /**
+     * Makes later geometry updates ({@link #setPoints}, {@link #setThickness})
+     * animate: the client interpolates each entity from its current to its new
+     * transform over the given number of ticks, so updates can be sent a few
+     * times per second and still look smooth. Use 0 (the default) to snap.
+     * {@link #teleportOrigin} always snaps and stops a running interpolation.
+     *
+     * @param ticks the interpolation duration in ticks
+     */
+    public void setInterpolationDuration(int ticks) {
+        this.interpolationTicks = Math.max(0, ticks);
+    }
+
+    public int getInterpolationDuration() {
+        return interpolationTicks;
+    }
+
+    private void restyle(Consumer<WrapperEntity> change) {
         if (spawned) {
-            if (rootAnchor != null) rootAnchor.addViewer(playerUUID);
-            for (WrapperEntity entity : entities) { entity.addViewer(playerUUID); }
+            PacketBundleSupport.update(viewerUUIDs, entities, change, encodingCache);
         }
     }
 
+    @Override
+    public void addViewer(UUID playerUUID) {
+        addMeteredViewer(playerUUID);
+    }
+
+    @Override
+    public long addMeteredViewer(UUID playerUUID) {
+        return viewerUUIDs.add(playerUUID) && spawned ? PacketBundleSupport.show(playerUUID, rootAnchor, entities, encodingCache) : 0;
+    }
+
     @Override
     public void removeViewer(UUID playerUUID) {
         viewerUUIDs.remove(playerUUID);
@@ -151,32 +230,37 @@ public class PacketLine implements Shape {
 
     public List<WrapperEntity> getEntities() { return new ArrayList<>(entities); }
 
+    /**
+     * Gets the world-space bounds of this shape, e.g. for {@link PacketShapeManager}.
+     */
+    public ShapeBounds getBounds() { return ShapeBounds.of(List.of(p1, p2), thickness); }
+
     @Override
     public void teleportOrigin(double x, double y, double z) {
         if (!spawned) return;
         Location newOrigin = new Location(origin.getWorld(), x, y, z);
-        if (rootAnchorEnabled && rootAnchor != null) {
-            PacketRootAnchorSupport.teleportRootAnchor(rootAnchor, entities, origin, newOrigin);
-            this.origin = newOrigin.clone();
-            return;
-        }
-        float dx = (float)(x - origin.getX()), dy = (float)(y - origin.getY()), dz = (float)(z - origin.getZ());
-        com.github.retrooper.packetevents.protocol.world.Location peLoc = SpigotConversionUtil.fromBukkitLocation(newOrigin);
-        for (WrapperEntity entity : entities) {
-            if (entity.getEntityMeta() instanceof AbstractDisplayMeta displayMeta) {
-                com.github.retrooper.packetevents.util.Vector3f old = displayMeta.getTranslation();
-                displayMeta.setInterpolationDelay(0);
-                displayMeta.setTransformationInterpolationDuration(0);
-                displayMeta.setPositionRotationInterpolationDuration(0);
-                displayMeta.setTranslation(new com.github.retrooper.packetevents.util.Vector3f(old.getX()-dx, old.getY()-dy, old.getZ()-dz));
-                entity.sendPacketToViewers(new WrapperPlayServerBundle());
-                entity.sendPacketToViewers(entity.getEntityMeta().createPacket());
-                entity.sendPacketToViewers(new WrapperPlayServerEntityTeleport(entity.getEntityId(), peLoc.getPosition(), peLoc.getYaw(), peLoc.getPitch(), false));
-                entity.sendPacketToViewers(new WrapperPlayServerBundle());
-                entity.setLocation(peLoc);
-            } else { entity.teleport(peLoc); }
+        PacketBundleSupport.rebase(viewerUUIDs, rootAnchor, entities, origin, newOrigin, encodingCache);
+        this.origin = newOrigin;
+    }
+
+    /**
+     * Moves the whole line so that its origin is at the given position, keeping
+     * its shape. With {@code rootAnchor(true)} this sends a single teleport
+     * packet per viewer; the segments follow the anchor as passengers. Unlike
+     * {@link #teleportOrigin}, the line moves in the world.
+     *
+     * @param x the new origin X coordinate
+     * @param y the new origin Y coordinate
+     * @param z the new origin Z coordinate
+     */
+    public void moveTo(double x, double y, double z) {
+        Vector3f delta = new Vector3f((float) (x - origin.getX()), (float) (y - origin.getY()), (float) (z - origin.getZ()));
+        this.p1 = new Vector3f(p1).add(delta);
+        this.p2 = new Vector3f(p2).add(delta);
+        this.origin = new Location(origin.getWorld(), x, y, z);
+        if (spawned) {
+            PacketBundleSupport.move(viewerUUIDs, rootAnchor, entities, origin, encodingCache);
         }
-        this.origin = newOrigin.clone();
     }
 
     public static class Builder implements ShapeBuilder<PacketLine> {
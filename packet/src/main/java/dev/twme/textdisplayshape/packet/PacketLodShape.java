@@ -0,0 +1,189 @@
+package dev.twme.textdisplayshape.packet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import dev.twme.textdisplayshape.shape.LevelOfDetail;
+import dev.twme.textdisplayshape.shape.Shape;
+
+/**
+ * Shows every viewer one of several versions of a shape, chosen by the viewer's
+ * distance to a center point.
+ *
+ * <p>Each level is a complete packet shape, e.g. a full polyline and one
+ * simplified with {@link dev.twme.textdisplayshape.util.PolylineSimplifier}.
+ * A viewer is only added to the level it currently sees, so far-away players
+ * receive the packets and entities of the coarse level only, and players beyond
+ * the last level's distance receive nothing. Levels switch with hysteresis (see
+ * {@link LevelOfDetail}) when {@link #updateViewers()} runs, either manually or
+ * every few ticks via {@link #autoUpdate(Plugin, long)}.</p>
+ *
+ * <p>Level shapes must be built without viewers; this shape manages them.
+ * Usually the center is the origin all levels were built with.</p>
+ *
+ * <p><b>Memory safety:</b> Viewers are tracked by UUID only.</p>
+ */
+public class PacketLodShape implements Shape, MeteredShape {
+
+    private Location center;
+    private final List<Shape> levels;
+    private final LevelOfDetail levelOfDetail;
+
+    private final Map<UUID, Integer> viewerLevels = new HashMap<>();
+    private BukkitTask updateTask;
+    private boolean spawned = false;
+
+    private PacketLodShape(Builder builder) {
+        this.center = builder.center.clone();
+        this.levels = new ArrayList<>(builder.levels);
+        double[] maxDistances = new double[builder.maxDistances.size()];
+        for (int i = 0; i < maxDistances.length; i++) maxDistances[i] = builder.maxDistances.get(i);
+        this.levelOfDetail = new LevelOfDetail(builder.hysteresis, maxDistances);
+    }
+
+    @Override
+    public void spawn() {
+        if (spawned) return;
+        for (Shape level : levels) level.spawn();
+        spawned = true;
+    }
+
+    @Override
+    public void remove() {
+        if (updateTask != null) { updateTask.cancel(); updateTask = null; }
+        for (Shape level : levels) level.remove();
+        spawned = false;
+    }
+
+    @Override public boolean isSpawned() { return spawned; }
+
+    @Override
+    public void addViewer(UUID playerUUID) {
+        addMeteredViewer(playerUUID);
+    }
+
+    @Override
+    public long addMeteredViewer(UUID playerUUID) {
+        if (viewerLevels.containsKey(playerUUID)) return 0;
+        int level = levelOfDetail.initialLevel(distance(playerUUID));
+        viewerLevels.put(playerUUID, level);
+        if (level >= levels.size()) return 0;
+        Shape shape = levels.get(level);
+        if (shape instanceof MeteredShape metered) return metered.addMeteredViewer(playerUUID);
+        shape.addViewer(playerUUID);
+        return 0;
+    }
+
+    @Override
+    public void removeViewer(UUID playerUUID) {
+        Integer level = viewerLevels.remove(playerUUID);
+        if (level != null && level < levels.size()) levels.get(level).removeViewer(playerUUID);
+    }
+
+    /**
+     * Re-evaluates the level of every viewer and moves viewers whose distance
+     * crossed a threshold (plus hysteresis). Must run on the main thread.
+     * Offline viewers keep their current level.
+     */
+    public void updateViewers() {
+        for (Map.Entry<UUID, Integer> entry : viewerLevels.entrySet()) {
+            UUID uuid = entry.getKey();
+            if (Bukkit.getPlayer(uuid) == null) continue;
+            int current = entry.getValue();
+            int next = levelOfDetail.select(current, distance(uuid));
+            if (next == current) continue;
+            // Add the new level first so the shape never disappears for a tick
+            if (next < levels.size()) levels.get(next).addViewer(uuid);
+            if (current < levels.size()) levels.get(current).removeViewer(uuid);
+            entry.setValue(next);
+        }
+    }
+
+    /**
+     * Runs {@link #updateViewers()} every {@code periodTicks} ticks until this
+     * shape is removed.
+     *
+     * @param plugin      the plugin owning the task
+     * @param periodTicks the update period in ticks
+     * @return the scheduled task
+     */
+    public BukkitTask autoUpdate(Plugin plugin, long periodTicks) {
+        if (updateTask != null) updateTask.cancel();
+        updateTask = Bukkit.getScheduler().runTaskTimer(plugin, this::updateViewers, periodTicks, periodTicks);
+        return updateTask;
+    }
+
+    /**
+     * Gets the distance from a viewer to the center, or infinity if the viewer is
+     * offline or in another world.
+     */
+    private double distance(UUID playerUUID) {
+        Player player = Bukkit.getPlayer(playerUUID);
+        if (player == null || !player.getWorld().equals(center.getWorld())) return Double.POSITIVE_INFINITY;
+        return player.getLocation().distance(center);
+    }
+
+    /**
+     * Gets the level a viewer currently sees.
+     *
+     * @param playerUUID the viewer
+     * @return the level index, {@link LevelOfDetail#hiddenLevel()} when out of range, or -1 if not a viewer
+     */
+    public int getViewerLevel(UUID playerUUID) { return viewerLevels.getOrDefault(playerUUID, -1); }
+
+    public List<Shape> getLevels() { return new ArrayList<>(levels); }
+
+    @Override public Set<UUID> getViewerUUIDs() { return new HashSet<>(viewerLevels.keySet()); }
+    @Override public List<UUID> getEntityUUIDs() { List<UUID> u = new ArrayList<>(); for (Shape level : levels) u.addAll(level.getEntityUUIDs()); return u; }
+
+    /**
+     * Teleports every level to the new origin and measures viewer distances from
+     * it, so the center should be the origin the levels were built with.
+     */
+    @Override
+    public void teleportOrigin(double x, double y, double z) {
+        if (!spawned) return;
+        for (Shape level : levels) level.teleportOrigin(x, y, z);
+        this.center = new Location(center.getWorld(), x, y, z);
+    }
+
+    public static class Builder {
+        private final Location center;
+        private final List<Shape> levels = new ArrayList<>();
+        private final List<Double> maxDistances = new ArrayList<>();
+        private double hysteresis = 4.0;
+
+        public Builder(Location center) { this.center = center; }
+
+        /**
+         * Adds the next, coarser level.
+         *
+         * @param shape       the shape shown at this level, built without viewers
+         * @param maxDistance the distance up to which this level is shown
+         * @return this builder
+         */
+        public Builder level(Shape shape, double maxDistance) { levels.add(shape); maxDistances.add(maxDistance); return this; }
+
+        /**
+         * Adds a last level that is shown at any larger distance.
+         *
+         * @param shape the shape shown at this level, built without viewers
+         * @return this builder
+         */
+        public Builder level(Shape shape) { return level(shape, Double.POSITIVE_INFINITY); }
+
+        public Builder hysteresis(double blocks) { this.hysteresis = blocks; return this; }
+        public PacketLodShape build() { return new PacketLodShape(this); }
+    }
+}
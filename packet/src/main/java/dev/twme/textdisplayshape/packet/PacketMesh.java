@@ -0,0 +1,232 @@
+package dev.twme.textdisplayshape.packet;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.bukkit.Color;
+import org.bukkit.Location;
+import org.joml.Vector3f;
+
+import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
+
+import dev.twme.textdisplayshape.mesh.MeshOptimizer;
+import dev.twme.textdisplayshape.mesh.OptimizedMesh;
+import dev.twme.textdisplayshape.shape.Shape;
+import dev.twme.textdisplayshape.shape.ShapeBounds;
+import dev.twme.textdisplayshape.shape.ShapeBuilder;
+import dev.twme.textdisplayshape.util.TRSBuffer;
+import dev.twme.textdisplayshape.util.TRSResult;
+import io.github.retrooper.packetevents.util.SpigotConversionUtil;
+import me.tofaa.entitylib.meta.display.AbstractDisplayMeta;
+import me.tofaa.entitylib.meta.display.TextDisplayMeta;
+import me.tofaa.entitylib.wrapper.WrapperEntity;
+
+/**
+ * Triangle mesh implementation using EntityLib packets, for meshes prepared
+ * with {@link MeshOptimizer}: every parallelogram is one entity and every
+ * remaining triangle three. The mesh vertices are world coordinates.
+ *
+ * <p><b>Memory safety:</b> Viewers are tracked by UUID only.</p>
+ */
+public class PacketMesh implements Shape, MeteredShape {
+
+    private Location origin;
+    private OptimizedMesh mesh;
+    private int argbColor;
+    private final boolean doubleSided;
+    private int blockLight, skyLight;
+    private final boolean seeThrough;
+    private float viewRange;
+    private final boolean rootAnchorEnabled;
+
+    private final List<WrapperEntity> entities = new ArrayList<>();
+    private final Set<UUID> viewerUUIDs = new HashSet<>();
+    private final PacketEncodingCache encodingCache = new PacketEncodingCache();
+    private WrapperEntity rootAnchor;
+    private boolean spawned = false;
+    private int interpolationTicks = 0;
+
+    private PacketMesh(Builder builder) {
+        this.origin = builder.origin;
+        this.mesh = builder.mesh;
+        this.argbColor = builder.argbColor;
+        this.doubleSided = builder.doubleSided;
+        this.blockLight = builder.blockLight; this.skyLight = builder.skyLight;
+        this.seeThrough = builder.seeThrough;
+        this.viewRange = builder.viewRange;
+        this.rootAnchorEnabled = builder.rootAnchorEnabled;
+    }
+
+    @Override
+    public void spawn() {
+        if (spawned) return;
+        if (rootAnchorEnabled) { rootAnchor = PacketRootAnchorSupport.createRootAnchor(origin, viewRange); }
+        for (TRSResult trs : computePieces()) { createWrapperEntityFromTRS(trs); }
+        PacketBundleSupport.show(viewerUUIDs, rootAnchor, entities, encodingCache);
+        spawned = true;
+    }
+
+    private List<TRSResult> computePieces() {
+        List<TRSResult> pieces = new ArrayList<>();
+        addPieces(pieces, mesh.computeTRS());
+        if (doubleSided) addPieces(pieces, mesh.reversed().computeTRS());
+        return pieces;
+    }
+
+    private static void addPieces(List<TRSResult> pieces, TRSBuffer buffer) {
+        for (int i = 0; i < buffer.capacity(); i++) { pieces.add(buffer.get(i)); }
+    }
+
+    /**
+     * Replaces the mesh. A spawned mesh reuses its entities and only sends their
+     * new transforms; entities are created or destroyed only when the new mesh
+     * has a different piece count.
+     */
+    public void setMesh(OptimizedMesh mesh) {
+        this.mesh = mesh;
+        if (spawned) { PacketBundleSupport.reshape(viewerUUIDs, rootAnchor, entities, computePieces(), this::setTransform, this::createWrapperEntityFromTRS, interpolationTicks, encodingCache); }
+    }
+
+    public OptimizedMesh getMesh() { return mesh; }
+
+    private WrapperEntity createWrapperEntityFromTRS(TRSResult trs) {
+        WrapperEntity entity = new WrapperEntity(EntityTypes.TEXT_DISPLAY);
+        entity.spawn(SpigotConversionUtil.fromBukkitLocation(origin));
+        if (entity.getEntityMeta() instanceof TextDisplayMeta meta) {
+            meta.setText(net.kyori.adventure.text.Component.text(" "));
+            meta.setBackgroundColor(argbColor);
+            meta.setSeeThrough(seeThrough);
+            if (entity.getEntityMeta() instanceof AbstractDisplayMeta displayMeta) {
+                displayMeta.setBrightnessOverride(blockLight << 4 | skyLight << 20);
+                displayMeta.setViewRange(viewRange);
+            }
+            setTransform(entity, trs);
+        }
+        entities.add(entity);
+        return entity;
+    }
+
+    private void setTransform(WrapperEntity entity, TRSResult trs) {
+        if (!(entity.getEntityMeta() instanceof AbstractDisplayMeta displayMeta)) return;
+        Vector3f adj = new Vector3f(trs.translation()).sub((float) origin.getX(), (float) origin.getY(), (float) origin.getZ());
+        displayMeta.setTranslation(new com.github.retrooper.packetevents.util.Vector3f(adj.x, adj.y, adj.z));
+        displayMeta.setScale(new com.github.retrooper.packetevents.util.Vector3f(trs.scale().x, trs.scale().y, trs.scale().z));
+        displayMeta.setLeftRotation(new com.github.retrooper.packetevents.util.Quaternion4f(trs.leftRotation().x, trs.leftRotation().y, trs.leftRotation().z, trs.leftRotation().w));
+        displayMeta.setRightRotation(new com.github.retrooper.packetevents.util.Quaternion4f(trs.rightRotation().x, trs.rightRotation().y, trs.rightRotation().z, trs.rightRotation().w));
+    }
+
+    @Override
+    public void remove() {
+        for (WrapperEntity e : entities) { e.remove(); }
+        entities.clear();
+        if (rootAnchor != null) { rootAnchor.remove(); rootAnchor = null; }
+        encodingCache.invalidate();
+        spawned = false;
+    }
+
+    @Override public boolean isSpawned() { return spawned; }
+
+    /**
+     * Changes the background color; a spawned shape only sends the color entry.
+     */
+    public void setColor(int argb) { this.argbColor = argb; restyle(PacketMetadataSupport.backgroundColor(argb)); }
+    public void setColor(Color color) { setColor(color.asARGB()); }
+    public void setBrightness(int blockLight, int skyLight) { this.blockLight = blockLight; this.skyLight = skyLight; restyle(PacketMetadataSupport.brightness(blockLight, skyLight)); }
+    public void setViewRange(float viewRange) { this.viewRange = viewRange; restyle(PacketMetadataSupport.viewRange(viewRange)); }
+
+    /**
+     * Makes later geometry updates animate: the client interpolates each entity to
+     * its new transform over the given ticks (0, the default, snaps).
+     * {@link #teleportOrigin} always snaps.
+     */
+    public void setInterpolationDuration(int ticks) { this.interpolationTicks = Math.max(0, ticks); }
+    public int getInterpolationDuration() { return interpolationTicks; }
+
+    private void restyle(Consumer<WrapperEntity> change) {
+        if (spawned) { PacketBundleSupport.update(viewerUUIDs, entities, change, encodingCache); }
+    }
+
+    @Override
+    public void addViewer(UUID playerUUID) {
+        addMeteredViewer(playerUUID);
+    }
+
+    @Override
+    public long addMeteredViewer(UUID playerUUID) {
+        return viewerUUIDs.add(playerUUID) && spawned ? PacketBundleSupport.show(playerUUID, rootAnchor, entities, encodingCache) : 0;
+    }
+
+    @Override
+    public void removeViewer(UUID playerUUID) {
+        viewerUUIDs.remove(playerUUID);
+        if (spawned) {
+            if (rootAnchor != null) rootAnchor.removeViewer(playerUUID);
+            for (WrapperEntity e : entities) { e.removeViewer(playerUUID); }
+        }
+    }
+
+    @Override public Set<UUID> getViewerUUIDs() { return new HashSet<>(viewerUUIDs); }
+
+    @Override
+    public List<UUID> getEntityUUIDs() {
+        List<UUID> uuids = new ArrayList<>();
+        for (WrapperEntity e : entities) { uuids.add(e.getUuid()); }
+        return uuids;
+    }
+
+    public List<WrapperEntity> getEntities() { return new ArrayList<>(entities); }
+
+    /**
+     * Gets the world-space bounds of this shape, e.g. for {@link PacketShapeManager}.
+     */
+    public ShapeBounds getBounds() { return mesh.vertices.length < 3 ? originBounds() : ShapeBounds.of(mesh.vertices, 0); }
+
+    private ShapeBounds originBounds() { return new ShapeBounds(origin.getX(), origin.getY(), origin.getZ(), origin.getX(), origin.getY(), origin.getZ()); }
+
+    @Override
+    public void teleportOrigin(double x, double y, double z) {
+        if (!spawned) return;
+        Location newOrigin = new Location(origin.getWorld(), x, y, z);
+        PacketBundleSupport.rebase(viewerUUIDs, rootAnchor, entities, origin, newOrigin, encodingCache);
+        this.origin = newOrigin;
+    }
+
+    /**
+     * Moves the whole shape so that its origin is at the given position. With
+     * {@code rootAnchor(true)} this is a single teleport packet per viewer, as the
+     * entities follow the anchor; unlike {@link #teleportOrigin}, the shape moves.
+     */
+    public void moveTo(double x, double y, double z) {
+        float dx = (float) (x - origin.getX()), dy = (float) (y - origin.getY()), dz = (float) (z - origin.getZ());
+        float[] moved = mesh.vertices.clone();
+        for (int i = 0; i + 2 < moved.length; i += 3) { moved[i] += dx; moved[i + 1] += dy; moved[i + 2] += dz; }
+        this.mesh = new OptimizedMesh(moved, mesh.parallelogramIndices, mesh.triangleIndices);
+        this.origin = new Location(origin.getWorld(), x, y, z);
+        if (spawned) { PacketBundleSupport.move(viewerUUIDs, rootAnchor, entities, origin, encodingCache); }
+    }
+
+    public static class Builder implements ShapeBuilder<PacketMesh> {
+        private final Location origin;
+        private final OptimizedMesh mesh;
+        private int argbColor = Color.fromARGB(150, 50, 100, 100).asARGB();
+        private boolean doubleSided = false;
+        private int blockLight = 15, skyLight = 15;
+        private boolean seeThrough = true;
+        private float viewRange = 1.0f;
+        private boolean rootAnchorEnabled = false;
+
+        public Builder(Location origin, OptimizedMesh mesh) { this.origin = origin; this.mesh = mesh; }
+        public Builder color(Color color) { this.argbColor = color.asARGB(); return this; }
+        @Override public Builder color(int argb) { this.argbColor = argb; return this; }
+        @Override public Builder doubleSided(boolean v) { this.doubleSided = v; return this; }
+        @Override public Builder brightness(int b, int s) { this.blockLight = b; this.skyLight = s; return this; }
+        @Override public Builder seeThrough(boolean v) { this.seeThrough = v; return this; }
+        @Override public Builder viewRange(float v) { this.viewRange = v; return this; }
+        @Override public Builder rootAnchor(boolean v) { this.rootAnchorEnabled = v; return this; }
+        @Override public PacketMesh build() { return new PacketMesh(this); }
+    }
+}
@@ -0,0 +1,104 @@
+package dev.twme.textdisplayshape.packet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
+
+import me.tofaa.entitylib.meta.display.AbstractDisplayMeta;
+import me.tofaa.entitylib.meta.display.TextDisplayMeta;
+import me.tofaa.entitylib.wrapper.WrapperEntity;
+
+/**
+ * Builds metadata packets that only contain the entries a change touched.
+ *
+ * <p>{@code getEntityMeta().createPacket()} always carries every metadata entry
+ * of a text display (text, colors, brightness, view range, the whole
+ * transform, ...). To update spawned entities, take a {@link #snapshot} of the
+ * entries, change the meta through EntityLib, and send {@link #changes}: a
+ * color pulse then sends only the background color, and a transform update only
+ * the translation, scale and rotations. Entries are compared by value, so the
+ * indices stay correct for whatever protocol version EntityLib maps them to.</p>
+ */
+final class PacketMetadataSupport {
+
+    /**
+     * Index of the interpolation delay, the first display entry.
+     */
+    private static final int INTERPOLATION_DELAY_INDEX = AbstractDisplayMeta.OFFSET;
+
+    private PacketMetadataSupport() {
+    }
+
+    /**
+     * Captures the current value of every metadata entry of an entity.
+     */
+    static Map<Integer, Object> snapshot(WrapperEntity entity) {
+        List<EntityData> entries = entity.getEntityMeta().entityData();
+        Map<Integer, Object> values = new HashMap<>(entries.size() * 2);
+        for (EntityData data : entries) values.put(data.getIndex(), data.getValue());
+        return values;
+    }
+
+    /**
+     * Builds a metadata packet with the entries that were added or whose value
+     * differs from the snapshot. The packet may be empty; see {@link #isEmpty}.
+     */
+    static WrapperPlayServerEntityMetadata changes(WrapperEntity entity, Map<Integer, Object> before) {
+        List<EntityData> changed = new ArrayList<>();
+        for (EntityData data : entity.getEntityMeta().entityData()) {
+            if (!before.containsKey(data.getIndex()) || !Objects.equals(before.get(data.getIndex()), data.getValue())) {
+                changed.add(data);
+            }
+        }
+        return new WrapperPlayServerEntityMetadata(entity.getEntityId(), changed);
+    }
+
+    /**
+     * Applies a change to an entity's metadata and returns the packet with the
+     * changed entries only.
+     */
+    static WrapperPlayServerEntityMetadata apply(WrapperEntity entity, Consumer<WrapperEntity> change) {
+        Map<Integer, Object> before = snapshot(entity);
+        change.accept(entity);
+        return changes(entity, before);
+    }
+
+    /**
+     * Like {@link #apply}, but makes the client interpolate the transform change
+     * over {@code interpolationTicks} ticks (0 snaps). The interpolation delay
+     * entry is always included when animating, because the client only starts a
+     * new interpolation when it receives that entry.
+     */
+    static WrapperPlayServerEntityMetadata animate(WrapperEntity entity, Consumer<WrapperEntity> change, int interpolationTicks) {
+        Map<Integer, Object> before = snapshot(entity);
+        change.accept(entity);
+        if (entity.getEntityMeta() instanceof AbstractDisplayMeta meta) {
+            meta.setInterpolationDelay(0);
+            meta.setTransformationInterpolationDuration(interpolationTicks);
+            if (interpolationTicks > 0) before.remove(INTERPOLATION_DELAY_INDEX);
+        }
+        return changes(entity, before);
+    }
+
+    static boolean isEmpty(WrapperPlayServerEntityMetadata packet) {
+        return packet.getEntityMetadata().isEmpty();
+    }
+
+    static Consumer<WrapperEntity> backgroundColor(int argb) {
+        return entity -> { if (entity.getEntityMeta() instanceof TextDisplayMeta meta) meta.setBackgroundColor(argb); };
+    }
+
+    static Consumer<WrapperEntity> brightness(int blockLight, int skyLight) {
+        return entity -> { if (entity.getEntityMeta() instanceof AbstractDisplayMeta meta) meta.setBrightnessOverride(blockLight << 4 | skyLight << 20); };
+    }
+
+    static Consumer<WrapperEntity> viewRange(float viewRange) {
+        return entity -> { if (entity.getEntityMeta() instanceof AbstractDisplayMeta meta) meta.setViewRange(viewRange); };
+    }
+}
@@ -5,16 +5,16 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import org.bukkit.Color;
 import org.bukkit.Location;
 import org.joml.Vector3f;
 
 import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
-import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerBundle;
-import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityTeleport;
 
 import dev.twme.textdisplayshape.shape.Shape;
+import dev.twme.textdisplayshape.shape.ShapeBounds;
 import dev.twme.textdisplayshape.shape.ShapeBuilder;
 import dev.twme.textdisplayshape.util.TRSResult;
 import dev.twme.textdisplayshape.util.TextDisplayUtil;
@@ -28,21 +28,23 @@ import me.tofaa.entitylib.wrapper.WrapperEntity;
  *
  * <p><b>Memory safety:</b> Viewers are tracked by UUID only.</p>
  */
-public class PacketParallelogram implements Shape {
+public class PacketParallelogram implements Shape, MeteredShape {
 
     private Location origin;
-    private final Vector3f p1, p2, p3;
-    private final int argbColor;
+    private Vector3f p1, p2, p3;
+    private int argbColor;
     private final boolean doubleSided;
-    private final int blockLight, skyLight;
+    private int blockLight, skyLight;
     private final boolean seeThrough;
-    private final float viewRange;
+    private float viewRange;
     private final boolean rootAnchorEnabled;
 
     private final List<WrapperEntity> entities = new ArrayList<>();
     private final Set<UUID> viewerUUIDs = new HashSet<>();
+    private final PacketEncodingCache encodingCache = new PacketEncodingCache();
     private WrapperEntity rootAnchor;
     private boolean spawned = false;
+    private int interpolationTicks = 0;
 
     private PacketParallelogram(Builder builder) {
         this.origin = builder.origin;
@@ -58,14 +60,20 @@ public class PacketParallelogram implements Shape {
     @Override
     public void spawn() {
         if (spawned) return;
-        if (rootAnchorEnabled) { rootAnchor = PacketRootAnchorSupport.createRootAnchor(origin, viewRange, viewerUUIDs); }
-        createWrapperEntityFromTRS(TextDisplayUtil.computeParallelogramTRS(p1, p2, p3));
-        if (doubleSided) { createWrapperEntityFromTRS(TextDisplayUtil.computeParallelogramTRS(p1, p3, p2)); }
+        if (rootAnchorEnabled) { rootAnchor = PacketRootAnchorSupport.createRootAnchor(origin, viewRange); }
+        for (TRSResult trs : computePieces()) { createWrapperEntityFromTRS(trs); }
+        PacketBundleSupport.show(viewerUUIDs, rootAnchor, entities, encodingCache);
         spawned = true;
     }
 
-    private void createWrapperEntityFromTRS(TRSResult trs) {
-        Vector3f adj = new Vector3f(trs.translation()).sub((float) origin.getX(), (float) origin.getY(), (float) origin.getZ());
+    private List<TRSResult> computePieces() {
+        List<TRSResult> pieces = new ArrayList<>(2);
+        pieces.add(TextDisplayUtil.computeParallelogramTRS(p1, p2, p3));
+        if (doubleSided) { pieces.add(TextDisplayUtil.computeParallelogramTRS(p1, p3, p2)); }
+        return pieces;
+    }
+
+    private WrapperEntity createWrapperEntityFromTRS(TRSResult trs) {
         WrapperEntity entity = new WrapperEntity(EntityTypes.TEXT_DISPLAY);
         entity.spawn(SpigotConversionUtil.fromBukkitLocation(origin));
         if (entity.getEntityMeta() instanceof TextDisplayMeta meta) {
@@ -75,24 +83,61 @@ public class PacketParallelogram implements Shape {
             if (entity.getEntityMeta() instanceof AbstractDisplayMeta displayMeta) {
                 displayMeta.setBrightnessOverride(blockLight << 4 | skyLight << 20);
                 displayMeta.setViewRange(viewRange);
-                displayMeta.setTranslation(new com.github.retrooper.packetevents.util.Vector3f(adj.x, adj.y, adj.z));
-                displayMeta.setScale(new com.github.retrooper.packetevents.util.Vector3f(trs.scale().x, trs.scale().y, trs.scale().z));
-                displayMeta.setLeftRotation(new com.github.retrooper.packetevents.util.Quaternion4f(trs.leftRotation().x, trs.leftRotation().y, trs.leftRotation().z, trs.leftRotation().w));
-                displayMeta.setRightRotation(new com.github.retrooper.packetevents.util.Quaternion4f(trs.rightRotation().x, trs.rightRotation().y, trs.rightRotation().z, trs.rightRotation().w));
             }
+            setTransform(entity, trs);
         }
-        for (UUID uuid : viewerUUIDs) { entity.addViewer(uuid); }
         entities.add(entity);
-        if (rootAnchorEnabled) { PacketRootAnchorSupport.attachPassenger(rootAnchor, entity); }
+        return entity;
     }
 
-    @Override public void remove() { for (WrapperEntity e : entities) e.remove(); entities.clear(); if (rootAnchor != null) { rootAnchor.remove(); rootAnchor = null; } spawned = false; }
+    private void setTransform(WrapperEntity entity, TRSResult trs) {
+        if (!(entity.getEntityMeta() instanceof AbstractDisplayMeta displayMeta)) return;
+        Vector3f adj = new Vector3f(trs.translation()).sub((float) origin.getX(), (float) origin.getY(), (float) origin.getZ());
+        displayMeta.setTranslation(new com.github.retrooper.packetevents.util.Vector3f(adj.x, adj.y, adj.z));
+        displayMeta.setScale(new com.github.retrooper.packetevents.util.Vector3f(trs.scale().x, trs.scale().y, trs.scale().z));
+        displayMeta.setLeftRotation(new com.github.retrooper.packetevents.util.Quaternion4f(trs.leftRotation().x, trs.leftRotation().y, trs.leftRotation().z, trs.leftRotation().w));
+        displayMeta.setRightRotation(new com.github.retrooper.packetevents.util.Quaternion4f(trs.rightRotation().x, trs.rightRotation().y, trs.rightRotation().z, trs.rightRotation().w));
+    }
+
+    /**
+     * Moves the parallelogram to new vertices, updating the spawned entities in place.
+     */
+    public void setVertices(Vector3f p1, Vector3f p2, Vector3f p3) {
+        this.p1 = p1; this.p2 = p2; this.p3 = p3;
+        if (spawned) { PacketBundleSupport.reshape(viewerUUIDs, rootAnchor, entities, computePieces(), this::setTransform, this::createWrapperEntityFromTRS, interpolationTicks, encodingCache); }
+    }
+
+    @Override public void remove() { for (WrapperEntity e : entities) e.remove(); entities.clear(); if (rootAnchor != null) { rootAnchor.remove(); rootAnchor = null; } encodingCache.invalidate(); spawned = false; }
     @Override public boolean isSpawned() { return spawned; }
 
+    /**
+     * Changes the background color; a spawned shape only sends the color entry.
+     */
+    public void setColor(int argb) { this.argbColor = argb; restyle(PacketMetadataSupport.backgroundColor(argb)); }
+    public void setColor(Color color) { setColor(color.asARGB()); }
+    public void setBrightness(int blockLight, int skyLight) { this.blockLight = blockLight; this.skyLight = skyLight; restyle(PacketMetadataSupport.brightness(blockLight, skyLight)); }
+    public void setViewRange(float viewRange) { this.viewRange = viewRange; restyle(PacketMetadataSupport.viewRange(viewRange)); }
+
+    /**
+     * Makes later geometry updates animate: the client interpolates each entity to
+     * its new transform over the given ticks (0, the default, snaps).
+     * {@link #teleportOrigin} always snaps.
+     */
+    public void setInterpolationDuration(int ticks) { this.interpolationTicks = Math.max(0, ticks); }
+    public int getInterpolationDuration() { return interpolationTicks; }
+
+    private void restyle(Consumer<WrapperEntity> change) {
+        if (spawned) { PacketBundleSupport.update(viewerUUIDs, entities, change, encodingCache); }
+    }
+
     @Override
     public void addViewer(UUID playerUUID) {
-        viewerUUIDs.add(playerUUID);
-        if (spawned) { if (rootAnchor != null) rootAnchor.addViewer(playerUUID); for (WrapperEntity e : entities) e.addViewer(playerUUID); }
+        addMeteredViewer(playerUUID);
+    }
+
+    @Override
+    public long addMeteredViewer(UUID playerUUID) {
+        return viewerUUIDs.add(playerUUID) && spawned ? PacketBundleSupport.show(playerUUID, rootAnchor, entities, encodingCache) : 0;
     }
 
     @Override
@@ -105,24 +150,29 @@ public class PacketParallelogram implements Shape {
     @Override public List<UUID> getEntityUUIDs() { List<UUID> u = new ArrayList<>(); for (WrapperEntity e : entities) u.add(e.getUuid()); return u; }
     public List<WrapperEntity> getEntities() { return new ArrayList<>(entities); }
 
+    /**
+     * Gets the world-space bounds of this shape, e.g. for {@link PacketShapeManager}.
+     */
+    public ShapeBounds getBounds() { return ShapeBounds.of(List.of(p1, p2, p3, new Vector3f(p2).add(p3).sub(p1)), 0); }
+
     @Override
     public void teleportOrigin(double x, double y, double z) {
         if (!spawned) return;
         Location newOrigin = new Location(origin.getWorld(), x, y, z);
-        if (rootAnchorEnabled && rootAnchor != null) { PacketRootAnchorSupport.teleportRootAnchor(rootAnchor, entities, origin, newOrigin); this.origin = newOrigin.clone(); return; }
-        float dx = (float)(x-origin.getX()), dy = (float)(y-origin.getY()), dz = (float)(z-origin.getZ());
-        com.github.retrooper.packetevents.protocol.world.Location peLoc = SpigotConversionUtil.fromBukkitLocation(newOrigin);
-        for (WrapperEntity entity : entities) {
-            if (entity.getEntityMeta() instanceof AbstractDisplayMeta dm) {
-                com.github.retrooper.packetevents.util.Vector3f old = dm.getTranslation();
-                dm.setInterpolationDelay(0); dm.setTransformationInterpolationDuration(0); dm.setPositionRotationInterpolationDuration(0);
-                dm.setTranslation(new com.github.retrooper.packetevents.util.Vector3f(old.getX()-dx, old.getY()-dy, old.getZ()-dz));
-                entity.sendPacketToViewers(new WrapperPlayServerBundle()); entity.sendPacketToViewers(entity.getEntityMeta().createPacket());
-                entity.sendPacketToViewers(new WrapperPlayServerEntityTeleport(entity.getEntityId(), peLoc.getPosition(), peLoc.getYaw(), peLoc.getPitch(), false));
-                entity.sendPacketToViewers(new WrapperPlayServerBundle()); entity.setLocation(peLoc);
-            } else { entity.teleport(peLoc); }
-        }
-        this.origin = newOrigin.clone();
+        PacketBundleSupport.rebase(viewerUUIDs, rootAnchor, entities, origin, newOrigin, encodingCache);
+        this.origin = newOrigin;
+    }
+
+    /**
+     * Moves the whole shape so that its origin is at the given position. With
+     * {@code rootAnchor(true)} this is a single teleport packet per viewer, as the
+     * entities follow the anchor; unlike {@link #teleportOrigin}, the shape moves.
+     */
+    public void moveTo(double x, double y, double z) {
+        Vector3f delta = new Vector3f((float) (x - origin.getX()), (float) (y - origin.getY()), (float) (z - origin.getZ()));
+        this.p1 = new Vector3f(p1).add(delta); this.p2 = new Vector3f(p2).add(delta); this.p3 = new Vector3f(p3).add(delta);
+        this.origin = new Location(origin.getWorld(), x, y, z);
+        if (spawned) { PacketBundleSupport.move(viewerUUIDs, rootAnchor, entities, origin, encodingCache); }
     }
 
     public static class Builder implements ShapeBuilder<PacketParallelogram> {
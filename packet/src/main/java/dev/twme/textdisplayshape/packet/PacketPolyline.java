@@ -5,6 +5,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import org.bukkit.Color;
 import org.bukkit.Location;
@@ -12,10 +13,9 @@ import org.joml.Matrix4f;
 import org.joml.Vector3f;
 
 import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
-import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerBundle;
-import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityTeleport;
 
 import dev.twme.textdisplayshape.shape.Shape;
+import dev.twme.textdisplayshape.shape.ShapeBounds;
 import dev.twme.textdisplayshape.shape.ShapeBuilder;
 import dev.twme.textdisplayshape.util.TextDisplayUtil;
 import io.github.retrooper.packetevents.util.SpigotConversionUtil;
@@ -28,24 +28,26 @@ import me.tofaa.entitylib.wrapper.WrapperEntity;
  *
  * <p><b>Memory safety:</b> Viewers are tracked by UUID only.</p>
  */
-public class PacketPolyline implements Shape {
+public class PacketPolyline implements Shape, MeteredShape {
 
     private Location origin;
-    private final List<Vector3f> points;
-    private final float thickness;
+    private List<Vector3f> points;
+    private float thickness;
     private final float roll;
-    private final int argbColor;
+    private int argbColor;
     private final boolean doubleSided;
     private final boolean closed;
-    private final int blockLight, skyLight;
+    private int blockLight, skyLight;
     private final boolean seeThrough;
-    private final float viewRange;
+    private float viewRange;
     private final boolean rootAnchorEnabled;
 
     private final List<WrapperEntity> entities = new ArrayList<>();
     private final Set<UUID> viewerUUIDs = new HashSet<>();
+    private final PacketEncodingCache encodingCache = new PacketEncodingCache();
     private WrapperEntity rootAnchor;
     private boolean spawned = false;
+    private int interpolationTicks = 0;
 
     private PacketPolyline(Builder builder) {
         this.origin = builder.origin;
@@ -64,24 +66,46 @@ public class PacketPolyline implements Shape {
     @Override
     public void spawn() {
         if (spawned) return;
-        if (rootAnchorEnabled && points.size() >= 2) { rootAnchor = PacketRootAnchorSupport.createRootAnchor(origin, viewRange, viewerUUIDs); }
+        if (rootAnchorEnabled && points.size() >= 2) { rootAnchor = PacketRootAnchorSupport.createRootAnchor(origin, viewRange); }
         if (points.size() < 2) { spawned = true; return; }
-        for (int i = 0; i < points.size() - 1; i++) { spawnLineSegment(points.get(i), points.get(i + 1)); }
-        if (closed && points.size() > 2) { spawnLineSegment(points.get(points.size() - 1), points.get(0)); }
+        for (Matrix4f matrix : computeMatrices()) { createWrapperEntity(matrix); }
+        PacketBundleSupport.show(viewerUUIDs, rootAnchor, entities, encodingCache);
         spawned = true;
     }
 
-    private void spawnLineSegment(Vector3f p1, Vector3f p2) {
-        Matrix4f matrix = TextDisplayUtil.textDisplayLine(p1, p2, thickness, roll);
-        createWrapperEntity(matrix);
-        if (doubleSided) {
-            Matrix4f back = TextDisplayUtil.textDisplayLine(p2, p1, thickness, roll + (float) Math.PI);
-            createWrapperEntity(back);
-        }
+    private List<Matrix4f> computeMatrices() {
+        List<Matrix4f> matrices = new ArrayList<>();
+        if (points.size() < 2) return matrices;
+        for (int i = 0; i < points.size() - 1; i++) { addLineSegment(matrices, points.get(i), points.get(i + 1)); }
+        if (closed && points.size() > 2) { addLineSegment(matrices, points.get(points.size() - 1), points.get(0)); }
+        return matrices;
+    }
+
+    private void addLineSegment(List<Matrix4f> matrices, Vector3f p1, Vector3f p2) {
+        matrices.add(TextDisplayUtil.textDisplayLine(p1, p2, thickness, roll));
+        if (doubleSided) { matrices.add(TextDisplayUtil.textDisplayLine(p2, p1, thickness, roll + (float) Math.PI)); }
+    }
+
+    /**
+     * Replaces the points. A spawned polyline reuses its entities and only sends
+     * their new transforms; entities are created or destroyed only when the
+     * segment count changes. A root anchor is only created at spawn, so a
+     * polyline spawned with fewer than two points stays unanchored.
+     */
+    public void setPoints(List<Vector3f> points) {
+        this.points = new ArrayList<>(points);
+        if (spawned) { PacketBundleSupport.reshape(viewerUUIDs, rootAnchor, entities, computeMatrices(), this::setTransformFromMatrix, this::createWrapperEntity, interpolationTicks, encodingCache); }
     }
 
-    private void createWrapperEntity(Matrix4f matrix) {
-        Matrix4f adj = new Matrix4f().translate((float) -origin.getX(), (float) -origin.getY(), (float) -origin.getZ()).mul(matrix);
+    /**
+     * Changes the thickness of every segment, updating a spawned polyline in place.
+     */
+    public void setThickness(float thickness) {
+        this.thickness = thickness;
+        if (spawned) { PacketBundleSupport.reshape(viewerUUIDs, rootAnchor, entities, computeMatrices(), this::setTransformFromMatrix, this::createWrapperEntity, interpolationTicks, encodingCache); }
+    }
+
+    private WrapperEntity createWrapperEntity(Matrix4f matrix) {
         WrapperEntity entity = new WrapperEntity(EntityTypes.TEXT_DISPLAY);
         entity.spawn(SpigotConversionUtil.fromBukkitLocation(origin));
         if (entity.getEntityMeta() instanceof TextDisplayMeta meta) {
@@ -92,15 +116,15 @@ public class PacketPolyline implements Shape {
                 dm.setBrightnessOverride(blockLight << 4 | skyLight << 20);
                 dm.setViewRange(viewRange);
             }
-            setTransformFromMatrix(entity, adj);
+            setTransformFromMatrix(entity, matrix);
         }
-        for (UUID uuid : viewerUUIDs) { entity.addViewer(uuid); }
         entities.add(entity);
-        if (rootAnchorEnabled) { PacketRootAnchorSupport.attachPassenger(rootAnchor, entity); }
+        return entity;
     }
 
-    private void setTransformFromMatrix(WrapperEntity entity, Matrix4f matrix) {
+    private void setTransformFromMatrix(WrapperEntity entity, Matrix4f worldMatrix) {
         if (!(entity.getEntityMeta() instanceof AbstractDisplayMeta meta)) return;
+        Matrix4f matrix = new Matrix4f().translate((float) -origin.getX(), (float) -origin.getY(), (float) -origin.getZ()).mul(worldMatrix);
         Vector3f t = new Vector3f(); matrix.getTranslation(t);
         Vector3f s = new Vector3f(); matrix.getScale(s);
         org.joml.Quaternionf r = new org.joml.Quaternionf(); matrix.getUnnormalizedRotation(r);
@@ -109,13 +133,37 @@ public class PacketPolyline implements Shape {
         meta.setLeftRotation(new com.github.retrooper.packetevents.util.Quaternion4f(r.x, r.y, r.z, r.w));
     }
 
-    @Override public void remove() { for (WrapperEntity e : entities) e.remove(); entities.clear(); if (rootAnchor != null) { rootAnchor.remove(); rootAnchor = null; } spawned = false; }
+    @Override public void remove() { for (WrapperEntity e : entities) e.remove(); entities.clear(); if (rootAnchor != null) { rootAnchor.remove(); rootAnchor = null; } encodingCache.invalidate(); spawned = false; }
     @Override public boolean isSpawned() { return spawned; }
 
+    /**
+     * Changes the background color; a spawned shape only sends the color entry.
+     */
+    public void setColor(int argb) { this.argbColor = argb; restyle(PacketMetadataSupport.backgroundColor(argb)); }
+    public void setColor(Color color) { setColor(color.asARGB()); }
+    public void setBrightness(int blockLight, int skyLight) { this.blockLight = blockLight; this.skyLight = skyLight; restyle(PacketMetadataSupport.brightness(blockLight, skyLight)); }
+    public void setViewRange(float viewRange) { this.viewRange = viewRange; restyle(PacketMetadataSupport.viewRange(viewRange)); }
+
+    /**
+     * Makes later geometry updates animate: the client interpolates each entity to
+     * its new transform over the given ticks (0, the default, snaps).
+     * {@link #teleportOrigin} always snaps.
+     */
+    public void setInterpolationDuration(int ticks) { this.interpolationTicks = Math.max(0, ticks); }
+    public int getInterpolationDuration() { return interpolationTicks; }
+
+    private void restyle(Consumer<WrapperEntity> change) {
+        if (spawned) { PacketBundleSupport.update(viewerUUIDs, entities, change, encodingCache); }
+    }
+
     @Override
     public void addViewer(UUID playerUUID) {
-        viewerUUIDs.add(playerUUID);
-        if (spawned) { if (rootAnchor != null) rootAnchor.addViewer(playerUUID); for (WrapperEntity e : entities) e.addViewer(playerUUID); }
+        addMeteredViewer(playerUUID);
+    }
+
+    @Override
+    public long addMeteredViewer(UUID playerUUID) {
+        return viewerUUIDs.add(playerUUID) && spawned ? PacketBundleSupport.show(playerUUID, rootAnchor, entities, encodingCache) : 0;
     }
 
     @Override
@@ -128,24 +176,33 @@ public class PacketPolyline implements Shape {
     @Override public List<UUID> getEntityUUIDs() { List<UUID> u = new ArrayList<>(); for (WrapperEntity e : entities) u.add(e.getUuid()); return u; }
     public List<WrapperEntity> getEntities() { return new ArrayList<>(entities); }
 
+    /**
+     * Gets the world-space bounds of this shape, e.g. for {@link PacketShapeManager}.
+     */
+    public ShapeBounds getBounds() { return points.isEmpty() ? originBounds() : ShapeBounds.of(points, thickness); }
+
+    private ShapeBounds originBounds() { return new ShapeBounds(origin.getX(), origin.getY(), origin.getZ(), origin.getX(), origin.getY(), origin.getZ()); }
+
     @Override
     public void teleportOrigin(double x, double y, double z) {
         if (!spawned) return;
         Location newOrigin = new Location(origin.getWorld(), x, y, z);
-        if (rootAnchorEnabled && rootAnchor != null) { PacketRootAnchorSupport.teleportRootAnchor(rootAnchor, entities, origin, newOrigin); this.origin = newOrigin.clone(); return; }
-        float dx = (float)(x-origin.getX()), dy = (float)(y-origin.getY()), dz = (float)(z-origin.getZ());
-        com.github.retrooper.packetevents.protocol.world.Location peLoc = SpigotConversionUtil.fromBukkitLocation(newOrigin);
-        for (WrapperEntity entity : entities) {
-            if (entity.getEntityMeta() instanceof AbstractDisplayMeta dm) {
-                com.github.retrooper.packetevents.util.Vector3f old = dm.getTranslation();
-                dm.setInterpolationDelay(0); dm.setTransformationInterpolationDuration(0); dm.setPositionRotationInterpolationDuration(0);
-                dm.setTranslation(new com.github.retrooper.packetevents.util.Vector3f(old.getX()-dx, old.getY()-dy, old.getZ()-dz));
-                entity.sendPacketToViewers(new WrapperPlayServerBundle()); entity.sendPacketToViewers(entity.getEntityMeta().createPacket());
-                entity.sendPacketToViewers(new WrapperPlayServerEntityTeleport(entity.getEntityId(), peLoc.getPosition(), peLoc.getYaw(), peLoc.getPitch(), false));
-                entity.sendPacketToViewers(new WrapperPlayServerBundle()); entity.setLocation(peLoc);
-            } else { entity.teleport(peLoc); }
-        }
-        this.origin = newOrigin.clone();
+        PacketBundleSupport.rebase(viewerUUIDs, rootAnchor, entities, origin, newOrigin, encodingCache);
+        this.origin = newOrigin;
+    }
+
+    /**
+     * Moves the whole shape so that its origin is at the given position. With
+     * {@code rootAnchor(true)} this is a single teleport packet per viewer, as the
+     * entities follow the anchor; unlike {@link #teleportOrigin}, the shape moves.
+     */
+    public void moveTo(double x, double y, double z) {
+        Vector3f delta = new Vector3f((float) (x - origin.getX()), (float) (y - origin.getY()), (float) (z - origin.getZ()));
+        List<Vector3f> moved = new ArrayList<>(points.size());
+        for (Vector3f p : points) moved.add(new Vector3f(p).add(delta));
+        this.points = moved;
+        this.origin = new Location(origin.getWorld(), x, y, z);
+        if (spawned) { PacketBundleSupport.move(viewerUUIDs, rootAnchor, entities, origin, encodingCache); }
     }
 
     public int getSegmentCount() { if (points.size() < 2) return 0; return closed ? points.size() : points.size() - 1; }
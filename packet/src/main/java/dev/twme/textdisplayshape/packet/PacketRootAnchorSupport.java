@@ -1,13 +1,9 @@
 package dev.twme.textdisplayshape.packet;
 
-import java.util.Set;
-import java.util.UUID;
-
 import org.bukkit.Location;
 
 import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
-import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerBundle;
-import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityTeleport;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSetPassengers;
 
 import io.github.retrooper.packetevents.util.SpigotConversionUtil;
 import me.tofaa.entitylib.meta.display.AbstractDisplayMeta;
@@ -26,7 +22,7 @@ final class PacketRootAnchorSupport {
         return logicalOrigin.clone();
     }
 
-    static WrapperEntity createRootAnchor(Location origin, float viewRange, Set<UUID> viewerUUIDs) {
+    static WrapperEntity createRootAnchor(Location origin, float viewRange) {
         WrapperEntity rootAnchor = new WrapperEntity(EntityTypes.TEXT_DISPLAY);
         rootAnchor.spawn(SpigotConversionUtil.fromBukkitLocation(toAnchorLocation(origin)));
 
@@ -47,55 +43,20 @@ final class PacketRootAnchorSupport {
 
         rootAnchor.setHasNoGravity(true);
 
-        for (UUID viewerUUID : viewerUUIDs) {
-            rootAnchor.addViewer(viewerUUID);
-        }
-
+        // Viewers and passengers are sent by PacketBundleSupport in the spawn bundle
         return rootAnchor;
     }
 
-    static void attachPassenger(WrapperEntity rootAnchor, WrapperEntity childEntity) {
-        if (rootAnchor == null) return;
-        rootAnchor.addPassenger(childEntity.getEntityId());
-    }
-
-    static void teleportRootAnchor(WrapperEntity rootAnchor, java.util.List<WrapperEntity> childEntities,
-                                   Location oldOrigin, Location newOrigin) {
-        if (rootAnchor == null) return;
-
-        float deltaX = (float) (newOrigin.getX() - oldOrigin.getX());
-        float deltaY = (float) (newOrigin.getY() - oldOrigin.getY());
-        float deltaZ = (float) (newOrigin.getZ() - oldOrigin.getZ());
-
-        com.github.retrooper.packetevents.protocol.world.Location anchorLocation =
-                SpigotConversionUtil.fromBukkitLocation(toAnchorLocation(newOrigin));
-
-        rootAnchor.sendPacketToViewers(new WrapperPlayServerBundle());
-
-        for (WrapperEntity entity : childEntities) {
-            if (!(entity.getEntityMeta() instanceof AbstractDisplayMeta displayMeta)) {
-                continue;
-            }
-
-            com.github.retrooper.packetevents.util.Vector3f old = displayMeta.getTranslation();
-            displayMeta.setInterpolationDelay(0);
-            displayMeta.setTransformationInterpolationDuration(0);
-            displayMeta.setPositionRotationInterpolationDuration(0);
-            displayMeta.setTranslation(new com.github.retrooper.packetevents.util.Vector3f(
-                    old.getX() - deltaX,
-                    old.getY() - deltaY,
-                    old.getZ() - deltaZ));
-
-            entity.sendPacketToViewers(entity.getEntityMeta().createPacket());
+    /**
+     * Builds one set-passengers packet that mounts every child on the anchor.
+     * The passenger list is derived from the shape's entities instead of being
+     * registered one by one with EntityLib, which may send a packet per call.
+     */
+    static WrapperPlayServerSetPassengers createPassengerPacket(WrapperEntity rootAnchor, java.util.List<WrapperEntity> childEntities) {
+        int[] passengers = new int[childEntities.size()];
+        for (int i = 0; i < passengers.length; i++) {
+            passengers[i] = childEntities.get(i).getEntityId();
         }
-
-        rootAnchor.sendPacketToViewers(new WrapperPlayServerEntityTeleport(
-                rootAnchor.getEntityId(),
-                anchorLocation.getPosition(),
-                anchorLocation.getYaw(),
-                anchorLocation.getPitch(),
-                false));
-        rootAnchor.sendPacketToViewers(new WrapperPlayServerBundle());
-        rootAnchor.setLocation(anchorLocation);
+        return new WrapperPlayServerSetPassengers(rootAnchor.getEntityId(), passengers);
     }
 }
@@ -0,0 +1,183 @@
+package dev.twme.textdisplayshape.packet;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import dev.twme.textdisplayshape.shape.Shape;
+import dev.twme.textdisplayshape.shape.ShapeBounds;
+
+/**
+ * Spreads the spawn packets sent to each viewer over several ticks.
+ *
+ * <p>Instead of calling {@link Shape#addViewer(UUID)} directly, shapes are
+ * {@linkplain #schedule scheduled} for a viewer. Every tick, each viewer's
+ * pending shapes are sorted by distance and shown nearest first until the
+ * viewer's entity or byte budget for that tick is spent; the rest waits for the
+ * next tick. A player joining or teleporting into a dense area therefore
+ * receives the nearby shapes first and never thousands of spawns in one tick.</p>
+ *
+ * <p>A shape is shown as a whole, so one shape larger than the budget is still
+ * sent in a single tick; the budget then applies from the next shape on. Bytes
+ * are counted from the encoded spawn bundles each of this library's packet
+ * shapes reports for the viewer it was shown to; other shapes only count
+ * towards the entity budget. Not thread-safe; use from the main thread.</p>
+ */
+public class PacketSendScheduler implements Listener {
+
+    private final Plugin plugin;
+    private final int maxEntitiesPerTick;
+    private final long maxBytesPerTick;
+
+    private final Map<UUID, List<Pending>> pending = new HashMap<>();
+    private BukkitTask task;
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param plugin             the plugin owning the task and listener
+     * @param maxEntitiesPerTick the entities each viewer may receive per tick
+     * @param maxBytesPerTick    the encoded bytes each viewer may receive per tick
+     */
+    public PacketSendScheduler(Plugin plugin, int maxEntitiesPerTick, long maxBytesPerTick) {
+        if (maxEntitiesPerTick <= 0) throw new IllegalArgumentException("maxEntitiesPerTick must be positive: " + maxEntitiesPerTick);
+        if (maxBytesPerTick <= 0) throw new IllegalArgumentException("maxBytesPerTick must be positive: " + maxBytesPerTick);
+        this.plugin = plugin;
+        this.maxEntitiesPerTick = maxEntitiesPerTick;
+        this.maxBytesPerTick = maxBytesPerTick;
+    }
+
+    /**
+     * Registers the quit listener and starts sending every tick.
+     */
+    public void start() {
+        if (task != null) return;
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1, 1);
+    }
+
+    /**
+     * Stops sending and drops every pending shape.
+     */
+    public void stop() {
+        if (task == null) return;
+        task.cancel();
+        task = null;
+        HandlerList.unregisterAll(this);
+        pending.clear();
+    }
+
+    /**
+     * Queues a shape to be shown to a viewer. Scheduling a shape that is already
+     * pending for the viewer only updates its bounds.
+     *
+     * @param viewerUUID the viewer
+     * @param shape      the shape
+     * @param bounds     the shape's bounds, used to send nearer shapes first
+     */
+    public void schedule(UUID viewerUUID, Shape shape, ShapeBounds bounds) {
+        List<Pending> queue = pending.computeIfAbsent(viewerUUID, uuid -> new ArrayList<>());
+        for (Pending entry : queue) {
+            if (entry.shape == shape) { entry.bounds = bounds; return; }
+        }
+        queue.add(new Pending(shape, bounds));
+    }
+
+    /**
+     * Removes a shape from a viewer's queue.
+     *
+     * @param viewerUUID the viewer
+     * @param shape      the shape
+     * @return true if the shape was still pending
+     */
+    public boolean cancel(UUID viewerUUID, Shape shape) {
+        List<Pending> queue = pending.get(viewerUUID);
+        if (queue == null) return false;
+        boolean removed = queue.removeIf(entry -> entry.shape == shape);
+        if (queue.isEmpty()) pending.remove(viewerUUID);
+        return removed;
+    }
+
+    /**
+     * Drops every shape pending for a viewer.
+     *
+     * @param viewerUUID the viewer
+     */
+    public void cancelAll(UUID viewerUUID) {
+        pending.remove(viewerUUID);
+    }
+
+    /**
+     * Gets the number of shapes waiting to be shown to a viewer.
+     *
+     * @param viewerUUID the viewer
+     * @return the pending shape count
+     */
+    public int getPendingCount(UUID viewerUUID) {
+        List<Pending> queue = pending.get(viewerUUID);
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * Shows each viewer its nearest pending shapes within the per-tick budget.
+     * Runs automatically after {@link #start()}.
+     */
+    public void tick() {
+        for (Iterator<Map.Entry<UUID, List<Pending>>> it = pending.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<UUID, List<Pending>> entry = it.next();
+            Player player = Bukkit.getPlayer(entry.getKey());
+            if (player == null) { it.remove(); continue; }
+            send(entry.getKey(), player.getLocation(), entry.getValue());
+            if (entry.getValue().isEmpty()) it.remove();
+        }
+    }
+
+    private void send(UUID viewerUUID, Location location, List<Pending> queue) {
+        double x = location.getX(), y = location.getY(), z = location.getZ();
+        for (Pending entry : queue) entry.distanceSquared = entry.bounds.distanceSquared(x, y, z);
+        queue.sort(Comparator.comparingDouble(entry -> entry.distanceSquared));
+        int entities = 0;
+        long bytes = 0;
+        int sent = 0;
+        while (sent < queue.size() && entities < maxEntitiesPerTick && bytes < maxBytesPerTick) {
+            Shape shape = queue.get(sent++).shape;
+            if (shape instanceof MeteredShape metered) {
+                bytes += metered.addMeteredViewer(viewerUUID);
+            } else {
+                shape.addViewer(viewerUUID);
+            }
+            entities += Math.max(1, shape.getEntityUUIDs().size());
+        }
+        queue.subList(0, sent).clear();
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        pending.remove(event.getPlayer().getUniqueId());
+    }
+
+    private static final class Pending {
+        private final Shape shape;
+        private ShapeBounds bounds;
+        private double distanceSquared;
+
+        private Pending(Shape shape, ShapeBounds bounds) {
+            this.shape = shape;
+            this.bounds = bounds;
+        }
+    }
+}
@@ -3,6 +3,8 @@ package dev.twme.textdisplayshape.packet;
 import org.bukkit.Location;
 import org.joml.Vector3f;
 
+import dev.twme.textdisplayshape.mesh.OptimizedMesh;
+
 import java.util.List;
 
 /**
@@ -27,4 +29,16 @@ public class PacketShapeFactory {
     public PacketParallelogram.Builder parallelogram(Location origin, Vector3f p1, Vector3f p2, Vector3f p3) {
         return new PacketParallelogram.Builder(origin, p1, p2, p3);
     }
+
+    public PacketPolygon.Builder polygon(Location origin, List<Vector3f> points) {
+        return new PacketPolygon.Builder(origin, points);
+    }
+
+    public PacketMesh.Builder mesh(Location origin, OptimizedMesh mesh) {
+        return new PacketMesh.Builder(origin, mesh);
+    }
+
+    public PacketLodShape.Builder lod(Location center) {
+        return new PacketLodShape.Builder(center);
+    }
 }
@@ -0,0 +1,383 @@
+package dev.twme.textdisplayshape.packet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import dev.twme.textdisplayshape.shape.Shape;
+import dev.twme.textdisplayshape.shape.ShapeBounds;
+import dev.twme.textdisplayshape.shape.ShapeIndex;
+
+/**
+ * Adds and removes the viewers of packet shapes automatically.
+ *
+ * <p>Every managed shape has a world, bounds and a view distance. A player sees
+ * a shape once they are within the view distance of its bounds, and stops
+ * seeing it once they are more than the view distance plus the hysteresis away,
+ * so a player walking along the edge does not make the shape flicker.</p>
+ *
+ * <p>Shapes are kept in a {@link ShapeIndex} per world, and a player is only
+ * re-evaluated when they enter another chunk section or world. That player then
+ * only checks the shapes in nearby chunks. The cost therefore depends on how
+ * many players move and how many shapes are near them, instead of on shapes
+ * times players every tick.</p>
+ *
+ * <p>The manager does not spawn or remove shapes, and managed shapes should not
+ * get viewers from anywhere else. Not thread-safe; use from the main thread.</p>
+ *
+ * <pre>{@code
+ * PacketShapeManager manager = new PacketShapeManager(plugin);
+ * manager.start();
+ * line.spawn();
+ * manager.add(line, world, line.getBounds());
+ * }</pre>
+ */
+public class PacketShapeManager implements Listener {
+
+    /**
+     * Default view distance, the distance a display with view range 1 is tracked at.
+     */
+    public static final double DEFAULT_VIEW_DISTANCE = 64.0;
+
+    /**
+     * Diagonal of a chunk section: how far a player can move without being
+     * re-evaluated. Added to every view distance so a shape is always shown
+     * before the player is within its view distance.
+     */
+    private static final double SECTION_SLACK = 16.0 * Math.sqrt(3.0);
+
+    private final Plugin plugin;
+    private final double hysteresis;
+    private final long periodTicks;
+
+    private final Map<Shape, ManagedShape> shapes = new IdentityHashMap<>();
+    private final Map<UUID, ShapeIndex<ManagedShape>> indexes = new HashMap<>();
+    private final Map<UUID, ViewerState> viewers = new HashMap<>();
+    private double maxReach = 0;
+    private PacketSendScheduler sendScheduler;
+    private BukkitTask task;
+
+    /**
+     * Creates a manager with a hysteresis of 8 blocks that checks players every 10 ticks.
+     *
+     * @param plugin the plugin owning the task and listener
+     */
+    public PacketShapeManager(Plugin plugin) {
+        this(plugin, 8.0, 10);
+    }
+
+    /**
+     * Creates a manager.
+     *
+     * @param plugin      the plugin owning the task and listener
+     * @param hysteresis  the extra distance, in blocks, a viewer must move past a
+     *                    shape's view distance before it is hidden again
+     * @param periodTicks how often, in ticks, players are checked for chunk changes
+     */
+    public PacketShapeManager(Plugin plugin, double hysteresis, long periodTicks) {
+        if (!(hysteresis >= 0)) throw new IllegalArgumentException("hysteresis must not be negative: " + hysteresis);
+        if (periodTicks <= 0) throw new IllegalArgumentException("periodTicks must be positive: " + periodTicks);
+        this.plugin = plugin;
+        this.hysteresis = hysteresis;
+        this.periodTicks = periodTicks;
+    }
+
+    /**
+     * Gets the distance a display with the given view range is tracked at.
+     *
+     * @param viewRange the display view range
+     * @return the view distance in blocks
+     */
+    public static double viewDistance(float viewRange) {
+        return DEFAULT_VIEW_DISTANCE * viewRange;
+    }
+
+    /**
+     * Routes new viewers through a send scheduler, so a player entering a dense
+     * area receives the nearest shapes first and within a per-tick budget. The
+     * scheduler must be started separately.
+     *
+     * @param sendScheduler the scheduler, or null to add viewers immediately
+     */
+    public void setSendScheduler(PacketSendScheduler sendScheduler) {
+        this.sendScheduler = sendScheduler;
+    }
+
+    /**
+     * Registers the quit listener and starts checking players.
+     */
+    public void start() {
+        if (task != null) return;
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, periodTicks, periodTicks);
+    }
+
+    /**
+     * Stops checking players and removes every managed viewer from its shapes.
+     * The shapes stay registered, so {@link #start()} shows them again.
+     */
+    public void stop() {
+        if (task == null) return;
+        task.cancel();
+        task = null;
+        HandlerList.unregisterAll(this);
+        hideAll();
+    }
+
+    /**
+     * Manages a shape with the {@link #DEFAULT_VIEW_DISTANCE}.
+     *
+     * @see #add(Shape, World, ShapeBounds, double)
+     */
+    public void add(Shape shape, World world, ShapeBounds bounds) {
+        add(shape, world, bounds, DEFAULT_VIEW_DISTANCE);
+    }
+
+    /**
+     * Manages a shape; nearby players become viewers right away. Adding a shape
+     * that is already managed updates its bounds and view distance.
+     *
+     * @param shape        the shape, usually spawned
+     * @param world        the world the shape is in
+     * @param bounds       the shape's bounds in world coordinates
+     * @param viewDistance the distance from the bounds at which players see the
+     *                     shape, e.g. {@link #viewDistance(float)} of its view range
+     */
+    public void add(Shape shape, World world, ShapeBounds bounds, double viewDistance) {
+        ManagedShape managed = manage(shape, world.getUID(), bounds, viewDistance);
+        for (Player player : world.getPlayers()) {
+            ViewerState state = viewers.get(player.getUniqueId());
+            if (state != null) evaluate(player.getUniqueId(), state, managed, player.getLocation());
+        }
+        // Viewers left in another world after a world change
+        for (UUID viewerUUID : new ArrayList<>(managed.viewers)) {
+            Player player = Bukkit.getPlayer(viewerUUID);
+            if (player == null || !player.getWorld().getUID().equals(managed.worldId)) hide(viewerUUID, viewers.get(viewerUUID), managed);
+        }
+    }
+
+    /**
+     * Updates the bounds of a managed shape, e.g. after changing its points.
+     *
+     * @param shape  the managed shape
+     * @param bounds the new bounds
+     */
+    public void updateBounds(Shape shape, ShapeBounds bounds) {
+        ManagedShape managed = shapes.get(shape);
+        if (managed == null) return;
+        World world = Bukkit.getWorld(managed.worldId);
+        if (world != null) add(shape, world, bounds, managed.viewDistance);
+    }
+
+    /**
+     * Stops managing a shape and removes the viewers the manager added. The shape
+     * itself stays spawned.
+     *
+     * @param shape the shape
+     */
+    public void remove(Shape shape) {
+        ManagedShape managed = shapes.remove(shape);
+        if (managed == null) return;
+        unindex(managed);
+        for (UUID viewerUUID : new ArrayList<>(managed.viewers)) hide(viewerUUID, viewers.get(viewerUUID), managed);
+    }
+
+    /**
+     * Gets the managed shapes.
+     *
+     * @return a copy of the managed shapes
+     */
+    public Set<Shape> getShapes() {
+        Set<Shape> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        result.addAll(shapes.keySet());
+        return result;
+    }
+
+    /**
+     * Gets the managed shapes whose bounds are within a distance of a location.
+     *
+     * @param location the location
+     * @param radius   the maximum distance to the shape bounds
+     * @return the shapes, possibly empty
+     */
+    public List<Shape> getShapesNear(Location location, double radius) {
+        List<Shape> result = new ArrayList<>();
+        ShapeIndex<ManagedShape> index = indexes.get(location.getWorld().getUID());
+        if (index != null) index.queryRadius(location.getX(), location.getY(), location.getZ(), radius, managed -> result.add(managed.shape));
+        return result;
+    }
+
+    /**
+     * Gets the managed shapes whose bounds overlap a chunk.
+     *
+     * @param world  the world
+     * @param chunkX the chunk X coordinate
+     * @param chunkZ the chunk Z coordinate
+     * @return the shapes, possibly empty
+     */
+    public List<Shape> getShapesInChunk(World world, int chunkX, int chunkZ) {
+        List<Shape> result = new ArrayList<>();
+        ShapeIndex<ManagedShape> index = indexes.get(world.getUID());
+        if (index != null) for (ManagedShape managed : index.queryChunk(chunkX, chunkZ)) result.add(managed.shape);
+        return result;
+    }
+
+    /**
+     * Re-evaluates every online player that entered another chunk section or
+     * world since the last check. Runs automatically after {@link #start()}.
+     */
+    public void tick() {
+        for (Player player : Bukkit.getOnlinePlayers()) move(player.getUniqueId(), player.getWorld().getUID(), player.getLocation());
+    }
+
+    /**
+     * Registers or updates a shape and indexes it, without evaluating any player.
+     */
+    ManagedShape manage(Shape shape, UUID worldId, ShapeBounds bounds, double viewDistance) {
+        ManagedShape managed = shapes.get(shape);
+        if (managed != null) unindex(managed);
+        else {
+            managed = new ManagedShape(shape);
+            shapes.put(shape, managed);
+        }
+        managed.worldId = worldId;
+        managed.bounds = bounds;
+        managed.viewDistance = viewDistance;
+        maxReach = Math.max(maxReach, viewDistance + SECTION_SLACK + hysteresis);
+        index(managed);
+        return managed;
+    }
+
+    /**
+     * Re-evaluates a player if they entered another chunk section or world.
+     */
+    void move(UUID playerUUID, UUID worldId, Location location) {
+        int chunkX = location.getBlockX() >> 4, sectionY = location.getBlockY() >> 4, chunkZ = location.getBlockZ() >> 4;
+        ViewerState state = viewers.computeIfAbsent(playerUUID, uuid -> new ViewerState());
+        if (state.isAt(worldId, chunkX, sectionY, chunkZ)) return;
+        state.worldId = worldId; state.chunkX = chunkX; state.sectionY = sectionY; state.chunkZ = chunkZ;
+        refresh(playerUUID, state, location);
+    }
+
+    /**
+     * Removes every managed viewer and forgets where the players were, so the
+     * next check evaluates them from scratch.
+     */
+    void hideAll() {
+        for (Map.Entry<UUID, ViewerState> entry : viewers.entrySet()) {
+            for (ManagedShape managed : entry.getValue().shapes) {
+                managed.viewers.remove(entry.getKey());
+                detach(entry.getKey(), managed);
+            }
+        }
+        viewers.clear();
+    }
+
+    private void refresh(UUID playerUUID, ViewerState state, Location location) {
+        Set<ManagedShape> nearby = nearby(state.worldId, location);
+        for (Iterator<ManagedShape> it = state.shapes.iterator(); it.hasNext(); ) {
+            ManagedShape managed = it.next();
+            if (!nearby.contains(managed)) {
+                it.remove();
+                managed.viewers.remove(playerUUID);
+                detach(playerUUID, managed);
+            }
+        }
+        for (ManagedShape managed : nearby) evaluate(playerUUID, state, managed, location);
+    }
+
+    private void evaluate(UUID playerUUID, ViewerState state, ManagedShape managed, Location location) {
+        double distanceSquared = managed.bounds.distanceSquared(location.getX(), location.getY(), location.getZ());
+        boolean visible = managed.viewers.contains(playerUUID);
+        double showDistance = managed.viewDistance + SECTION_SLACK;
+        if (!visible && distanceSquared <= showDistance * showDistance) {
+            managed.viewers.add(playerUUID);
+            state.shapes.add(managed);
+            attach(playerUUID, managed);
+        } else if (visible) {
+            double hideDistance = showDistance + hysteresis;
+            if (distanceSquared > hideDistance * hideDistance) hide(playerUUID, state, managed);
+        }
+    }
+
+    private void hide(UUID playerUUID, ViewerState state, ManagedShape managed) {
+        managed.viewers.remove(playerUUID);
+        if (state != null) state.shapes.remove(managed);
+        detach(playerUUID, managed);
+    }
+
+    private void attach(UUID playerUUID, ManagedShape managed) {
+        if (sendScheduler != null) sendScheduler.schedule(playerUUID, managed.shape, managed.bounds);
+        else managed.shape.addViewer(playerUUID);
+    }
+
+    private void detach(UUID playerUUID, ManagedShape managed) {
+        if (sendScheduler != null) sendScheduler.cancel(playerUUID, managed.shape);
+        managed.shape.removeViewer(playerUUID);
+    }
+
+    private Set<ManagedShape> nearby(UUID worldId, Location location) {
+        Set<ManagedShape> result = new HashSet<>();
+        ShapeIndex<ManagedShape> index = indexes.get(worldId);
+        if (index != null) index.queryRadius(location.getX(), location.getY(), location.getZ(), maxReach, result::add);
+        return result;
+    }
+
+    private void index(ManagedShape managed) {
+        indexes.computeIfAbsent(managed.worldId, id -> new ShapeIndex<>()).put(managed, managed.bounds);
+    }
+
+    private void unindex(ManagedShape managed) {
+        ShapeIndex<ManagedShape> index = indexes.get(managed.worldId);
+        if (index != null && index.remove(managed) && index.isEmpty()) indexes.remove(managed.worldId);
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        UUID playerUUID = event.getPlayer().getUniqueId();
+        ViewerState state = viewers.remove(playerUUID);
+        if (state == null) return;
+        for (ManagedShape managed : state.shapes) {
+            managed.viewers.remove(playerUUID);
+            detach(playerUUID, managed);
+        }
+    }
+
+    private static final class ManagedShape {
+        private final Shape shape;
+        private final Set<UUID> viewers = new HashSet<>();
+        private UUID worldId;
+        private ShapeBounds bounds;
+        private double viewDistance;
+
+        private ManagedShape(Shape shape) { this.shape = shape; }
+    }
+
+    private static final class ViewerState {
+        private final Set<ManagedShape> shapes = new HashSet<>();
+        private UUID worldId;
+        private int chunkX, sectionY, chunkZ;
+
+        private boolean isAt(UUID worldId, int chunkX, int sectionY, int chunkZ) {
+            return worldId.equals(this.worldId) && chunkX == this.chunkX && sectionY == this.sectionY && chunkZ == this.chunkZ;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package dev.twme.textdisplayshape.packet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.bukkit.Location;
+import org.junit.jupiter.api.Test;
+
+import dev.twme.textdisplayshape.shape.Shape;
+import dev.twme.textdisplayshape.shape.ShapeBounds;
+
+class PacketShapeManagerTest {
+
+    private static final UUID WORLD = new UUID(0, 1);
+    private static final UUID PLAYER = new UUID(0, 2);
+
+    @Test
+    void showsShapesInRangeAndHidesThemPastTheHysteresis() {
+        PacketShapeManager manager = new PacketShapeManager(null, 8.0, 10);
+        ViewerShape shape = new ViewerShape();
+        manager.manage(shape, WORLD, new ShapeBounds(0, 0, 0, 1, 1, 1), 32);
+
+        manager.move(PLAYER, WORLD, at(200, 0, 0));
+        assertFalse(shape.viewers.contains(PLAYER));
+        manager.move(PLAYER, WORLD, at(40, 0, 0));
+        assertTrue(shape.viewers.contains(PLAYER));
+        // Past the view distance plus section slack, but within the hysteresis
+        manager.move(PLAYER, WORLD, at(66, 0, 0));
+        assertTrue(shape.viewers.contains(PLAYER));
+        manager.move(PLAYER, WORLD, at(80, 0, 0));
+        assertFalse(shape.viewers.contains(PLAYER));
+        assertEquals(1, shape.added);
+        assertEquals(1, shape.removed);
+    }
+
+    @Test
+    void hiddenViewersAreShownAgainAfterRestart() {
+        PacketShapeManager manager = new PacketShapeManager(null);
+        ViewerShape shape = new ViewerShape();
+        manager.manage(shape, WORLD, new ShapeBounds(0, 0, 0, 1, 1, 1), 16);
+
+        manager.move(PLAYER, WORLD, at(4, 0, 4));
+        assertTrue(shape.viewers.contains(PLAYER));
+
+        // What stop() does after cancelling the task
+        manager.hideAll();
+        assertFalse(shape.viewers.contains(PLAYER));
+
+        // The first tick after start() finds the player where they were
+        manager.move(PLAYER, WORLD, at(4, 0, 4));
+        assertTrue(shape.viewers.contains(PLAYER));
+        assertEquals(2, shape.added);
+        assertEquals(1, shape.removed);
+    }
+
+    private static Location at(double x, double y, double z) {
+        return new Location(null, x, y, z);
+    }
+
+    /**
+     * Records the viewers the manager adds and removes.
+     */
+    private static final class ViewerShape implements Shape {
+        private final Set<UUID> viewers = new HashSet<>();
+        private int added, removed;
+
+        @Override
+        public void spawn() {
+        }
+
+        @Override
+        public void remove() {
+        }
+
+        @Override
+        public boolean isSpawned() {
+            return true;
+        }
+
+        @Override
+        public void addViewer(UUID playerUUID) {
+            if (viewers.add(playerUUID)) added++;
+        }
+
+        @Override
+        public void removeViewer(UUID playerUUID) {
+            if (viewers.remove(playerUUID)) removed++;
+        }
+
+        @Override
+        public Set<UUID> getViewerUUIDs() {
+            return Set.copyOf(viewers);
+        }
+
+        @Override
+        public List<UUID> getEntityUUIDs() {
+            return List.of();
+        }
+
+        @Override
+        public void teleportOrigin(double x, double y, double z) {
+        }
+    }
+}
@@ -5,6 +5,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import org.bukkit.Color;
 import org.bukkit.Location;
@@ -13,7 +15,6 @@ import org.bukkit.entity.TextDisplay;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
 
-import dev.twme.textdisplayshape.shape.Shape;
 import dev.twme.textdisplayshape.shape.ShapeBuilder;
 import dev.twme.textdisplayshape.util.TextDisplayUtil;
 import net.kyori.adventure.text.minimessage.MiniMessage;
@@ -22,12 +23,12 @@ import net.kyori.adventure.text.minimessage.MiniMessage;
  * Line implementation using Bukkit API to directly manipulate TextDisplay
  * entities.
  */
-public class BukkitLine implements Shape {
+public class BukkitLine implements BukkitShape {
 
     private Location origin;
-    private final Vector3f p1;
-    private final Vector3f p2;
-    private final float thickness;
+    private Vector3f p1;
+    private Vector3f p2;
+    private float thickness;
     private final float roll;
     private final Color color;
     private final boolean doubleSided;
@@ -35,9 +36,13 @@ public class BukkitLine implements Shape {
     private final int skyLight;
     private final boolean seeThrough;
     private final float viewRange;
+    private final TextDisplayPool pool;
+    private final OrphanDisplaySweeper sweeper;
 
     private final List<TextDisplay> displays = new ArrayList<>();
     private boolean spawned = false;
+    private List<Matrix4f> pendingPieces;
+    private CompletableFuture<Void> pendingSpawn;
 
     private BukkitLine(Builder builder) {
         this.origin = builder.origin;
@@ -51,6 +56,8 @@ public class BukkitLine implements Shape {
         this.skyLight = builder.skyLight;
         this.seeThrough = builder.seeThrough;
         this.viewRange = builder.viewRange;
+        this.pool = builder.pool;
+        this.sweeper = builder.sweeper;
     }
 
     @Override
@@ -58,46 +65,142 @@ public class BukkitLine implements Shape {
         if (spawned)
             return;
 
+        for (Matrix4f matrix : computeMatrices()) {
+            spawnTextDisplay(matrix);
+        }
+
+        spawned = true;
+    }
+
+    /**
+     * Spawns the line over several ticks within the scheduler's budget.
+     * Geometry changes made meanwhile apply to the displays spawned so far and
+     * to the rest.
+     *
+     * @param scheduler the scheduler spawning the displays
+     * @return a future completed once every display is spawned, or cancelled if
+     *         the line is removed first
+     */
+    public CompletableFuture<Void> spawn(BukkitSpawnScheduler scheduler) {
+        if (spawned) {
+            return pendingSpawn != null ? pendingSpawn : CompletableFuture.completedFuture(null);
+        }
+        pendingPieces = computeMatrices();
+        pendingSpawn = scheduler.submit(this::spawnNext);
+        spawned = true;
+        return pendingSpawn;
+    }
+
+    private boolean spawnNext() {
+        if (displays.size() < pendingPieces.size()) {
+            spawnTextDisplay(pendingPieces.get(displays.size()));
+        }
+        if (displays.size() < pendingPieces.size()) return false;
+        pendingPieces = null;
+        pendingSpawn = null;
+        return true;
+    }
+
+    private List<Matrix4f> computeMatrices() {
+        List<Matrix4f> matrices = new ArrayList<>(2);
+
         // Front face: p1 -> p2
-        Matrix4f matrix = TextDisplayUtil.textDisplayLine(p1, p2, thickness, roll);
-        spawnTextDisplay(matrix);
+        matrices.add(TextDisplayUtil.textDisplayLine(p1, p2, thickness, roll));
 
         // Back face: swap p1 and p2, and invert roll
         if (doubleSided) {
-            Matrix4f backMatrix = TextDisplayUtil.textDisplayLine(p2, p1, thickness, -roll);
-            spawnTextDisplay(backMatrix);
+            matrices.add(TextDisplayUtil.textDisplayLine(p2, p1, thickness, -roll));
         }
 
-        spawned = true;
+        return matrices;
     }
 
-    private void spawnTextDisplay(Matrix4f matrix) {
+    private Matrix4f relativeToOrigin(Matrix4f matrix) {
         // Adjust transformation matrix: convert absolute coordinates to relative to
         // spawn location
-        Matrix4f adjustedMatrix = new Matrix4f()
+        return new Matrix4f()
                 .translate(
                         (float) -origin.getX(),
                         (float) -origin.getY(),
                         (float) -origin.getZ())
                 .mul(matrix);
+    }
+
+    private void spawnTextDisplay(Matrix4f matrix) {
+        Matrix4f adjustedMatrix = relativeToOrigin(matrix);
 
-        TextDisplay display = origin.getWorld().spawn(origin, TextDisplay.class, (d) -> {
+        TextDisplay display = acquire((d) -> {
             d.text(MiniMessage.miniMessage().deserialize(" "));
             d.setBackgroundColor(color);
             d.setBrightness(new Display.Brightness(blockLight, skyLight));
             d.setTransformationMatrix(adjustedMatrix);
             d.setSeeThrough(seeThrough);
             d.setViewRange(viewRange);
+            if (sweeper != null) sweeper.mark(d);
         });
         displays.add(display);
     }
 
+    /**
+     * Moves the line to new endpoints. If the line is spawned, only the
+     * transformation of the existing displays is updated; nothing is respawned.
+     *
+     * @param p1 the new start point
+     * @param p2 the new end point
+     */
+    public void setPoints(Vector3f p1, Vector3f p2) {
+        this.p1 = p1;
+        this.p2 = p2;
+        updateGeometry();
+    }
+
+    /**
+     * Changes the line thickness. If the line is spawned, only the
+     * transformation of the existing displays is updated.
+     *
+     * @param thickness the new thickness
+     */
+    public void setThickness(float thickness) {
+        this.thickness = thickness;
+        updateGeometry();
+    }
+
+    private void updateGeometry() {
+        if (!spawned) return;
+        List<Matrix4f> matrices = computeMatrices();
+        if (pendingPieces != null) pendingPieces = matrices;
+        for (int i = 0; i < matrices.size() && i < displays.size(); i++) {
+            TextDisplay display = displays.get(i);
+            if (display.isValid()) {
+                display.setTransformationMatrix(relativeToOrigin(matrices.get(i)));
+            }
+        }
+    }
+
+    private TextDisplay acquire(Consumer<TextDisplay> setup) {
+        if (pool != null) {
+            return pool.acquire(origin, setup);
+        }
+        return origin.getWorld().spawn(origin, TextDisplay.class, setup);
+    }
+
+    private void release(TextDisplay display) {
+        if (pool != null) {
+            pool.release(display);
+        } else if (display.isValid()) {
+            display.remove();
+        }
+    }
+
     @Override
     public void remove() {
+        if (pendingSpawn != null) {
+            pendingSpawn.cancel(false);
+            pendingSpawn = null;
+            pendingPieces = null;
+        }
         for (TextDisplay display : displays) {
-            if (display.isValid()) {
-                display.remove();
-            }
+            release(display);
         }
         displays.clear();
         spawned = false;
@@ -141,6 +244,11 @@ public class BukkitLine implements Shape {
         return new ArrayList<>(displays);
     }
 
+    @Override
+    public Location getOrigin() {
+        return origin.clone();
+    }
+
     @Override
     public void teleportOrigin(double x, double y, double z) {
         if (!spawned) return;
@@ -180,6 +288,8 @@ public class BukkitLine implements Shape {
         private int skyLight = 15;
         private boolean seeThrough = true;
         private float viewRange = 1.0f;
+        private TextDisplayPool pool = null;
+        private OrphanDisplaySweeper sweeper = null;
 
         public Builder(Location origin, Vector3f p1, Vector3f p2, float thickness) {
             this.origin = origin;
@@ -256,6 +366,30 @@ public class BukkitLine implements Shape {
             return this;
         }
 
+        /**
+         * Takes the displays from a pool and returns them to it on removal
+         * instead of spawning and removing entities.
+         *
+         * @param pool the pool, or null to spawn and remove entities directly
+         * @return this builder
+         */
+        public Builder pool(TextDisplayPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * Spawns the displays non-persistent and marks them, so they are not
+         * saved with their chunk and the sweeper can remove any left behind.
+         *
+         * @param sweeper the sweeper, or null to spawn persistent displays
+         * @return this builder
+         */
+        public Builder sweeper(OrphanDisplaySweeper sweeper) {
+            this.sweeper = sweeper;
+            return this;
+        }
+
         @Override
         public BukkitLine build() {
             return new BukkitLine(this);
@@ -5,6 +5,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import org.bukkit.Color;
 import org.bukkit.Location;
@@ -13,7 +15,6 @@ import org.bukkit.entity.TextDisplay;
 import org.bukkit.util.Transformation;
 import org.joml.Vector3f;
 
-import dev.twme.textdisplayshape.shape.Shape;
 import dev.twme.textdisplayshape.shape.ShapeBuilder;
 import dev.twme.textdisplayshape.util.TRSResult;
 import dev.twme.textdisplayshape.util.TextDisplayUtil;
@@ -23,21 +24,25 @@ import net.kyori.adventure.text.minimessage.MiniMessage;
  * Triangle implementation using Bukkit API to directly manipulate TextDisplay
  * entities.
  */
-public class BukkitTriangle implements Shape {
+public class BukkitTriangle implements BukkitShape {
 
     private Location origin;
-    private final Vector3f p1;
-    private final Vector3f p2;
-    private final Vector3f p3;
+    private Vector3f p1;
+    private Vector3f p2;
+    private Vector3f p3;
     private final Color color;
     private final boolean doubleSided;
     private final int blockLight;
     private final int skyLight;
     private final boolean seeThrough;
     private final float viewRange;
+    private final TextDisplayPool pool;
+    private final OrphanDisplaySweeper sweeper;
 
     private final List<TextDisplay> displays = new ArrayList<>();
     private boolean spawned = false;
+    private List<TRSResult> pendingPieces;
+    private CompletableFuture<Void> pendingSpawn;
 
     private BukkitTriangle(Builder builder) {
         this.origin = builder.origin;
@@ -50,6 +55,8 @@ public class BukkitTriangle implements Shape {
         this.skyLight = builder.skyLight;
         this.seeThrough = builder.seeThrough;
         this.viewRange = builder.viewRange;
+        this.pool = builder.pool;
+        this.sweeper = builder.sweeper;
     }
 
     @Override
@@ -57,49 +64,130 @@ public class BukkitTriangle implements Shape {
         if (spawned)
             return;
 
-        // Front face: p1, p2, p3 — use analytical TRS for precision
-        for (TRSResult trs : TextDisplayUtil.computeTriangleTRS(p1, p2, p3)) {
+        for (TRSResult trs : computePieces()) {
             spawnTextDisplay(trs);
         }
 
+        spawned = true;
+    }
+
+    /**
+     * Spawns the triangle over several ticks within the scheduler's budget.
+     * Geometry changes made meanwhile apply to the displays spawned so far and
+     * to the rest.
+     *
+     * @param scheduler the scheduler spawning the displays
+     * @return a future completed once every display is spawned, or cancelled if
+     *         the triangle is removed first
+     */
+    public CompletableFuture<Void> spawn(BukkitSpawnScheduler scheduler) {
+        if (spawned) {
+            return pendingSpawn != null ? pendingSpawn : CompletableFuture.completedFuture(null);
+        }
+        pendingPieces = computePieces();
+        pendingSpawn = scheduler.submit(this::spawnNext);
+        spawned = true;
+        return pendingSpawn;
+    }
+
+    private boolean spawnNext() {
+        if (displays.size() < pendingPieces.size()) {
+            spawnTextDisplay(pendingPieces.get(displays.size()));
+        }
+        if (displays.size() < pendingPieces.size()) return false;
+        pendingPieces = null;
+        pendingSpawn = null;
+        return true;
+    }
+
+    private List<TRSResult> computePieces() {
+        List<TRSResult> pieces = new ArrayList<>(2 * TextDisplayUtil.TRIANGLE_PIECE_COUNT);
+
+        // Front face: p1, p2, p3 — use analytical TRS for precision
+        pieces.addAll(TextDisplayUtil.computeTriangleTRS(p1, p2, p3));
+
         // Back face: swap p2 and p3
         if (doubleSided) {
-            for (TRSResult trs : TextDisplayUtil.computeTriangleTRS(p1, p3, p2)) {
-                spawnTextDisplay(trs);
-            }
+            pieces.addAll(TextDisplayUtil.computeTriangleTRS(p1, p3, p2));
         }
 
-        spawned = true;
+        return pieces;
     }
 
-    private void spawnTextDisplay(TRSResult trs) {
+    private Transformation toTransformation(TRSResult trs) {
         // Adjust translation: convert from absolute world coordinates to relative to spawn location
         Vector3f adjustedTranslation = new Vector3f(trs.translation())
                 .sub((float) origin.getX(), (float) origin.getY(), (float) origin.getZ());
 
-        Transformation transformation = new Transformation(
+        return new Transformation(
                 adjustedTranslation,
                 trs.leftRotation(),
                 trs.scale(),
                 trs.rightRotation());
+    }
+
+    private void spawnTextDisplay(TRSResult trs) {
+        Transformation transformation = toTransformation(trs);
 
-        TextDisplay display = origin.getWorld().spawn(origin, TextDisplay.class, (d) -> {
+        TextDisplay display = acquire((d) -> {
             d.text(MiniMessage.miniMessage().deserialize(" "));
             d.setBackgroundColor(color);
             d.setBrightness(new Display.Brightness(blockLight, skyLight));
             d.setTransformation(transformation);
             d.setSeeThrough(seeThrough);
             d.setViewRange(viewRange);
+            if (sweeper != null) sweeper.mark(d);
         });
         displays.add(display);
     }
 
+    /**
+     * Moves the triangle to new vertices. If the triangle is spawned, only the
+     * transformation of the existing displays is updated; nothing is respawned.
+     *
+     * @param p1 the new first vertex (world coordinates)
+     * @param p2 the new second vertex (world coordinates)
+     * @param p3 the new third vertex (world coordinates)
+     */
+    public void setVertices(Vector3f p1, Vector3f p2, Vector3f p3) {
+        this.p1 = p1;
+        this.p2 = p2;
+        this.p3 = p3;
+        if (!spawned) return;
+        List<TRSResult> pieces = computePieces();
+        if (pendingPieces != null) pendingPieces = pieces;
+        for (int i = 0; i < pieces.size() && i < displays.size(); i++) {
+            TextDisplay display = displays.get(i);
+            if (display.isValid()) {
+                display.setTransformation(toTransformation(pieces.get(i)));
+            }
+        }
+    }
+
+    private TextDisplay acquire(Consumer<TextDisplay> setup) {
+        if (pool != null) {
+            return pool.acquire(origin, setup);
+        }
+        return origin.getWorld().spawn(origin, TextDisplay.class, setup);
+    }
+
+    private void release(TextDisplay display) {
+        if (pool != null) {
+            pool.release(display);
+        } else if (display.isValid()) {
+            display.remove();
+        }
+    }
+
     @Override
     public void remove() {
+        if (pendingSpawn != null) {
+            pendingSpawn.cancel(false);
+            pendingSpawn = null;
+            pendingPieces = null;
+        }
         for (TextDisplay display : displays) {
-            if (display.isValid()) {
-                display.remove();
-            }
+            release(display);
         }
         displays.clear();
         spawned = false;
@@ -146,6 +234,11 @@ public class BukkitTriangle implements Shape {
         return new ArrayList<>(displays);
     }
 
+    @Override
+    public Location getOrigin() {
+        return origin.clone();
+    }
+
     @Override
     public void teleportOrigin(double x, double y, double z) {
         if (!spawned) return;
@@ -184,6 +277,8 @@ public class BukkitTriangle implements Shape {
         private int skyLight = 15;
         private boolean seeThrough = true;
         private float viewRange = 1.0f;
+        private TextDisplayPool pool = null;
+        private OrphanDisplaySweeper sweeper = null;
 
         public Builder(Location origin, Vector3f p1, Vector3f p2, Vector3f p3) {
             this.origin = origin;
@@ -234,6 +329,30 @@ public class BukkitTriangle implements Shape {
             return this;
         }
 
+        /**
+         * Takes the displays from a pool and returns them to it on removal
+         * instead of spawning and removing entities.
+         *
+         * @param pool the pool, or null to spawn and remove entities directly
+         * @return this builder
+         */
+        public Builder pool(TextDisplayPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * Spawns the displays non-persistent and marks them, so they are not
+         * saved with their chunk and the sweeper can remove any left behind.
+         *
+         * @param sweeper the sweeper, or null to spawn persistent displays
+         * @return this builder
+         */
+        public Builder sweeper(OrphanDisplaySweeper sweeper) {
+            this.sweeper = sweeper;
+            return this;
+        }
+
         @Override
         public BukkitTriangle build() {
             return new BukkitTriangle(this);
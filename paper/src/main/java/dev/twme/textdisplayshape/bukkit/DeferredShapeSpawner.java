@@ -0,0 +1,185 @@
+package dev.twme.textdisplayshape.bukkit;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.plugin.Plugin;
+
+import dev.twme.textdisplayshape.shape.ShapeBounds;
+import dev.twme.textdisplayshape.shape.ShapeIndex;
+
+/**
+ * Spawns Bukkit shapes only while the chunk of their origin is loaded.
+ *
+ * <p>Spawning a display in an unloaded chunk makes the server load that chunk
+ * synchronously on the main thread. A shape {@linkplain #add added} here is
+ * spawned right away if its origin chunk is loaded, and otherwise when the chunk
+ * loads. When the chunk unloads, the shape is removed and spawned again on the
+ * next load, so its displays are never saved with the chunk and never
+ * duplicated by a reload. {@link #addAsync} additionally asks Paper to load the
+ * chunk in the background with {@link World#getChunkAtAsync(int, int)}.</p>
+ *
+ * <p>Shapes are kept in a {@link ShapeIndex} per world, keyed by the origin
+ * they had when added. Shapes whose origin changes must be added again. Not
+ * thread-safe; use from the main thread.</p>
+ */
+public class DeferredShapeSpawner implements Listener {
+
+    private final Plugin plugin;
+
+    private final Map<BukkitShape, UUID> worlds = new IdentityHashMap<>();
+    private final Map<UUID, ShapeIndex<BukkitShape>> indexes = new HashMap<>();
+    private boolean started = false;
+
+    /**
+     * Creates a spawner.
+     *
+     * @param plugin the plugin owning the listener
+     */
+    public DeferredShapeSpawner(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Registers the chunk listener.
+     */
+    public void start() {
+        if (started) return;
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+        started = true;
+    }
+
+    /**
+     * Unregisters the chunk listener and removes every shape that was added.
+     */
+    public void stop() {
+        if (!started) return;
+        HandlerList.unregisterAll(this);
+        started = false;
+        for (BukkitShape shape : worlds.keySet()) shape.remove();
+        worlds.clear();
+        indexes.clear();
+    }
+
+    /**
+     * Adds a shape, keyed by its current {@linkplain BukkitShape#getOrigin() origin}.
+     * It is spawned now if its origin chunk is loaded, and otherwise once that
+     * chunk loads. Add a shape again after changing its origin, e.g. with
+     * {@link BukkitShape#teleportOrigin}, to re-key it.
+     *
+     * @param shape the shape, not spawned by anything else
+     */
+    public void add(BukkitShape shape) {
+        Location origin = shape.getOrigin();
+        World world = origin.getWorld();
+        UUID previous = worlds.put(shape, world.getUID());
+        if (previous != null && !previous.equals(world.getUID())) {
+            indexes.get(previous).remove(shape);
+        }
+        double x = origin.getX(), y = origin.getY(), z = origin.getZ();
+        indexes.computeIfAbsent(world.getUID(), id -> new ShapeIndex<>()).put(shape, new ShapeBounds(x, y, z, x, y, z));
+        boolean loaded = world.isChunkLoaded(origin.getBlockX() >> 4, origin.getBlockZ() >> 4);
+        if (loaded && !shape.isSpawned()) {
+            shape.spawn();
+        } else if (!loaded && shape.isSpawned()) {
+            shape.remove();
+        }
+    }
+
+    /**
+     * Adds a shape and loads its origin chunk asynchronously. The chunk is only
+     * requested, not kept loaded: without a player or ticket nearby it unloads
+     * again and takes the shape with it.
+     *
+     * @param shape the shape, not spawned by anything else
+     * @return a future completed once the shape is spawned, or cancelled if the
+     *         shape is removed first
+     */
+    public CompletableFuture<Void> addAsync(BukkitShape shape) {
+        add(shape);
+        Location origin = shape.getOrigin();
+        if (shape.isSpawned()) return CompletableFuture.completedFuture(null);
+        CompletableFuture<Void> spawned = new CompletableFuture<>();
+        origin.getWorld().getChunkAtAsync(origin.getBlockX() >> 4, origin.getBlockZ() >> 4).thenAccept(chunk -> {
+            if (!worlds.containsKey(shape)) {
+                spawned.cancel(false);
+                return;
+            }
+            // The chunk load event normally spawned it already
+            if (!shape.isSpawned()) shape.spawn();
+            spawned.complete(null);
+        });
+        return spawned;
+    }
+
+    /**
+     * Removes a shape and its displays.
+     *
+     * @param shape the shape
+     * @return true if the shape was added
+     */
+    public boolean remove(BukkitShape shape) {
+        UUID worldId = worlds.remove(shape);
+        if (worldId == null) return false;
+        indexes.get(worldId).remove(shape);
+        shape.remove();
+        return true;
+    }
+
+    /**
+     * Checks whether a shape was added and not removed since, whether or not
+     * it is currently spawned.
+     *
+     * @param shape the shape
+     * @return true if the shape is tracked by this spawner
+     */
+    public boolean contains(BukkitShape shape) {
+        return worlds.containsKey(shape);
+    }
+
+    /**
+     * Gets the number of added shapes waiting for their chunk to load.
+     *
+     * @return the pending shape count
+     */
+    public int getPendingCount() {
+        int pending = 0;
+        for (BukkitShape shape : worlds.keySet()) {
+            if (!shape.isSpawned()) pending++;
+        }
+        return pending;
+    }
+
+    @EventHandler
+    public void onChunkLoad(ChunkLoadEvent event) {
+        for (BukkitShape shape : shapesIn(event.getChunk())) {
+            if (!shape.isSpawned()) shape.spawn();
+        }
+    }
+
+    @EventHandler
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        for (BukkitShape shape : shapesIn(event.getChunk())) {
+            if (shape.isSpawned()) shape.remove();
+        }
+    }
+
+    private List<BukkitShape> shapesIn(Chunk chunk) {
+        ShapeIndex<BukkitShape> index = indexes.get(chunk.getWorld().getUID());
+        if (index == null) return List.of();
+        return index.queryChunk(chunk.getX(), chunk.getZ());
+    }
+}
@@ -0,0 +1,104 @@
+package dev.twme.textdisplayshape.bukkit;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Keeps shape displays out of region files and removes the ones left behind.
+ *
+ * <p>Shapes built with {@code .sweeper(sweeper)} spawn their displays
+ * non-persistent, so they are never written with their chunk, and tag them with
+ * the {@link #MARKER} key. The marker holds the owning plugin's name and a token
+ * that is new every time a sweeper is created.</p>
+ *
+ * <p>Because marked displays are never saved, a server restart or crash leaves
+ * none behind, and the server discards them when their chunk unloads. The only
+ * orphans are displays that outlive their shapes in chunks that stay loaded:
+ * those of an earlier run of the plugin after a plugin reload, or of shapes
+ * that were dropped without being removed. {@link #sweepLoadedWorlds()} removes
+ * marked displays of the same plugin carrying another token, i.e. the first
+ * kind; displays saved by versions without the marker are not recognized.</p>
+ *
+ * <p>Displays marked by other plugins are left alone. Use from the main
+ * thread.</p>
+ */
+public class OrphanDisplaySweeper {
+
+    /**
+     * Key of the marker stored on every display spawned for a swept shape.
+     */
+    public static final NamespacedKey MARKER = Objects.requireNonNull(NamespacedKey.fromString("textdisplayshape:shape"));
+
+    private final String owner;
+    private final String token;
+
+    /**
+     * Creates a sweeper.
+     *
+     * @param plugin the plugin owning the shapes
+     */
+    public OrphanDisplaySweeper(Plugin plugin) {
+        this.owner = plugin.getName() + "/";
+        this.token = owner + UUID.randomUUID();
+    }
+
+    /**
+     * Removes the orphaned displays of every loaded world. Call once when the
+     * plugin enables, before spawning shapes.
+     *
+     * @return the number of displays removed
+     */
+    public int sweepLoadedWorlds() {
+        int removed = 0;
+        for (World world : Bukkit.getWorlds()) {
+            removed += sweep(world.getEntitiesByClass(TextDisplay.class));
+        }
+        return removed;
+    }
+
+    /**
+     * Makes a display non-persistent and marks it as belonging to this run.
+     */
+    void mark(TextDisplay display) {
+        display.setPersistent(false);
+        display.getPersistentDataContainer().set(MARKER, PersistentDataType.STRING, token);
+    }
+
+    /**
+     * Checks whether an entity is a display of this plugin's shapes left behind
+     * by an earlier run.
+     *
+     * @param entity the entity
+     * @return true if the entity should be removed
+     */
+    public boolean isOrphan(Entity entity) {
+        String marker = entity.getPersistentDataContainer().get(MARKER, PersistentDataType.STRING);
+        return marker != null && marker.startsWith(owner) && !marker.equals(token);
+    }
+
+    /**
+     * Removes every orphaned display among some entities.
+     *
+     * @param entities the entities to check
+     * @return the number of entities removed
+     */
+    public int sweep(Collection<? extends Entity> entities) {
+        int removed = 0;
+        for (Entity entity : entities) {
+            if (entity instanceof TextDisplay && isOrphan(entity)) {
+                entity.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+}
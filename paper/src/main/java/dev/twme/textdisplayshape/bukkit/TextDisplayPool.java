@@ -0,0 +1,173 @@
+package dev.twme.textdisplayshape.bukkit;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Pool of spare TextDisplay entities, kept per world.
+ *
+ * <p>Shapes built with {@code .pool(pool)} take their displays from the pool
+ * when spawned and give them back when removed or when a geometry change needs
+ * fewer pieces. A returned display is not removed from the world: it stays
+ * parked where it was, hidden with {@link TextDisplay#setVisibleByDefault} and
+ * made non-persistent, so it is never saved with its chunk. Handing it out
+ * again only teleports it, makes it persistent again and updates its
+ * transformation and style, so shapes that appear and disappear often, such as
+ * selection previews, do not pay for entity creation and tracker registration
+ * each time.</p>
+ *
+ * <p>After {@link #start()}, parked displays in a chunk that unloads are removed
+ * and dropped from the pool. Without it the server still discards them on
+ * unload, and the pool skips them once they are invalid. Not thread-safe; use
+ * from the main thread.</p>
+ */
+public class TextDisplayPool implements Listener {
+
+    private final Plugin plugin;
+    private final int maxIdlePerWorld;
+    private final Map<UUID, Deque<TextDisplay>> idle = new HashMap<>();
+    private boolean started = false;
+
+    /**
+     * Creates a pool.
+     *
+     * @param plugin          the plugin owning the chunk listener
+     * @param maxIdlePerWorld the number of spare displays kept per world; displays
+     *                        returned beyond that are removed
+     */
+    public TextDisplayPool(Plugin plugin, int maxIdlePerWorld) {
+        if (maxIdlePerWorld < 0) {
+            throw new IllegalArgumentException("maxIdlePerWorld must not be negative: " + maxIdlePerWorld);
+        }
+        this.plugin = plugin;
+        this.maxIdlePerWorld = maxIdlePerWorld;
+    }
+
+    /**
+     * Registers the chunk unload listener.
+     */
+    public void start() {
+        if (started) return;
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+        started = true;
+    }
+
+    /**
+     * Unregisters the chunk unload listener and removes every spare display.
+     */
+    public void stop() {
+        if (!started) return;
+        HandlerList.unregisterAll(this);
+        started = false;
+        clear();
+    }
+
+    /**
+     * Takes a spare display of the location's world, or spawns a new one if
+     * there is none.
+     *
+     * @param location the location to place the display at
+     * @param setup    applies the transformation and style; runs before the
+     *                 display is shown
+     * @return the display
+     */
+    public TextDisplay acquire(Location location, Consumer<? super TextDisplay> setup) {
+        World world = location.getWorld();
+        Deque<TextDisplay> spare = idle.get(world.getUID());
+        while (spare != null && !spare.isEmpty()) {
+            TextDisplay display = spare.pop();
+            if (!display.isValid()) continue;
+            display.teleport(location);
+            // Like a newly spawned display; setup may make it non-persistent again
+            display.setPersistent(true);
+            setup.accept(display);
+            display.setVisibleByDefault(true);
+            return display;
+        }
+        return world.spawn(location, TextDisplay.class, setup);
+    }
+
+    /**
+     * Hides a display, makes it non-persistent and keeps it for reuse. Invalid
+     * displays are ignored.
+     *
+     * @param display the display, no longer used by its shape
+     */
+    public void release(TextDisplay display) {
+        if (!display.isValid()) return;
+        Deque<TextDisplay> spare = idle.computeIfAbsent(display.getWorld().getUID(), uid -> new ArrayDeque<>());
+        if (spare.size() >= maxIdlePerWorld) {
+            display.remove();
+            return;
+        }
+        display.setVisibleByDefault(false);
+        display.setPersistent(false);
+        spare.push(display);
+    }
+
+    /**
+     * Gets the number of spare displays kept for a world, including any that
+     * have become invalid since they were returned.
+     *
+     * @param world the world
+     * @return the spare display count
+     */
+    public int getIdleCount(World world) {
+        Deque<TextDisplay> spare = idle.get(world.getUID());
+        return spare == null ? 0 : spare.size();
+    }
+
+    /**
+     * Removes every spare display from the world, e.g. when the plugin disables.
+     * {@link #stop()} also does this.
+     */
+    public void clear() {
+        for (Deque<TextDisplay> spare : idle.values()) {
+            for (TextDisplay display : spare) {
+                if (display.isValid()) display.remove();
+            }
+        }
+        idle.clear();
+    }
+
+    /**
+     * Removes the spare displays parked in an unloading chunk. Runs last, so
+     * displays that other listeners return while removing their shapes from
+     * the chunk, e.g. {@link DeferredShapeSpawner}, are removed as well.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        Chunk chunk = event.getChunk();
+        Deque<TextDisplay> spare = idle.get(chunk.getWorld().getUID());
+        if (spare == null) return;
+        for (Iterator<TextDisplay> it = spare.iterator(); it.hasNext(); ) {
+            TextDisplay display = it.next();
+            if (!display.isValid()) {
+                it.remove();
+                continue;
+            }
+            Location location = display.getLocation();
+            if (location.getBlockX() >> 4 == chunk.getX() && location.getBlockZ() >> 4 == chunk.getZ()) {
+                display.remove();
+                it.remove();
+            }
+        }
+    }
+}
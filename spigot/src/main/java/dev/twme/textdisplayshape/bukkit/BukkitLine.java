@@ -5,6 +5,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import org.bukkit.Color;
 import org.bukkit.Location;
@@ -13,7 +15,6 @@ import org.bukkit.entity.TextDisplay;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
 
-import dev.twme.textdisplayshape.shape.Shape;
 import dev.twme.textdisplayshape.shape.ShapeBuilder;
 import dev.twme.textdisplayshape.util.TextDisplayUtil;
 
@@ -21,12 +22,12 @@ import dev.twme.textdisplayshape.util.TextDisplayUtil;
  * Line implementation using Bukkit API (Spigot-compatible).
  * Uses {@code setText()} instead of Paper's Adventure API.
  */
-public class BukkitLine implements Shape {
+public class BukkitLine implements BukkitShape {
 
     private Location origin;
-    private final Vector3f p1;
-    private final Vector3f p2;
-    private final float thickness;
+    private Vector3f p1;
+    private Vector3f p2;
+    private float thickness;
     private final float roll;
     private final Color color;
     private final boolean doubleSided;
@@ -34,9 +35,13 @@ public class BukkitLine implements Shape {
     private final int skyLight;
     private final boolean seeThrough;
     private final float viewRange;
+    private final TextDisplayPool pool;
+    private final OrphanDisplaySweeper sweeper;
 
     private final List<TextDisplay> displays = new ArrayList<>();
     private boolean spawned = false;
+    private List<Matrix4f> pendingPieces;
+    private CompletableFuture<Void> pendingSpawn;
 
     private BukkitLine(Builder builder) {
         this.origin = builder.origin;
@@ -50,38 +55,95 @@ public class BukkitLine implements Shape {
         this.skyLight = builder.skyLight;
         this.seeThrough = builder.seeThrough;
         this.viewRange = builder.viewRange;
+        this.pool = builder.pool;
+        this.sweeper = builder.sweeper;
     }
 
     @Override
     public void spawn() {
         if (spawned) return;
-        Matrix4f matrix = TextDisplayUtil.textDisplayLine(p1, p2, thickness, roll);
-        spawnTextDisplay(matrix);
-        if (doubleSided) {
-            Matrix4f backMatrix = TextDisplayUtil.textDisplayLine(p2, p1, thickness, -roll);
-            spawnTextDisplay(backMatrix);
-        }
+        for (Matrix4f matrix : computeMatrices()) { spawnTextDisplay(matrix); }
         spawned = true;
     }
 
-    private void spawnTextDisplay(Matrix4f matrix) {
-        Matrix4f adjustedMatrix = new Matrix4f()
+    /**
+     * Spawns the line over several ticks within the scheduler's budget.
+     * The future completes once every display is spawned, or is cancelled if the line is removed first.
+     */
+    public CompletableFuture<Void> spawn(BukkitSpawnScheduler scheduler) {
+        if (spawned) return pendingSpawn != null ? pendingSpawn : CompletableFuture.completedFuture(null);
+        pendingPieces = computeMatrices();
+        pendingSpawn = scheduler.submit(this::spawnNext);
+        spawned = true;
+        return pendingSpawn;
+    }
+
+    private boolean spawnNext() {
+        if (displays.size() < pendingPieces.size()) spawnTextDisplay(pendingPieces.get(displays.size()));
+        if (displays.size() < pendingPieces.size()) return false;
+        pendingPieces = null; pendingSpawn = null;
+        return true;
+    }
+
+    private List<Matrix4f> computeMatrices() {
+        List<Matrix4f> matrices = new ArrayList<>(2);
+        matrices.add(TextDisplayUtil.textDisplayLine(p1, p2, thickness, roll));
+        if (doubleSided) { matrices.add(TextDisplayUtil.textDisplayLine(p2, p1, thickness, -roll)); }
+        return matrices;
+    }
+
+    private Matrix4f relativeToOrigin(Matrix4f matrix) {
+        return new Matrix4f()
                 .translate((float) -origin.getX(), (float) -origin.getY(), (float) -origin.getZ())
                 .mul(matrix);
-        TextDisplay display = origin.getWorld().spawn(origin, TextDisplay.class, (d) -> {
+    }
+
+    private void spawnTextDisplay(Matrix4f matrix) {
+        Matrix4f adjustedMatrix = relativeToOrigin(matrix);
+        TextDisplay display = acquire((d) -> {
             d.setText(" ");
             d.setBackgroundColor(color);
             d.setBrightness(new Display.Brightness(blockLight, skyLight));
             d.setTransformationMatrix(adjustedMatrix);
             d.setSeeThrough(seeThrough);
             d.setViewRange(viewRange);
+            if (sweeper != null) sweeper.mark(d);
         });
         displays.add(display);
     }
 
+    /**
+     * Moves the line to new endpoints, updating the existing displays in place.
+     */
+    public void setPoints(Vector3f p1, Vector3f p2) { this.p1 = p1; this.p2 = p2; updateGeometry(); }
+
+    /**
+     * Changes the line thickness in place.
+     */
+    public void setThickness(float thickness) { this.thickness = thickness; updateGeometry(); }
+
+    private void updateGeometry() {
+        if (!spawned) return;
+        List<Matrix4f> matrices = computeMatrices();
+        if (pendingPieces != null) pendingPieces = matrices;
+        for (int i = 0; i < matrices.size() && i < displays.size(); i++) {
+            if (displays.get(i).isValid()) displays.get(i).setTransformationMatrix(relativeToOrigin(matrices.get(i)));
+        }
+    }
+
+    private TextDisplay acquire(Consumer<TextDisplay> setup) {
+        return pool != null ? pool.acquire(origin, setup) : origin.getWorld().spawn(origin, TextDisplay.class, setup);
+    }
+
+    private void release(TextDisplay display) {
+        if (pool != null) pool.release(display);
+        else if (display.isValid()) display.remove();
+    }
+
     @Override
     public void remove() {
-        for (TextDisplay d : displays) { if (d.isValid()) d.remove(); }
+        if (pendingSpawn != null) { pendingSpawn.cancel(false); pendingSpawn = null; pendingPieces = null; }
+        for (TextDisplay d : displays) { release(d); }
         displays.clear();
         spawned = false;
     }
@@ -100,6 +162,8 @@ public class BukkitLine implements Shape {
 
     public List<TextDisplay> getEntities() { return new ArrayList<>(displays); }
 
+    @Override public Location getOrigin() { return origin.clone(); }
+
     @Override
     public void teleportOrigin(double x, double y, double z) {
         if (!spawned) return;
@@ -127,6 +191,8 @@ public class BukkitLine implements Shape {
         private int blockLight = 15, skyLight = 15;
         private boolean seeThrough = true;
         private float viewRange = 1.0f;
+        private TextDisplayPool pool = null;
+        private OrphanDisplaySweeper sweeper = null;
 
         public Builder(Location origin, Vector3f p1, Vector3f p2, float thickness) {
             this.origin = origin; this.p1 = p1; this.p2 = p2; this.thickness = thickness;
@@ -139,6 +205,8 @@ public class BukkitLine implements Shape {
         @Override public Builder brightness(int b, int s) { this.blockLight = b; this.skyLight = s; return this; }
         @Override public Builder seeThrough(boolean v) { this.seeThrough = v; return this; }
         @Override public Builder viewRange(float v) { this.viewRange = v; return this; }
+        public Builder pool(TextDisplayPool pool) { this.pool = pool; return this; }
+        public Builder sweeper(OrphanDisplaySweeper sweeper) { this.sweeper = sweeper; return this; }
         @Override public BukkitLine build() { return new BukkitLine(this); }
     }
 }
@@ -0,0 +1,206 @@
+package dev.twme.textdisplayshape.bukkit;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import org.bukkit.Color;
+import org.bukkit.Location;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.util.Transformation;
+import org.joml.Vector3f;
+
+import dev.twme.textdisplayshape.mesh.MeshOptimizer;
+import dev.twme.textdisplayshape.mesh.OptimizedMesh;
+import dev.twme.textdisplayshape.shape.ShapeBuilder;
+import dev.twme.textdisplayshape.util.TRSBuffer;
+import dev.twme.textdisplayshape.util.TRSResult;
+
+/**
+ * Triangle mesh implementation using Bukkit API (Spigot-compatible), for
+ * meshes prepared with {@link MeshOptimizer}. The mesh vertices are world
+ * coordinates. Uses {@code setText()} instead of Paper's Adventure API.
+ */
+public class BukkitMesh implements BukkitShape {
+
+    private Location origin;
+    private OptimizedMesh mesh;
+    private final Color color;
+    private final boolean doubleSided;
+    private final int blockLight, skyLight;
+    private final boolean seeThrough;
+    private final float viewRange;
+    private final TextDisplayPool pool;
+    private final OrphanDisplaySweeper sweeper;
+
+    private final List<TextDisplay> displays = new ArrayList<>();
+    private boolean spawned = false;
+    private List<TRSResult> pendingPieces;
+    private CompletableFuture<Void> pendingSpawn;
+
+    private BukkitMesh(Builder builder) {
+        this.origin = builder.origin;
+        this.mesh = builder.mesh;
+        this.color = Color.fromARGB(builder.argbColor);
+        this.doubleSided = builder.doubleSided;
+        this.blockLight = builder.blockLight; this.skyLight = builder.skyLight;
+        this.seeThrough = builder.seeThrough;
+        this.viewRange = builder.viewRange;
+        this.pool = builder.pool;
+        this.sweeper = builder.sweeper;
+    }
+
+    @Override
+    public void spawn() {
+        if (spawned) return;
+        for (TRSResult trs : computePieces()) { spawnTextDisplay(trs); }
+        spawned = true;
+    }
+
+    /**
+     * Spawns the mesh over several ticks within the scheduler's budget.
+     * The future completes once every display is spawned, or is cancelled if the mesh is removed first.
+     */
+    public CompletableFuture<Void> spawn(BukkitSpawnScheduler scheduler) {
+        if (spawned) return pendingSpawn != null ? pendingSpawn : CompletableFuture.completedFuture(null);
+        pendingPieces = computePieces();
+        pendingSpawn = scheduler.submit(this::spawnNext);
+        spawned = true;
+        return pendingSpawn;
+    }
+
+    private boolean spawnNext() {
+        if (displays.size() < pendingPieces.size()) spawnTextDisplay(pendingPieces.get(displays.size()));
+        if (displays.size() < pendingPieces.size()) return false;
+        pendingPieces = null; pendingSpawn = null;
+        return true;
+    }
+
+    private List<TRSResult> computePieces() {
+        List<TRSResult> pieces = new ArrayList<>();
+        addPieces(pieces, mesh.computeTRS());
+        if (doubleSided) addPieces(pieces, mesh.reversed().computeTRS());
+        return pieces;
+    }
+
+    private static void addPieces(List<TRSResult> pieces, TRSBuffer buffer) {
+        for (int i = 0; i < buffer.capacity(); i++) { pieces.add(buffer.get(i)); }
+    }
+
+    private Transformation toTransformation(TRSResult trs) {
+        Vector3f adj = new Vector3f(trs.translation()).sub((float) origin.getX(), (float) origin.getY(), (float) origin.getZ());
+        return new Transformation(adj, trs.leftRotation(), trs.scale(), trs.rightRotation());
+    }
+
+    private void spawnTextDisplay(TRSResult trs) {
+        Transformation transformation = toTransformation(trs);
+        TextDisplay display = acquire((d) -> {
+            d.setText(" ");
+            d.setBackgroundColor(color);
+            d.setBrightness(new Display.Brightness(blockLight, skyLight));
+            d.setTransformation(transformation);
+            d.setSeeThrough(seeThrough);
+            d.setViewRange(viewRange);
+            if (sweeper != null) sweeper.mark(d);
+        });
+        displays.add(display);
+    }
+
+    /**
+     * Replaces the mesh, reusing the existing displays; displays are only
+     * spawned or removed when the piece count changes.
+     */
+    public void setMesh(OptimizedMesh mesh) {
+        this.mesh = mesh;
+        if (!spawned) return;
+        List<TRSResult> pieces = computePieces();
+        if (pendingPieces != null) pendingPieces = pieces;
+        while (displays.size() > pieces.size()) release(displays.remove(displays.size() - 1));
+        for (int i = 0; i < pieces.size(); i++) {
+            if (i >= displays.size()) { if (pendingPieces != null) break; spawnTextDisplay(pieces.get(i)); }
+            else if (displays.get(i).isValid()) displays.get(i).setTransformation(toTransformation(pieces.get(i)));
+        }
+    }
+
+    public OptimizedMesh getMesh() { return mesh; }
+
+    private TextDisplay acquire(Consumer<TextDisplay> setup) {
+        return pool != null ? pool.acquire(origin, setup) : origin.getWorld().spawn(origin, TextDisplay.class, setup);
+    }
+
+    private void release(TextDisplay display) {
+        if (pool != null) pool.release(display);
+        else if (display.isValid()) display.remove();
+    }
+
+    @Override
+    public void remove() {
+        if (pendingSpawn != null) { pendingSpawn.cancel(false); pendingSpawn = null; pendingPieces = null; }
+        for (TextDisplay d : displays) { release(d); }
+        displays.clear();
+        spawned = false;
+    }
+
+    @Override public boolean isSpawned() { return spawned; }
+    @Override public void addViewer(UUID playerUUID) { }
+    @Override public void removeViewer(UUID playerUUID) { }
+    @Override public Set<UUID> getViewerUUIDs() { return new HashSet<>(); }
+
+    @Override
+    public List<UUID> getEntityUUIDs() {
+        List<UUID> uuids = new ArrayList<>();
+        for (TextDisplay d : displays) uuids.add(d.getUniqueId());
+        return uuids;
+    }
+
+    public List<TextDisplay> getEntities() { return new ArrayList<>(displays); }
+
+    @Override public Location getOrigin() { return origin.clone(); }
+
+    @Override
+    public void teleportOrigin(double x, double y, double z) {
+        if (!spawned) return;
+        Location newOrigin = new Location(origin.getWorld(), x, y, z);
+        float dx = (float)(x - origin.getX()), dy = (float)(y - origin.getY()), dz = (float)(z - origin.getZ());
+        for (TextDisplay display : displays) {
+            if (!display.isValid()) continue;
+            org.bukkit.util.Transformation t = display.getTransformation();
+            org.joml.Vector3f tr = t.getTranslation();
+            display.setTransformation(new org.bukkit.util.Transformation(
+                    new org.joml.Vector3f(tr.x - dx, tr.y - dy, tr.z - dz),
+                    t.getLeftRotation(), t.getScale(), t.getRightRotation()));
+            display.teleport(newOrigin);
+        }
+        this.origin = newOrigin.clone();
+    }
+
+    public static class Builder implements ShapeBuilder<BukkitMesh> {
+        private final Location origin;
+        private final OptimizedMesh mesh;
+        private int argbColor = Color.fromARGB(150, 50, 100, 100).asARGB();
+        private boolean doubleSided = false;
+        private int blockLight = 15, skyLight = 15;
+        private boolean seeThrough = true;
+        private float viewRange = 1.0f;
+        private TextDisplayPool pool = null;
+        private OrphanDisplaySweeper sweeper = null;
+
+        public Builder(Location origin, OptimizedMesh mesh) {
+            this.origin = origin; this.mesh = mesh;
+        }
+        public Builder color(Color color) { this.argbColor = color.asARGB(); return this; }
+        @Override public Builder color(int argb) { this.argbColor = argb; return this; }
+        @Override public Builder doubleSided(boolean v) { this.doubleSided = v; return this; }
+        @Override public Builder brightness(int b, int s) { this.blockLight = b; this.skyLight = s; return this; }
+        @Override public Builder seeThrough(boolean v) { this.seeThrough = v; return this; }
+        @Override public Builder viewRange(float v) { this.viewRange = v; return this; }
+        public Builder pool(TextDisplayPool pool) { this.pool = pool; return this; }
+        public Builder sweeper(OrphanDisplaySweeper sweeper) { this.sweeper = sweeper; return this; }
+        @Override public BukkitMesh build() { return new BukkitMesh(this); }
+    }
+}
@@ -5,6 +5,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import org.bukkit.Color;
 import org.bukkit.Location;
@@ -13,7 +15,6 @@ import org.bukkit.entity.TextDisplay;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
 
-import dev.twme.textdisplayshape.shape.Shape;
 import dev.twme.textdisplayshape.shape.ShapeBuilder;
 import dev.twme.textdisplayshape.util.TextDisplayUtil;
 
@@ -21,11 +22,11 @@ import dev.twme.textdisplayshape.util.TextDisplayUtil;
  * Polyline (connected line segments) implementation using Bukkit API (Spigot-compatible).
  * Uses {@code setText()} instead of Paper's Adventure API.
  */
-public class BukkitPolyline implements Shape {
+public class BukkitPolyline implements BukkitShape {
 
     private Location origin;
-    private final List<Vector3f> points;
-    private final float thickness;
+    private List<Vector3f> points;
+    private float thickness;
     private final float roll;
     private final Color color;
     private final boolean doubleSided;
@@ -33,9 +34,13 @@ public class BukkitPolyline implements Shape {
     private final int blockLight, skyLight;
     private final boolean seeThrough;
     private final float viewRange;
+    private final TextDisplayPool pool;
+    private final OrphanDisplaySweeper sweeper;
 
     private final List<TextDisplay> displays = new ArrayList<>();
     private boolean spawned = false;
+    private List<Matrix4f> pendingPieces;
+    private CompletableFuture<Void> pendingSpawn;
 
     private BukkitPolyline(Builder builder) {
         this.origin = builder.origin;
@@ -48,44 +53,104 @@ public class BukkitPolyline implements Shape {
         this.blockLight = builder.blockLight; this.skyLight = builder.skyLight;
         this.seeThrough = builder.seeThrough;
         this.viewRange = builder.viewRange;
+        this.pool = builder.pool;
+        this.sweeper = builder.sweeper;
     }
 
     @Override
     public void spawn() {
         if (spawned) return;
-        if (points.size() < 2) { spawned = true; return; }
-        for (int i = 0; i < points.size() - 1; i++) { spawnLineSegment(points.get(i), points.get(i + 1)); }
-        if (closed && points.size() > 2) { spawnLineSegment(points.get(points.size() - 1), points.get(0)); }
+        for (Matrix4f matrix : computeMatrices()) { spawnTextDisplay(matrix); }
         spawned = true;
     }
 
-    private void spawnLineSegment(Vector3f p1, Vector3f p2) {
-        Matrix4f matrix = TextDisplayUtil.textDisplayLine(p1, p2, thickness, roll);
-        spawnTextDisplay(matrix);
-        if (doubleSided) {
-            Matrix4f backMatrix = TextDisplayUtil.textDisplayLine(p2, p1, thickness, -roll);
-            spawnTextDisplay(backMatrix);
-        }
+    /**
+     * Spawns the polyline over several ticks within the scheduler's budget.
+     * The future completes once every display is spawned, or is cancelled if the polyline is removed first.
+     */
+    public CompletableFuture<Void> spawn(BukkitSpawnScheduler scheduler) {
+        if (spawned) return pendingSpawn != null ? pendingSpawn : CompletableFuture.completedFuture(null);
+        pendingPieces = computeMatrices();
+        pendingSpawn = scheduler.submit(this::spawnNext);
+        spawned = true;
+        return pendingSpawn;
     }
 
-    private void spawnTextDisplay(Matrix4f matrix) {
-        Matrix4f adj = new Matrix4f()
+    private boolean spawnNext() {
+        if (displays.size() < pendingPieces.size()) spawnTextDisplay(pendingPieces.get(displays.size()));
+        if (displays.size() < pendingPieces.size()) return false;
+        pendingPieces = null; pendingSpawn = null;
+        return true;
+    }
+
+    private List<Matrix4f> computeMatrices() {
+        List<Matrix4f> matrices = new ArrayList<>();
+        if (points.size() < 2) return matrices;
+        for (int i = 0; i < points.size() - 1; i++) { addLineSegment(matrices, points.get(i), points.get(i + 1)); }
+        if (closed && points.size() > 2) { addLineSegment(matrices, points.get(points.size() - 1), points.get(0)); }
+        return matrices;
+    }
+
+    private void addLineSegment(List<Matrix4f> matrices, Vector3f p1, Vector3f p2) {
+        matrices.add(TextDisplayUtil.textDisplayLine(p1, p2, thickness, roll));
+        if (doubleSided) { matrices.add(TextDisplayUtil.textDisplayLine(p2, p1, thickness, -roll)); }
+    }
+
+    private Matrix4f relativeToOrigin(Matrix4f matrix) {
+        return new Matrix4f()
                 .translate((float) -origin.getX(), (float) -origin.getY(), (float) -origin.getZ())
                 .mul(matrix);
-        TextDisplay display = origin.getWorld().spawn(origin, TextDisplay.class, (d) -> {
+    }
+
+    private void spawnTextDisplay(Matrix4f matrix) {
+        Matrix4f adj = relativeToOrigin(matrix);
+        TextDisplay display = acquire((d) -> {
             d.setText(" ");
             d.setBackgroundColor(color);
             d.setBrightness(new Display.Brightness(blockLight, skyLight));
             d.setTransformationMatrix(adj);
             d.setSeeThrough(seeThrough);
             d.setViewRange(viewRange);
+            if (sweeper != null) sweeper.mark(d);
         });
         displays.add(display);
     }
 
+    /**
+     * Replaces the points, reusing the existing displays; displays are only
+     * spawned or removed when the segment count changes.
+     */
+    public void setPoints(List<Vector3f> points) { this.points = new ArrayList<>(points); updateGeometry(); }
+
+    /**
+     * Changes the thickness of every segment in place.
+     */
+    public void setThickness(float thickness) { this.thickness = thickness; updateGeometry(); }
+
+    private void updateGeometry() {
+        if (!spawned) return;
+        List<Matrix4f> matrices = computeMatrices();
+        if (pendingPieces != null) pendingPieces = matrices;
+        while (displays.size() > matrices.size()) release(displays.remove(displays.size() - 1));
+        for (int i = 0; i < matrices.size(); i++) {
+            if (i >= displays.size()) { if (pendingPieces != null) break; spawnTextDisplay(matrices.get(i)); }
+            else if (displays.get(i).isValid()) displays.get(i).setTransformationMatrix(relativeToOrigin(matrices.get(i)));
+        }
+    }
+
+    private TextDisplay acquire(Consumer<TextDisplay> setup) {
+        return pool != null ? pool.acquire(origin, setup) : origin.getWorld().spawn(origin, TextDisplay.class, setup);
+    }
+
+    private void release(TextDisplay display) {
+        if (pool != null) pool.release(display);
+        else if (display.isValid()) display.remove();
+    }
+
     @Override
     public void remove() {
-        for (TextDisplay d : displays) { if (d.isValid()) d.remove(); }
+        if (pendingSpawn != null) { pendingSpawn.cancel(false); pendingSpawn = null; pendingPieces = null; }
+        for (TextDisplay d : displays) { release(d); }
         displays.clear();
         spawned = false;
     }
@@ -104,6 +169,8 @@ public class BukkitPolyline implements Shape {
 
     public List<TextDisplay> getEntities() { return new ArrayList<>(displays); }
 
+    @Override public Location getOrigin() { return origin.clone(); }
+
     @Override
     public void teleportOrigin(double x, double y, double z) {
         if (!spawned) return;
@@ -137,6 +204,8 @@ public class BukkitPolyline implements Shape {
         private int blockLight = 15, skyLight = 15;
         private boolean seeThrough = true;
         private float viewRange = 1.0f;
+        private TextDisplayPool pool = null;
+        private OrphanDisplaySweeper sweeper = null;
 
         public Builder(Location origin, List<Vector3f> points, float thickness) {
             this.origin = origin; this.points = new ArrayList<>(points); this.thickness = thickness;
@@ -150,6 +219,8 @@ public class BukkitPolyline implements Shape {
         @Override public Builder brightness(int b, int s) { this.blockLight = b; this.skyLight = s; return this; }
         @Override public Builder seeThrough(boolean v) { this.seeThrough = v; return this; }
         @Override public Builder viewRange(float v) { this.viewRange = v; return this; }
+        public Builder pool(TextDisplayPool pool) { this.pool = pool; return this; }
+        public Builder sweeper(OrphanDisplaySweeper sweeper) { this.sweeper = sweeper; return this; }
         @Override public BukkitPolyline build() { return new BukkitPolyline(this); }
     }
 }
@@ -0,0 +1,19 @@
+package dev.twme.textdisplayshape.bukkit;
+
+import org.bukkit.Location;
+
+import dev.twme.textdisplayshape.shape.Shape;
+
+/**
+ * A shape made of real TextDisplay entities placed at a Bukkit location.
+ */
+public interface BukkitShape extends Shape {
+
+    /**
+     * Gets the location the displays of this shape stand at. It changes with
+     * {@link #teleportOrigin(double, double, double)}.
+     *
+     * @return a copy of the origin
+     */
+    Location getOrigin();
+}
@@ -3,6 +3,9 @@ package dev.twme.textdisplayshape.bukkit;
 import org.bukkit.Location;
 import org.joml.Vector3f;
 
+import dev.twme.textdisplayshape.mesh.MeshOptimizer;
+import dev.twme.textdisplayshape.mesh.OptimizedMesh;
+
 import java.util.List;
 
 /**
@@ -65,4 +68,28 @@ public class BukkitShapeFactory {
     public BukkitParallelogram.Builder parallelogram(Location origin, Vector3f p1, Vector3f p2, Vector3f p3) {
         return new BukkitParallelogram.Builder(origin, p1, p2, p3);
     }
+
+    /**
+     * Creates a filled polygon builder.
+     *
+     * @param origin the spawn location (usually the player's location)
+     * @param points the planar outline in order (world coordinates); its winding
+     *               selects the visible side like the vertex order of a triangle
+     * @return the polygon builder
+     */
+    public BukkitPolygon.Builder polygon(Location origin, List<Vector3f> points) {
+        return new BukkitPolygon.Builder(origin, points);
+    }
+
+    /**
+     * Creates a triangle mesh builder.
+     *
+     * @param origin the spawn location (usually the player's location)
+     * @param mesh   the mesh from {@link MeshOptimizer#mergeParallelograms}, with
+     *               vertices in world coordinates
+     * @return the mesh builder
+     */
+    public BukkitMesh.Builder mesh(Location origin, OptimizedMesh mesh) {
+        return new BukkitMesh.Builder(origin, mesh);
+    }
 }
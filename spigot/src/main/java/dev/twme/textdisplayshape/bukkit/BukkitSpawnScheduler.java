@@ -0,0 +1,133 @@
+package dev.twme.textdisplayshape.bukkit;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Spreads the entity spawns of large Bukkit shapes over several ticks.
+ *
+ * <p>Spawning a shape with {@code spawn(scheduler)} instead of {@code spawn()}
+ * queues its displays here. Every tick, queued displays are spawned in order
+ * until either the entity budget or the time budget for that tick is spent; the
+ * rest waits for the next tick. A 5000-segment polyline therefore appears over a
+ * few ticks instead of stalling one.</p>
+ *
+ * <p>Each shape gets a {@link CompletableFuture} that completes once all of its
+ * displays are spawned, or is cancelled if the shape is removed first. Futures
+ * complete on the main thread. Not thread-safe; use from the main thread.</p>
+ */
+public class BukkitSpawnScheduler {
+
+    private final Plugin plugin;
+    private final int maxEntitiesPerTick;
+    private final long maxNanosPerTick;
+
+    private final Deque<Job> jobs = new ArrayDeque<>();
+    private BukkitTask task;
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param plugin             the plugin owning the task
+     * @param maxEntitiesPerTick the displays spawned per tick at most
+     * @param maxMillisPerTick   the time spent spawning per tick at most; at least
+     *                           one display is spawned per tick
+     */
+    public BukkitSpawnScheduler(Plugin plugin, int maxEntitiesPerTick, double maxMillisPerTick) {
+        if (maxEntitiesPerTick <= 0) {
+            throw new IllegalArgumentException("maxEntitiesPerTick must be positive: " + maxEntitiesPerTick);
+        }
+        if (!(maxMillisPerTick > 0)) {
+            throw new IllegalArgumentException("maxMillisPerTick must be positive: " + maxMillisPerTick);
+        }
+        this.plugin = plugin;
+        this.maxEntitiesPerTick = maxEntitiesPerTick;
+        this.maxNanosPerTick = (long) (maxMillisPerTick * TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * Starts spawning every tick. Shapes queued before this wait until it is
+     * called.
+     */
+    public void start() {
+        if (task != null) return;
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1, 1);
+    }
+
+    /**
+     * Stops spawning and cancels the future of every queued shape. Displays
+     * spawned so far stay until their shape is removed.
+     */
+    public void stop() {
+        if (task == null) return;
+        task.cancel();
+        task = null;
+        for (Job job : jobs) job.future.cancel(false);
+        jobs.clear();
+    }
+
+    /**
+     * Gets the number of shapes still being spawned.
+     *
+     * @return the queued shape count
+     */
+    public int getPendingCount() {
+        return jobs.size();
+    }
+
+    /**
+     * Queues a spawn job. {@code step} spawns one display and returns true once
+     * the shape is complete; it is no longer called after the returned future is
+     * done.
+     */
+    CompletableFuture<Void> submit(BooleanSupplier step) {
+        Job job = new Job(step);
+        jobs.add(job);
+        return job.future;
+    }
+
+    /**
+     * Spawns queued displays within the per-tick budget. Runs automatically
+     * after {@link #start()}.
+     */
+    public void tick() {
+        long deadline = System.nanoTime() + maxNanosPerTick;
+        int spawned = 0;
+        while (!jobs.isEmpty() && spawned < maxEntitiesPerTick && (spawned == 0 || System.nanoTime() < deadline)) {
+            Job job = jobs.peek();
+            if (job.future.isDone()) {
+                jobs.poll();
+                continue;
+            }
+            boolean complete;
+            try {
+                complete = job.step.getAsBoolean();
+            } catch (RuntimeException e) {
+                jobs.poll();
+                job.future.completeExceptionally(e);
+                continue;
+            }
+            spawned++;
+            if (complete) {
+                jobs.poll();
+                job.future.complete(null);
+            }
+        }
+    }
+
+    private static final class Job {
+        private final BooleanSupplier step;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private Job(BooleanSupplier step) {
+            this.step = step;
+        }
+    }
+}
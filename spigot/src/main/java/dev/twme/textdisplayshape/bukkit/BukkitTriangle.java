@@ -5,6 +5,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import org.bukkit.Color;
 import org.bukkit.Location;
@@ -13,7 +15,6 @@ import org.bukkit.entity.TextDisplay;
 import org.bukkit.util.Transformation;
 import org.joml.Vector3f;
 
-import dev.twme.textdisplayshape.shape.Shape;
 import dev.twme.textdisplayshape.shape.ShapeBuilder;
 import dev.twme.textdisplayshape.util.TRSResult;
 import dev.twme.textdisplayshape.util.TextDisplayUtil;
@@ -22,18 +23,22 @@ import dev.twme.textdisplayshape.util.TextDisplayUtil;
  * Triangle implementation using Bukkit API (Spigot-compatible).
  * Uses {@code setText()} instead of Paper's Adventure API.
  */
-public class BukkitTriangle implements Shape {
+public class BukkitTriangle implements BukkitShape {
 
     private Location origin;
-    private final Vector3f p1, p2, p3;
+    private Vector3f p1, p2, p3;
     private final Color color;
     private final boolean doubleSided;
     private final int blockLight, skyLight;
     private final boolean seeThrough;
     private final float viewRange;
+    private final TextDisplayPool pool;
+    private final OrphanDisplaySweeper sweeper;
 
     private final List<TextDisplay> displays = new ArrayList<>();
     private boolean spawned = false;
+    private List<TRSResult> pendingPieces;
+    private CompletableFuture<Void> pendingSpawn;
 
     private BukkitTriangle(Builder builder) {
         this.origin = builder.origin;
@@ -43,33 +48,87 @@ public class BukkitTriangle implements Shape {
         this.blockLight = builder.blockLight; this.skyLight = builder.skyLight;
         this.seeThrough = builder.seeThrough;
         this.viewRange = builder.viewRange;
+        this.pool = builder.pool;
+        this.sweeper = builder.sweeper;
     }
 
     @Override
     public void spawn() {
         if (spawned) return;
-        for (TRSResult trs : TextDisplayUtil.computeTriangleTRS(p1, p2, p3)) { spawnTextDisplay(trs); }
-        if (doubleSided) { for (TRSResult trs : TextDisplayUtil.computeTriangleTRS(p1, p3, p2)) { spawnTextDisplay(trs); } }
+        for (TRSResult trs : computePieces()) { spawnTextDisplay(trs); }
         spawned = true;
     }
 
-    private void spawnTextDisplay(TRSResult trs) {
+    /**
+     * Spawns the triangle over several ticks within the scheduler's budget.
+     * The future completes once every display is spawned, or is cancelled if the triangle is removed first.
+     */
+    public CompletableFuture<Void> spawn(BukkitSpawnScheduler scheduler) {
+        if (spawned) return pendingSpawn != null ? pendingSpawn : CompletableFuture.completedFuture(null);
+        pendingPieces = computePieces();
+        pendingSpawn = scheduler.submit(this::spawnNext);
+        spawned = true;
+        return pendingSpawn;
+    }
+
+    private boolean spawnNext() {
+        if (displays.size() < pendingPieces.size()) spawnTextDisplay(pendingPieces.get(displays.size()));
+        if (displays.size() < pendingPieces.size()) return false;
+        pendingPieces = null; pendingSpawn = null;
+        return true;
+    }
+
+    private List<TRSResult> computePieces() {
+        List<TRSResult> pieces = new ArrayList<>(TextDisplayUtil.computeTriangleTRS(p1, p2, p3));
+        if (doubleSided) { pieces.addAll(TextDisplayUtil.computeTriangleTRS(p1, p3, p2)); }
+        return pieces;
+    }
+
+    private Transformation toTransformation(TRSResult trs) {
         Vector3f adj = new Vector3f(trs.translation()).sub((float) origin.getX(), (float) origin.getY(), (float) origin.getZ());
-        Transformation transformation = new Transformation(adj, trs.leftRotation(), trs.scale(), trs.rightRotation());
-        TextDisplay display = origin.getWorld().spawn(origin, TextDisplay.class, (d) -> {
+        return new Transformation(adj, trs.leftRotation(), trs.scale(), trs.rightRotation());
+    }
+
+    private void spawnTextDisplay(TRSResult trs) {
+        Transformation transformation = toTransformation(trs);
+        TextDisplay display = acquire((d) -> {
             d.setText(" ");
             d.setBackgroundColor(color);
             d.setBrightness(new Display.Brightness(blockLight, skyLight));
             d.setTransformation(transformation);
             d.setSeeThrough(seeThrough);
             d.setViewRange(viewRange);
+            if (sweeper != null) sweeper.mark(d);
         });
         displays.add(display);
     }
 
+    /**
+     * Moves the triangle to new vertices, updating the existing displays in place.
+     */
+    public void setVertices(Vector3f p1, Vector3f p2, Vector3f p3) {
+        this.p1 = p1; this.p2 = p2; this.p3 = p3;
+        if (!spawned) return;
+        List<TRSResult> pieces = computePieces();
+        if (pendingPieces != null) pendingPieces = pieces;
+        for (int i = 0; i < pieces.size() && i < displays.size(); i++) {
+            if (displays.get(i).isValid()) displays.get(i).setTransformation(toTransformation(pieces.get(i)));
+        }
+    }
+
+    private TextDisplay acquire(Consumer<TextDisplay> setup) {
+        return pool != null ? pool.acquire(origin, setup) : origin.getWorld().spawn(origin, TextDisplay.class, setup);
+    }
+
+    private void release(TextDisplay display) {
+        if (pool != null) pool.release(display);
+        else if (display.isValid()) display.remove();
+    }
+
     @Override
     public void remove() {
-        for (TextDisplay d : displays) { if (d.isValid()) d.remove(); }
+        if (pendingSpawn != null) { pendingSpawn.cancel(false); pendingSpawn = null; pendingPieces = null; }
+        for (TextDisplay d : displays) { release(d); }
         displays.clear();
         spawned = false;
     }
@@ -88,6 +147,8 @@ public class BukkitTriangle implements Shape {
 
     public List<TextDisplay> getEntities() { return new ArrayList<>(displays); }
 
+    @Override public Location getOrigin() { return origin.clone(); }
+
     @Override
     public void teleportOrigin(double x, double y, double z) {
         if (!spawned) return;
@@ -113,6 +174,8 @@ public class BukkitTriangle implements Shape {
         private int blockLight = 15, skyLight = 15;
         private boolean seeThrough = true;
         private float viewRange = 1.0f;
+        private TextDisplayPool pool = null;
+        private OrphanDisplaySweeper sweeper = null;
 
         public Builder(Location origin, Vector3f p1, Vector3f p2, Vector3f p3) {
             this.origin = origin; this.p1 = p1; this.p2 = p2; this.p3 = p3;
@@ -123,6 +186,8 @@ public class BukkitTriangle implements Shape {
         @Override public Builder brightness(int b, int s) { this.blockLight = b; this.skyLight = s; return this; }
         @Override public Builder seeThrough(boolean v) { this.seeThrough = v; return this; }
         @Override public Builder viewRange(float v) { this.viewRange = v; return this; }
+        public Builder pool(TextDisplayPool pool) { this.pool = pool; return this; }
+        public Builder sweeper(OrphanDisplaySweeper sweeper) { this.sweeper = sweeper; return this; }
         @Override public BukkitTriangle build() { return new BukkitTriangle(this); }
     }
 }
@@ -0,0 +1,132 @@
+package dev.twme.textdisplayshape.bukkit;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Per-world pool of spare TextDisplay entities (Spigot-compatible).
+ * Returned displays stay parked where they were, hidden with
+ * {@code setVisibleByDefault(false)} and made non-persistent so they are never
+ * saved with their chunk; handing one out again only teleports it, makes it
+ * persistent again and updates its transformation and style instead of
+ * spawning a new entity. After {@link #start()}, parked displays in an
+ * unloading chunk are removed and dropped from the pool.
+ * Not thread-safe; use from the main thread.
+ */
+public class TextDisplayPool implements Listener {
+
+    private final Plugin plugin;
+    private final int maxIdlePerWorld;
+    private final Map<UUID, Deque<TextDisplay>> idle = new HashMap<>();
+    private boolean started = false;
+
+    /**
+     * @param plugin          the plugin owning the chunk listener
+     * @param maxIdlePerWorld spare displays kept per world; displays returned beyond that are removed
+     */
+    public TextDisplayPool(Plugin plugin, int maxIdlePerWorld) {
+        if (maxIdlePerWorld < 0) throw new IllegalArgumentException("maxIdlePerWorld must not be negative: " + maxIdlePerWorld);
+        this.plugin = plugin;
+        this.maxIdlePerWorld = maxIdlePerWorld;
+    }
+
+    /**
+     * Registers the chunk unload listener.
+     */
+    public void start() {
+        if (started) return;
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+        started = true;
+    }
+
+    /**
+     * Unregisters the chunk unload listener and removes every spare display.
+     */
+    public void stop() {
+        if (!started) return;
+        HandlerList.unregisterAll(this);
+        started = false;
+        clear();
+    }
+
+    /**
+     * Takes a spare display of the location's world, or spawns one if there is none.
+     * {@code setup} applies the transformation and style before the display is shown.
+     */
+    public TextDisplay acquire(Location location, Consumer<? super TextDisplay> setup) {
+        World world = location.getWorld();
+        Deque<TextDisplay> spare = idle.get(world.getUID());
+        while (spare != null && !spare.isEmpty()) {
+            TextDisplay display = spare.pop();
+            if (!display.isValid()) continue;
+            display.teleport(location);
+            // Like a newly spawned display; setup may make it non-persistent again
+            display.setPersistent(true);
+            setup.accept(display);
+            display.setVisibleByDefault(true);
+            return display;
+        }
+        return world.spawn(location, TextDisplay.class, setup);
+    }
+
+    /**
+     * Hides a display, makes it non-persistent and keeps it for reuse. Invalid displays are ignored.
+     */
+    public void release(TextDisplay display) {
+        if (!display.isValid()) return;
+        Deque<TextDisplay> spare = idle.computeIfAbsent(display.getWorld().getUID(), uid -> new ArrayDeque<>());
+        if (spare.size() >= maxIdlePerWorld) { display.remove(); return; }
+        display.setVisibleByDefault(false);
+        display.setPersistent(false);
+        spare.push(display);
+    }
+
+    public int getIdleCount(World world) {
+        Deque<TextDisplay> spare = idle.get(world.getUID());
+        return spare == null ? 0 : spare.size();
+    }
+
+    /**
+     * Removes every spare display from the world, e.g. when the plugin disables.
+     */
+    public void clear() {
+        for (Deque<TextDisplay> spare : idle.values()) {
+            for (TextDisplay d : spare) { if (d.isValid()) d.remove(); }
+        }
+        idle.clear();
+    }
+
+    /**
+     * Removes the spare displays parked in an unloading chunk. Runs last, so displays
+     * returned by other listeners of the same event (e.g. {@link DeferredShapeSpawner}) go too.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        Chunk chunk = event.getChunk();
+        Deque<TextDisplay> spare = idle.get(chunk.getWorld().getUID());
+        if (spare == null) return;
+        for (Iterator<TextDisplay> it = spare.iterator(); it.hasNext(); ) {
+            TextDisplay d = it.next();
+            if (!d.isValid()) { it.remove(); continue; }
+            Location l = d.getLocation();
+            if (l.getBlockX() >> 4 == chunk.getX() && l.getBlockZ() >> 4 == chunk.getZ()) { d.remove(); it.remove(); }
+        }
+    }
+}
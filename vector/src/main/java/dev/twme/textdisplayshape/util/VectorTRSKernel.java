@@ -0,0 +1,375 @@
+package dev.twme.textdisplayshape.util;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD implementation of the batch TRS solvers using the JDK Vector API.
+ * <p>
+ * Each lane solves one triangle (or parallelogram): the frame (cross products,
+ * normalization, shear) and the analytic 2x2 SVD of every piece are evaluated
+ * for a whole vector of shapes at once, in single precision. Results match the
+ * scalar path within float rounding (quaternions may differ in sign).
+ * <p>
+ * This class references {@code jdk.incubator.vector} and must only be loaded
+ * when that module is present; {@link TextDisplayUtil} does so reflectively.
+ * It ships in the optional {@code textdisplayshape-vector} artifact so that
+ * the API module compiles without the incubating module.
+ * Frame values are passed between the stages through per-thread scratch arrays
+ * so that no vector crosses a method boundary.
+ */
+final class VectorTRSKernel implements BatchTRSKernel {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    // Piece coefficients {a0, a1, b0, b1, c, d, e0, e1, f}:
+    // m00 = a0*w + a1*ws, m01 = b0*w + b1*ws, m10 = c*h, m11 = d*h, tx = e0*w + e1*ws, ty = f*h
+    // (the same inner matrices as TextDisplayUtil.computeTriangleTRS / computeParallelogramTRS)
+    private static final float[][] TRIANGLE_PIECES = {
+            {4f, 0f, 0f, 2f, 0f, 2f, 0.2f, 0f, 0f},
+            {4f, 0f, -2f, 2f, 0f, 2f, 0.7f, 0f, 0f},
+            {4f, -4f, 0f, 2f, -4f, 2f, 0.2f, 0.3f, 0.3f}};
+    private static final float[] PARALLELOGRAM_PIECE = {8f, 0f, 0f, 4f, 0f, 4f, 0.4f, 0f, 0f};
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Per-thread frame values for one vector of shapes.
+     */
+    private static final class Scratch {
+        final float[] edge1X = new float[LANES];
+        final float[] edge1Y = new float[LANES];
+        final float[] edge1Z = new float[LANES];
+        final float[] edge2X = new float[LANES];
+        final float[] edge2Y = new float[LANES];
+        final float[] edge2Z = new float[LANES];
+        final float[] rx = new float[LANES];
+        final float[] ry = new float[LANES];
+        final float[] rz = new float[LANES];
+        final float[] rw = new float[LANES];
+        final float[] localX = new float[LANES];
+        final float[] localY = new float[LANES];
+        final float[] localZ = new float[LANES];
+        final float[] yAxisX = new float[LANES];
+        final float[] yAxisY = new float[LANES];
+        final float[] yAxisZ = new float[LANES];
+        final float[] originX = new float[LANES];
+        final float[] originY = new float[LANES];
+        final float[] originZ = new float[LANES];
+        final float[] width = new float[LANES];
+        final float[] height = new float[LANES];
+        final float[] shear = new float[LANES];
+        // Per-piece results, one row per TRSBuffer component
+        final float[][] out = new float[11][LANES];
+    }
+
+    VectorTRSKernel() {
+    }
+
+    @Override
+    public int solveTriangles(float[] vertices, int[] indices, int firstTriangle, int triangleCount,
+                              TRSBuffer dest, int destPiece) {
+        Scratch f = SCRATCH.get();
+        int solved = 0;
+        for (; solved + LANES <= triangleCount; solved += LANES) {
+            frame(vertices, indices, firstTriangle + solved, f);
+            int base = destPiece + solved * TextDisplayUtil.TRIANGLE_PIECE_COUNT;
+            for (int k = 0; k < TextDisplayUtil.TRIANGLE_PIECE_COUNT; k++) {
+                piece(TRIANGLE_PIECES[k], f, dest, base + k, TextDisplayUtil.TRIANGLE_PIECE_COUNT);
+            }
+        }
+        return solved;
+    }
+
+    @Override
+    public int solveParallelograms(float[] vertices, int[] indices, int first, int count,
+                                   TRSBuffer dest, int destPiece) {
+        Scratch f = SCRATCH.get();
+        int solved = 0;
+        for (; solved + LANES <= count; solved += LANES) {
+            frame(vertices, indices, first + solved, f);
+            piece(PARALLELOGRAM_PIECE, f, dest, destPiece + solved, 1);
+        }
+        return solved;
+    }
+
+    /**
+     * Gathers the vertices of {@link #LANES} shapes and computes their frames:
+     * world rotation, x/y axes, width, height and shear.
+     */
+    private static void frame(float[] vertices, int[] indices, int first, Scratch f) {
+        // Stage the vertices as contiguous lanes (a scalar gather; the indexed
+        // fromArray gather is avoided because it is miscompiled by some JDK 21 builds)
+        for (int j = 0; j < LANES; j++) {
+            int i = (first + j) * 3;
+            int a = indices[i] * 3;
+            int b = indices[i + 1] * 3;
+            int c = indices[i + 2] * 3;
+            f.originX[j] = vertices[a];
+            f.originY[j] = vertices[a + 1];
+            f.originZ[j] = vertices[a + 2];
+            f.edge1X[j] = vertices[b];
+            f.edge1Y[j] = vertices[b + 1];
+            f.edge1Z[j] = vertices[b + 2];
+            f.edge2X[j] = vertices[c];
+            f.edge2Y[j] = vertices[c + 1];
+            f.edge2Z[j] = vertices[c + 2];
+        }
+
+        FloatVector x1 = FloatVector.fromArray(SPECIES, f.originX, 0);
+        FloatVector y1 = FloatVector.fromArray(SPECIES, f.originY, 0);
+        FloatVector z1 = FloatVector.fromArray(SPECIES, f.originZ, 0);
+
+        // Edge vectors p2 - p1 and p3 - p1
+        FloatVector ax = FloatVector.fromArray(SPECIES, f.edge1X, 0).sub(x1);
+        FloatVector ay = FloatVector.fromArray(SPECIES, f.edge1Y, 0).sub(y1);
+        FloatVector az = FloatVector.fromArray(SPECIES, f.edge1Z, 0).sub(z1);
+        FloatVector bx = FloatVector.fromArray(SPECIES, f.edge2X, 0).sub(x1);
+        FloatVector by = FloatVector.fromArray(SPECIES, f.edge2Y, 0).sub(y1);
+        FloatVector bz = FloatVector.fromArray(SPECIES, f.edge2Z, 0).sub(z1);
+
+        FloatVector cx = ay.mul(bz).sub(az.mul(by));
+        FloatVector cy = az.mul(bx).sub(ax.mul(bz));
+        FloatVector cz = ax.mul(by).sub(ay.mul(bx));
+
+        // Handle collinear case
+        VectorMask<Float> collinear = cx.mul(cx).add(cy.mul(cy)).add(cz.mul(cz)).lt(1.0E-4F);
+        if (collinear.anyTrue()) {
+            bx = bx.add(0.0001f, collinear);
+            by = by.add(0.0001f, collinear);
+            bz = bz.add(0.0001f, collinear);
+            cx = ay.mul(bz).sub(az.mul(by));
+            cy = az.mul(bx).sub(ax.mul(bz));
+            cz = ax.mul(by).sub(ay.mul(bx));
+        }
+
+        FloatVector zLength = cx.mul(cx).add(cy.mul(cy)).add(cz.mul(cz)).sqrt();
+        FloatVector zx = cx.div(zLength);
+        FloatVector zy = cy.div(zLength);
+        FloatVector zz = cz.div(zLength);
+
+        FloatVector width = ax.mul(ax).add(ay.mul(ay)).add(az.mul(az)).sqrt();
+        FloatVector xx = ax.div(width);
+        FloatVector xy = ay.div(width);
+        FloatVector xz = az.div(width);
+
+        FloatVector yx = zy.mul(xz).sub(zz.mul(xy));
+        FloatVector yy = zz.mul(xx).sub(zx.mul(xz));
+        FloatVector yz = zx.mul(xy).sub(zy.mul(xx));
+        FloatVector yLength = yx.mul(yx).add(yy.mul(yy)).add(yz.mul(yz)).sqrt();
+        yx = yx.div(yLength);
+        yy = yy.div(yLength);
+        yz = yz.div(yLength);
+
+        FloatVector height = bx.mul(yx).add(by.mul(yy)).add(bz.mul(yz));
+        FloatVector p3Width = bx.mul(xx).add(by.mul(xy)).add(bz.mul(xz));
+        FloatVector shear = p3Width.div(width).blend(0f, width.compare(VectorOperators.LE, 0.001f));
+
+        // World rotation, equal to JOML's lookAlong(-zAxis, yAxis).conjugate(): it maps
+        // local X to -xAxis, Y to yAxis and Z to -zAxis. The quaternion is extracted from
+        // those matrix columns with JOML's branch selection; it may come out as the
+        // negated quaternion of the scalar path, which is the same rotation.
+        FloatVector r00 = xx.neg();
+        FloatVector r10 = xy.neg();
+        FloatVector r20 = xz.neg();
+        FloatVector r02 = zx.neg();
+        FloatVector r12 = zy.neg();
+        FloatVector r22 = zz.neg();
+        FloatVector trace = r00.add(yy).add(r22);
+        VectorMask<Float> traceBranch = trace.compare(VectorOperators.GE, 0f);
+
+        FloatVector s = trace.add(1f).sqrt();
+        FloatVector t = s.mul(2f);
+        FloatVector qw = s.mul(0.5f);
+        FloatVector qx = yz.sub(r12).div(t);
+        FloatVector qy = r02.sub(r20).div(t);
+        FloatVector qz = r10.sub(yx).div(t);
+
+        if (!traceBranch.allTrue()) {
+            VectorMask<Float> xBranch = traceBranch.not().and(r00.compare(VectorOperators.GT, yy))
+                    .and(r00.compare(VectorOperators.GT, r22));
+            VectorMask<Float> yBranch = traceBranch.not().andNot(xBranch).and(yy.compare(VectorOperators.GT, r22));
+            VectorMask<Float> zBranch = traceBranch.not().andNot(xBranch).andNot(yBranch);
+
+            s = r00.sub(yy).sub(r22).add(1f).sqrt();
+            t = s.mul(2f);
+            qx = qx.blend(s.mul(0.5f), xBranch);
+            qy = qy.blend(yx.add(r10).div(t), xBranch);
+            qz = qz.blend(r02.add(r20).div(t), xBranch);
+            qw = qw.blend(yz.sub(r12).div(t), xBranch);
+
+            s = yy.sub(r00).sub(r22).add(1f).sqrt();
+            t = s.mul(2f);
+            qx = qx.blend(yx.add(r10).div(t), yBranch);
+            qy = qy.blend(s.mul(0.5f), yBranch);
+            qz = qz.blend(r12.add(yz).div(t), yBranch);
+            qw = qw.blend(r02.sub(r20).div(t), yBranch);
+
+            s = r22.sub(r00).sub(yy).add(1f).sqrt();
+            t = s.mul(2f);
+            qx = qx.blend(r02.add(r20).div(t), zBranch);
+            qy = qy.blend(r12.add(yz).div(t), zBranch);
+            qz = qz.blend(s.mul(0.5f), zBranch);
+            qw = qw.blend(r10.sub(yx).div(t), zBranch);
+        }
+
+        qx.intoArray(f.rx, 0);
+        qy.intoArray(f.ry, 0);
+        qz.intoArray(f.rz, 0);
+        qw.intoArray(f.rw, 0);
+        r00.intoArray(f.localX, 0);
+        r10.intoArray(f.localY, 0);
+        r20.intoArray(f.localZ, 0);
+        yx.intoArray(f.yAxisX, 0);
+        yy.intoArray(f.yAxisY, 0);
+        yz.intoArray(f.yAxisZ, 0);
+        width.intoArray(f.width, 0);
+        height.intoArray(f.height, 0);
+        shear.intoArray(f.shear, 0);
+    }
+
+    /**
+     * Solves one piece of {@link #LANES} shapes from their frames and scatters the
+     * results into {@code dest}; lane {@code j} is written at piece
+     * {@code pieceBase + j * pieceStride}.
+     */
+    private static void piece(float[] c, Scratch f, TRSBuffer dest, int pieceBase, int pieceStride) {
+        float[][] out = f.out;
+        FloatVector w = FloatVector.fromArray(SPECIES, f.width, 0);
+        FloatVector h = FloatVector.fromArray(SPECIES, f.height, 0);
+        FloatVector ws = w.mul(FloatVector.fromArray(SPECIES, f.shear, 0));
+
+        FloatVector m00 = w.mul(c[0]).add(ws.mul(c[1]));
+        FloatVector m01 = w.mul(c[2]).add(ws.mul(c[3]));
+        FloatVector m10 = h.mul(c[4]);
+        FloatVector m11 = h.mul(c[5]);
+        FloatVector tx = w.mul(c[6]).add(ws.mul(c[7]));
+        FloatVector ty = h.mul(c[8]);
+
+        // World translation = origin + rotation * (tx, ty, 0), using the rotated local X and Y axes
+        FloatVector.fromArray(SPECIES, f.originX, 0)
+                .add(tx.mul(FloatVector.fromArray(SPECIES, f.localX, 0)))
+                .add(ty.mul(FloatVector.fromArray(SPECIES, f.yAxisX, 0)))
+                .intoArray(out[0], 0);
+        FloatVector.fromArray(SPECIES, f.originY, 0)
+                .add(tx.mul(FloatVector.fromArray(SPECIES, f.localY, 0)))
+                .add(ty.mul(FloatVector.fromArray(SPECIES, f.yAxisY, 0)))
+                .intoArray(out[1], 0);
+        FloatVector.fromArray(SPECIES, f.originZ, 0)
+                .add(tx.mul(FloatVector.fromArray(SPECIES, f.localZ, 0)))
+                .add(ty.mul(FloatVector.fromArray(SPECIES, f.yAxisZ, 0)))
+                .intoArray(out[2], 0);
+
+        // Analytical 2x2 SVD: M = U * Sigma * V^T
+        FloatVector ata00 = m00.mul(m00).add(m10.mul(m10));
+        FloatVector ata01 = m00.mul(m01).add(m10.mul(m11));
+        FloatVector ata11 = m01.mul(m01).add(m11.mul(m11));
+        FloatVector diff = ata00.sub(ata11);
+
+        // (tr^2 - 4 det^2) written as diff^2 + 4 ata01^2 to avoid cancellation in float
+        FloatVector disc = diff.mul(diff).add(ata01.mul(ata01).mul(4f)).sqrt();
+        FloatVector sigma1 = ata00.add(ata11).add(disc).mul(0.5f).sqrt();
+        FloatVector detM = m00.mul(m11).sub(m01.mul(m10));
+        VectorMask<Float> sigma1Valid = sigma1.compare(VectorOperators.GT, 1e-10f);
+        FloatVector sigma2 = detM.abs().div(sigma1).blend(0f, sigma1Valid.not());
+        VectorMask<Float> sigma2Valid = sigma2.compare(VectorOperators.GT, 1e-10f);
+
+        // V rotation angle theta = 0.5 * atan2(2 * ata01, diff), via half-angle identities
+        VectorMask<Float> isotropic = disc.compare(VectorOperators.LE, 1e-20f);
+        FloatVector cos2 = diff.div(disc).blend(1f, isotropic);
+        FloatVector cosV = cos2.add(1f).mul(0.5f).max(0f).sqrt();
+        FloatVector sinV = cos2.neg().add(1f).mul(0.5f).max(0f).sqrt().blend(0f, isotropic);
+        sinV = sinV.blend(sinV.neg(), ata01.compare(VectorOperators.LT, 0f));
+
+        // U = M * V * Sigma^{-1}
+        FloatVector u00 = m00.mul(cosV).add(m01.mul(sinV)).div(sigma1).blend(1f, sigma1Valid.not());
+        FloatVector u10 = m10.mul(cosV).add(m11.mul(sinV)).div(sigma1).blend(0f, sigma1Valid.not());
+        FloatVector u01 = m01.mul(cosV).sub(m00.mul(sinV)).div(sigma2).blend(0f, sigma2Valid.not());
+        FloatVector u11 = m11.mul(cosV).sub(m10.mul(sinV)).div(sigma2).blend(1f, sigma2Valid.not());
+
+        // Ensure U is a proper rotation (det = +1)
+        VectorMask<Float> reflected = u00.mul(u11).sub(u01.mul(u10)).lt(0f);
+        u01 = u01.blend(u01.neg(), reflected);
+        u11 = u11.blend(u11.neg(), reflected);
+        sigma2 = sigma2.blend(sigma2.neg(), reflected);
+
+        // U as a rotation about Z (same branches as JOML's setFromNormalized)
+        FloatVector uTrace = u00.add(u11).add(1f);
+        VectorMask<Float> uTraceBranch = uTrace.compare(VectorOperators.GE, 0f);
+        FloatVector uS = uTrace.add(1f).blend(u00.add(u11).neg().add(2f), uTraceBranch.not()).sqrt();
+        FloatVector uOff = u10.sub(u01).mul(0.5f).div(uS);
+        FloatVector uHalf = uS.mul(0.5f);
+        FloatVector uz = uOff.blend(uHalf, uTraceBranch.not());
+        FloatVector uw = uHalf.blend(uOff, uTraceBranch.not());
+        FloatVector uLength = uz.mul(uz).add(uw.mul(uw)).sqrt();
+        uz = uz.div(uLength);
+        uw = uw.div(uLength);
+
+        // leftRotation = worldRotation * U
+        FloatVector rx = FloatVector.fromArray(SPECIES, f.rx, 0);
+        FloatVector ry = FloatVector.fromArray(SPECIES, f.ry, 0);
+        FloatVector rz = FloatVector.fromArray(SPECIES, f.rz, 0);
+        FloatVector rw = FloatVector.fromArray(SPECIES, f.rw, 0);
+        FloatVector lx = rx.mul(uw).add(ry.mul(uz));
+        FloatVector ly = ry.mul(uw).sub(rx.mul(uz));
+        FloatVector lz = rz.mul(uw).add(rw.mul(uz));
+        FloatVector lw = rw.mul(uw).sub(rz.mul(uz));
+        FloatVector lLength = lx.mul(lx).add(ly.mul(ly)).add(lz.mul(lz)).add(lw.mul(lw)).sqrt();
+        lx = lx.div(lLength);
+        ly = ly.div(lLength);
+        lz = lz.div(lLength);
+        lw = lw.div(lLength);
+
+        // rightRotation = V^T, a rotation about Z by -theta
+        FloatVector vS = cosV.mul(2f).add(2f).sqrt();
+        FloatVector vz = sinV.neg().div(vS);
+        FloatVector vw = vS.mul(0.5f);
+        FloatVector vLength = vz.mul(vz).add(vw.mul(vw)).sqrt();
+        vz = vz.div(vLength);
+        vw = vw.div(vLength);
+
+        // Already diagonal lanes: leftRotation = worldRotation, scale = diagonal, no rightRotation
+        VectorMask<Float> diagonal = m01.abs().lt(1e-6f).and(m10.abs().lt(1e-6f));
+        lx = lx.blend(rx, diagonal);
+        ly = ly.blend(ry, diagonal);
+        lz = lz.blend(rz, diagonal);
+        lw = lw.blend(rw, diagonal);
+        vz = vz.blend(0f, diagonal);
+        vw = vw.blend(1f, diagonal);
+        sigma1 = sigma1.blend(m00, diagonal);
+        sigma2 = sigma2.blend(m11, diagonal);
+
+        lx.intoArray(out[3], 0);
+        ly.intoArray(out[4], 0);
+        lz.intoArray(out[5], 0);
+        lw.intoArray(out[6], 0);
+        sigma1.intoArray(out[7], 0);
+        sigma2.intoArray(out[8], 0);
+        vz.intoArray(out[9], 0);
+        vw.intoArray(out[10], 0);
+
+        // Scalar scatter into the interleaved buffer (see frame for why no vector scatter)
+        for (int j = 0; j < LANES; j++) {
+            int piece = pieceBase + j * pieceStride;
+            int t = piece * 3;
+            int r = piece * 4;
+            dest.translations[t] = out[0][j];
+            dest.translations[t + 1] = out[1][j];
+            dest.translations[t + 2] = out[2][j];
+            dest.leftRotations[r] = out[3][j];
+            dest.leftRotations[r + 1] = out[4][j];
+            dest.leftRotations[r + 2] = out[5][j];
+            dest.leftRotations[r + 3] = out[6][j];
+            dest.scales[t] = out[7][j];
+            dest.scales[t + 1] = out[8][j];
+            dest.scales[t + 2] = 1f;
+            dest.rightRotations[r] = 0f;
+            dest.rightRotations[r + 1] = 0f;
+            dest.rightRotations[r + 2] = out[9][j];
+            dest.rightRotations[r + 3] = out[10][j];
+        }
+    }
+}
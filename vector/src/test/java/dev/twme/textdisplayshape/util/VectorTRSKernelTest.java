@@ -0,0 +1,130 @@
+package dev.twme.textdisplayshape.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+class VectorTRSKernelTest {
+
+    private static final float TOLERANCE = 1e-3f;
+
+    private static final int VERTEX_COUNT = 200;
+    private static final int TRIANGLE_COUNT = 501;
+
+    @Test
+    void kernelIsLoaded() {
+        assertTrue(TextDisplayUtil.isVectorAccelerated());
+    }
+
+    @Test
+    void trianglesMatchScalar() {
+        Random random = new Random(20);
+        float[] vertices = randomVertices(random);
+        int[] indices = randomIndices(random);
+
+        TRSBuffer buffer = TRSBuffer.forTriangles(TRIANGLE_COUNT);
+        int solved = new VectorTRSKernel().solveTriangles(vertices, indices, 0, TRIANGLE_COUNT, buffer, 0);
+        assertTrue(solved > 0 && solved <= TRIANGLE_COUNT);
+
+        for (int t = 0; t < solved; t++) {
+            List<TRSResult> expected = TextDisplayUtil.computeTriangleTRS(
+                    vertex(vertices, indices[t * 3]),
+                    vertex(vertices, indices[t * 3 + 1]),
+                    vertex(vertices, indices[t * 3 + 2]));
+            for (int k = 0; k < TextDisplayUtil.TRIANGLE_PIECE_COUNT; k++) {
+                assertSameTransform(expected.get(k), buffer.get(t * TextDisplayUtil.TRIANGLE_PIECE_COUNT + k));
+            }
+        }
+    }
+
+    @Test
+    void parallelogramsMatchScalar() {
+        Random random = new Random(21);
+        float[] vertices = randomVertices(random);
+        int[] indices = randomIndices(random);
+
+        TRSBuffer buffer = new TRSBuffer(TRIANGLE_COUNT);
+        int solved = new VectorTRSKernel().solveParallelograms(vertices, indices, 0, TRIANGLE_COUNT, buffer, 0);
+        assertTrue(solved > 0 && solved <= TRIANGLE_COUNT);
+
+        for (int p = 0; p < solved; p++) {
+            TRSResult expected = TextDisplayUtil.computeParallelogramTRS(
+                    vertex(vertices, indices[p * 3]),
+                    vertex(vertices, indices[p * 3 + 1]),
+                    vertex(vertices, indices[p * 3 + 2]));
+            assertSameTransform(expected, buffer.get(p));
+        }
+    }
+
+    @Test
+    void batchSolverFinishesTailWithScalarPath() {
+        Random random = new Random(22);
+        float[] vertices = randomVertices(random);
+        int[] indices = randomIndices(random);
+
+        TRSBuffer buffer = TRSBuffer.forTriangles(TRIANGLE_COUNT);
+        assertEquals(indices.length, TextDisplayUtil.computeTriangleTRS(vertices, indices, buffer));
+
+        int last = TRIANGLE_COUNT - 1;
+        List<TRSResult> expected = TextDisplayUtil.computeTriangleTRS(
+                vertex(vertices, indices[last * 3]),
+                vertex(vertices, indices[last * 3 + 1]),
+                vertex(vertices, indices[last * 3 + 2]));
+        for (int k = 0; k < TextDisplayUtil.TRIANGLE_PIECE_COUNT; k++) {
+            assertSameTransform(expected.get(k), buffer.get(last * TextDisplayUtil.TRIANGLE_PIECE_COUNT + k));
+        }
+    }
+
+    private static float[] randomVertices(Random random) {
+        float[] vertices = new float[VERTEX_COUNT * 3];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = random.nextFloat() * 20f - 10f;
+        }
+        return vertices;
+    }
+
+    private static int[] randomIndices(Random random) {
+        int[] indices = new int[TRIANGLE_COUNT * 3];
+        for (int i = 0; i < indices.length; i += 3) {
+            // Three distinct vertices per triangle
+            indices[i] = random.nextInt(VERTEX_COUNT);
+            indices[i + 1] = (indices[i] + 1 + random.nextInt(VERTEX_COUNT - 1)) % VERTEX_COUNT;
+            do {
+                indices[i + 2] = random.nextInt(VERTEX_COUNT);
+            } while (indices[i + 2] == indices[i] || indices[i + 2] == indices[i + 1]);
+        }
+        return indices;
+    }
+
+    private static Vector3f vertex(float[] vertices, int index) {
+        return new Vector3f(vertices[index * 3], vertices[index * 3 + 1], vertices[index * 3 + 2]);
+    }
+
+    /**
+     * Compares two results by the transform they describe, since the kernel may
+     * return negated quaternions or a differently ordered SVD.
+     */
+    private static void assertSameTransform(TRSResult expected, TRSResult actual) {
+        Matrix4f e = toMatrix(expected);
+        Matrix4f a = toMatrix(actual);
+        float scale = 1f;
+        for (float value : e.get(new float[16])) {
+            scale = Math.max(scale, Math.abs(value));
+        }
+        assertTrue(e.equals(a, TOLERANCE * scale), () -> "expected\n" + e + "but was\n" + a);
+    }
+
+    private static Matrix4f toMatrix(TRSResult trs) {
+        return new Matrix4f()
+                .translation(trs.translation())
+                .rotate(trs.leftRotation())
+                .scale(trs.scale())
+                .rotate(trs.rightRotation());
+    }
+}